@@ -0,0 +1,50 @@
+package com.descope.units.cache;
+
+import jakarta.ws.rs.core.EntityTag;
+
+/**
+ * An encoded response body ready to be written as-is, with its entity tag.
+ *
+ * <p>The body array is shared by every request that hits the entry and must not be modified.
+ */
+public final class CachedResponse {
+
+  private final byte[] body;
+  private final EntityTag entityTag;
+  private final long sizeBytes;
+  private final long storedAtNanos;
+  volatile boolean referenced = true;
+
+  CachedResponse(byte[] body, EntityTag entityTag, long sizeBytes, long storedAtNanos) {
+    this.body = body;
+    this.entityTag = entityTag;
+    this.sizeBytes = sizeBytes;
+    this.storedAtNanos = storedAtNanos;
+  }
+
+  /**
+   * Returns the encoded body.
+   *
+   * @return the body bytes, shared and not to be modified
+   */
+  public byte[] getBody() {
+    return body;
+  }
+
+  /**
+   * Returns the strong entity tag of the body.
+   *
+   * @return the entity tag
+   */
+  public EntityTag getEntityTag() {
+    return entityTag;
+  }
+
+  long sizeBytes() {
+    return sizeBytes;
+  }
+
+  long storedAtNanos() {
+    return storedAtNanos;
+  }
+}
@@ -0,0 +1,169 @@
+package com.descope.units.cache;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+
+import com.descope.units.dto.UnitResponse;
+import com.descope.units.exception.UnitNotFoundException;
+import com.descope.units.hotkeys.HotKeyTracker;
+import com.descope.units.model.Unit;
+import com.descope.units.service.UnitService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads encoded unit responses through the {@link ResponseCache}.
+ *
+ * <p>A fresh entry is served as-is. An entry within the stale-while-revalidate window is served at
+ * once while a single background refresh per id re-reads the unit. On a miss or an older entry the
+ * unit is read inline; if that read fails with anything but not-found, for example DynamoDB
+ * throttling or a timeout, an entry within the stale-if-error window is served instead of the
+ * error. A not-found drops the entry, since another instance deleted the unit.
+ *
+ * <p>Every read is counted by the {@link HotKeyTracker} before the cache is consulted, so a unit
+ * served from the cache still shows up as hot; background refreshes are not counted.
+ */
+@ApplicationScoped
+public class CachedUnitReader {
+
+  private static final Logger logger = LoggerFactory.getLogger(CachedUnitReader.class);
+
+  private static final int REFRESH_QUEUE_CAPACITY = 1024;
+
+  private final UnitService unitService;
+  private final ResponseCache responseCache;
+  private final HotKeyTracker hotKeyTracker;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService refreshExecutor;
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Constructs a CachedUnitReader.
+   *
+   * @param unitService the unit service
+   * @param responseCache the cache of encoded unit responses
+   * @param hotKeyTracker the tracker counting reads per unit id
+   * @param objectMapper the mapper used to encode responses
+   * @param refreshThreads the number of threads refreshing stale entries
+   */
+  @Inject
+  public CachedUnitReader(
+      UnitService unitService,
+      ResponseCache responseCache,
+      HotKeyTracker hotKeyTracker,
+      ObjectMapper objectMapper,
+      @ConfigProperty(name = "units.response-cache.refresh-threads", defaultValue = "2")
+          int refreshThreads) {
+    this.unitService = unitService;
+    this.responseCache = responseCache;
+    this.hotKeyTracker = hotKeyTracker;
+    this.objectMapper = objectMapper;
+    this.refreshExecutor =
+        new ThreadPoolExecutor(
+            refreshThreads,
+            refreshThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY),
+            runnable -> {
+              Thread thread = new Thread(runnable, "response-cache-refresh");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Returns the encoded JSON response for a unit.
+   *
+   * @param id the unit identifier
+   * @return the response and its freshness
+   * @throws UnitNotFoundException if the unit is not found
+   */
+  public UnitRead read(String id) {
+    hotKeyTracker.recordRead(id);
+    CachedResponse cached = responseCache.get(id, MediaType.APPLICATION_JSON);
+    Freshness freshness = cached == null ? null : responseCache.freshness(cached);
+    if (freshness == Freshness.FRESH) {
+      return new UnitRead(cached, Freshness.FRESH, 0);
+    }
+    if (freshness == Freshness.STALE) {
+      refreshInBackground(id);
+      responseCache.recordStaleServed(Freshness.STALE);
+      return new UnitRead(cached, Freshness.STALE, responseCache.ageSeconds(cached));
+    }
+
+    try {
+      return new UnitRead(load(id), Freshness.FRESH, 0);
+    } catch (UnitNotFoundException e) {
+      if (cached != null) {
+        responseCache.invalidate(id);
+      }
+      throw e;
+    } catch (RuntimeException e) {
+      if (cached == null) {
+        throw e;
+      }
+      logger.debug("Serving stale response for unit {} after read failure", id, e);
+      responseCache.recordStaleServed(Freshness.STALE_IF_ERROR);
+      return new UnitRead(cached, Freshness.STALE_IF_ERROR, responseCache.ageSeconds(cached));
+    }
+  }
+
+  private CachedResponse load(String id) {
+    long token = responseCache.loadToken(id);
+    Unit unit = unitService.loadUnitById(id);
+    return responseCache.put(id, MediaType.APPLICATION_JSON, encode(unit), token);
+  }
+
+  private void refreshInBackground(String id) {
+    if (!refreshing.add(id)) {
+      return;
+    }
+    try {
+      refreshExecutor.execute(() -> refresh(id));
+    } catch (RejectedExecutionException e) {
+      // Queue full: a later read of the stale entry will try again
+      refreshing.remove(id);
+    }
+  }
+
+  private void refresh(String id) {
+    try {
+      load(id);
+    } catch (UnitNotFoundException e) {
+      responseCache.invalidate(id);
+    } catch (RuntimeException e) {
+      responseCache.recordRefreshFailure();
+      logger.debug("Background refresh of unit {} failed", id, e);
+    } finally {
+      refreshing.remove(id);
+    }
+  }
+
+  private byte[] encode(Unit unit) {
+    try {
+      return objectMapper.writeValueAsBytes(UnitResponse.fromDomain(unit));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to encode unit " + unit.getId(), e);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    refreshExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,11 @@
+package com.descope.units.cache;
+
+/** How a cached response may be used, by its age. */
+public enum Freshness {
+  /** Younger than the TTL; served as-is. */
+  FRESH,
+  /** Past the TTL but within the stale-while-revalidate window; served while a refresh runs. */
+  STALE,
+  /** Past the stale-while-revalidate window; served only if reading the unit fails. */
+  STALE_IF_ERROR
+}
@@ -0,0 +1,264 @@
+package com.descope.units.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal client for stores speaking the Redis serialization protocol (RESP2), such as Redis,
+ * Valkey or ElastiCache.
+ *
+ * <p>All callers share one connection and never wait for each other's replies: commands are written
+ * back to back as they arrive and a reader thread completes their futures in order as the replies
+ * come in. A batch passed to {@link #pipeline} is written with a single flush. A caller that stops
+ * waiting leaves its future to be completed and discarded, so the order stays intact.
+ *
+ * <p>When the connection fails, every outstanding command fails with it and the next command opens
+ * a new connection.
+ */
+final class RespClient implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(RespClient.class);
+
+  private static final byte[] CRLF = {'\r', '\n'};
+
+  private final InetSocketAddress address;
+  private final int connectTimeoutMillis;
+  private final Object writeLock = new Object();
+
+  // Guarded by writeLock
+  private Connection connection;
+  private boolean closed;
+
+  RespClient(String host, int port, int connectTimeoutMillis) {
+    this.address = InetSocketAddress.createUnresolved(host, port);
+    this.connectTimeoutMillis = connectTimeoutMillis;
+  }
+
+  /**
+   * Sends one command.
+   *
+   * @param arguments the command name and its arguments
+   * @return a future completed with the reply
+   */
+  CompletableFuture<Object> send(byte[]... arguments) {
+    return pipeline(Collections.singletonList(arguments)).get(0);
+  }
+
+  /**
+   * Sends several commands in one write.
+   *
+   * <p>Replies are a {@code byte[]} for bulk strings, a {@link String} for simple strings, a {@link
+   * Long} for integers, a {@link List} for arrays and null for nil. An error reply fails its future
+   * with a {@link RespException}.
+   *
+   * @param commands each command's name and arguments
+   * @return a future per command, in the same order
+   */
+  List<CompletableFuture<Object>> pipeline(List<byte[][]> commands) {
+    List<CompletableFuture<Object>> replies = new ArrayList<>(commands.size());
+    for (int i = 0; i < commands.size(); i++) {
+      replies.add(new CompletableFuture<>());
+    }
+    synchronized (writeLock) {
+      Connection current;
+      try {
+        current = connection();
+        for (int i = 0; i < commands.size(); i++) {
+          current.pending.add(replies.get(i));
+          write(current.out, commands.get(i));
+        }
+        current.out.flush();
+      } catch (IOException e) {
+        failAll(replies, e);
+        if (connection != null) {
+          connection.fail(e);
+        }
+        return replies;
+      }
+    }
+    return replies;
+  }
+
+  @Override
+  public void close() {
+    synchronized (writeLock) {
+      closed = true;
+      if (connection != null) {
+        connection.fail(new IOException("Client closed"));
+      }
+    }
+  }
+
+  private Connection connection() throws IOException {
+    if (closed) {
+      throw new IOException("Client closed");
+    }
+    if (connection == null || connection.broken) {
+      Socket socket = new Socket();
+      try {
+        socket.setTcpNoDelay(true);
+        socket.connect(
+            new InetSocketAddress(address.getHostString(), address.getPort()),
+            connectTimeoutMillis);
+      } catch (IOException e) {
+        socket.close();
+        throw e;
+      }
+      connection = new Connection(socket);
+      logger.debug("Connected to {}", address);
+    }
+    return connection;
+  }
+
+  private static void write(OutputStream out, byte[][] command) throws IOException {
+    out.write('*');
+    out.write(ascii(command.length));
+    out.write(CRLF);
+    for (byte[] argument : command) {
+      out.write('$');
+      out.write(ascii(argument.length));
+      out.write(CRLF);
+      out.write(argument);
+      out.write(CRLF);
+    }
+  }
+
+  private static byte[] ascii(long value) {
+    return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static void failAll(List<CompletableFuture<Object>> replies, IOException cause) {
+    for (CompletableFuture<Object> reply : replies) {
+      reply.completeExceptionally(cause);
+    }
+  }
+
+  /** Reads one reply; error replies are returned as {@link RespException}. */
+  static Object read(InputStream in) throws IOException {
+    int type = in.read();
+    switch (type) {
+      case '+':
+        return readLine(in);
+      case '-':
+        return new RespException(readLine(in));
+      case ':':
+        return Long.parseLong(readLine(in));
+      case '$':
+        int length = Integer.parseInt(readLine(in));
+        if (length < 0) {
+          return null;
+        }
+        byte[] bulk = in.readNBytes(length);
+        if (bulk.length < length || in.read() != '\r' || in.read() != '\n') {
+          throw new EOFException("Truncated bulk reply");
+        }
+        return bulk;
+      case '*':
+        int count = Integer.parseInt(readLine(in));
+        if (count < 0) {
+          return null;
+        }
+        List<Object> elements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+          elements.add(read(in));
+        }
+        return elements;
+      case -1:
+        throw new EOFException("Connection closed by server");
+      default:
+        throw new IOException("Unexpected reply type " + (char) type);
+    }
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    StringBuilder line = new StringBuilder();
+    for (int b = in.read(); b != '\r'; b = in.read()) {
+      if (b == -1) {
+        throw new EOFException("Connection closed by server");
+      }
+      line.append((char) b);
+    }
+    if (in.read() != '\n') {
+      throw new IOException("Malformed reply line");
+    }
+    return line.toString();
+  }
+
+  /** An error reply from the server. */
+  static final class RespException extends RuntimeException {
+
+    RespException(String message) {
+      super(message, null, false, false);
+    }
+  }
+
+  private static final class Connection {
+
+    private final Socket socket;
+    private final OutputStream out;
+    private final Queue<CompletableFuture<Object>> pending = new ConcurrentLinkedQueue<>();
+    private volatile boolean broken;
+
+    private Connection(Socket socket) throws IOException {
+      this.socket = socket;
+      this.out = new BufferedOutputStream(socket.getOutputStream());
+      InputStream in = new BufferedInputStream(socket.getInputStream());
+      Thread reader = new Thread(() -> readLoop(in), "resp-reader");
+      reader.setDaemon(true);
+      reader.start();
+    }
+
+    private void readLoop(InputStream in) {
+      try {
+        while (!broken) {
+          Object reply = read(in);
+          CompletableFuture<Object> future = pending.poll();
+          if (future == null) {
+            throw new IOException("Reply without a pending command");
+          }
+          if (reply instanceof RespException) {
+            future.completeExceptionally((RespException) reply);
+          } else {
+            future.complete(reply);
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        fail(e);
+      }
+    }
+
+    private void fail(Exception cause) {
+      if (!broken) {
+        broken = true;
+        logger.debug("Connection to cache failed: {}", cause.toString());
+      }
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // Already failing
+      }
+      for (CompletableFuture<Object> future = pending.poll();
+          future != null;
+          future = pending.poll()) {
+        future.completeExceptionally(cause);
+      }
+    }
+  }
+}
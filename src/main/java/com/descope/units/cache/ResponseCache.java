@@ -0,0 +1,328 @@
+package com.descope.units.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+
+import com.descope.units.jfr.CacheLookupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Cache of encoded unit responses, keyed by unit id and content type.
+ *
+ * <p>A hit hands back the exact bytes to write plus their entity tag, so a hot {@code GET} skips
+ * the domain-to-DTO mapping and JSON encoding. The cache is bounded by the accounted size of its
+ * entries in bytes rather than by entry count. When over budget, entries are evicted in CLOCK
+ * order: an entry read since the last sweep gets a second chance.
+ *
+ * <p>Writes invalidate through {@link com.descope.units.service.UnitService}. To stop a read that
+ * raced a write from caching the old body, a reader takes a {@link #loadToken} before reading the
+ * unit and passes it to {@link #put}; the put is dropped if the id was invalidated in between.
+ * Entries also expire after a TTL, which bounds staleness from writes made by other instances.
+ *
+ * <p>An expired entry is kept for the longer of the stale-while-revalidate and stale-if-error
+ * windows. {@link #freshness} tells the reader how it may still be used; see {@link
+ * CachedUnitReader}.
+ */
+@ApplicationScoped
+public class ResponseCache {
+
+  /** Approximate heap cost of an entry beyond its body: map node, key and holder objects. */
+  static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  private static final int STRIPES = 1024;
+
+  private final boolean enabled;
+  private final long maxBytes;
+  private final long ttlNanos;
+  private final long staleWhileRevalidateNanos;
+  private final long retentionNanos;
+  private final LongSupplier nanoClock;
+  private final Map<String, Map<String, CachedResponse>> byMediaType = new ConcurrentHashMap<>();
+  private final AtomicLongArray stripeVersions = new AtomicLongArray(STRIPES);
+  private final AtomicLong bytes = new AtomicLong();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+  private final LongAdder racedPuts = new LongAdder();
+  private final LongAdder staleServed = new LongAdder();
+  private final LongAdder staleIfErrorServed = new LongAdder();
+  private final LongAdder refreshFailures = new LongAdder();
+
+  /**
+   * Constructs a ResponseCache from configuration.
+   *
+   * @param enabled whether responses are cached
+   * @param maxMegabytes the byte budget, in MiB
+   * @param ttlSeconds how long an entry is served before it is re-read
+   * @param staleWhileRevalidateSeconds how long past the TTL an entry is served while refreshing
+   * @param staleIfErrorSeconds how long past the TTL an entry is served when reading fails
+   */
+  @Inject
+  public ResponseCache(
+      @ConfigProperty(name = "units.response-cache.enabled", defaultValue = "false")
+          boolean enabled,
+      @ConfigProperty(name = "units.response-cache.max-megabytes", defaultValue = "64")
+          long maxMegabytes,
+      @ConfigProperty(name = "units.response-cache.ttl-seconds", defaultValue = "10")
+          long ttlSeconds,
+      @ConfigProperty(
+              name = "units.response-cache.stale-while-revalidate-seconds",
+              defaultValue = "30")
+          long staleWhileRevalidateSeconds,
+      @ConfigProperty(name = "units.response-cache.stale-if-error-seconds", defaultValue = "300")
+          long staleIfErrorSeconds) {
+    this(
+        enabled,
+        maxMegabytes * 1024 * 1024,
+        TimeUnit.SECONDS.toNanos(ttlSeconds),
+        TimeUnit.SECONDS.toNanos(staleWhileRevalidateSeconds),
+        TimeUnit.SECONDS.toNanos(staleIfErrorSeconds),
+        System::nanoTime);
+  }
+
+  ResponseCache(
+      boolean enabled,
+      long maxBytes,
+      long ttlNanos,
+      long staleWhileRevalidateNanos,
+      long staleIfErrorNanos,
+      LongSupplier nanoClock) {
+    if (maxBytes <= 0 || ttlNanos <= 0) {
+      throw new IllegalArgumentException("Response cache size and TTL must be positive");
+    }
+    if (staleWhileRevalidateNanos < 0 || staleIfErrorNanos < 0) {
+      throw new IllegalArgumentException("Response cache stale windows must not be negative");
+    }
+    this.enabled = enabled;
+    this.maxBytes = maxBytes;
+    this.ttlNanos = ttlNanos;
+    this.staleWhileRevalidateNanos = staleWhileRevalidateNanos;
+    this.retentionNanos = ttlNanos + Math.max(staleWhileRevalidateNanos, staleIfErrorNanos);
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Returns whether responses are cached.
+   *
+   * @return true if the cache is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Looks up the encoded response for a unit.
+   *
+   * @param id the unit id
+   * @param mediaType the content type of the encoding
+   * @return the cached response, fresh or stale; null if there is none within the stale windows
+   */
+  public CachedResponse get(String id, String mediaType) {
+    Map<String, CachedResponse> entries = enabled ? byMediaType.get(mediaType) : null;
+    CachedResponse cached = entries == null ? null : entries.get(id);
+    if (cached == null) {
+      misses.increment();
+      CacheLookupEvent.record("response", id, "miss");
+      return null;
+    }
+    long age = nanoClock.getAsLong() - cached.storedAtNanos();
+    if (age >= retentionNanos) {
+      if (entries.remove(id, cached)) {
+        bytes.addAndGet(-cached.sizeBytes());
+      }
+      misses.increment();
+      CacheLookupEvent.record("response", id, "miss");
+      return null;
+    }
+    cached.referenced = true;
+    if (age < ttlNanos) {
+      hits.increment();
+      CacheLookupEvent.record("response", id, "hit");
+    } else {
+      misses.increment();
+      CacheLookupEvent.record("response", id, "stale");
+    }
+    return cached;
+  }
+
+  /**
+   * Returns how a cached response may be used, by its age.
+   *
+   * @param cached a response returned by {@link #get}
+   * @return the freshness of the response
+   */
+  public Freshness freshness(CachedResponse cached) {
+    long age = nanoClock.getAsLong() - cached.storedAtNanos();
+    if (age < ttlNanos) {
+      return Freshness.FRESH;
+    }
+    return age < ttlNanos + staleWhileRevalidateNanos ? Freshness.STALE : Freshness.STALE_IF_ERROR;
+  }
+
+  /**
+   * Returns the time since a response was encoded, for the {@code Age} header.
+   *
+   * @param cached a cached response
+   * @return the age in whole seconds
+   */
+  public long ageSeconds(CachedResponse cached) {
+    return TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong() - cached.storedAtNanos());
+  }
+
+  /**
+   * Returns a token to pass to {@link #put} for a unit about to be read from the data store.
+   *
+   * @param id the unit id
+   * @return the token
+   */
+  public long loadToken(String id) {
+    return stripeVersions.get(stripe(id));
+  }
+
+  /**
+   * Wraps an encoded body with its entity tag and caches it, unless the id was invalidated since
+   * the token was taken.
+   *
+   * @param id the unit id
+   * @param mediaType the content type of the encoding
+   * @param body the encoded body
+   * @param token the token taken before the unit was read
+   * @return the response to write, whether or not it was cached
+   */
+  public CachedResponse put(String id, String mediaType, byte[] body, long token) {
+    long size = body.length + 2L * id.length() + ENTRY_OVERHEAD_BYTES;
+    CachedResponse response =
+        new CachedResponse(body, entityTag(body), size, nanoClock.getAsLong());
+    if (!enabled || size > maxBytes) {
+      return response;
+    }
+    int stripe = stripe(id);
+    if (stripeVersions.get(stripe) != token) {
+      racedPuts.increment();
+      return response;
+    }
+    Map<String, CachedResponse> entries =
+        byMediaType.computeIfAbsent(mediaType, type -> new ConcurrentHashMap<>());
+    CachedResponse previous = entries.put(id, response);
+    bytes.addAndGet(size - (previous == null ? 0 : previous.sizeBytes()));
+    // An invalidation that slipped in between the check and the put must still win
+    if (stripeVersions.get(stripe) != token && entries.remove(id, response)) {
+      bytes.addAndGet(-size);
+      racedPuts.increment();
+    }
+    if (bytes.get() > maxBytes) {
+      evict(response);
+    }
+    return response;
+  }
+
+  /**
+   * Drops every cached encoding of a unit. Called after the unit is updated or deleted.
+   *
+   * @param id the unit id
+   */
+  public void invalidate(String id) {
+    if (!enabled) {
+      return;
+    }
+    stripeVersions.incrementAndGet(stripe(id));
+    for (Map<String, CachedResponse> entries : byMediaType.values()) {
+      CachedResponse removed = entries.remove(id);
+      if (removed != null) {
+        bytes.addAndGet(-removed.sizeBytes());
+      }
+    }
+    invalidations.increment();
+  }
+
+  /**
+   * Returns a snapshot of the cache's size and counters.
+   *
+   * @return the cache statistics
+   */
+  public ResponseCacheStats stats() {
+    long entries = 0;
+    for (Map<String, CachedResponse> byId : byMediaType.values()) {
+      entries += byId.size();
+    }
+    return new ResponseCacheStats(
+        enabled,
+        entries,
+        bytes.get(),
+        maxBytes,
+        hits.sum(),
+        misses.sum(),
+        evictions.sum(),
+        invalidations.sum(),
+        racedPuts.sum(),
+        staleServed.sum(),
+        staleIfErrorServed.sum(),
+        refreshFailures.sum());
+  }
+
+  void recordStaleServed(Freshness freshness) {
+    (freshness == Freshness.STALE ? staleServed : staleIfErrorServed).increment();
+  }
+
+  void recordRefreshFailure() {
+    refreshFailures.increment();
+  }
+
+  /** Sweeps entries in CLOCK order, sparing the one just added, until back under budget. */
+  private void evict(CachedResponse added) {
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      long now = nanoClock.getAsLong();
+      // The first pass clears reference bits, so the second always finds victims
+      for (int pass = 0; pass < 2 && bytes.get() > maxBytes; pass++) {
+        for (Map<String, CachedResponse> entries : byMediaType.values()) {
+          Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+          while (it.hasNext() && bytes.get() > maxBytes) {
+            Map.Entry<String, CachedResponse> entry = it.next();
+            CachedResponse cached = entry.getValue();
+            boolean expired = now - cached.storedAtNanos() >= retentionNanos;
+            if (cached == added || (cached.referenced && !expired)) {
+              cached.referenced = false;
+            } else if (entries.remove(entry.getKey(), cached)) {
+              bytes.addAndGet(-cached.sizeBytes());
+              evictions.increment();
+            }
+          }
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static int stripe(String id) {
+    int h = id.hashCode();
+    return (h ^ (h >>> 16)) & (STRIPES - 1);
+  }
+
+  /** Strong entity tag from a 64-bit FNV-1a hash of the body. */
+  static EntityTag entityTag(byte[] body) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : body) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    return new EntityTag(Long.toHexString(hash));
+  }
+}
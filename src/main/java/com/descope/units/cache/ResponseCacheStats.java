@@ -0,0 +1,169 @@
+package com.descope.units.cache;
+
+/** Point-in-time state of the {@link ResponseCache}. */
+public class ResponseCacheStats {
+
+  private final boolean enabled;
+  private final long entries;
+  private final long bytes;
+  private final long maxBytes;
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final long invalidations;
+  private final long racedPuts;
+  private final long staleServed;
+  private final long staleIfErrorServed;
+  private final long refreshFailures;
+
+  /**
+   * Constructs a ResponseCacheStats snapshot.
+   *
+   * @param enabled whether responses are cached
+   * @param entries the number of cached responses
+   * @param bytes the accounted size of the cached responses
+   * @param maxBytes the byte budget
+   * @param hits the number of lookups served from the cache
+   * @param misses the number of lookups that found no fresh response
+   * @param evictions the number of entries evicted to stay within the budget
+   * @param invalidations the number of ids invalidated by writes
+   * @param racedPuts the number of encoded responses not cached because a write raced the read
+   * @param staleServed the number of stale responses served while a refresh ran
+   * @param staleIfErrorServed the number of stale responses served because reading the unit failed
+   * @param refreshFailures the number of background refreshes that failed
+   */
+  public ResponseCacheStats(
+      boolean enabled,
+      long entries,
+      long bytes,
+      long maxBytes,
+      long hits,
+      long misses,
+      long evictions,
+      long invalidations,
+      long racedPuts,
+      long staleServed,
+      long staleIfErrorServed,
+      long refreshFailures) {
+    this.enabled = enabled;
+    this.entries = entries;
+    this.bytes = bytes;
+    this.maxBytes = maxBytes;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.invalidations = invalidations;
+    this.racedPuts = racedPuts;
+    this.staleServed = staleServed;
+    this.staleIfErrorServed = staleIfErrorServed;
+    this.refreshFailures = refreshFailures;
+  }
+
+  /**
+   * Returns whether responses are cached.
+   *
+   * @return true if the cache is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the number of cached responses.
+   *
+   * @return the entry count
+   */
+  public long getEntries() {
+    return entries;
+  }
+
+  /**
+   * Returns the accounted size of the cached responses, bodies plus per-entry overhead.
+   *
+   * @return the size in bytes
+   */
+  public long getBytes() {
+    return bytes;
+  }
+
+  /**
+   * Returns the byte budget.
+   *
+   * @return the budget in bytes
+   */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Returns the number of lookups served from the cache.
+   *
+   * @return the hit count
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups that found no fresh response.
+   *
+   * @return the miss count
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Returns the number of entries evicted to stay within the byte budget.
+   *
+   * @return the eviction count
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Returns the number of ids invalidated by writes.
+   *
+   * @return the invalidation count
+   */
+  public long getInvalidations() {
+    return invalidations;
+  }
+
+  /**
+   * Returns the number of encoded responses not cached because a write raced the read.
+   *
+   * @return the raced put count
+   */
+  public long getRacedPuts() {
+    return racedPuts;
+  }
+
+  /**
+   * Returns the number of stale responses served while a background refresh ran.
+   *
+   * @return the stale-while-revalidate count
+   */
+  public long getStaleServed() {
+    return staleServed;
+  }
+
+  /**
+   * Returns the number of stale responses served because reading the unit failed.
+   *
+   * @return the stale-if-error count
+   */
+  public long getStaleIfErrorServed() {
+    return staleIfErrorServed;
+  }
+
+  /**
+   * Returns the number of background refreshes that failed.
+   *
+   * @return the refresh failure count
+   */
+  public long getRefreshFailures() {
+    return refreshFailures;
+  }
+}
@@ -0,0 +1,470 @@
+package com.descope.units.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.descope.units.model.Unit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Two-tier cache of units in front of the DynamoDB repository.
+ *
+ * <p>The first tier is a small map in this process with a short TTL. The second, optional tier is a
+ * store shared by every instance that speaks the Redis protocol, such as ElastiCache or Valkey, so
+ * a unit read by one ECS task or Lambda environment is a hit for all the others. A lookup tries the
+ * first tier, then the second, and only then DynamoDB; a hit in the second tier fills the first.
+ *
+ * <p>Values in the second tier are the unit name behind a one-byte format version; the id is the
+ * key. Entries read from DynamoDB are added with {@code SET NX}, so a fill that raced a write
+ * cannot replace the newer value, and a fill that raced a write or delete on this instance is
+ * followed by a {@code DEL}. Writes overwrite the entry and deletes remove it; another instance's
+ * first tier may serve the old unit until its short TTL runs out. Units returned by a name query
+ * are not cached: the index behind it is eventually consistent and may return a unit older than a
+ * write this instance has already made.
+ *
+ * <p>The second tier must never make reads slower or fail them. Each call waits at most {@code
+ * units.unit-cache.l2-timeout-ms}; on a timeout or error the read falls through to DynamoDB. After
+ * {@code l2-failure-threshold} failures in a row the second tier is skipped entirely for {@code
+ * l2-open-ms}; the first call to fail after that starts another such period.
+ *
+ * <p>A write or delete that fails to reach the second tier, or is skipped while it is, leaves the
+ * old value there. Its id is remembered and deleted from the second tier before this instance reads
+ * from it again. Other instances may serve the old value until that delete lands. If more than
+ * {@value #MAX_UNSYNCED_IDS} ids pile up, this instance stops reading the second tier until every
+ * entry written before then has expired.
+ */
+@ApplicationScoped
+public class UnitCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnitCache.class);
+
+  private static final byte FORMAT_VERSION = 1;
+  private static final int STRIPES = 1024;
+  private static final int MAX_UNSYNCED_IDS = 10_000;
+  private static final byte[] GET = ascii("GET");
+  private static final byte[] SET = ascii("SET");
+  private static final byte[] DEL = ascii("DEL");
+  private static final byte[] NX = ascii("NX");
+  private static final byte[] PX = ascii("PX");
+
+  private final boolean enabled;
+  private final long l1TtlNanos;
+  private final int l1MaxEntries;
+  private final byte[] l2TtlMillis;
+  private final long l2TtlNanos;
+  private final long l2TimeoutMillis;
+  private final int l2FailureThreshold;
+  private final long l2OpenNanos;
+  private final String keyPrefix;
+  private final RespClient l2;
+
+  private final Map<String, Entry> l1 = new ConcurrentHashMap<>();
+  private final AtomicLongArray stripeVersions = new AtomicLongArray(STRIPES);
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final AtomicInteger l2Failures = new AtomicInteger();
+  private volatile long l2OpenUntilNanos;
+  // Ids whose latest write or delete may not have reached the second tier
+  private final Set<String> unsyncedIds = ConcurrentHashMap.newKeySet();
+  private volatile long l2DistrustedUntilNanos = System.nanoTime();
+
+  private final LongAdder l1Hits = new LongAdder();
+  private final LongAdder l2Hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder l2Errors = new LongAdder();
+  private final LongAdder l2Skipped = new LongAdder();
+
+  /**
+   * Constructs a UnitCache from configuration.
+   *
+   * @param enabled whether units are cached
+   * @param l1TtlMillis how long a unit is served from this process
+   * @param l1MaxEntries the number of units kept in this process
+   * @param l2Host the host of the shared store; without it only the first tier is used
+   * @param l2Port the port of the shared store
+   * @param l2TtlSeconds how long a unit is kept in the shared store
+   * @param l2TimeoutMillis how long a read waits for the shared store before going to DynamoDB
+   * @param l2FailureThreshold the consecutive failures after which the shared store is skipped
+   * @param l2OpenMillis how long the shared store is skipped
+   * @param keyPrefix the prefix of keys in the shared store
+   */
+  @Inject
+  public UnitCache(
+      @ConfigProperty(name = "units.unit-cache.enabled", defaultValue = "false") boolean enabled,
+      @ConfigProperty(name = "units.unit-cache.l1-ttl-ms", defaultValue = "5000") long l1TtlMillis,
+      @ConfigProperty(name = "units.unit-cache.l1-max-entries", defaultValue = "100000")
+          int l1MaxEntries,
+      @ConfigProperty(name = "units.unit-cache.l2-host") Optional<String> l2Host,
+      @ConfigProperty(name = "units.unit-cache.l2-port", defaultValue = "6379") int l2Port,
+      @ConfigProperty(name = "units.unit-cache.l2-ttl-seconds", defaultValue = "300")
+          long l2TtlSeconds,
+      @ConfigProperty(name = "units.unit-cache.l2-timeout-ms", defaultValue = "20")
+          long l2TimeoutMillis,
+      @ConfigProperty(name = "units.unit-cache.l2-failure-threshold", defaultValue = "5")
+          int l2FailureThreshold,
+      @ConfigProperty(name = "units.unit-cache.l2-open-ms", defaultValue = "10000")
+          long l2OpenMillis,
+      @ConfigProperty(name = "units.unit-cache.key-prefix", defaultValue = "units:")
+          String keyPrefix) {
+    if (l1TtlMillis <= 0 || l1MaxEntries < 1 || l2TtlSeconds <= 0 || l2TimeoutMillis <= 0) {
+      throw new IllegalArgumentException("Unit cache sizes, TTLs and timeouts must be positive");
+    }
+    this.enabled = enabled;
+    this.l1TtlNanos = TimeUnit.MILLISECONDS.toNanos(l1TtlMillis);
+    this.l1MaxEntries = l1MaxEntries;
+    this.l2TtlMillis = ascii(Long.toString(TimeUnit.SECONDS.toMillis(l2TtlSeconds)));
+    this.l2TtlNanos = TimeUnit.SECONDS.toNanos(l2TtlSeconds);
+    this.l2TimeoutMillis = l2TimeoutMillis;
+    this.l2FailureThreshold = Math.max(1, l2FailureThreshold);
+    this.l2OpenNanos = TimeUnit.MILLISECONDS.toNanos(l2OpenMillis);
+    this.keyPrefix = keyPrefix;
+    this.l2 =
+        enabled && l2Host.isPresent()
+            ? new RespClient(l2Host.get(), l2Port, (int) l2TimeoutMillis)
+            : null;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (l2 != null) {
+      l2.close();
+    }
+  }
+
+  /**
+   * Returns whether units are cached.
+   *
+   * @return true if the cache is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns a unit from the cache tiers, or from the loader on a miss in both.
+   *
+   * @param id the unit id
+   * @param loader reads the unit from the data store, returning null if it does not exist
+   * @return the unit, or null if it does not exist
+   */
+  public Unit read(String id, Function<String, Unit> loader) {
+    if (!enabled) {
+      return loader.apply(id);
+    }
+    Entry entry = l1.get(id);
+    if (entry != null) {
+      if (System.nanoTime() - entry.storedAtNanos < l1TtlNanos) {
+        entry.referenced = true;
+        l1Hits.increment();
+        return entry.unit;
+      }
+      l1.remove(id, entry);
+    }
+
+    long token = stripeVersions.get(stripe(id));
+    Unit unit = l2Get(id);
+    if (unit != null) {
+      l2Hits.increment();
+      putL1(unit, token);
+      return unit;
+    }
+
+    misses.increment();
+    unit = loader.apply(id);
+    if (unit != null) {
+      putL1(unit, token);
+      fillL2(unit, token);
+    }
+    return unit;
+  }
+
+  /**
+   * Replaces the cached unit after a create or update.
+   *
+   * @param unit the unit as written
+   */
+  public void written(Unit unit) {
+    if (!enabled) {
+      return;
+    }
+    stripeVersions.incrementAndGet(stripe(unit.getId()));
+    putL1(unit, stripeVersions.get(stripe(unit.getId())));
+    l2Write(unit.getId(), new byte[][] {SET, key(unit.getId()), encode(unit), PX, l2TtlMillis});
+  }
+
+  /**
+   * Drops a unit from both tiers after it is deleted.
+   *
+   * @param id the unit id
+   */
+  public void invalidate(String id) {
+    if (!enabled) {
+      return;
+    }
+    stripeVersions.incrementAndGet(stripe(id));
+    l1.remove(id);
+    l2Write(id, new byte[][] {DEL, key(id)});
+  }
+
+  /**
+   * Returns a snapshot of tier sizes, hit counts and shared store failures.
+   *
+   * @return the cache statistics
+   */
+  public UnitCacheStats stats() {
+    return new UnitCacheStats(
+        enabled,
+        l2 != null,
+        System.nanoTime() - l2OpenUntilNanos < 0,
+        l1.size(),
+        l1Hits.sum(),
+        l2Hits.sum(),
+        misses.sum(),
+        l2Errors.sum(),
+        l2Skipped.sum());
+  }
+
+  private Unit l2Get(String id) {
+    if (!l2Available()) {
+      return null;
+    }
+    if (!unsyncedIds.isEmpty()) {
+      // The deletes go ahead of any later read on the shared connection
+      syncUnsynced();
+      return null;
+    }
+    if (System.nanoTime() - l2DistrustedUntilNanos < 0) {
+      l2Skipped.increment();
+      return null;
+    }
+    try {
+      Object reply = l2.send(GET, key(id)).get(l2TimeoutMillis, TimeUnit.MILLISECONDS);
+      l2Succeeded();
+      return reply instanceof byte[] ? decode(id, (byte[]) reply) : null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException | TimeoutException | RuntimeException e) {
+      l2Failed(e);
+      return null;
+    }
+  }
+
+  /** Adds a unit read from DynamoDB, undoing the fill if a write on this instance raced it. */
+  private void fillL2(Unit unit, long token) {
+    int stripe = stripe(unit.getId());
+    if (stripeVersions.get(stripe) != token || !l2Available()) {
+      return;
+    }
+    l2Send(List.<byte[][]>of(fill(unit)), null);
+    if (stripeVersions.get(stripe) != token) {
+      l2Send(List.<byte[][]>of(new byte[][] {DEL, key(unit.getId())}), null);
+    }
+  }
+
+  /** Sends a write or delete, remembering the id if it may not reach the shared store. */
+  private void l2Write(String id, byte[][] command) {
+    if (l2 == null) {
+      return;
+    }
+    if (!l2Available()) {
+      unsynced(List.of(id));
+      return;
+    }
+    syncUnsynced();
+    l2Send(List.<byte[][]>of(command), () -> unsynced(List.of(id)));
+  }
+
+  /** Deletes the entries of ids whose writes may not have reached the shared store. */
+  private void syncUnsynced() {
+    if (unsyncedIds.isEmpty()) {
+      return;
+    }
+    List<String> ids = new ArrayList<>(unsyncedIds);
+    unsyncedIds.removeAll(ids);
+    List<byte[][]> commands = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      commands.add(new byte[][] {DEL, key(id)});
+    }
+    l2Send(commands, () -> unsynced(ids));
+  }
+
+  private void unsynced(Collection<String> ids) {
+    unsyncedIds.addAll(ids);
+    if (unsyncedIds.size() > MAX_UNSYNCED_IDS) {
+      // Every entry the lost writes left behind has expired by then
+      l2DistrustedUntilNanos = System.nanoTime() + l2TtlNanos;
+      unsyncedIds.clear();
+      logger.warn(
+          "Lost track of more than {} writes to the shared unit cache; not reading it for {} s",
+          MAX_UNSYNCED_IDS,
+          TimeUnit.NANOSECONDS.toSeconds(l2TtlNanos));
+    }
+  }
+
+  /** Sends commands without waiting; a failure only costs a later miss, or runs onFailure. */
+  private void l2Send(List<byte[][]> commands, Runnable onFailure) {
+    if (!l2Available()) {
+      if (onFailure != null) {
+        onFailure.run();
+      }
+      return;
+    }
+    List<CompletableFuture<Object>> replies = l2.pipeline(commands);
+    CompletableFuture.allOf(replies.toArray(CompletableFuture[]::new))
+        .orTimeout(l2TimeoutMillis, TimeUnit.MILLISECONDS)
+        .whenComplete(
+            (ignored, failure) -> {
+              if (failure == null) {
+                l2Succeeded();
+              } else {
+                l2Failed(failure);
+                if (onFailure != null) {
+                  onFailure.run();
+                }
+              }
+            });
+  }
+
+  private boolean l2Available() {
+    if (l2 == null) {
+      return false;
+    }
+    if (System.nanoTime() - l2OpenUntilNanos < 0) {
+      l2Skipped.increment();
+      return false;
+    }
+    return true;
+  }
+
+  private void l2Succeeded() {
+    if (l2Failures.getAndSet(0) >= l2FailureThreshold) {
+      logger.info("Shared unit cache is reachable again");
+    }
+  }
+
+  private void l2Failed(Throwable failure) {
+    l2Errors.increment();
+    int failures = l2Failures.incrementAndGet();
+    if (failures >= l2FailureThreshold) {
+      // Past the threshold, each failed probe skips the store for another period
+      l2OpenUntilNanos = System.nanoTime() + l2OpenNanos;
+      if (failures == l2FailureThreshold) {
+        logger.warn(
+            "Skipping shared unit cache for {} ms after {} failures: {}",
+            TimeUnit.NANOSECONDS.toMillis(l2OpenNanos),
+            failures,
+            failure.toString());
+      }
+    } else {
+      logger.debug("Shared unit cache call failed: {}", failure.toString());
+    }
+  }
+
+  private void putL1(Unit unit, long token) {
+    int stripe = stripe(unit.getId());
+    if (stripeVersions.get(stripe) != token) {
+      return;
+    }
+    Entry entry = new Entry(unit, System.nanoTime());
+    l1.put(unit.getId(), entry);
+    // A write or delete that slipped in between the check and the put must still win
+    if (stripeVersions.get(stripe) != token) {
+      l1.remove(unit.getId(), entry);
+    }
+    if (l1.size() > l1MaxEntries) {
+      evict();
+    }
+  }
+
+  /** Sweeps entries in CLOCK order until back under the entry limit. */
+  private void evict() {
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      long now = System.nanoTime();
+      for (int pass = 0; pass < 2 && l1.size() > l1MaxEntries; pass++) {
+        Iterator<Map.Entry<String, Entry>> it = l1.entrySet().iterator();
+        while (it.hasNext() && l1.size() > l1MaxEntries) {
+          Map.Entry<String, Entry> mapping = it.next();
+          Entry entry = mapping.getValue();
+          if (entry.referenced && now - entry.storedAtNanos < l1TtlNanos) {
+            entry.referenced = false;
+          } else {
+            l1.remove(mapping.getKey(), entry);
+          }
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private byte[][] fill(Unit unit) {
+    return new byte[][] {SET, key(unit.getId()), encode(unit), PX, l2TtlMillis, NX};
+  }
+
+  private byte[] key(String id) {
+    return (keyPrefix + id).getBytes(StandardCharsets.UTF_8);
+  }
+
+  static byte[] encode(Unit unit) {
+    byte[] name = unit.getName().getBytes(StandardCharsets.UTF_8);
+    byte[] value = new byte[1 + name.length];
+    value[0] = FORMAT_VERSION;
+    System.arraycopy(name, 0, value, 1, name.length);
+    return value;
+  }
+
+  /** Decodes a cached value; null for a value in a format this version does not know. */
+  static Unit decode(String id, byte[] value) {
+    if (value.length == 0 || value[0] != FORMAT_VERSION) {
+      return null;
+    }
+    return new Unit(id, new String(value, 1, value.length - 1, StandardCharsets.UTF_8));
+  }
+
+  private static int stripe(String id) {
+    int h = id.hashCode();
+    return (h ^ (h >>> 16)) & (STRIPES - 1);
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static final class Entry {
+
+    private final Unit unit;
+    private final long storedAtNanos;
+    private volatile boolean referenced;
+
+    private Entry(Unit unit, long storedAtNanos) {
+      this.unit = unit;
+      this.storedAtNanos = storedAtNanos;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.descope.units.cache;
+
+/**
+ * Point-in-time state of the two-tier unit cache.
+ *
+ * <p>{@code l1Hits + l2Hits} over all reads is the share of reads kept away from DynamoDB.
+ */
+public class UnitCacheStats {
+
+  private final boolean enabled;
+  private final boolean sharedTierConfigured;
+  private final boolean sharedTierSkipped;
+  private final int l1Entries;
+  private final long l1Hits;
+  private final long l2Hits;
+  private final long misses;
+  private final long l2Errors;
+  private final long l2Skipped;
+
+  /**
+   * Constructs a UnitCacheStats snapshot.
+   *
+   * @param enabled whether units are cached
+   * @param sharedTierConfigured whether a shared store is configured
+   * @param sharedTierSkipped whether the shared store is being skipped after repeated failures
+   * @param l1Entries the number of units held in this process
+   * @param l1Hits the number of reads served from this process
+   * @param l2Hits the number of reads served from the shared store
+   * @param misses the number of reads that went to DynamoDB
+   * @param l2Errors the number of shared store calls that failed or timed out
+   * @param l2Skipped the number of shared store calls skipped while it was failing
+   */
+  public UnitCacheStats(
+      boolean enabled,
+      boolean sharedTierConfigured,
+      boolean sharedTierSkipped,
+      int l1Entries,
+      long l1Hits,
+      long l2Hits,
+      long misses,
+      long l2Errors,
+      long l2Skipped) {
+    this.enabled = enabled;
+    this.sharedTierConfigured = sharedTierConfigured;
+    this.sharedTierSkipped = sharedTierSkipped;
+    this.l1Entries = l1Entries;
+    this.l1Hits = l1Hits;
+    this.l2Hits = l2Hits;
+    this.misses = misses;
+    this.l2Errors = l2Errors;
+    this.l2Skipped = l2Skipped;
+  }
+
+  /**
+   * Returns whether units are cached.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns whether a shared store is configured as the second tier.
+   *
+   * @return true if the second tier is configured
+   */
+  public boolean isSharedTierConfigured() {
+    return sharedTierConfigured;
+  }
+
+  /**
+   * Returns whether the shared store is being skipped after repeated failures.
+   *
+   * @return true while the second tier is skipped
+   */
+  public boolean isSharedTierSkipped() {
+    return sharedTierSkipped;
+  }
+
+  /**
+   * Returns the number of units held in this process.
+   *
+   * @return the entry count
+   */
+  public int getL1Entries() {
+    return l1Entries;
+  }
+
+  /**
+   * Returns the number of reads served from this process.
+   *
+   * @return the first tier hit count
+   */
+  public long getL1Hits() {
+    return l1Hits;
+  }
+
+  /**
+   * Returns the number of reads served from the shared store.
+   *
+   * @return the second tier hit count
+   */
+  public long getL2Hits() {
+    return l2Hits;
+  }
+
+  /**
+   * Returns the number of reads that missed both tiers and went to DynamoDB.
+   *
+   * @return the miss count
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Returns the number of shared store calls that failed or timed out.
+   *
+   * @return the error count
+   */
+  public long getL2Errors() {
+    return l2Errors;
+  }
+
+  /**
+   * Returns the number of shared store calls skipped while it was failing.
+   *
+   * @return the skipped call count
+   */
+  public long getL2Skipped() {
+    return l2Skipped;
+  }
+}
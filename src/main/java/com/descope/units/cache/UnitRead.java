@@ -0,0 +1,43 @@
+package com.descope.units.cache;
+
+/** The outcome of a {@link CachedUnitReader} read: the body to send and how fresh it is. */
+public final class UnitRead {
+
+  private final CachedResponse response;
+  private final Freshness freshness;
+  private final long ageSeconds;
+
+  UnitRead(CachedResponse response, Freshness freshness, long ageSeconds) {
+    this.response = response;
+    this.freshness = freshness;
+    this.ageSeconds = ageSeconds;
+  }
+
+  /**
+   * Returns the encoded response.
+   *
+   * @return the response body and entity tag
+   */
+  public CachedResponse getResponse() {
+    return response;
+  }
+
+  /**
+   * Returns whether the response is fresh, served while revalidating, or served because reading the
+   * unit failed.
+   *
+   * @return the freshness
+   */
+  public Freshness getFreshness() {
+    return freshness;
+  }
+
+  /**
+   * Returns the time since the response was encoded.
+   *
+   * @return the age in whole seconds
+   */
+  public long getAgeSeconds() {
+    return ageSeconds;
+  }
+}
@@ -0,0 +1,359 @@
+package com.descope.units.changes;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.descope.units.exception.CapacityExceededException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fans unit changes out to change feed subscribers.
+ *
+ * <p>Changes made through this instance are published by {@code UnitService}; changes made by other
+ * instances arrive from the table's DynamoDB stream, and those this instance already published are
+ * recognised and skipped. Every change gets the next sequence number and is kept in a bounded
+ * replay buffer, so a subscriber that reconnects with the id of the last event it saw receives what
+ * it missed. When that event is no longer buffered, or came from another instance or an earlier
+ * process, the subscriber is told to reset and reload instead.
+ *
+ * <p>All sends happen on one dispatcher thread, in sequence order. Each subscriber may have a
+ * bounded number of sends outstanding; a subscriber that cannot keep up is disconnected rather than
+ * buffered for, and can resume from its last event.
+ */
+@ApplicationScoped
+public class ChangeFeed {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+  private static final int RECENT_LOCAL_CAPACITY = 4096;
+
+  private final boolean enabled;
+  private final int maxPending;
+  private final int maxSubscribers;
+  private final long dedupWindowNanos;
+  private final LongSupplier nanoClock;
+  private final String epoch;
+  private final UnitChange[] replay;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService dispatcher;
+
+  /** Local changes not yet seen on the DynamoDB stream, by change key; guarded by this. */
+  private final Map<String, Long> recentLocal =
+      new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+          return size() > RECENT_LOCAL_CAPACITY;
+        }
+      };
+
+  /** Sequence number of the last change published; guarded by this. */
+  private long sequence;
+
+  private final LongAdder replicated = new LongAdder();
+  private final LongAdder duplicatesSkipped = new LongAdder();
+  private final LongAdder subscribersDropped = new LongAdder();
+  private final LongAdder resets = new LongAdder();
+
+  /**
+   * Constructs a ChangeFeed.
+   *
+   * @param enabled whether the change feed is served
+   * @param replaySize the number of recent changes kept for resuming subscribers
+   * @param subscriberBuffer the sends a subscriber may have outstanding before it is dropped
+   * @param maxSubscribers the most subscribers served at once
+   * @param heartbeatSeconds the interval between keep-alive comments
+   * @param dedupWindowSeconds how long a local change is matched against the DynamoDB stream
+   */
+  @Inject
+  public ChangeFeed(
+      @ConfigProperty(name = "units.changes.enabled", defaultValue = "true") boolean enabled,
+      @ConfigProperty(name = "units.changes.replay-size", defaultValue = "1000") int replaySize,
+      @ConfigProperty(name = "units.changes.subscriber-buffer", defaultValue = "256")
+          int subscriberBuffer,
+      @ConfigProperty(name = "units.changes.max-subscribers", defaultValue = "1000")
+          int maxSubscribers,
+      @ConfigProperty(name = "units.changes.heartbeat-seconds", defaultValue = "15")
+          long heartbeatSeconds,
+      @ConfigProperty(name = "units.changes.dedup-window-seconds", defaultValue = "60")
+          long dedupWindowSeconds) {
+    this(
+        enabled,
+        replaySize,
+        subscriberBuffer,
+        maxSubscribers,
+        TimeUnit.SECONDS.toNanos(dedupWindowSeconds),
+        System::nanoTime,
+        Long.toString(System.currentTimeMillis(), 36));
+    if (enabled && heartbeatSeconds > 0) {
+      dispatcher.scheduleAtFixedRate(
+          this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+    logger.info(
+        "Change feed {} (replay: {}, subscriber buffer: {})",
+        enabled ? "enabled" : "disabled",
+        replaySize,
+        subscriberBuffer);
+  }
+
+  ChangeFeed(
+      boolean enabled,
+      int replaySize,
+      int maxPending,
+      int maxSubscribers,
+      long dedupWindowNanos,
+      LongSupplier nanoClock,
+      String epoch) {
+    if (replaySize < 1) {
+      throw new IllegalArgumentException("Replay size must be at least 1");
+    }
+    this.enabled = enabled;
+    this.maxPending = maxPending;
+    this.maxSubscribers = maxSubscribers;
+    this.dedupWindowNanos = dedupWindowNanos;
+    this.nanoClock = nanoClock;
+    this.epoch = epoch;
+    this.replay = new UnitChange[replaySize];
+    this.dispatcher =
+        enabled
+            ? Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                  Thread thread = new Thread(runnable, "change-feed");
+                  thread.setDaemon(true);
+                  return thread;
+                })
+            : null;
+  }
+
+  /**
+   * Returns whether the change feed is served.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Publishes a change made through this instance.
+   *
+   * @param type the kind of change
+   * @param id the unit id
+   * @param name the unit name after the change, or null for a delete
+   */
+  public void publish(ChangeType type, String id, String name) {
+    if (!enabled) {
+      return;
+    }
+    synchronized (this) {
+      recentLocal.put(key(type, id, name), nanoClock.getAsLong());
+      append(type, id, name);
+    }
+  }
+
+  /**
+   * Publishes a change read from the DynamoDB stream, unless this instance published it already.
+   *
+   * @param type the kind of change
+   * @param id the unit id
+   * @param name the unit name after the change, or null for a delete
+   */
+  public void publishReplicated(ChangeType type, String id, String name) {
+    if (!enabled) {
+      return;
+    }
+    synchronized (this) {
+      Long publishedAt = recentLocal.remove(key(type, id, name));
+      if (publishedAt != null && nanoClock.getAsLong() - publishedAt <= dedupWindowNanos) {
+        duplicatesSkipped.increment();
+        return;
+      }
+      replicated.increment();
+      append(type, id, name);
+    }
+  }
+
+  /**
+   * Adds a subscriber.
+   *
+   * <p>With a last event id, the buffered changes after it are sent first. If they cannot be
+   * replayed, a reset event is sent instead.
+   *
+   * @param ids the unit ids to send changes for, or an empty set for all units
+   * @param lastEventId the id of the last event the subscriber received, or null
+   * @param sink where to send the subscriber's events
+   * @throws IllegalStateException if the change feed is disabled
+   * @throws CapacityExceededException if the feed has as many subscribers as it serves
+   */
+  public void subscribe(Set<String> ids, String lastEventId, ChangeSink sink) {
+    if (!enabled) {
+      throw new IllegalStateException("Change feed is disabled");
+    }
+    if (subscribers.size() >= maxSubscribers) {
+      throw new CapacityExceededException(
+          "Too many change feed subscribers. Please retry later.", 5);
+    }
+    synchronized (this) {
+      Subscriber subscriber = new Subscriber(sink, ids, sequence);
+      List<UnitChange> backlog = new ArrayList<>();
+      boolean reset = lastEventId != null && !collectAfter(lastEventId, backlog);
+      subscribers.add(subscriber);
+      dispatcher.execute(
+          () -> {
+            if (reset) {
+              resets.increment();
+              subscriber.watch(sink.sendReset());
+            }
+            backlog.forEach(change -> subscriber.offer(change, false));
+          });
+    }
+  }
+
+  /**
+   * Returns subscriber and change counters.
+   *
+   * @return the change feed statistics
+   */
+  public ChangeFeedStats stats() {
+    long published;
+    synchronized (this) {
+      published = sequence;
+    }
+    return new ChangeFeedStats(
+        enabled,
+        subscribers.size(),
+        published,
+        replicated.sum(),
+        duplicatesSkipped.sum(),
+        subscribersDropped.sum(),
+        resets.sum());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (dispatcher != null) {
+      dispatcher.shutdownNow();
+    }
+    subscribers.forEach(subscriber -> subscriber.sink.close());
+    subscribers.clear();
+  }
+
+  /** Assigns the next sequence number and dispatches the change; the caller holds the monitor. */
+  private void append(ChangeType type, String id, String name) {
+    UnitChange change =
+        new UnitChange(epoch, ++sequence, type, id, name, System.currentTimeMillis());
+    replay[(int) (change.getSequence() % replay.length)] = change;
+    dispatcher.execute(() -> deliver(change));
+  }
+
+  /**
+   * Adds the buffered changes after an event id to the backlog; the caller holds the monitor.
+   *
+   * @return false if the changes after the event are not all buffered
+   */
+  private boolean collectAfter(String lastEventId, List<UnitChange> backlog) {
+    int separator = lastEventId.lastIndexOf('-');
+    if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+      return false;
+    }
+    long last;
+    try {
+      last = Long.parseLong(lastEventId.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      return false;
+    }
+    long oldest = Math.max(1, sequence - replay.length + 1);
+    if (last > sequence || last < oldest - 1) {
+      return false;
+    }
+    for (long next = last + 1; next <= sequence; next++) {
+      backlog.add(replay[(int) (next % replay.length)]);
+    }
+    return true;
+  }
+
+  private void deliver(UnitChange change) {
+    for (Subscriber subscriber : subscribers) {
+      if (change.getSequence() > subscriber.startAfter) {
+        subscriber.offer(change, true);
+      }
+    }
+  }
+
+  private void heartbeat() {
+    for (Subscriber subscriber : subscribers) {
+      subscriber.watch(subscriber.sink.sendHeartbeat());
+    }
+  }
+
+  private static String key(ChangeType type, String id, String name) {
+    return type.name() + ':' + id + ':' + name;
+  }
+
+  /** One connected subscriber and its outstanding sends. */
+  private final class Subscriber {
+
+    private final ChangeSink sink;
+    private final Set<String> ids;
+    private final long startAfter;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private Subscriber(ChangeSink sink, Set<String> ids, long startAfter) {
+      this.sink = sink;
+      this.ids = ids;
+      this.startAfter = startAfter;
+    }
+
+    /** Sends a change if the subscriber follows its unit; live sends are bounded. */
+    private void offer(UnitChange change, boolean bounded) {
+      if (!ids.isEmpty() && !ids.contains(change.getId())) {
+        return;
+      }
+      if (sink.isClosed()) {
+        subscribers.remove(this);
+        return;
+      }
+      if (bounded && pending.get() >= maxPending) {
+        drop();
+        return;
+      }
+      watch(sink.send(change));
+    }
+
+    private void watch(CompletionStage<?> send) {
+      pending.incrementAndGet();
+      send.whenComplete(
+          (result, error) -> {
+            pending.decrementAndGet();
+            if (error != null) {
+              subscribers.remove(this);
+            }
+          });
+    }
+
+    private void drop() {
+      if (subscribers.remove(this)) {
+        subscribersDropped.increment();
+        logger.debug("Dropping change feed subscriber with {} sends outstanding", pending.get());
+        sink.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.descope.units.changes;
+
+/**
+ * Point-in-time state of the unit change feed.
+ *
+ * <p>Replicated changes are those read from the DynamoDB stream; duplicates are stream records for
+ * changes this instance had already published itself.
+ */
+public class ChangeFeedStats {
+
+  private final boolean enabled;
+  private final int subscribers;
+  private final long published;
+  private final long replicated;
+  private final long duplicatesSkipped;
+  private final long subscribersDropped;
+  private final long resets;
+
+  /**
+   * Constructs a ChangeFeedStats snapshot.
+   *
+   * @param enabled whether the change feed is served
+   * @param subscribers the number of connected subscribers
+   * @param published the number of changes published, local and replicated
+   * @param replicated the number of changes published from the DynamoDB stream
+   * @param duplicatesSkipped the number of stream records skipped as already published
+   * @param subscribersDropped the number of subscribers disconnected for falling behind
+   * @param resets the number of resuming subscribers told to reload instead
+   */
+  public ChangeFeedStats(
+      boolean enabled,
+      int subscribers,
+      long published,
+      long replicated,
+      long duplicatesSkipped,
+      long subscribersDropped,
+      long resets) {
+    this.enabled = enabled;
+    this.subscribers = subscribers;
+    this.published = published;
+    this.replicated = replicated;
+    this.duplicatesSkipped = duplicatesSkipped;
+    this.subscribersDropped = subscribersDropped;
+    this.resets = resets;
+  }
+
+  /**
+   * Returns whether the change feed is served.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the number of connected subscribers.
+   *
+   * @return the subscriber count
+   */
+  public int getSubscribers() {
+    return subscribers;
+  }
+
+  /**
+   * Returns the number of changes published, which is also the last sequence number.
+   *
+   * @return the published change count
+   */
+  public long getPublished() {
+    return published;
+  }
+
+  /**
+   * Returns the number of changes published from the DynamoDB stream.
+   *
+   * @return the replicated change count
+   */
+  public long getReplicated() {
+    return replicated;
+  }
+
+  /**
+   * Returns the number of DynamoDB stream records skipped because this instance made the change.
+   *
+   * @return the duplicate count
+   */
+  public long getDuplicatesSkipped() {
+    return duplicatesSkipped;
+  }
+
+  /**
+   * Returns the number of subscribers disconnected because too many sends were outstanding.
+   *
+   * @return the dropped subscriber count
+   */
+  public long getSubscribersDropped() {
+    return subscribersDropped;
+  }
+
+  /**
+   * Returns the number of resuming subscribers whose missed changes could not be replayed.
+   *
+   * @return the reset count
+   */
+  public long getResets() {
+    return resets;
+  }
+}
@@ -0,0 +1,43 @@
+package com.descope.units.changes;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Where the {@link ChangeFeed} writes one subscriber's events, such as an SSE connection.
+ *
+ * <p>Sends must not block; the returned stage completes once the event has been written.
+ */
+public interface ChangeSink {
+
+  /**
+   * Sends a change.
+   *
+   * @param change the change
+   * @return a stage completing when the change has been written
+   */
+  CompletionStage<?> send(UnitChange change);
+
+  /**
+   * Tells the subscriber that changes were missed and it must reload the units it follows.
+   *
+   * @return a stage completing when the event has been written
+   */
+  CompletionStage<?> sendReset();
+
+  /**
+   * Sends a comment that keeps the connection open through idle proxies.
+   *
+   * @return a stage completing when the comment has been written
+   */
+  CompletionStage<?> sendHeartbeat();
+
+  /**
+   * Returns whether the connection is closed.
+   *
+   * @return true once closed
+   */
+  boolean isClosed();
+
+  /** Closes the connection. */
+  void close();
+}
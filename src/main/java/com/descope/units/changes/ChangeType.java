@@ -0,0 +1,22 @@
+package com.descope.units.changes;
+
+import java.util.Locale;
+
+/** The kind of mutation a {@link UnitChange} reports. */
+public enum ChangeType {
+  /** A unit was created. */
+  CREATED,
+  /** A unit was renamed. */
+  UPDATED,
+  /** A unit was deleted. */
+  DELETED;
+
+  /**
+   * Returns the SSE event name for this change type.
+   *
+   * @return the lower-case name, such as {@code updated}
+   */
+  public String eventName() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,97 @@
+package com.descope.units.changes;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One create, update or delete of a unit, as sent on the change feed.
+ *
+ * <p>The sequence orders changes within one instance's feed; together with the feed epoch it forms
+ * the SSE event id that clients resume from.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class UnitChange {
+
+  private final long sequence;
+  private final String eventId;
+  private final ChangeType type;
+  private final String id;
+  private final String name;
+  private final long timestamp;
+
+  /**
+   * Constructs a UnitChange.
+   *
+   * @param epoch the epoch of the feed that assigned the sequence
+   * @param sequence the position of the change in the feed
+   * @param type the kind of change
+   * @param id the unit id
+   * @param name the unit name after the change, or null for a delete
+   * @param timestamp when the change was published, in epoch milliseconds
+   */
+  public UnitChange(
+      String epoch, long sequence, ChangeType type, String id, String name, long timestamp) {
+    this.sequence = sequence;
+    this.eventId = epoch + "-" + sequence;
+    this.type = type;
+    this.id = id;
+    this.name = name;
+    this.timestamp = timestamp;
+  }
+
+  /**
+   * Returns the position of the change in the feed.
+   *
+   * @return the sequence number
+   */
+  @JsonIgnore
+  public long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Returns the SSE event id clients send back as {@code Last-Event-ID} to resume.
+   *
+   * @return the event id
+   */
+  @JsonIgnore
+  public String getEventId() {
+    return eventId;
+  }
+
+  /**
+   * Returns the kind of change.
+   *
+   * @return the change type
+   */
+  public ChangeType getType() {
+    return type;
+  }
+
+  /**
+   * Returns the unit id.
+   *
+   * @return the unit id
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Returns the unit name after the change.
+   *
+   * @return the name, or null for a delete
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns when the change was published.
+   *
+   * @return the time in epoch milliseconds
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+}
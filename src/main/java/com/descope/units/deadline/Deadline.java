@@ -0,0 +1,62 @@
+package com.descope.units.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A point in time by which a request must have been answered.
+ *
+ * <p>Deadlines are measured on a monotonic clock, so they are unaffected by wall clock changes.
+ */
+public final class Deadline {
+
+  private final long expiresAtNanos;
+  private final LongSupplier nanoClock;
+
+  Deadline(long expiresAtNanos, LongSupplier nanoClock) {
+    this.expiresAtNanos = expiresAtNanos;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Returns a deadline the given time from now.
+   *
+   * @param budget the time left to answer
+   * @return the deadline
+   */
+  public static Deadline after(Duration budget) {
+    return after(budget.toNanos(), System::nanoTime);
+  }
+
+  static Deadline after(long budgetNanos, LongSupplier nanoClock) {
+    return new Deadline(nanoClock.getAsLong() + budgetNanos, nanoClock);
+  }
+
+  /**
+   * Returns the time left before the deadline.
+   *
+   * @return the remaining nanoseconds, zero or negative once expired
+   */
+  public long remainingNanos() {
+    return expiresAtNanos - nanoClock.getAsLong();
+  }
+
+  /**
+   * Returns the time left before the deadline, for use as a timeout.
+   *
+   * @return the remaining time, at least one millisecond
+   */
+  public Duration remaining() {
+    return Duration.ofNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1), remainingNanos()));
+  }
+
+  /**
+   * Returns whether the deadline has passed.
+   *
+   * @return true once no time is left
+   */
+  public boolean isExpired() {
+    return remainingNanos() <= 0;
+  }
+}
@@ -0,0 +1,76 @@
+package com.descope.units.deadline;
+
+import java.util.function.Supplier;
+
+/**
+ * Carries the current request's {@link Deadline} down to the DynamoDB calls it makes.
+ *
+ * <p>The deadline is bound to the thread serving the request, so the service and repository layers
+ * do not need to pass it along. Work handed to another thread must be wrapped with {@link
+ * #propagate} to keep it.
+ */
+public final class DeadlineContext {
+
+  private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+  private DeadlineContext() {}
+
+  /**
+   * Returns the deadline of the request this thread is serving.
+   *
+   * @return the deadline, or null if there is none
+   */
+  public static Deadline current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Binds a deadline to this thread until the returned scope is closed.
+   *
+   * @param deadline the deadline, or null to clear it
+   * @return the scope, which restores the previous deadline when closed
+   */
+  public static Scope attach(Deadline deadline) {
+    Deadline previous = CURRENT.get();
+    CURRENT.set(deadline);
+    return new Scope(previous);
+  }
+
+  /**
+   * Wraps a task so that it runs under this thread's current deadline on whichever thread runs it.
+   *
+   * @param task the task
+   * @param <T> the result type
+   * @return the wrapped task, or the task itself if there is no deadline
+   */
+  public static <T> Supplier<T> propagate(Supplier<T> task) {
+    Deadline deadline = CURRENT.get();
+    if (deadline == null) {
+      return task;
+    }
+    return () -> {
+      try (Scope scope = attach(deadline)) {
+        return task.get();
+      }
+    };
+  }
+
+  /** Restores the previously bound deadline when closed. */
+  public static final class Scope implements AutoCloseable {
+
+    private final Deadline previous;
+
+    private Scope(Deadline previous) {
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.descope.units.deadline;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.interceptor.InterceptorBinding;
+
+/**
+ * Runs the annotated resource methods under a request {@link Deadline}.
+ *
+ * <p>Requests to unannotated resources, such as management endpoints, have no deadline.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RequestDeadline {}
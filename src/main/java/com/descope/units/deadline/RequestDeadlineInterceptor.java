@@ -0,0 +1,114 @@
+package com.descope.units.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.descope.units.exception.DeadlineExceededException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binds a {@link Deadline} to each call of a {@link RequestDeadline} resource method.
+ *
+ * <p>On Lambda the deadline is the invocation's remaining time less a reserve for writing the
+ * response; elsewhere it is a fixed budget. A request that arrives with less than the minimum time
+ * left is rejected with a 503 at once rather than started.
+ */
+@RequestDeadline
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class RequestDeadlineInterceptor {
+
+  private static final Logger logger = LoggerFactory.getLogger(RequestDeadlineInterceptor.class);
+
+  private final boolean enabled;
+  private final long budgetNanos;
+  private final long lambdaReserveNanos;
+  private final long minRemainingNanos;
+  private final LongSupplier lambdaRemainingMillis;
+
+  /**
+   * Constructs a RequestDeadlineInterceptor.
+   *
+   * @param enabled whether requests run under a deadline
+   * @param budgetMillis the time each request may take when not running on Lambda
+   * @param lambdaReserveMillis the part of the Lambda remaining time kept for writing the response
+   * @param minRemainingMillis the least time left for a request to be started
+   * @param lambdaContext the context of the current Lambda invocation
+   */
+  @Inject
+  public RequestDeadlineInterceptor(
+      @ConfigProperty(name = "units.deadline.enabled", defaultValue = "true") boolean enabled,
+      @ConfigProperty(name = "units.deadline.budget-ms", defaultValue = "3000") long budgetMillis,
+      @ConfigProperty(name = "units.deadline.lambda-reserve-ms", defaultValue = "250")
+          long lambdaReserveMillis,
+      @ConfigProperty(name = "units.deadline.min-remaining-ms", defaultValue = "20")
+          long minRemainingMillis,
+      Instance<Context> lambdaContext) {
+    this(
+        enabled,
+        TimeUnit.MILLISECONDS.toNanos(budgetMillis),
+        TimeUnit.MILLISECONDS.toNanos(lambdaReserveMillis),
+        TimeUnit.MILLISECONDS.toNanos(minRemainingMillis),
+        System.getenv("AWS_LAMBDA_FUNCTION_NAME") == null
+            ? () -> -1
+            : () -> lambdaRemainingMillis(lambdaContext));
+  }
+
+  RequestDeadlineInterceptor(
+      boolean enabled,
+      long budgetNanos,
+      long lambdaReserveNanos,
+      long minRemainingNanos,
+      LongSupplier lambdaRemainingMillis) {
+    this.enabled = enabled;
+    this.budgetNanos = budgetNanos;
+    this.lambdaReserveNanos = lambdaReserveNanos;
+    this.minRemainingNanos = minRemainingNanos;
+    this.lambdaRemainingMillis = lambdaRemainingMillis;
+  }
+
+  @AroundInvoke
+  Object withDeadline(InvocationContext invocation) throws Exception {
+    if (!enabled) {
+      return invocation.proceed();
+    }
+    long budget = budgetNanos();
+    if (budget < minRemainingNanos) {
+      throw new DeadlineExceededException();
+    }
+    try (DeadlineContext.Scope scope =
+        DeadlineContext.attach(Deadline.after(Duration.ofNanos(budget)))) {
+      return invocation.proceed();
+    }
+  }
+
+  private long budgetNanos() {
+    long remainingMillis = lambdaRemainingMillis.getAsLong();
+    if (remainingMillis < 0) {
+      return budgetNanos;
+    }
+    return TimeUnit.MILLISECONDS.toNanos(remainingMillis) - lambdaReserveNanos;
+  }
+
+  private static long lambdaRemainingMillis(Instance<Context> lambdaContext) {
+    try {
+      return lambdaContext.get().getRemainingTimeInMillis();
+    } catch (RuntimeException e) {
+      // Invoked outside an API Gateway or ALB event, for example from the local dev server
+      logger.debug("No Lambda context for request: {}", e.getMessage());
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.descope.units.dto;
+
+import java.time.Instant;
+
+/**
+ * Source of ISO-8601 timestamps truncated to the second.
+ *
+ * <p>The formatted string is cached and rebuilt at most once per second, so callers on hot paths
+ * such as error responses get the same instance for every call within a second and allocate
+ * nothing.
+ */
+public final class CoarseTimestamp {
+
+  private static volatile Cached cached = new Cached(Long.MIN_VALUE, "");
+
+  private CoarseTimestamp() {}
+
+  /**
+   * Returns the current time, truncated to the second.
+   *
+   * @return the timestamp, for example {@code 2024-05-01T12:00:00Z}
+   */
+  public static String now() {
+    long second = Math.floorDiv(System.currentTimeMillis(), 1000L);
+    Cached current = cached;
+    if (current.second != second) {
+      current = new Cached(second, Instant.ofEpochSecond(second).toString());
+      cached = current;
+    }
+    return current.value;
+  }
+
+  private static final class Cached {
+
+    private final long second;
+    private final String value;
+
+    private Cached(long second, String value) {
+      this.second = second;
+      this.value = value;
+    }
+  }
+}
@@ -1,11 +1,10 @@
 package com.descope.units.dto;
 
-import java.time.Instant;
-
 /**
  * Response DTO for error responses.
  *
- * <p>This DTO provides structured error information to API clients.
+ * <p>This DTO provides structured error information to API clients. Timestamps are truncated to the
+ * second (see {@link CoarseTimestamp}).
  */
 public class ErrorResponse {
 
@@ -15,7 +14,7 @@ public class ErrorResponse {
 
   /** Default constructor for JSON serialization. */
   public ErrorResponse() {
-    this.timestamp = Instant.now().toString();
+    this.timestamp = CoarseTimestamp.now();
   }
 
   /**
@@ -27,7 +26,7 @@ public class ErrorResponse {
   public ErrorResponse(String message, int status) {
     this.message = message;
     this.status = status;
-    this.timestamp = Instant.now().toString();
+    this.timestamp = CoarseTimestamp.now();
   }
 
   /**
@@ -0,0 +1,173 @@
+package com.descope.units.dto;
+
+/**
+ * Response DTO for a write accepted for asynchronous application.
+ *
+ * <p>Returned with HTTP 202 when a write is accepted and by the operation status endpoint.
+ */
+public class OperationResponse {
+  private String operationId;
+  private String type;
+  private String unitId;
+  private String status;
+  private String error;
+  private String acceptedAt;
+  private String completedAt;
+
+  /** Default constructor for JSON serialization. */
+  public OperationResponse() {}
+
+  /**
+   * Constructs an OperationResponse.
+   *
+   * @param operationId the operation identifier
+   * @param type the kind of write: CREATE, UPDATE or DELETE
+   * @param unitId the identifier of the unit written
+   * @param status the progress of the write: PENDING, APPLIED or FAILED
+   * @param error why the write failed, or null unless it failed
+   * @param acceptedAt when the write was accepted, as an ISO-8601 timestamp
+   * @param completedAt when the write was applied or failed, or null while it is pending
+   */
+  public OperationResponse(
+      String operationId,
+      String type,
+      String unitId,
+      String status,
+      String error,
+      String acceptedAt,
+      String completedAt) {
+    this.operationId = operationId;
+    this.type = type;
+    this.unitId = unitId;
+    this.status = status;
+    this.error = error;
+    this.acceptedAt = acceptedAt;
+    this.completedAt = completedAt;
+  }
+
+  /**
+   * Returns the operation id.
+   *
+   * @return the operation identifier
+   */
+  public String getOperationId() {
+    return operationId;
+  }
+
+  /**
+   * Sets the operation id.
+   *
+   * @param operationId the operation identifier
+   */
+  public void setOperationId(String operationId) {
+    this.operationId = operationId;
+  }
+
+  /**
+   * Returns the write type.
+   *
+   * @return the kind of write: CREATE, UPDATE or DELETE
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Sets the write type.
+   *
+   * @param type the kind of write: CREATE, UPDATE or DELETE
+   */
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  /**
+   * Returns the unit id.
+   *
+   * @return the identifier of the unit written
+   */
+  public String getUnitId() {
+    return unitId;
+  }
+
+  /**
+   * Sets the unit id.
+   *
+   * @param unitId the identifier of the unit written
+   */
+  public void setUnitId(String unitId) {
+    this.unitId = unitId;
+  }
+
+  /**
+   * Returns the status.
+   *
+   * @return the progress of the write: PENDING, APPLIED or FAILED
+   */
+  public String getStatus() {
+    return status;
+  }
+
+  /**
+   * Sets the status.
+   *
+   * @param status the progress of the write: PENDING, APPLIED or FAILED
+   */
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  /**
+   * Returns the error message.
+   *
+   * @return why the write failed, or null unless it failed
+   */
+  public String getError() {
+    return error;
+  }
+
+  /**
+   * Sets the error message.
+   *
+   * @param error why the write failed, or null unless it failed
+   */
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  /**
+   * Returns the acceptance time.
+   *
+   * @return when the write was accepted, as an ISO-8601 timestamp
+   */
+  public String getAcceptedAt() {
+    return acceptedAt;
+  }
+
+  /**
+   * Sets the acceptance time.
+   *
+   * @param acceptedAt when the write was accepted, as an ISO-8601 timestamp
+   */
+  public void setAcceptedAt(String acceptedAt) {
+    this.acceptedAt = acceptedAt;
+  }
+
+  /**
+   * Returns the completion time.
+   *
+   * @return when the write was applied or failed, or null while it is pending
+   */
+  public String getCompletedAt() {
+    return completedAt;
+  }
+
+  /**
+   * Sets the completion time.
+   *
+   * @param completedAt when the write was applied or failed, or null while it is pending
+   */
+  public void setCompletedAt(String completedAt) {
+    this.completedAt = completedAt;
+  }
+}
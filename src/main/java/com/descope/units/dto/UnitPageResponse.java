@@ -0,0 +1,80 @@
+package com.descope.units.dto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.descope.units.model.UnitPage;
+
+/**
+ * Response DTO for paginated unit queries.
+ *
+ * <p>Clients pass {@code nextCursor} back as the {@code cursor} query parameter to fetch the next
+ * page. A null {@code nextCursor} means there are no further results.
+ */
+public class UnitPageResponse {
+
+  private List<UnitResponse> items;
+  private String nextCursor;
+
+  /** Default constructor for JSON serialization. */
+  public UnitPageResponse() {}
+
+  /**
+   * Constructs a UnitPageResponse with the specified items and cursor.
+   *
+   * @param items the units on this page
+   * @param nextCursor the cursor for the next page, or null if this is the last page
+   */
+  public UnitPageResponse(List<UnitResponse> items, String nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Creates a UnitPageResponse from a domain UnitPage object.
+   *
+   * @param page the domain UnitPage
+   * @return the UnitPageResponse
+   */
+  public static UnitPageResponse fromDomain(UnitPage page) {
+    List<UnitResponse> items =
+        page.getItems().stream().map(UnitResponse::fromDomain).collect(Collectors.toList());
+    return new UnitPageResponse(items, page.getNextCursor());
+  }
+
+  /**
+   * Returns the units on this page.
+   *
+   * @return the unit responses
+   */
+  public List<UnitResponse> getItems() {
+    return items;
+  }
+
+  /**
+   * Sets the units on this page.
+   *
+   * @param items the unit responses
+   */
+  public void setItems(List<UnitResponse> items) {
+    this.items = items;
+  }
+
+  /**
+   * Returns the cursor for the next page.
+   *
+   * @return the next cursor, or null if this is the last page
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  /**
+   * Sets the cursor for the next page.
+   *
+   * @param nextCursor the next cursor
+   */
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
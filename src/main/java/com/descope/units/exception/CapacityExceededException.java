@@ -0,0 +1,45 @@
+package com.descope.units.exception;
+
+/**
+ * Exception thrown when a request cannot be served because capacity is temporarily exhausted.
+ *
+ * <p>This exception signals back-pressure rather than a fault: the client should retry after the
+ * suggested delay. It is thrown most often exactly when the service is busiest, so it records no
+ * stack trace.
+ */
+public class CapacityExceededException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  /**
+   * Constructs a new CapacityExceededException.
+   *
+   * @param message the detail message
+   * @param retryAfterSeconds the suggested delay before retrying, in seconds
+   */
+  public CapacityExceededException(String message, long retryAfterSeconds) {
+    super(message, null, false, false);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * Constructs a new CapacityExceededException with a cause.
+   *
+   * @param message the detail message
+   * @param retryAfterSeconds the suggested delay before retrying, in seconds
+   * @param cause the underlying throttling error
+   */
+  public CapacityExceededException(String message, long retryAfterSeconds, Throwable cause) {
+    super(message, cause, false, false);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * Returns the suggested delay before retrying.
+   *
+   * @return the delay in seconds
+   */
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
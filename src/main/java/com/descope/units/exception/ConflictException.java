@@ -0,0 +1,17 @@
+package com.descope.units.exception;
+
+/**
+ * Exception thrown when a request cannot be carried out in the current state of a resource, such as
+ * starting a migration that is already running.
+ */
+public class ConflictException extends RuntimeException {
+
+  /**
+   * Constructs a new ConflictException with the specified message.
+   *
+   * @param message the description of the conflict
+   */
+  public ConflictException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,26 @@
+package com.descope.units.exception;
+
+/**
+ * Exception thrown when a request runs out of time before its data store calls complete.
+ *
+ * <p>Answering at once with a 503 is cheaper than waiting for the platform to kill the request, and
+ * tells the client to retry. Like any capacity error it records no stack trace.
+ */
+public class DeadlineExceededException extends CapacityExceededException {
+
+  private static final String MESSAGE = "The request ran out of time. Please retry later.";
+
+  /** Constructs a new DeadlineExceededException. */
+  public DeadlineExceededException() {
+    super(MESSAGE, 1);
+  }
+
+  /**
+   * Constructs a new DeadlineExceededException with a cause.
+   *
+   * @param cause the timeout or error that used up the remaining time
+   */
+  public DeadlineExceededException(Throwable cause) {
+    super(MESSAGE, 1, cause);
+  }
+}
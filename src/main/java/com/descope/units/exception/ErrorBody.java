@@ -0,0 +1,85 @@
+package com.descope.units.exception;
+
+import com.descope.units.dto.CoarseTimestamp;
+
+/**
+ * Pre-serialized JSON for an {@link com.descope.units.dto.ErrorResponse} with a fixed message.
+ *
+ * <p>Everything but the timestamp is serialized once. The rendered body is cached against the
+ * {@link CoarseTimestamp} instance it was built with, so it is rebuilt at most once per second and
+ * error responses skip both object mapping and allocation.
+ */
+final class ErrorBody {
+
+  private final String prefix;
+  private volatile Rendered rendered = new Rendered(null, null);
+
+  /**
+   * Constructs an ErrorBody.
+   *
+   * @param message the error message
+   * @param status the HTTP status code
+   */
+  ErrorBody(String message, int status) {
+    this.prefix = prefix(message, status);
+  }
+
+  /** Returns the JSON body stamped with the current second. */
+  String render() {
+    String timestamp = CoarseTimestamp.now();
+    Rendered current = rendered;
+    if (current.timestamp != timestamp) {
+      current = new Rendered(timestamp, prefix + timestamp + "\"}");
+      rendered = current;
+    }
+    return current.body;
+  }
+
+  /**
+   * Serializes a one-off error body, for messages that vary per request.
+   *
+   * @param message the error message
+   * @param status the HTTP status code
+   * @return the JSON body
+   */
+  static String render(String message, int status) {
+    return prefix(message, status) + CoarseTimestamp.now() + "\"}";
+  }
+
+  private static String prefix(String message, int status) {
+    StringBuilder json = new StringBuilder(message.length() + 48).append("{\"message\":\"");
+    appendEscaped(json, message);
+    return json.append("\",\"status\":").append(status).append(",\"timestamp\":\"").toString();
+  }
+
+  private static void appendEscaped(StringBuilder json, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+  }
+
+  private static final class Rendered {
+
+    private final String timestamp;
+    private final String body;
+
+    private Rendered(String timestamp, String body) {
+      this.timestamp = timestamp;
+      this.body = body;
+    }
+  }
+}
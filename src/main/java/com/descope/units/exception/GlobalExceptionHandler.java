@@ -1,12 +1,18 @@
 package com.descope.units.exception;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.inject.Inject;
 import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
 
 import com.descope.units.dto.ErrorResponse;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,12 +21,44 @@ import org.slf4j.LoggerFactory;
  *
  * <p>This handler catches exceptions thrown by the application and converts them to appropriate
  * HTTP responses with structured error information.
+ *
+ * <p>Not-found, capacity and unexpected errors are the statuses that spike under scanner traffic or
+ * overload, so their bodies are written from pre-serialized JSON (see {@link ErrorBody}) instead of
+ * mapping an {@link ErrorResponse}, and their log lines are rate limited per kind.
  */
 @Provider
 public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
 
   private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+  private static final int MAX_CACHED_BODIES = 32;
+
+  private static final ErrorBody INTERNAL_ERROR_BODY =
+      new ErrorBody(
+          "An unexpected error occurred. Please try again later.",
+          Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+
+  private final Map<String, ErrorBody> capacityBodies = new ConcurrentHashMap<>();
+  private final LogRateLimiter notFoundLog;
+  private final LogRateLimiter capacityLog;
+  private final LogRateLimiter badRequestLog;
+  private final LogRateLimiter unexpectedLog;
+
+  /**
+   * Constructs a GlobalExceptionHandler.
+   *
+   * @param maxLogsPerSecond the log lines allowed per second for each kind of error
+   */
+  @Inject
+  public GlobalExceptionHandler(
+      @ConfigProperty(name = "units.error-log.max-per-second", defaultValue = "10")
+          int maxLogsPerSecond) {
+    this.notFoundLog = new LogRateLimiter(maxLogsPerSecond, System::nanoTime);
+    this.capacityLog = new LogRateLimiter(maxLogsPerSecond, System::nanoTime);
+    this.badRequestLog = new LogRateLimiter(maxLogsPerSecond, System::nanoTime);
+    this.unexpectedLog = new LogRateLimiter(maxLogsPerSecond, System::nanoTime);
+  }
+
   /**
    * Converts exceptions to HTTP responses.
    *
@@ -31,6 +69,12 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
   public Response toResponse(Exception exception) {
     if (exception instanceof UnitNotFoundException) {
       return handleUnitNotFoundException((UnitNotFoundException) exception);
+    } else if (exception instanceof QuotaExceededException) {
+      return handleQuotaExceededException((QuotaExceededException) exception);
+    } else if (exception instanceof CapacityExceededException) {
+      return handleCapacityExceededException((CapacityExceededException) exception);
+    } else if (exception instanceof ConflictException) {
+      return handleConflictException((ConflictException) exception);
     } else if (exception instanceof ConstraintViolationException) {
       return handleConstraintViolationException((ConstraintViolationException) exception);
     } else if (exception instanceof IllegalArgumentException) {
@@ -41,33 +85,88 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
   }
 
   private Response handleUnitNotFoundException(UnitNotFoundException exception) {
-    logger.warn("Unit not found: {}", exception.getUnitId());
-    ErrorResponse error =
-        new ErrorResponse(exception.getMessage(), Response.Status.NOT_FOUND.getStatusCode());
-    return Response.status(Response.Status.NOT_FOUND).entity(error).build();
+    warn(notFoundLog, "Unit not found: {}", exception.getUnitId());
+    String body =
+        ErrorBody.render(exception.getMessage(), Response.Status.NOT_FOUND.getStatusCode());
+    return Response.status(Response.Status.NOT_FOUND)
+        .type(MediaType.APPLICATION_JSON_TYPE)
+        .entity(body)
+        .build();
+  }
+
+  private Response handleCapacityExceededException(CapacityExceededException exception) {
+    warn(capacityLog, "Capacity exceeded: {}", exception.getMessage());
+    return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+        .header("Retry-After", exception.getRetryAfterSeconds())
+        .type(MediaType.APPLICATION_JSON_TYPE)
+        .entity(capacityBody(exception.getMessage(), Response.Status.SERVICE_UNAVAILABLE))
+        .build();
+  }
+
+  private Response handleQuotaExceededException(QuotaExceededException exception) {
+    warn(capacityLog, "Quota exceeded: {}", exception.getMessage());
+    return Response.status(Response.Status.TOO_MANY_REQUESTS)
+        .header("Retry-After", exception.getRetryAfterSeconds())
+        .type(MediaType.APPLICATION_JSON_TYPE)
+        .entity(capacityBody(exception.getMessage(), Response.Status.TOO_MANY_REQUESTS))
+        .build();
   }
 
   private Response handleConstraintViolationException(ConstraintViolationException exception) {
-    logger.warn("Validation error: {}", exception.getMessage());
+    warn(badRequestLog, "Validation error: {}", exception.getMessage());
     String message = extractValidationMessage(exception);
     ErrorResponse error = new ErrorResponse(message, Response.Status.BAD_REQUEST.getStatusCode());
     return Response.status(Response.Status.BAD_REQUEST).entity(error).build();
   }
 
+  private Response handleConflictException(ConflictException exception) {
+    warn(badRequestLog, "Conflict: {}", exception.getMessage());
+    ErrorResponse error =
+        new ErrorResponse(exception.getMessage(), Response.Status.CONFLICT.getStatusCode());
+    return Response.status(Response.Status.CONFLICT).entity(error).build();
+  }
+
   private Response handleIllegalArgumentException(IllegalArgumentException exception) {
-    logger.warn("Illegal argument: {}", exception.getMessage());
+    warn(badRequestLog, "Illegal argument: {}", exception.getMessage());
     ErrorResponse error =
         new ErrorResponse(exception.getMessage(), Response.Status.BAD_REQUEST.getStatusCode());
     return Response.status(Response.Status.BAD_REQUEST).entity(error).build();
   }
 
   private Response handleGenericException(Exception exception) {
-    logger.error("Unexpected error occurred", exception);
-    ErrorResponse error =
-        new ErrorResponse(
-            "An unexpected error occurred. Please try again later.",
-            Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
-    return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(error).build();
+    long suppressed = unexpectedLog.tryAcquire();
+    if (suppressed > 0) {
+      logger.error(
+          "Unexpected error occurred ({} similar errors suppressed)", suppressed, exception);
+    } else if (suppressed == 0) {
+      logger.error("Unexpected error occurred", exception);
+    }
+    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+        .type(MediaType.APPLICATION_JSON_TYPE)
+        .entity(INTERNAL_ERROR_BODY.render())
+        .build();
+  }
+
+  private String capacityBody(String message, Response.Status responseStatus) {
+    int status = responseStatus.getStatusCode();
+    String key = status + message;
+    ErrorBody body = capacityBodies.get(key);
+    if (body == null) {
+      if (capacityBodies.size() >= MAX_CACHED_BODIES) {
+        return ErrorBody.render(message, status);
+      }
+      body = capacityBodies.computeIfAbsent(key, k -> new ErrorBody(message, status));
+    }
+    return body.render();
+  }
+
+  private static void warn(LogRateLimiter limiter, String message, Object detail) {
+    long suppressed = limiter.tryAcquire();
+    if (suppressed > 0) {
+      logger.warn(message + " ({} similar messages suppressed)", detail, suppressed);
+    } else if (suppressed == 0) {
+      logger.warn(message, detail);
+    }
   }
 
   private String extractValidationMessage(ConstraintViolationException exception) {
@@ -0,0 +1,54 @@
+package com.descope.units.exception;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps how often one kind of log line is written, counting the lines it suppresses.
+ *
+ * <p>Permits are handed out in fixed one-second windows. The first caller after the window rolls
+ * over resets it; the race between callers at the boundary can let a few extra lines through, which
+ * is harmless for logging.
+ */
+final class LogRateLimiter {
+
+  private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final int maxPerSecond;
+  private final LongSupplier nanoClock;
+  private final AtomicLong windowStart;
+  private final AtomicLong used = new AtomicLong();
+  private final AtomicLong suppressed = new AtomicLong();
+
+  /**
+   * Constructs a LogRateLimiter.
+   *
+   * @param maxPerSecond the lines allowed per second; zero or less suppresses every line
+   * @param nanoClock the monotonic clock
+   */
+  LogRateLimiter(int maxPerSecond, LongSupplier nanoClock) {
+    this.maxPerSecond = maxPerSecond;
+    this.nanoClock = nanoClock;
+    this.windowStart = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  /**
+   * Takes a permit to log.
+   *
+   * @return the number of lines suppressed since the last permit, or {@code -1} if this line should
+   *     be suppressed
+   */
+  long tryAcquire() {
+    long now = nanoClock.getAsLong();
+    long start = windowStart.get();
+    if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+      used.set(0);
+    }
+    if (used.incrementAndGet() > maxPerSecond) {
+      suppressed.incrementAndGet();
+      return -1;
+    }
+    return suppressed.getAndSet(0);
+  }
+}
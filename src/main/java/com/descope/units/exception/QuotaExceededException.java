@@ -0,0 +1,21 @@
+package com.descope.units.exception;
+
+/**
+ * Exception thrown when a client has used up its own quota or fair share, as opposed to the service
+ * as a whole being out of capacity.
+ *
+ * <p>It is answered with a 429 rather than a 503, so clients and load balancers can tell their own
+ * excess from an overloaded service. Like any capacity error it records no stack trace.
+ */
+public class QuotaExceededException extends CapacityExceededException {
+
+  /**
+   * Constructs a new QuotaExceededException.
+   *
+   * @param message the detail message
+   * @param retryAfterSeconds the time until the request would be admitted, in seconds
+   */
+  public QuotaExceededException(String message, long retryAfterSeconds) {
+    super(message, retryAfterSeconds);
+  }
+}
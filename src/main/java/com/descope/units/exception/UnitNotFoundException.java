@@ -5,6 +5,10 @@ package com.descope.units.exception;
  *
  * <p>This exception is typically thrown when attempting to retrieve, update, or delete a unit that
  * does not exist.
+ *
+ * <p>Not finding a unit is an expected outcome rather than a fault, and under scanner traffic it is
+ * more frequent than success, so the exception records no stack trace and builds its message only
+ * when asked for it.
  */
 public class UnitNotFoundException extends RuntimeException {
 
@@ -16,10 +20,15 @@ public class UnitNotFoundException extends RuntimeException {
    * @param unitId the id of the unit that was not found
    */
   public UnitNotFoundException(String unitId) {
-    super(String.format("Unit with id '%s' not found", unitId));
+    super(null, null, false, false);
     this.unitId = unitId;
   }
 
+  @Override
+  public String getMessage() {
+    return "Unit with id '" + unitId + "' not found";
+  }
+
   /**
    * Returns the id of the unit that was not found.
    *
@@ -0,0 +1,202 @@
+package com.descope.units.existence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Cuckoo filter over strings with 4-slot buckets and up to 16-bit fingerprints.
+ *
+ * <p>Each key maps to a fingerprint and two candidate buckets, the second derived from the first
+ * and the fingerprint alone, so entries can be relocated without the original key. Unlike a Bloom
+ * filter it supports deletion, provided only keys that were added are deleted. When an insert
+ * cannot find room after {@link #MAX_KICKS} relocations, the homeless fingerprint is parked in a
+ * one-entry stash and the filter reports itself full; {@link ScalableCuckooFilter} then starts a
+ * new filter.
+ *
+ * <p>The false-positive rate is about {@code 8 / 2^fingerprintBits}. Not thread-safe.
+ */
+final class CuckooFilter {
+
+  static final int SLOTS_PER_BUCKET = 4;
+  private static final int MAX_KICKS = 500;
+  private static final double MAX_LOAD = 0.95;
+
+  private final short[] slots;
+  private final int bucketMask;
+  private final int fingerprintMask;
+  private final SplittableRandom random = new SplittableRandom(0x5eed);
+
+  private int size;
+  private boolean stashed;
+  private int stashBucket;
+  private short stashFingerprint;
+
+  /**
+   * Constructs a CuckooFilter.
+   *
+   * @param capacity the number of keys the filter should hold before it fills up
+   * @param fingerprintBits the fingerprint size, between 4 and 16
+   */
+  CuckooFilter(int capacity, int fingerprintBits) {
+    if (fingerprintBits < 4 || fingerprintBits > 16) {
+      throw new IllegalArgumentException("Fingerprint bits must be between 4 and 16");
+    }
+    int buckets =
+        Integer.highestOneBit(
+            Math.max(1, (int) Math.ceil(capacity / (SLOTS_PER_BUCKET * MAX_LOAD))) * 2 - 1);
+    this.slots = new short[buckets * SLOTS_PER_BUCKET];
+    this.bucketMask = buckets - 1;
+    this.fingerprintMask = (1 << fingerprintBits) - 1;
+  }
+
+  /**
+   * Returns the fingerprint size that gives at most the requested false-positive rate.
+   *
+   * @param falsePositiveRate the target rate, in (0, 1)
+   * @return the fingerprint size in bits, clamped to [4, 16]
+   */
+  static int fingerprintBitsFor(double falsePositiveRate) {
+    int bits = (int) Math.ceil(Math.log(2.0 * SLOTS_PER_BUCKET / falsePositiveRate) / Math.log(2));
+    return Math.max(4, Math.min(16, bits));
+  }
+
+  /** Adds a key; returns false only if the filter was already full and nothing was stored. */
+  boolean add(String key) {
+    if (stashed) {
+      return false;
+    }
+    long hash = hash(key);
+    short fingerprint = fingerprint(hash);
+    int first = (int) hash & bucketMask;
+    if (insertInto(first, fingerprint) || insertInto(alternate(first, fingerprint), fingerprint)) {
+      size++;
+      return true;
+    }
+
+    int bucket = random.nextBoolean() ? first : alternate(first, fingerprint);
+    short homeless = fingerprint;
+    for (int kick = 0; kick < MAX_KICKS; kick++) {
+      int slot = bucket * SLOTS_PER_BUCKET + random.nextInt(SLOTS_PER_BUCKET);
+      short evicted = slots[slot];
+      slots[slot] = homeless;
+      homeless = evicted;
+      bucket = alternate(bucket, homeless);
+      if (insertInto(bucket, homeless)) {
+        size++;
+        return true;
+      }
+    }
+    // The key is stored; the fingerprint it displaced waits in the stash
+    stashed = true;
+    stashBucket = bucket;
+    stashFingerprint = homeless;
+    size++;
+    return true;
+  }
+
+  /** Returns false if the key was definitely never added (or has been removed). */
+  boolean mightContain(String key) {
+    long hash = hash(key);
+    short fingerprint = fingerprint(hash);
+    int first = (int) hash & bucketMask;
+    int second = alternate(first, fingerprint);
+    return indexOf(first, fingerprint) >= 0
+        || indexOf(second, fingerprint) >= 0
+        || (stashed
+            && stashFingerprint == fingerprint
+            && (stashBucket == first || stashBucket == second));
+  }
+
+  /** Removes one copy of a key's fingerprint; the key must have been added. */
+  boolean remove(String key) {
+    long hash = hash(key);
+    short fingerprint = fingerprint(hash);
+    int first = (int) hash & bucketMask;
+    int second = alternate(first, fingerprint);
+    if (stashed
+        && stashFingerprint == fingerprint
+        && (stashBucket == first || stashBucket == second)) {
+      stashed = false;
+      size--;
+      return true;
+    }
+    for (int bucket : new int[] {first, second}) {
+      int slot = indexOf(bucket, fingerprint);
+      if (slot >= 0) {
+        slots[slot] = 0;
+        size--;
+        reinsertStash();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean isFull() {
+    return stashed || size >= slots.length * MAX_LOAD;
+  }
+
+  int size() {
+    return size;
+  }
+
+  long memoryBytes() {
+    return (long) slots.length * Short.BYTES;
+  }
+
+  private void reinsertStash() {
+    if (stashed
+        && (insertInto(stashBucket, stashFingerprint)
+            || insertInto(alternate(stashBucket, stashFingerprint), stashFingerprint))) {
+      stashed = false;
+    }
+  }
+
+  private boolean insertInto(int bucket, short fingerprint) {
+    int base = bucket * SLOTS_PER_BUCKET;
+    for (int i = base; i < base + SLOTS_PER_BUCKET; i++) {
+      if (slots[i] == 0) {
+        slots[i] = fingerprint;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int indexOf(int bucket, short fingerprint) {
+    int base = bucket * SLOTS_PER_BUCKET;
+    for (int i = base; i < base + SLOTS_PER_BUCKET; i++) {
+      if (slots[i] == fingerprint) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Fingerprints are never zero, which marks an empty slot. */
+  private short fingerprint(long hash) {
+    int fingerprint = (int) (hash >>> 40) & fingerprintMask;
+    return (short) (fingerprint == 0 ? 1 : fingerprint);
+  }
+
+  private int alternate(int bucket, short fingerprint) {
+    return (bucket ^ (int) mix(fingerprint & 0xFFFF)) & bucketMask;
+  }
+
+  /** 64-bit FNV-1a over the UTF-8 bytes, finished with a SplitMix64 mixer. */
+  private static long hash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long value) {
+    long z = value + 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,143 @@
+package com.descope.units.existence;
+
+/** Point-in-time state of the {@link UnitExistenceFilter}. */
+public class ExistenceFilterStats {
+
+  private final boolean enabled;
+  private final boolean loaded;
+  private final long ids;
+  private final int layers;
+  private final long memoryBytes;
+  private final int fingerprintBits;
+  private final double targetFalsePositiveRate;
+  private final long lookups;
+  private final long recentIds;
+  private final long definiteMisses;
+
+  /**
+   * Constructs an ExistenceFilterStats snapshot.
+   *
+   * @param enabled whether lookups are answered from the filter
+   * @param loaded whether a scan has completed
+   * @param ids the number of ids in the filter
+   * @param layers the number of cuckoo filters the filter has grown to
+   * @param memoryBytes the memory held by the filter tables
+   * @param fingerprintBits the fingerprint size
+   * @param targetFalsePositiveRate the configured false-positive rate
+   * @param lookups the number of lookups
+   * @param recentIds the number of lookups of ids too recent to answer from the filter
+   * @param definiteMisses the number of lookups answered as absent without the data store
+   */
+  public ExistenceFilterStats(
+      boolean enabled,
+      boolean loaded,
+      long ids,
+      int layers,
+      long memoryBytes,
+      int fingerprintBits,
+      double targetFalsePositiveRate,
+      long lookups,
+      long recentIds,
+      long definiteMisses) {
+    this.enabled = enabled;
+    this.loaded = loaded;
+    this.ids = ids;
+    this.layers = layers;
+    this.memoryBytes = memoryBytes;
+    this.fingerprintBits = fingerprintBits;
+    this.targetFalsePositiveRate = targetFalsePositiveRate;
+    this.lookups = lookups;
+    this.recentIds = recentIds;
+    this.definiteMisses = definiteMisses;
+  }
+
+  /**
+   * Returns whether lookups are answered from the filter.
+   *
+   * @return true if the filter is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns whether a scan has completed.
+   *
+   * @return true once the filter answers lookups
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  /**
+   * Returns the number of ids in the filter.
+   *
+   * @return the id count
+   */
+  public long getIds() {
+    return ids;
+  }
+
+  /**
+   * Returns the number of cuckoo filters the filter has grown to.
+   *
+   * @return the layer count
+   */
+  public int getLayers() {
+    return layers;
+  }
+
+  /**
+   * Returns the memory held by the filter tables.
+   *
+   * @return the size in bytes
+   */
+  public long getMemoryBytes() {
+    return memoryBytes;
+  }
+
+  /**
+   * Returns the fingerprint size.
+   *
+   * @return the fingerprint size in bits
+   */
+  public int getFingerprintBits() {
+    return fingerprintBits;
+  }
+
+  /**
+   * Returns the configured false-positive rate.
+   *
+   * @return the target rate
+   */
+  public double getTargetFalsePositiveRate() {
+    return targetFalsePositiveRate;
+  }
+
+  /**
+   * Returns the number of lookups.
+   *
+   * @return the lookup count
+   */
+  public long getLookups() {
+    return lookups;
+  }
+
+  /**
+   * Returns the number of lookups of ids too recent to answer from the filter.
+   *
+   * @return the recent id count
+   */
+  public long getRecentIds() {
+    return recentIds;
+  }
+
+  /**
+   * Returns the number of lookups answered as absent without the data store.
+   *
+   * @return the definite miss count
+   */
+  public long getDefiniteMisses() {
+    return definiteMisses;
+  }
+}
@@ -0,0 +1,75 @@
+package com.descope.units.existence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cuckoo filter that grows by adding filters of doubling capacity as earlier ones fill up.
+ *
+ * <p>Lookups consult every layer, so the false-positive rate is roughly the sum of the layers'
+ * rates. Sizing the first layer for the expected number of keys keeps it to one layer in the common
+ * case. Removal only works while there is one layer: with more, the layer holding a key is unknown,
+ * and removing a matching fingerprint from another layer would drop a different key. Not
+ * thread-safe.
+ */
+final class ScalableCuckooFilter {
+
+  private final int fingerprintBits;
+  private final List<CuckooFilter> layers = new ArrayList<>();
+
+  ScalableCuckooFilter(int initialCapacity, int fingerprintBits) {
+    this.fingerprintBits = fingerprintBits;
+    layers.add(new CuckooFilter(initialCapacity, fingerprintBits));
+  }
+
+  void add(String key) {
+    CuckooFilter last = layers.get(layers.size() - 1);
+    if (last.isFull() || !last.add(key)) {
+      CuckooFilter next = new CuckooFilter(capacity(last) * 2, fingerprintBits);
+      layers.add(next);
+      next.add(key);
+    }
+  }
+
+  boolean mightContain(String key) {
+    for (CuckooFilter layer : layers) {
+      if (layer.mightContain(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes a key that was added, if the filter still has a single layer.
+   *
+   * @return true if the key was removed; false if the filter has grown, and the key stays
+   */
+  boolean remove(String key) {
+    return layers.size() == 1 && layers.get(0).remove(key);
+  }
+
+  long size() {
+    long size = 0;
+    for (CuckooFilter layer : layers) {
+      size += layer.size();
+    }
+    return size;
+  }
+
+  long memoryBytes() {
+    long bytes = 0;
+    for (CuckooFilter layer : layers) {
+      bytes += layer.memoryBytes();
+    }
+    return bytes;
+  }
+
+  int layers() {
+    return layers.size();
+  }
+
+  private static int capacity(CuckooFilter filter) {
+    return (int) (filter.memoryBytes() / Short.BYTES);
+  }
+}
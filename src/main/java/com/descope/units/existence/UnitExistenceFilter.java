@@ -0,0 +1,299 @@
+package com.descope.units.existence;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory filter of unit ids that answers "definitely absent" without touching the data store.
+ *
+ * <p>The filter is built from a table scan. Every instance builds its own, so a unit created by
+ * another instance after the scan is not in it. Unit ids are UUIDv7, which embed their creation
+ * time: any id created less than {@code new-id-grace} before the scan started, or later, is treated
+ * as possibly present and looked up as usual. Only older ids, which the scan is guaranteed to have
+ * seen, are answered from the filter. Creates therefore need not update the filter, except when the
+ * id was generated well before the write was applied, as for writes accepted into the journal and
+ * applied later: those ids are {@link #add added}. Deletes of old ids remove them so they become
+ * definite misses too. The grace period also covers clock skew between instances and the eventual
+ * consistency of scans.
+ *
+ * <p>Periodic rebuilds move the cutoff forward. Until the first build completes, every id is
+ * treated as possibly present.
+ */
+@ApplicationScoped
+public class UnitExistenceFilter {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnitExistenceFilter.class);
+
+  private final boolean enabled;
+  private final int expectedUnits;
+  private final double falsePositiveRate;
+  private final long graceMillis;
+  private final LongSupplier clock;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private Generation current;
+  private volatile Generation building;
+
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder recentIds = new LongAdder();
+  private final LongAdder definiteMisses = new LongAdder();
+
+  /**
+   * Constructs a UnitExistenceFilter.
+   *
+   * @param enabled whether lookups are answered from the filter
+   * @param expectedUnits the number of units the filter is sized for
+   * @param falsePositiveRate the target rate of absent ids reported as possibly present
+   * @param graceSeconds how long before a scan an id must have been created to be filtered
+   */
+  @Inject
+  public UnitExistenceFilter(
+      @ConfigProperty(name = "units.existence-filter.enabled", defaultValue = "true")
+          boolean enabled,
+      @ConfigProperty(name = "units.existence-filter.expected-units", defaultValue = "1000000")
+          int expectedUnits,
+      @ConfigProperty(name = "units.existence-filter.false-positive-rate", defaultValue = "0.001")
+          double falsePositiveRate,
+      @ConfigProperty(name = "units.existence-filter.new-id-grace-seconds", defaultValue = "60")
+          long graceSeconds) {
+    this(
+        enabled,
+        expectedUnits,
+        falsePositiveRate,
+        TimeUnit.SECONDS.toMillis(graceSeconds),
+        System::currentTimeMillis);
+  }
+
+  UnitExistenceFilter(
+      boolean enabled,
+      int expectedUnits,
+      double falsePositiveRate,
+      long graceMillis,
+      LongSupplier clock) {
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+    }
+    this.enabled = enabled;
+    this.expectedUnits = expectedUnits;
+    this.falsePositiveRate = falsePositiveRate;
+    this.graceMillis = graceMillis;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns whether a unit definitely does not exist, in which case the data store need not be
+   * asked.
+   *
+   * @param id the unit id
+   * @return true only if the unit definitely does not exist
+   */
+  public boolean definitelyAbsent(String id) {
+    if (!enabled) {
+      return false;
+    }
+    lookups.increment();
+    lock.readLock().lock();
+    try {
+      if (current == null) {
+        return false;
+      }
+      if (createdAfter(id, current.cutoffMillis)) {
+        recentIds.increment();
+        return false;
+      }
+      if (current.filter.mightContain(id)) {
+        return false;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    definiteMisses.increment();
+    return true;
+  }
+
+  /**
+   * Records that a unit was created, so lookups of its id are not answered as definite misses.
+   *
+   * <p>Only needed for ids that may be older than the cutoff of the current or building generation,
+   * such as an id generated when a write was accepted and used when it was applied. Newer ids
+   * bypass the filter and are not added.
+   *
+   * @param id the id of the created unit
+   */
+  public void add(String id) {
+    lock.writeLock().lock();
+    try {
+      if (current != null && !createdAfter(id, current.cutoffMillis)) {
+        current.filter.add(id);
+      }
+      Generation next = building;
+      if (next != null && next != current && !createdAfter(id, next.cutoffMillis)) {
+        synchronized (next) {
+          next.filter.add(id);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Records that a unit was deleted, so later lookups of its id are definite misses.
+   *
+   * <p>Must only be called for ids that existed, since removing an id that was never added may
+   * remove a colliding id instead. Once the filter has grown beyond the size it was built for,
+   * removals are skipped and deleted ids stay possibly present until the next rebuild.
+   *
+   * @param id the id of the deleted unit
+   */
+  public void remove(String id) {
+    lock.writeLock().lock();
+    try {
+      // Recent ids may never have been added; they bypass the filter anyway
+      if (current != null && !createdAfter(id, current.cutoffMillis)) {
+        current.filter.remove(id);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Starts building a new generation; ids are added with {@link #addScanned}. */
+  void beginRebuild() {
+    beginRebuild(clock.getAsLong());
+  }
+
+  /**
+   * Starts building a new generation from a scan that started at a given time, such as the scan a
+   * restored snapshot was taken from; ids created since then bypass the generation.
+   *
+   * @param scanStartedMillis when the scan started, in epoch milliseconds
+   */
+  void beginRebuild(long scanStartedMillis) {
+    building =
+        new Generation(
+            new ScalableCuckooFilter(
+                expectedUnits, CuckooFilter.fingerprintBitsFor(falsePositiveRate)),
+            scanStartedMillis - graceMillis);
+  }
+
+  /**
+   * Adds an id read by the scan to the generation being built. Safe to call from scan threads.
+   *
+   * @param id the scanned unit id
+   */
+  void addScanned(String id) {
+    Generation next = building;
+    synchronized (next) {
+      next.filter.add(id);
+    }
+  }
+
+  /**
+   * Finishes a rebuild, replacing the current generation if the scan succeeded.
+   *
+   * <p>Deletes during the scan are not applied to the new generation; at worst the deleted ids stay
+   * as false positives until the next rebuild.
+   *
+   * @param success whether the scan read the whole table
+   */
+  void completeRebuild(boolean success) {
+    Generation next;
+    lock.writeLock().lock();
+    try {
+      // Under the lock so that an id added meanwhile reaches one generation or the other
+      next = building;
+      building = null;
+      if (!success || next == null) {
+        return;
+      }
+      current = next;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    logger.info(
+        "Unit existence filter rebuilt with {} ids in {} KiB",
+        next.filter.size(),
+        next.filter.memoryBytes() / 1024);
+  }
+
+  /**
+   * Returns whether the filter is enabled.
+   *
+   * @return true if lookups are answered from the filter
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the size, memory use and hit counts of the filter.
+   *
+   * @return the filter statistics
+   */
+  public ExistenceFilterStats stats() {
+    lock.readLock().lock();
+    try {
+      return new ExistenceFilterStats(
+          enabled,
+          current != null,
+          current == null ? 0 : current.filter.size(),
+          current == null ? 0 : current.filter.layers(),
+          current == null ? 0 : current.filter.memoryBytes(),
+          CuckooFilter.fingerprintBitsFor(falsePositiveRate),
+          falsePositiveRate,
+          lookups.sum(),
+          recentIds.sum(),
+          definiteMisses.sum());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns whether an id is a UUIDv7 created at or after a cutoff.
+   *
+   * <p>Ids that are not UUIDv7 were not generated by this service and are never treated as recent.
+   */
+  static boolean createdAfter(String id, long cutoffMillis) {
+    if (id == null
+        || id.length() != 36
+        || id.charAt(8) != '-'
+        || id.charAt(13) != '-'
+        || id.charAt(14) != '7') {
+      return false;
+    }
+    long millis = 0;
+    for (int i = 0; i < 13; i++) {
+      if (i == 8) {
+        continue;
+      }
+      int digit = Character.digit(id.charAt(i), 16);
+      if (digit < 0) {
+        return false;
+      }
+      millis = (millis << 4) | digit;
+    }
+    return millis >= cutoffMillis;
+  }
+
+  private static final class Generation {
+
+    private final ScalableCuckooFilter filter;
+    private final long cutoffMillis;
+
+    private Generation(ScalableCuckooFilter filter, long cutoffMillis) {
+      this.filter = filter;
+      this.cutoffMillis = cutoffMillis;
+    }
+  }
+}
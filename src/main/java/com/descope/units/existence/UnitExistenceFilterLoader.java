@@ -0,0 +1,113 @@
+package com.descope.units.existence;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import com.descope.units.repository.UnitRepository;
+import com.descope.units.snapshot.UnitSnapshots;
+
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds the {@link UnitExistenceFilter} from a parallel table scan at startup and rebuilds it
+ * periodically so that the cutoff for filtered ids moves forward.
+ *
+ * <p>The startup build uses a recent snapshot instead of a scan when one is available (see {@link
+ * UnitSnapshots}); the snapshot's time then sets the cutoff, as the scan's start time would.
+ */
+@ApplicationScoped
+public class UnitExistenceFilterLoader {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnitExistenceFilterLoader.class);
+
+  private final UnitExistenceFilter filter;
+  private final UnitRepository unitRepository;
+  private final UnitSnapshots snapshots;
+  private final int scanSegments;
+  private final long rebuildIntervalMinutes;
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * Constructs a UnitExistenceFilterLoader.
+   *
+   * @param filter the filter to build
+   * @param unitRepository the repository to scan
+   * @param snapshots the snapshots to build from at startup, when recent enough
+   * @param scanSegments the number of parallel scan segments
+   * @param rebuildIntervalMinutes the delay between rebuilds, or 0 to build only at startup
+   */
+  @Inject
+  public UnitExistenceFilterLoader(
+      UnitExistenceFilter filter,
+      UnitRepository unitRepository,
+      UnitSnapshots snapshots,
+      @ConfigProperty(name = "units.existence-filter.scan-segments", defaultValue = "4")
+          int scanSegments,
+      @ConfigProperty(name = "units.existence-filter.rebuild-interval-minutes", defaultValue = "60")
+          long rebuildIntervalMinutes) {
+    this.filter = filter;
+    this.unitRepository = unitRepository;
+    this.snapshots = snapshots;
+    this.scanSegments = scanSegments;
+    this.rebuildIntervalMinutes = rebuildIntervalMinutes;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!filter.isEnabled()) {
+      logger.info("Unit existence filter is disabled");
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "unit-existence-filter-loader");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.execute(this::loadOnStart);
+    if (rebuildIntervalMinutes > 0) {
+      scheduler.scheduleWithFixedDelay(
+          this::load, rebuildIntervalMinutes, rebuildIntervalMinutes, TimeUnit.MINUTES);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /** Builds the first generation from a snapshot, or from a scan if there is none. */
+  void loadOnStart() {
+    if (snapshots.restore(filter::beginRebuild, unit -> filter.addScanned(unit.getId()))) {
+      filter.completeRebuild(true);
+    } else {
+      load();
+    }
+  }
+
+  /** Scans the table into a new filter generation, blocking until the scan completes or fails. */
+  void load() {
+    logger.info("Building unit existence filter with {} scan segments", scanSegments);
+    filter.beginRebuild();
+    try {
+      unitRepository.scanAll(scanSegments, unit -> filter.addScanned(unit.getId()));
+      filter.completeRebuild(true);
+    } catch (RuntimeException e) {
+      // Keep the schedule alive and the previous generation in use
+      logger.warn("Failed to build unit existence filter", e);
+      filter.completeRebuild(false);
+    }
+  }
+}
@@ -0,0 +1,286 @@
+package com.descope.units.health;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
+
+/**
+ * Readiness check that DynamoDB is reachable and the unit tables are serving.
+ *
+ * <p>A background thread describes each table on a jittered schedule, so instances probed by the
+ * same load balancer do not call DynamoDB in step, and {@link #call} only returns the last verdict.
+ * Health probes therefore cost no AWS call however often they come. The check starts down, so an
+ * instance that cannot reach DynamoDB never receives traffic, and comes up with the first good
+ * probe. Once up, it turns down only after {@code units.health.dynamodb.failure-threshold} failed
+ * probes in a row, so a single slow or throttled describe does not take the instance out of
+ * service; one good probe brings it back. If the schedule has not run for several intervals, as
+ * when a Lambda environment was frozen between invocations, a probe triggers a refresh in the
+ * background and is still answered from the cache.
+ */
+@Readiness
+@ApplicationScoped
+@UnlessBuildProperty(name = "units.repository.type", stringValue = "log", enableIfMissing = true)
+public class DynamoDbReadinessCheck implements HealthCheck {
+
+  private static final Logger logger = LoggerFactory.getLogger(DynamoDbReadinessCheck.class);
+
+  private static final String NAME = "dynamodb";
+  private static final int STALE_INTERVALS = 3;
+
+  private final DynamoDbClient dynamoDbClient;
+  private final List<String> tables;
+  private final boolean enabled;
+  private final long intervalMillis;
+  private final double jitter;
+  private final int failureThreshold;
+  private final Duration timeout;
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private ScheduledExecutorService scheduler;
+
+  private volatile Verdict verdict = Verdict.INITIAL;
+
+  /**
+   * Constructs a DynamoDbReadinessCheck.
+   *
+   * @param dynamoDbClient the DynamoDB client
+   * @param tableName the unit table
+   * @param binaryTableName the table keyed by binary ids, if configured
+   * @param enabled whether DynamoDB is probed; when disabled the check is always up
+   * @param intervalMillis the average delay between probes
+   * @param jitter the fraction by which each delay is randomly shortened or lengthened
+   * @param failureThreshold the consecutive failed probes after which the check is down
+   * @param timeoutMillis the time each describe call may take
+   */
+  @Inject
+  public DynamoDbReadinessCheck(
+      DynamoDbClient dynamoDbClient,
+      @ConfigProperty(name = "dynamodb.table.units") String tableName,
+      @ConfigProperty(name = "dynamodb.table.units-binary") Optional<String> binaryTableName,
+      @ConfigProperty(name = "units.health.dynamodb.enabled", defaultValue = "true")
+          boolean enabled,
+      @ConfigProperty(name = "units.health.dynamodb.interval-ms", defaultValue = "10000")
+          long intervalMillis,
+      @ConfigProperty(name = "units.health.dynamodb.jitter", defaultValue = "0.2") double jitter,
+      @ConfigProperty(name = "units.health.dynamodb.failure-threshold", defaultValue = "3")
+          int failureThreshold,
+      @ConfigProperty(name = "units.health.dynamodb.timeout-ms", defaultValue = "2000")
+          long timeoutMillis) {
+    if (intervalMillis <= 0 || failureThreshold < 1 || jitter < 0 || jitter >= 1) {
+      throw new IllegalArgumentException(
+          "DynamoDB health check needs a positive interval, a failure threshold of at least 1"
+              + " and a jitter in [0, 1)");
+    }
+    this.dynamoDbClient = dynamoDbClient;
+    List<String> names = new ArrayList<>();
+    names.add(tableName);
+    binaryTableName.ifPresent(names::add);
+    this.tables = List.copyOf(names);
+    this.enabled = enabled;
+    this.intervalMillis = intervalMillis;
+    this.jitter = jitter;
+    this.failureThreshold = failureThreshold;
+    this.timeout = Duration.ofMillis(timeoutMillis);
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "dynamodb-health");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.execute(this::refreshAndReschedule);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Override
+  public HealthCheckResponse call() {
+    HealthCheckResponseBuilder response = HealthCheckResponse.named(NAME);
+    if (!enabled) {
+      return response.up().withData("enabled", false).build();
+    }
+    Verdict current = verdict;
+    refreshIfStale(current);
+    response.status(current.up);
+    if (current.checkedAtMillis == 0) {
+      return response.withData("pending", true).build();
+    }
+    current.tableStatuses.forEach(response::withData);
+    response
+        .withData("latencyMs", current.latencyMillis)
+        .withData("checkedAt", Instant.ofEpochMilli(current.checkedAtMillis).toString())
+        .withData("consecutiveFailures", current.consecutiveFailures);
+    if (current.error != null) {
+      response.withData("error", current.error);
+    }
+    return response.build();
+  }
+
+  /** Describes every table once and updates the verdict, blocking until done. */
+  void refresh() {
+    long started = System.nanoTime();
+    Map<String, String> statuses = new LinkedHashMap<>();
+    String error = null;
+    for (String table : tables) {
+      try {
+        TableStatus status =
+            dynamoDbClient
+                .describeTable(
+                    DescribeTableRequest.builder()
+                        .tableName(table)
+                        .overrideConfiguration(override -> override.apiCallTimeout(timeout))
+                        .build())
+                .table()
+                .tableStatus();
+        statuses.put(table, String.valueOf(status));
+        if (error == null && status != TableStatus.ACTIVE && status != TableStatus.UPDATING) {
+          error = "Table " + table + " is " + status;
+        }
+      } catch (SdkException e) {
+        statuses.put(table, "UNREACHABLE");
+        if (error == null) {
+          error = "Describing table " + table + " failed: " + e.getMessage();
+        }
+      }
+    }
+    long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    Verdict previous = verdict;
+    int failures = error == null ? 0 : previous.consecutiveFailures + 1;
+    boolean up = error == null || (previous.up && failures < failureThreshold);
+    if (up != previous.up) {
+      if (up) {
+        logger.info(
+            previous.checkedAtMillis == 0 ? "DynamoDB is ready" : "DynamoDB is ready again");
+      } else {
+        logger.warn("DynamoDB is not ready after {} failed probes: {}", failures, error);
+      }
+    } else if (error != null && previous.checkedAtMillis == 0) {
+      logger.warn("DynamoDB is not ready yet: {}", error);
+    } else if (error != null) {
+      logger.debug("DynamoDB probe failed ({} in a row): {}", failures, error);
+    }
+    verdict =
+        new Verdict(
+            up,
+            Collections.unmodifiableMap(statuses),
+            latencyMillis,
+            System.currentTimeMillis(),
+            failures,
+            error);
+  }
+
+  private void refreshAndReschedule() {
+    try {
+      refreshOnce();
+    } finally {
+      try {
+        scheduler.schedule(this::refreshAndReschedule, nextDelayMillis(), TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        logger.debug("DynamoDB health check stopped");
+      }
+    }
+  }
+
+  private void refreshOnce() {
+    if (!refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      refresh();
+    } catch (RuntimeException e) {
+      logger.warn("DynamoDB health probe failed unexpectedly", e);
+    } finally {
+      refreshing.set(false);
+    }
+  }
+
+  private void refreshIfStale(Verdict current) {
+    long age = System.currentTimeMillis() - current.checkedAtMillis;
+    if (scheduler == null
+        || current.checkedAtMillis == 0
+        || age < STALE_INTERVALS * intervalMillis
+        || refreshing.get()) {
+      return;
+    }
+    try {
+      scheduler.execute(this::refreshOnce);
+    } catch (RejectedExecutionException e) {
+      logger.debug("DynamoDB health check stopped");
+    }
+  }
+
+  private long nextDelayMillis() {
+    double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+    return Math.max(1, Math.round(intervalMillis * factor));
+  }
+
+  /** The outcome of the latest probe, replaced as a whole so a probe never sees half of it. */
+  private static final class Verdict {
+
+    static final Verdict INITIAL = new Verdict(false, Map.of(), 0, 0, 0, null);
+
+    private final boolean up;
+    private final Map<String, String> tableStatuses;
+    private final long latencyMillis;
+    private final long checkedAtMillis;
+    private final int consecutiveFailures;
+    private final String error;
+
+    private Verdict(
+        boolean up,
+        Map<String, String> tableStatuses,
+        long latencyMillis,
+        long checkedAtMillis,
+        int consecutiveFailures,
+        String error) {
+      this.up = up;
+      this.tableStatuses = tableStatuses;
+      this.latencyMillis = latencyMillis;
+      this.checkedAtMillis = checkedAtMillis;
+      this.consecutiveFailures = consecutiveFailures;
+      this.error = error;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.descope.units.hedging;
+
+/**
+ * Point-in-time counters of the {@link ReadHedger}.
+ *
+ * <p>A hedge win means the second attempt answered first; a loss means the first attempt still won
+ * after the hedge was sent, so the hedge only added load.
+ */
+public class HedgingStats {
+
+  private final boolean enabled;
+  private final long reads;
+  private final long hedges;
+  private final long hedgeWins;
+  private final long hedgeLosses;
+  private final long hedgesDenied;
+  private final long hedgeDelayMicros;
+
+  /**
+   * Constructs a HedgingStats snapshot.
+   *
+   * @param enabled whether hedging is enabled
+   * @param reads the number of reads executed
+   * @param hedges the number of hedged attempts sent
+   * @param hedgeWins the number of reads won by the hedge
+   * @param hedgeLosses the number of reads won by the first attempt after a hedge was sent
+   * @param hedgesDenied the number of hedges skipped because the budget was exhausted
+   * @param hedgeDelayMicros the current hedge delay in microseconds, zero while warming up
+   */
+  public HedgingStats(
+      boolean enabled,
+      long reads,
+      long hedges,
+      long hedgeWins,
+      long hedgeLosses,
+      long hedgesDenied,
+      long hedgeDelayMicros) {
+    this.enabled = enabled;
+    this.reads = reads;
+    this.hedges = hedges;
+    this.hedgeWins = hedgeWins;
+    this.hedgeLosses = hedgeLosses;
+    this.hedgesDenied = hedgesDenied;
+    this.hedgeDelayMicros = hedgeDelayMicros;
+  }
+
+  /**
+   * Returns whether hedging is enabled.
+   *
+   * @return true if reads are hedged
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the number of reads executed.
+   *
+   * @return the read count
+   */
+  public long getReads() {
+    return reads;
+  }
+
+  /**
+   * Returns the number of hedged attempts sent.
+   *
+   * @return the hedge count
+   */
+  public long getHedges() {
+    return hedges;
+  }
+
+  /**
+   * Returns the number of reads won by the hedge.
+   *
+   * @return the hedge win count
+   */
+  public long getHedgeWins() {
+    return hedgeWins;
+  }
+
+  /**
+   * Returns the number of reads won by the first attempt after a hedge was sent.
+   *
+   * @return the hedge loss count
+   */
+  public long getHedgeLosses() {
+    return hedgeLosses;
+  }
+
+  /**
+   * Returns the number of hedges skipped because the budget was exhausted.
+   *
+   * @return the denied hedge count
+   */
+  public long getHedgesDenied() {
+    return hedgesDenied;
+  }
+
+  /**
+   * Returns the current hedge delay.
+   *
+   * @return the delay in microseconds, zero while warming up
+   */
+  public long getHedgeDelayMicros() {
+    return hedgeDelayMicros;
+  }
+}
@@ -0,0 +1,123 @@
+package com.descope.units.hedging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, decaying latency histogram used to estimate a high percentile cheaply.
+ *
+ * <p>Latencies are bucketed logarithmically with four sub-buckets per power of two of microseconds,
+ * which bounds the relative error of any percentile to about 19%. Every {@code decayInterval}
+ * samples all counts are halved, so the estimate follows recent behaviour instead of the whole
+ * process lifetime. The percentile is recomputed on decay and cached, so reads are a single
+ * volatile load.
+ */
+final class LatencyTracker {
+
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = 40 * SUB_BUCKETS;
+
+  private final double percentile;
+  private final int decayInterval;
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder samplesSinceDecay = new LongAdder();
+  private final LongAdder totalSamples = new LongAdder();
+
+  private volatile long percentileNanos = -1;
+
+  /**
+   * Constructs a LatencyTracker.
+   *
+   * @param percentile the percentile to track, in (0, 1)
+   * @param decayInterval the number of samples between decays and recomputations
+   */
+  LatencyTracker(double percentile, int decayInterval) {
+    if (percentile <= 0 || percentile >= 1) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 1");
+    }
+    this.percentile = percentile;
+    this.decayInterval = decayInterval;
+  }
+
+  /**
+   * Records a latency sample.
+   *
+   * @param nanos the observed latency in nanoseconds
+   */
+  void record(long nanos) {
+    counts.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(nanos)));
+    totalSamples.increment();
+    samplesSinceDecay.increment();
+    if (samplesSinceDecay.sum() >= decayInterval) {
+      decayAndRecompute();
+    }
+  }
+
+  /**
+   * Returns the cached percentile estimate.
+   *
+   * @return the latency in nanoseconds, or -1 until the first {@code decayInterval} samples
+   */
+  long percentileNanos() {
+    return percentileNanos;
+  }
+
+  /**
+   * Returns the number of samples recorded since creation.
+   *
+   * @return the sample count
+   */
+  long totalSamples() {
+    return totalSamples.sum();
+  }
+
+  private synchronized void decayAndRecompute() {
+    // Another thread may have decayed while this one waited for the monitor
+    if (samplesSinceDecay.sum() < decayInterval) {
+      return;
+    }
+    samplesSinceDecay.reset();
+
+    long total = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    long rank = (long) Math.ceil(total * percentile);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        percentileNanos = TimeUnit.MICROSECONDS.toNanos(upperBoundMicros(i));
+        break;
+      }
+    }
+    for (int i = 0; i < BUCKETS; i++) {
+      long current = counts.get(i);
+      counts.addAndGet(i, -(current - current / 2));
+    }
+  }
+
+  static int bucketOf(long micros) {
+    if (micros < SUB_BUCKETS) {
+      return (int) Math.max(0, micros);
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    int mantissa = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    int bucket = (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    return Math.min(bucket, BUCKETS - 1);
+  }
+
+  static long upperBoundMicros(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket + 1;
+    }
+    int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    int mantissa = bucket % SUB_BUCKETS;
+    long step = 1L << (exponent - SUB_BUCKET_BITS);
+    return (1L << exponent) + (mantissa + 1) * step;
+  }
+}
@@ -0,0 +1,293 @@
+package com.descope.units.hedging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.descope.units.deadline.DeadlineContext;
+import com.descope.units.jfr.DynamoDbCallTally;
+import com.descope.units.ratelimit.RetryBudget;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Issues hedged requests to cut tail latency of idempotent reads.
+ *
+ * <p>The first attempt is sent immediately. If it has not answered within the tracked latency
+ * percentile of recent first attempts, a second identical attempt is sent and whichever succeeds
+ * first wins; the other is cancelled. Hedges draw on a budget that refills by a fixed fraction of
+ * reads, so hedged traffic never exceeds the configured percentage even when the backend is slow
+ * across the board. Until enough latency samples have been collected no hedges are sent.
+ *
+ * <p>A first attempt that loses to its hedge is timed up to the moment the hedge won, so slow
+ * attempts keep counting toward the percentile. Attempts run on a pool of at most {@code
+ * max-threads} threads; when it is full, hedges are skipped and first attempts run on the caller's
+ * thread.
+ */
+@ApplicationScoped
+public class ReadHedger {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReadHedger.class);
+
+  private static final int SAMPLE_WINDOW = 200;
+
+  private static final int NONE = 0;
+  private static final int PRIMARY = 1;
+  private static final int HEDGE = 2;
+
+  private final boolean enabled;
+  private final long minDelayNanos;
+  private final LatencyTracker latencies;
+  private final RetryBudget hedgeBudget;
+  private final ExecutorService executor;
+
+  private final LongAdder reads = new LongAdder();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder hedgeWins = new LongAdder();
+  private final LongAdder hedgeLosses = new LongAdder();
+  private final LongAdder hedgesDenied = new LongAdder();
+
+  /**
+   * Constructs a ReadHedger.
+   *
+   * @param enabled whether reads are hedged
+   * @param percentile the latency percentile after which a hedge is sent, in (0, 1)
+   * @param maxHedgePercent the maximum hedged requests as a percentage of reads
+   * @param minDelayMillis the floor for the hedge delay
+   * @param maxThreads the most attempts running at once on the hedging pool
+   */
+  @Inject
+  public ReadHedger(
+      @ConfigProperty(name = "dynamodb.hedging.enabled", defaultValue = "false") boolean enabled,
+      @ConfigProperty(name = "dynamodb.hedging.percentile", defaultValue = "0.95")
+          double percentile,
+      @ConfigProperty(name = "dynamodb.hedging.max-hedge-percent", defaultValue = "5")
+          double maxHedgePercent,
+      @ConfigProperty(name = "dynamodb.hedging.min-delay-ms", defaultValue = "2")
+          long minDelayMillis,
+      @ConfigProperty(name = "dynamodb.hedging.max-threads", defaultValue = "64") int maxThreads) {
+    this(
+        enabled,
+        TimeUnit.MILLISECONDS.toNanos(minDelayMillis),
+        new LatencyTracker(percentile, SAMPLE_WINDOW),
+        // Allow a short burst of hedges, but no more than the configured share of reads over time
+        new RetryBudget(maxHedgePercent / 100, 10),
+        maxThreads);
+    logger.info(
+        "Read hedging {} (p{}, max {}% of reads)",
+        enabled ? "enabled" : "disabled", percentile * 100, maxHedgePercent);
+  }
+
+  ReadHedger(
+      boolean enabled,
+      long minDelayNanos,
+      LatencyTracker latencies,
+      RetryBudget hedgeBudget,
+      int maxThreads) {
+    if (maxThreads < 1) {
+      throw new IllegalArgumentException("Hedging needs at least one thread");
+    }
+    this.enabled = enabled;
+    this.minDelayNanos = minDelayNanos;
+    this.latencies = latencies;
+    this.hedgeBudget = hedgeBudget;
+    if (enabled) {
+      // No queue: an attempt either gets a thread at once or is rejected
+      ThreadPoolExecutor pool =
+          new ThreadPoolExecutor(
+              maxThreads,
+              maxThreads,
+              30,
+              TimeUnit.SECONDS,
+              new SynchronousQueue<>(),
+              runnable -> {
+                Thread thread = new Thread(runnable, "hedged-read");
+                thread.setDaemon(true);
+                return thread;
+              });
+      pool.allowCoreThreadTimeOut(true);
+      this.executor = pool;
+    } else {
+      this.executor = null;
+    }
+  }
+
+  /**
+   * Executes a read, hedging it if the first attempt is slow.
+   *
+   * <p>The read must be idempotent and safe to cancel.
+   *
+   * @param request the read to execute
+   * @param <T> the result type
+   * @return the result of the first successful attempt
+   */
+  public <T> T read(Supplier<T> request) {
+    if (!enabled) {
+      return request.get();
+    }
+    // Attempts run on pool threads but must stop when the calling request's deadline passes
+    Supplier<T> read = DynamoDbCallTally.propagate(DeadlineContext.propagate(request));
+    reads.increment();
+    hedgeBudget.onRequest();
+
+    Race<T> race = new Race<>();
+    long start = System.nanoTime();
+    Future<?> primary;
+    try {
+      primary =
+          executor.submit(
+              () -> {
+                try {
+                  T result = read.get();
+                  recordPrimary(race, start);
+                  race.succeed(result, false);
+                } catch (RuntimeException e) {
+                  race.fail(e);
+                }
+              });
+    } catch (RejectedExecutionException e) {
+      // Every pool thread is busy: read without a hedge rather than add threads
+      T result = read.get();
+      recordPrimary(race, start);
+      return result;
+    }
+
+    long delay = hedgeDelayNanos();
+    try {
+      if (delay < 0) {
+        return race.result.get();
+      }
+      try {
+        return race.result.get(delay, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        if (!hedgeBudget.tryRetry()) {
+          hedgesDenied.increment();
+          return race.result.get();
+        }
+      }
+
+      race.attempts.incrementAndGet();
+      Future<?> hedge;
+      try {
+        hedge =
+            executor.submit(
+                () -> {
+                  try {
+                    race.succeed(read.get(), true);
+                  } catch (RuntimeException e) {
+                    race.fail(e);
+                  }
+                });
+      } catch (RejectedExecutionException e) {
+        race.withdraw();
+        hedgesDenied.increment();
+        return race.result.get();
+      }
+      hedges.increment();
+      T result = race.result.get();
+      // The losing attempt no longer matters; interrupting it frees its thread sooner
+      if (race.winner.get() == HEDGE) {
+        hedgeWins.increment();
+        // The first attempt took at least this long; leaving it out would lower the percentile
+        recordPrimary(race, start);
+        primary.cancel(true);
+      } else {
+        hedgeLosses.increment();
+        hedge.cancel(true);
+      }
+      return result;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Hedged read failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      primary.cancel(true);
+      throw new IllegalStateException("Interrupted during hedged read", e);
+    }
+  }
+
+  /**
+   * Returns hedging counters and the current hedge delay.
+   *
+   * @return the hedging statistics
+   */
+  public HedgingStats stats() {
+    return new HedgingStats(
+        enabled,
+        reads.sum(),
+        hedges.sum(),
+        hedgeWins.sum(),
+        hedgeLosses.sum(),
+        hedgesDenied.sum(),
+        TimeUnit.NANOSECONDS.toMicros(Math.max(0, hedgeDelayNanos())));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private void recordPrimary(Race<?> race, long start) {
+    if (race.primaryTimed.compareAndSet(false, true)) {
+      latencies.record(System.nanoTime() - start);
+    }
+  }
+
+  private long hedgeDelayNanos() {
+    long percentile = latencies.percentileNanos();
+    return percentile < 0 ? -1 : Math.max(minDelayNanos, percentile);
+  }
+
+  /** First successful attempt wins; the race fails only once every attempt has failed. */
+  private static final class Race<T> {
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final AtomicInteger attempts = new AtomicInteger(1);
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger winner = new AtomicInteger(NONE);
+    private final AtomicBoolean primaryTimed = new AtomicBoolean();
+    private volatile RuntimeException error;
+
+    private void succeed(T value, boolean fromHedge) {
+      // Claim the win before completing so the caller always sees who won
+      if (winner.compareAndSet(NONE, fromHedge ? HEDGE : PRIMARY)) {
+        result.complete(value);
+      }
+    }
+
+    private void fail(RuntimeException error) {
+      // Set before counting, so a withdrawal that sees the count also sees the error
+      this.error = error;
+      if (failures.incrementAndGet() >= attempts.get()) {
+        result.completeExceptionally(error);
+      }
+    }
+
+    /** Takes back an attempt that could not be started. */
+    private void withdraw() {
+      if (failures.get() >= attempts.decrementAndGet() && error != null) {
+        result.completeExceptionally(error);
+      }
+    }
+  }
+}
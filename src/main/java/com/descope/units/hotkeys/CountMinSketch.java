@@ -0,0 +1,66 @@
+package com.descope.units.hotkeys;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch over 64-bit key hashes.
+ *
+ * <p>Each row is indexed by a different mix of the key hash. An estimate is the minimum of the
+ * key's counters across rows, so it never undercounts and overcounts only by collisions, which
+ * width bounds.
+ */
+final class CountMinSketch {
+
+  private static final long[] SEEDS = {
+    0x9e3779b97f4a7c15L, 0xc2b2ae3d27d4eb4fL, 0x165667b19e3779f9L, 0xd6e8feb86659fd93L
+  };
+
+  private final int width;
+  private final int mask;
+  private final AtomicLongArray counters;
+
+  /**
+   * Constructs a CountMinSketch.
+   *
+   * @param width the counters per row, rounded up to a power of two
+   */
+  CountMinSketch(int width) {
+    if (width < 1) {
+      throw new IllegalArgumentException("Sketch width must be positive");
+    }
+    this.width = Integer.highestOneBit(width * 2 - 1);
+    this.mask = this.width - 1;
+    this.counters = new AtomicLongArray(this.width * SEEDS.length);
+  }
+
+  /** Counts one occurrence of a key and returns its updated estimate. */
+  long add(long hash) {
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < SEEDS.length; row++) {
+      estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash)));
+    }
+    return estimate;
+  }
+
+  /** Returns the estimated count of a key. */
+  long estimate(long hash) {
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < SEEDS.length; row++) {
+      estimate = Math.min(estimate, counters.get(index(row, hash)));
+    }
+    return estimate;
+  }
+
+  /** Resets every counter. Increments racing the reset may survive it. */
+  void clear() {
+    for (int i = 0; i < counters.length(); i++) {
+      counters.set(i, 0);
+    }
+  }
+
+  private int index(int row, long hash) {
+    long h = (hash ^ SEEDS[row]) * 0xbf58476d1ce4e5b9L;
+    h ^= h >>> 31;
+    return row * width + (int) (h & mask);
+  }
+}
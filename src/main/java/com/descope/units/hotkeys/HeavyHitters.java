@@ -0,0 +1,96 @@
+package com.descope.units.hotkeys;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming top-K over one time window, backed by a {@link CountMinSketch}.
+ *
+ * <p>Every key is counted in the sketch without locking. Only a key whose estimate beats the
+ * smallest tracked count, and which is not already tracked, takes the monitor to be admitted, so
+ * steady traffic to keys already in the top K, or far below it, never contends. Tracked keys do not
+ * store counts; they are read back from the sketch.
+ */
+final class HeavyHitters {
+
+  private final int capacity;
+  private final CountMinSketch sketch;
+  private final Map<String, Long> tracked = new ConcurrentHashMap<>();
+  private volatile long admissionThreshold;
+
+  /**
+   * Constructs a HeavyHitters window.
+   *
+   * @param capacity the number of keys to track
+   * @param sketchWidth the counters per sketch row
+   */
+  HeavyHitters(int capacity, int sketchWidth) {
+    this.capacity = capacity;
+    this.sketch = new CountMinSketch(sketchWidth);
+  }
+
+  /** Counts one occurrence of a key. */
+  void record(String key) {
+    long hash = hash(key);
+    long estimate = sketch.add(hash);
+    if (estimate <= admissionThreshold || tracked.containsKey(key)) {
+      return;
+    }
+    synchronized (this) {
+      if (tracked.containsKey(key)) {
+        return;
+      }
+      if (tracked.size() < capacity) {
+        tracked.put(key, hash);
+        return;
+      }
+      String coldest = null;
+      long coldestCount = Long.MAX_VALUE;
+      for (Map.Entry<String, Long> entry : tracked.entrySet()) {
+        long count = sketch.estimate(entry.getValue());
+        if (count < coldestCount) {
+          coldest = entry.getKey();
+          coldestCount = count;
+        }
+      }
+      if (estimate > coldestCount) {
+        tracked.remove(coldest);
+        tracked.put(key, hash);
+      }
+      admissionThreshold = coldestCount;
+    }
+  }
+
+  /** Returns the tracked keys and their estimated counts, hottest first. */
+  List<HotKey> top(double windowSeconds) {
+    List<HotKey> top = new ArrayList<>(tracked.size());
+    for (Map.Entry<String, Long> entry : tracked.entrySet()) {
+      long count = sketch.estimate(entry.getValue());
+      top.add(new HotKey(entry.getKey(), count, count / windowSeconds));
+    }
+    top.sort(Comparator.comparingLong(HotKey::getCount).reversed());
+    return top;
+  }
+
+  /** Empties the window so it can be reused. */
+  synchronized void clear() {
+    sketch.clear();
+    tracked.clear();
+    admissionThreshold = 0;
+  }
+
+  /** FNV-1a over the key's characters, finished with a SplitMix64 step. */
+  private static long hash(String key) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      h ^= key.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+    h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+    return h ^ (h >>> 31);
+  }
+}
@@ -0,0 +1,49 @@
+package com.descope.units.hotkeys;
+
+/** A frequently accessed unit id and its estimated access count over a window. */
+public class HotKey {
+
+  private final String id;
+  private final long count;
+  private final double ratePerSecond;
+
+  /**
+   * Constructs a HotKey.
+   *
+   * @param id the unit id
+   * @param count the estimated number of accesses in the window
+   * @param ratePerSecond the estimated accesses per second over the window
+   */
+  public HotKey(String id, long count, double ratePerSecond) {
+    this.id = id;
+    this.count = count;
+    this.ratePerSecond = ratePerSecond;
+  }
+
+  /**
+   * Returns the unit id.
+   *
+   * @return the id
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Returns the estimated number of accesses in the window. Never lower than the true count.
+   *
+   * @return the access count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the estimated accesses per second over the window.
+   *
+   * @return the access rate
+   */
+  public double getRatePerSecond() {
+    return ratePerSecond;
+  }
+}
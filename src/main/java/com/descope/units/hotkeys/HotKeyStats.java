@@ -0,0 +1,63 @@
+package com.descope.units.hotkeys;
+
+import java.util.List;
+
+/** The hottest unit ids over the last complete window of the {@link HotKeyTracker}. */
+public class HotKeyStats {
+
+  private final boolean enabled;
+  private final long windowSeconds;
+  private final List<HotKey> reads;
+  private final List<HotKey> writes;
+
+  /**
+   * Constructs a HotKeyStats snapshot.
+   *
+   * @param enabled whether accesses are tracked
+   * @param windowSeconds the length of the window the counts cover
+   * @param reads the most read ids, hottest first
+   * @param writes the most written ids, hottest first
+   */
+  public HotKeyStats(boolean enabled, long windowSeconds, List<HotKey> reads, List<HotKey> writes) {
+    this.enabled = enabled;
+    this.windowSeconds = windowSeconds;
+    this.reads = reads;
+    this.writes = writes;
+  }
+
+  /**
+   * Returns whether accesses are tracked.
+   *
+   * @return true if tracking is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the length of the window the counts cover.
+   *
+   * @return the window in seconds
+   */
+  public long getWindowSeconds() {
+    return windowSeconds;
+  }
+
+  /**
+   * Returns the most read ids, hottest first.
+   *
+   * @return the hot read keys
+   */
+  public List<HotKey> getReads() {
+    return reads;
+  }
+
+  /**
+   * Returns the most written ids, hottest first.
+   *
+   * @return the hot write keys
+   */
+  public List<HotKey> getWrites() {
+    return writes;
+  }
+}
@@ -0,0 +1,146 @@
+package com.descope.units.hotkeys;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Finds the unit ids that take the largest share of reads and writes.
+ *
+ * <p>Hot keys are what throttle a single DynamoDB partition long before the table runs out of
+ * capacity. Accesses are counted in tumbling windows; each window is a count-min sketch with a
+ * top-K of candidate ids (see {@link HeavyHitters}). Recording is lock-free. When a window ends,
+ * the first caller to notice publishes its top K and swaps in a cleared spare window, so {@link
+ * #stats} always reports the last complete window.
+ */
+@ApplicationScoped
+public class HotKeyTracker {
+
+  private final boolean enabled;
+  private final int topK;
+  private final int sketchWidth;
+  private final long windowNanos;
+  private final LongSupplier nanoClock;
+  private final ReentrantLock rollLock = new ReentrantLock();
+
+  private volatile Window current;
+  private Window spare;
+  private volatile HotKeyStats last;
+
+  /**
+   * Constructs a HotKeyTracker from configuration.
+   *
+   * @param enabled whether accesses are tracked
+   * @param topK the number of hottest ids reported per access type
+   * @param sketchWidth the counters per count-min sketch row
+   * @param windowSeconds the length of each counting window
+   */
+  @Inject
+  public HotKeyTracker(
+      @ConfigProperty(name = "units.hot-keys.enabled", defaultValue = "true") boolean enabled,
+      @ConfigProperty(name = "units.hot-keys.top-k", defaultValue = "20") int topK,
+      @ConfigProperty(name = "units.hot-keys.sketch-width", defaultValue = "4096") int sketchWidth,
+      @ConfigProperty(name = "units.hot-keys.window-seconds", defaultValue = "10")
+          long windowSeconds) {
+    this(enabled, topK, sketchWidth, TimeUnit.SECONDS.toNanos(windowSeconds), System::nanoTime);
+  }
+
+  HotKeyTracker(
+      boolean enabled, int topK, int sketchWidth, long windowNanos, LongSupplier nanoClock) {
+    if (topK < 1 || windowNanos <= 0) {
+      throw new IllegalArgumentException("Hot key top-k and window must be positive");
+    }
+    this.enabled = enabled;
+    this.topK = topK;
+    this.sketchWidth = sketchWidth;
+    this.windowNanos = windowNanos;
+    this.nanoClock = nanoClock;
+    long now = nanoClock.getAsLong();
+    this.current = enabled ? new Window(now) : null;
+    this.spare = enabled ? new Window(now) : null;
+    this.last =
+        new HotKeyStats(enabled, TimeUnit.NANOSECONDS.toSeconds(windowNanos), List.of(), List.of());
+  }
+
+  /**
+   * Counts a read of a unit.
+   *
+   * @param id the unit id
+   */
+  public void recordRead(String id) {
+    if (enabled) {
+      window().reads.record(id);
+    }
+  }
+
+  /**
+   * Counts a write of a unit.
+   *
+   * @param id the unit id
+   */
+  public void recordWrite(String id) {
+    if (enabled) {
+      window().writes.record(id);
+    }
+  }
+
+  /**
+   * Returns the hottest ids over the last complete window.
+   *
+   * @return the hot key statistics
+   */
+  public HotKeyStats stats() {
+    if (enabled) {
+      window();
+    }
+    return last;
+  }
+
+  /** Returns the current window, ending it first if its time is up. */
+  private Window window() {
+    Window window = current;
+    long now = nanoClock.getAsLong();
+    if (now - window.startNanos >= windowNanos && rollLock.tryLock()) {
+      try {
+        window = current;
+        if (now - window.startNanos >= windowNanos) {
+          double seconds = (now - window.startNanos) / 1e9;
+          // Publish the finished window; an idle gap spanning several windows is reported as one
+          last =
+              new HotKeyStats(
+                  true,
+                  TimeUnit.NANOSECONDS.toSeconds(windowNanos),
+                  window.reads.top(seconds),
+                  window.writes.top(seconds));
+          Window next = spare;
+          next.reads.clear();
+          next.writes.clear();
+          next.startNanos = now;
+          spare = window;
+          current = next;
+          window = next;
+        }
+      } finally {
+        rollLock.unlock();
+      }
+    }
+    return window;
+  }
+
+  private final class Window {
+
+    private final HeavyHitters reads = new HeavyHitters(topK, sketchWidth);
+    private final HeavyHitters writes = new HeavyHitters(topK, sketchWidth);
+    private volatile long startNanos;
+
+    private Window(long startNanos) {
+      this.startNanos = startNanos;
+    }
+  }
+}
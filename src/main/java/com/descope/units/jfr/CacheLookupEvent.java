@@ -0,0 +1,44 @@
+package com.descope.units.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A lookup in an in-process cache. */
+@Name("com.descope.units.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Units", "Cache"})
+@Description("A lookup in an in-process cache and whether it hit")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+  @Label("Cache")
+  String cache;
+
+  @Label("Key Hash")
+  int keyHash;
+
+  @Label("Result")
+  @Description("hit, stale or miss")
+  String result;
+
+  /**
+   * Records a lookup if the event is enabled.
+   *
+   * @param cache the cache name
+   * @param key the key looked up
+   * @param result {@code hit}, {@code stale} or {@code miss}
+   */
+  public static void record(String cache, String key, String result) {
+    CacheLookupEvent event = new CacheLookupEvent();
+    if (event.shouldCommit()) {
+      event.cache = cache;
+      event.keyHash = key == null ? 0 : key.hashCode();
+      event.result = result;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.descope.units.jfr;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counts the DynamoDB requests made, and the capacity they consumed, while a repository call runs.
+ *
+ * <p>Like the request deadline, the tally is bound to the calling thread; {@link
+ * JfrExecutionInterceptor} adds each request sent on that thread to it. Work handed to another
+ * thread, such as a hedged read, must be wrapped with {@link #propagate} to be counted.
+ */
+public final class DynamoDbCallTally {
+
+  private static final ThreadLocal<DynamoDbCallTally> CURRENT = new ThreadLocal<>();
+
+  private final AtomicInteger attempts = new AtomicInteger();
+  private final DoubleAdder consumedCapacity = new DoubleAdder();
+
+  private DynamoDbCallTally() {}
+
+  /**
+   * Returns the tally bound to this thread.
+   *
+   * @return the tally, or null if no repository call is being recorded
+   */
+  static DynamoDbCallTally current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Binds a new tally to this thread until the returned scope is closed.
+   *
+   * @return the scope holding the tally
+   */
+  static Scope start() {
+    DynamoDbCallTally previous = CURRENT.get();
+    DynamoDbCallTally tally = new DynamoDbCallTally();
+    CURRENT.set(tally);
+    return new Scope(tally, previous);
+  }
+
+  /**
+   * Wraps a task so that its DynamoDB requests count towards this thread's tally on whichever
+   * thread runs it.
+   *
+   * @param task the task
+   * @param <T> the result type
+   * @return the wrapped task, or the task itself if nothing is being recorded
+   */
+  public static <T> Supplier<T> propagate(Supplier<T> task) {
+    DynamoDbCallTally tally = CURRENT.get();
+    if (tally == null) {
+      return task;
+    }
+    return () -> {
+      DynamoDbCallTally previous = CURRENT.get();
+      CURRENT.set(tally);
+      try {
+        return task.get();
+      } finally {
+        if (previous == null) {
+          CURRENT.remove();
+        } else {
+          CURRENT.set(previous);
+        }
+      }
+    };
+  }
+
+  void recordAttempt() {
+    attempts.incrementAndGet();
+  }
+
+  void recordConsumedCapacity(double units) {
+    consumedCapacity.add(units);
+  }
+
+  int attempts() {
+    return attempts.get();
+  }
+
+  double consumedCapacity() {
+    return consumedCapacity.sum();
+  }
+
+  /** Restores the previously bound tally when closed. */
+  static final class Scope implements AutoCloseable {
+
+    private final DynamoDbCallTally tally;
+    private final DynamoDbCallTally previous;
+
+    private Scope(DynamoDbCallTally tally, DynamoDbCallTally previous) {
+      this.tally = tally;
+      this.previous = previous;
+    }
+
+    DynamoDbCallTally tally() {
+      return tally;
+    }
+
+    @Override
+    public void close() {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+}
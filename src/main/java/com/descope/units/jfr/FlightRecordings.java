@@ -0,0 +1,198 @@
+package com.descope.units.jfr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+/**
+ * Keeps a continuous Flight Recorder recording of the last few minutes, dumped on demand.
+ *
+ * <p>The recording uses the JDK's default settings with the bundled {@code jfr/units.jfc}, or the
+ * file {@code units.jfr.settings} names, applied over them. The bundled file enables the service's
+ * own events (see {@link RepositoryCallEvent}) and lowers the thresholds for lock contention and
+ * socket I/O. Data is kept on disk, bounded by age and size.
+ *
+ * <p>Events that record the process environment, system properties, JVM arguments or process
+ * command lines are always off, whatever the settings file says, since those hold credentials. Only
+ * one dump is written at a time, so repeated requests cannot fill the disk with copies.
+ */
+@ApplicationScoped
+public class FlightRecordings {
+
+  private static final Logger logger = LoggerFactory.getLogger(FlightRecordings.class);
+
+  private static final String DEFAULT_SETTINGS = "jfr/units.jfc";
+
+  /** Events whose payload can carry secrets. */
+  private static final List<String> SENSITIVE_EVENTS =
+      List.of(
+          "jdk.InitialEnvironmentVariable",
+          "jdk.InitialSystemProperty",
+          "jdk.JVMInformation",
+          "jdk.SystemProcess");
+
+  private final boolean enabled;
+  private final Optional<String> settings;
+  private final Duration maxAge;
+  private final long maxSizeBytes;
+  private final Semaphore dumps = new Semaphore(1);
+  private volatile Recording recording;
+
+  /**
+   * Constructs FlightRecordings.
+   *
+   * @param enabled whether to record continuously
+   * @param settings the path of a .jfc settings file, or empty for the bundled settings
+   * @param maxAgeMinutes how much history the recording keeps
+   * @param maxSizeMegabytes the most disk space the recording uses
+   */
+  @Inject
+  public FlightRecordings(
+      @ConfigProperty(name = "units.jfr.enabled", defaultValue = "false") boolean enabled,
+      @ConfigProperty(name = "units.jfr.settings") Optional<String> settings,
+      @ConfigProperty(name = "units.jfr.max-age-minutes", defaultValue = "30") long maxAgeMinutes,
+      @ConfigProperty(name = "units.jfr.max-size-megabytes", defaultValue = "100")
+          long maxSizeMegabytes) {
+    this.enabled = enabled;
+    this.settings = settings;
+    this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+    this.maxSizeBytes = maxSizeMegabytes * 1024 * 1024;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled) {
+      logger.info("Flight recording is disabled");
+      return;
+    }
+    if (!FlightRecorder.isAvailable()) {
+      logger.warn("Flight Recorder is not available in this JVM");
+      return;
+    }
+    try {
+      Recording started = new Recording(recordingSettings());
+      started.setName("units");
+      started.setToDisk(true);
+      started.setMaxAge(maxAge);
+      started.setMaxSize(maxSizeBytes);
+      started.start();
+      recording = started;
+      logger.info("Flight recording started, keeping {} minutes", maxAge.toMinutes());
+    } catch (IOException | ParseException | RuntimeException e) {
+      logger.warn("Could not start flight recording", e);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    Recording current = recording;
+    recording = null;
+    if (current != null) {
+      current.close();
+    }
+  }
+
+  /**
+   * Returns whether the continuous recording is running.
+   *
+   * @return true if a recording can be dumped
+   */
+  public boolean isRecording() {
+    return recording != null;
+  }
+
+  /**
+   * Writes the data recorded so far to a temporary file, which the caller must pass to {@link
+   * #discard} once it has been read.
+   *
+   * @return the recording file, or empty if another dump has not been discarded yet
+   * @throws IOException if the file cannot be written
+   * @throws IllegalStateException if nothing is being recorded
+   */
+  public Optional<Path> dump() throws IOException {
+    Recording current = recording;
+    if (current == null) {
+      throw new IllegalStateException("Flight recording is not running");
+    }
+    if (!dumps.tryAcquire()) {
+      return Optional.empty();
+    }
+    Path file = null;
+    try {
+      file = Files.createTempFile("units-", ".jfr");
+      current.dump(file);
+      return Optional.of(file);
+    } catch (IOException | RuntimeException e) {
+      if (file != null) {
+        Files.deleteIfExists(file);
+      }
+      dumps.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Deletes a file written by {@link #dump}, allowing the next dump.
+   *
+   * @param file the recording file
+   * @throws IOException if the file cannot be deleted
+   */
+  public void discard(Path file) throws IOException {
+    try {
+      Files.deleteIfExists(file);
+    } finally {
+      dumps.release();
+    }
+  }
+
+  /** Returns the JDK default settings with the configured settings file applied over them. */
+  private Map<String, String> recordingSettings() throws IOException, ParseException {
+    Map<String, String> merged =
+        new HashMap<>(Configuration.getConfiguration("default").getSettings());
+    merged.putAll(overlay().getSettings());
+    for (String event : SENSITIVE_EVENTS) {
+      merged.put(event + "#enabled", "false");
+    }
+    return merged;
+  }
+
+  private Configuration overlay() throws IOException, ParseException {
+    if (settings.isPresent()) {
+      return Configuration.create(Paths.get(settings.get()));
+    }
+    try (InputStream stream =
+            FlightRecordings.class.getClassLoader().getResourceAsStream(DEFAULT_SETTINGS);
+        Reader reader =
+            new InputStreamReader(
+                Objects.requireNonNull(stream, DEFAULT_SETTINGS), StandardCharsets.UTF_8)) {
+      return Configuration.create(reader);
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.descope.units.jfr;
+
+import java.util.List;
+
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+/**
+ * SDK interceptor that adds DynamoDB requests to the current {@link DynamoDbCallTally}.
+ *
+ * <p>Only while a repository call is being recorded does it ask DynamoDB to return consumed
+ * capacity, and only for requests that did not set that themselves; otherwise requests pass through
+ * unchanged. Every transmission counts as an attempt, so SDK and throttler retries are both
+ * included. Registered through {@code quarkus.dynamodb.interceptors} and on the replica clients.
+ */
+public class JfrExecutionInterceptor implements ExecutionInterceptor {
+
+  @Override
+  public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes attributes) {
+    SdkRequest request = context.request();
+    if (DynamoDbCallTally.current() == null) {
+      return request;
+    }
+    if (request instanceof GetItemRequest) {
+      GetItemRequest get = (GetItemRequest) request;
+      if (get.returnConsumedCapacity() == null) {
+        return get.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+      }
+      return request;
+    }
+    if (request instanceof PutItemRequest) {
+      PutItemRequest put = (PutItemRequest) request;
+      if (put.returnConsumedCapacity() == null) {
+        return put.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+      }
+      return request;
+    }
+    if (request instanceof UpdateItemRequest) {
+      UpdateItemRequest update = (UpdateItemRequest) request;
+      if (update.returnConsumedCapacity() == null) {
+        return update.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+      }
+      return request;
+    }
+    if (request instanceof DeleteItemRequest) {
+      DeleteItemRequest delete = (DeleteItemRequest) request;
+      if (delete.returnConsumedCapacity() == null) {
+        return delete.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+      }
+      return request;
+    }
+    if (request instanceof QueryRequest) {
+      QueryRequest query = (QueryRequest) request;
+      if (query.returnConsumedCapacity() == null) {
+        return query.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+      }
+      return request;
+    }
+    if (request instanceof ScanRequest) {
+      ScanRequest scan = (ScanRequest) request;
+      if (scan.returnConsumedCapacity() == null) {
+        return scan.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+      }
+      return request;
+    }
+    if (request instanceof BatchGetItemRequest) {
+      BatchGetItemRequest batch = (BatchGetItemRequest) request;
+      if (batch.returnConsumedCapacity() == null) {
+        return batch.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+      }
+      return request;
+    }
+    if (request instanceof BatchWriteItemRequest) {
+      BatchWriteItemRequest batch = (BatchWriteItemRequest) request;
+      if (batch.returnConsumedCapacity() == null) {
+        return batch.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+      }
+      return request;
+    }
+    if (request instanceof TransactWriteItemsRequest) {
+      TransactWriteItemsRequest transaction = (TransactWriteItemsRequest) request;
+      if (transaction.returnConsumedCapacity() == null) {
+        return transaction.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+      }
+    }
+    return request;
+  }
+
+  @Override
+  public void beforeTransmission(
+      Context.BeforeTransmission context, ExecutionAttributes attributes) {
+    DynamoDbCallTally tally = DynamoDbCallTally.current();
+    if (tally != null) {
+      tally.recordAttempt();
+    }
+  }
+
+  @Override
+  public void afterExecution(Context.AfterExecution context, ExecutionAttributes attributes) {
+    DynamoDbCallTally tally = DynamoDbCallTally.current();
+    if (tally != null) {
+      tally.recordConsumedCapacity(consumedCapacity(context.response()));
+    }
+  }
+
+  /**
+   * Returns the capacity a DynamoDB response reports as consumed.
+   *
+   * @param response the response
+   * @return the capacity units, zero if not reported
+   */
+  static double consumedCapacity(SdkResponse response) {
+    if (response instanceof GetItemResponse) {
+      return units(((GetItemResponse) response).consumedCapacity());
+    }
+    if (response instanceof PutItemResponse) {
+      return units(((PutItemResponse) response).consumedCapacity());
+    }
+    if (response instanceof UpdateItemResponse) {
+      return units(((UpdateItemResponse) response).consumedCapacity());
+    }
+    if (response instanceof DeleteItemResponse) {
+      return units(((DeleteItemResponse) response).consumedCapacity());
+    }
+    if (response instanceof QueryResponse) {
+      return units(((QueryResponse) response).consumedCapacity());
+    }
+    if (response instanceof ScanResponse) {
+      return units(((ScanResponse) response).consumedCapacity());
+    }
+    if (response instanceof BatchGetItemResponse) {
+      return units(((BatchGetItemResponse) response).consumedCapacity());
+    }
+    if (response instanceof BatchWriteItemResponse) {
+      return units(((BatchWriteItemResponse) response).consumedCapacity());
+    }
+    if (response instanceof TransactWriteItemsResponse) {
+      return units(((TransactWriteItemsResponse) response).consumedCapacity());
+    }
+    return 0;
+  }
+
+  private static double units(ConsumedCapacity consumed) {
+    return consumed == null || consumed.capacityUnits() == null ? 0 : consumed.capacityUnits();
+  }
+
+  private static double units(List<ConsumedCapacity> consumed) {
+    double total = 0;
+    for (ConsumedCapacity capacity : consumed) {
+      total += units(capacity);
+    }
+    return total;
+  }
+}
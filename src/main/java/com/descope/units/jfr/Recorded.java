@@ -0,0 +1,19 @@
+package com.descope.units.jfr;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.interceptor.InterceptorBinding;
+
+/**
+ * Records each call of the annotated bean's methods as a JDK Flight Recorder event.
+ *
+ * <p>Calls on a {@link com.descope.units.repository.UnitRepository} become {@link
+ * RepositoryCallEvent}s, all others {@link ServiceOperationEvent}s.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Recorded {}
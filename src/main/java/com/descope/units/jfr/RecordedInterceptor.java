@@ -0,0 +1,95 @@
+package com.descope.units.jfr;
+
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import com.descope.units.model.Unit;
+import com.descope.units.repository.UnitRepository;
+
+/**
+ * Emits a Flight Recorder event for each call of a {@link Recorded} bean.
+ *
+ * <p>When the events are disabled, which is the case unless a recording enables them, a call costs
+ * one allocation that the JIT usually removes. Event fields are only filled in for calls over the
+ * configured threshold, so fast calls are not paid for either.
+ */
+@Recorded
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION + 10)
+public class RecordedInterceptor {
+
+  @AroundInvoke
+  Object record(InvocationContext invocation) throws Exception {
+    if (invocation.getTarget() instanceof UnitRepository) {
+      return recordRepositoryCall(invocation);
+    }
+    return recordServiceOperation(invocation);
+  }
+
+  private static Object recordRepositoryCall(InvocationContext invocation) throws Exception {
+    RepositoryCallEvent event = new RepositoryCallEvent();
+    if (!event.isEnabled()) {
+      return invocation.proceed();
+    }
+    event.begin();
+    try (DynamoDbCallTally.Scope scope = DynamoDbCallTally.start()) {
+      try {
+        return invocation.proceed();
+      } catch (Exception e) {
+        event.failed = true;
+        throw e;
+      } finally {
+        event.end();
+        if (event.shouldCommit()) {
+          event.operation = invocation.getMethod().getName();
+          event.keyHash = keyHash(invocation.getParameters());
+          event.attempts = scope.tally().attempts();
+          event.consumedCapacity = scope.tally().consumedCapacity();
+          event.commit();
+        }
+      }
+    }
+  }
+
+  private static Object recordServiceOperation(InvocationContext invocation) throws Exception {
+    ServiceOperationEvent event = new ServiceOperationEvent();
+    if (!event.isEnabled()) {
+      return invocation.proceed();
+    }
+    event.begin();
+    try {
+      return invocation.proceed();
+    } catch (Exception e) {
+      event.failed = true;
+      throw e;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.operation = invocation.getMethod().getName();
+        event.keyHash = keyHash(invocation.getParameters());
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Returns the hash of the unit id or name a call is keyed by: its first argument if that is a
+   * string, or the id of a unit argument.
+   */
+  static int keyHash(Object[] parameters) {
+    if (parameters == null || parameters.length == 0) {
+      return 0;
+    }
+    Object first = parameters[0];
+    if (first instanceof String) {
+      return first.hashCode();
+    }
+    if (first instanceof Unit) {
+      String id = ((Unit) first).getId();
+      return id == null ? 0 : id.hashCode();
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,38 @@
+package com.descope.units.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call to a {@link com.descope.units.repository.UnitRepository} method, with the DynamoDB
+ * attempts it made and the capacity they consumed.
+ */
+@Name("com.descope.units.RepositoryCall")
+@Label("Repository Call")
+@Category({"Units", "Repository"})
+@Description("A unit repository call and the DynamoDB requests it made")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Key Hash")
+  @Description("Hash code of the unit id or name the call is keyed by, zero if none")
+  int keyHash;
+
+  @Label("Attempts")
+  @Description("DynamoDB requests sent, including retries")
+  int attempts;
+
+  @Label("Consumed Capacity")
+  @Description("DynamoDB read and write capacity units consumed")
+  double consumedCapacity;
+
+  @Label("Failed")
+  boolean failed;
+}
@@ -0,0 +1,27 @@
+package com.descope.units.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A call to a {@link com.descope.units.service.UnitService} operation. */
+@Name("com.descope.units.ServiceOperation")
+@Label("Service Operation")
+@Category({"Units", "Service"})
+@Description("A unit service operation, including the repository calls it made")
+@StackTrace(false)
+public class ServiceOperationEvent extends Event {
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Key Hash")
+  @Description("Hash code of the unit id or name the operation is keyed by, zero if none")
+  int keyHash;
+
+  @Label("Failed")
+  boolean failed;
+}
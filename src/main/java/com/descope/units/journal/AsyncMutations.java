@@ -0,0 +1,673 @@
+package com.descope.units.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolationException;
+
+import com.descope.units.dto.OperationResponse;
+import com.descope.units.exception.CapacityExceededException;
+import com.descope.units.exception.UnitNotFoundException;
+import com.descope.units.model.Unit;
+import com.descope.units.service.UnitService;
+import com.fasterxml.uuid.Generators;
+
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+/**
+ * Accepts unit writes for later application and applies them in the background.
+ *
+ * <p>A client that sends {@code Prefer: respond-async} gets HTTP 202 as soon as its write is in the
+ * {@link MutationJournal} on local disk; a drainer thread then applies it through {@link
+ * UnitService}, so validation, conditional writes, cache invalidation and the change feed behave as
+ * for a synchronous write. The client polls the operation status to learn the outcome, and reads
+ * made before the write is applied do not see it.
+ *
+ * <p>Pending writes are grouped by unit id. Each drain round takes the oldest {@code batch-size}
+ * ids and applies them concurrently; the writes queued for one id are first folded into a single
+ * net write, so a create followed by renames is one put, and a create followed by a delete is no
+ * write at all. Writes to the same id are never applied concurrently or out of order. A write that
+ * fails with a throttling or connection error is put back at the head of the queue and the drainer
+ * backs off, up to {@code max-attempts} times. A write rejected by the service, such as an update
+ * of a missing unit, or by DynamoDB as malformed, such as an item that is too large, fails for good
+ * at once, so it never holds up later writes to its unit.
+ *
+ * <p>Writes still pending at shutdown stay in the journal and are replayed when the application
+ * starts again. Before each round is applied, the journal records which writes it holds, so after a
+ * crash a write is known either not to have started, and is applied as usual, or to be in doubt. A
+ * write in doubt may already be in the repository, and applying it again could bring back a unit
+ * deleted since or overwrite a newer write, so it is settled against the unit as it is now instead:
+ * a create or update whose name the unit still has counts as applied, and one whose unit has
+ * changed or gone fails without being written again. A delete in doubt is applied if the unit still
+ * exists.
+ */
+@ApplicationScoped
+public class AsyncMutations {
+
+  private static final Logger logger = LoggerFactory.getLogger(AsyncMutations.class);
+
+  private static final String RESPOND_ASYNC = "respond-async";
+
+  private static final String IN_DOUBT_CHANGED =
+      "Interrupted by a restart while being applied, and the unit has changed since, so the write"
+          + " was not applied again. Submit it again if it is still wanted.";
+
+  private final UnitService unitService;
+  private final boolean enabled;
+  private final Path directory;
+  private final long segmentBytes;
+  private final int maxPending;
+  private final int batchSize;
+  private final int drainThreads;
+  private final long retryBackoffMillis;
+  private final int statusRetention;
+  private final int maxAttempts;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition ready = lock.newCondition();
+
+  // Guarded by lock
+  private final Map<String, List<Mutation>> pendingByUnit = new HashMap<>();
+  private final Deque<String> readyUnits = new ArrayDeque<>();
+  private int pending;
+
+  private final Map<String, Mutation> operations = new ConcurrentHashMap<>();
+  private final Queue<Mutation> completed = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger completedCount = new AtomicInteger();
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder applied = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder repositoryWrites = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  private volatile MutationJournal journal;
+  private ExecutorService applyPool;
+  private Thread drainer;
+
+  /**
+   * Constructs AsyncMutations from configuration.
+   *
+   * @param unitService the service that applies writes
+   * @param enabled whether writes may be accepted asynchronously
+   * @param directory the directory holding the journal segments
+   * @param segmentMegabytes the size after which a new journal segment is started, in MiB
+   * @param maxPending the accepted writes that may wait to be applied before new ones are refused
+   * @param batchSize the number of unit ids applied per drain round
+   * @param drainThreads the number of writes applied concurrently
+   * @param retryBackoffMillis the pause after a round in which a write failed transiently
+   * @param statusRetention the number of completed operations whose status is kept
+   * @param maxAttempts the tries after which a write that keeps failing transiently fails for good
+   */
+  @Inject
+  public AsyncMutations(
+      UnitService unitService,
+      @ConfigProperty(name = "units.async.enabled", defaultValue = "false") boolean enabled,
+      @ConfigProperty(name = "units.async.journal-directory", defaultValue = "data/journal")
+          String directory,
+      @ConfigProperty(name = "units.async.segment-megabytes", defaultValue = "16")
+          long segmentMegabytes,
+      @ConfigProperty(name = "units.async.max-pending", defaultValue = "100000") int maxPending,
+      @ConfigProperty(name = "units.async.batch-size", defaultValue = "25") int batchSize,
+      @ConfigProperty(name = "units.async.drain-threads", defaultValue = "4") int drainThreads,
+      @ConfigProperty(name = "units.async.retry-backoff-ms", defaultValue = "200")
+          long retryBackoffMillis,
+      @ConfigProperty(name = "units.async.status-retention", defaultValue = "10000")
+          int statusRetention,
+      @ConfigProperty(name = "units.async.max-attempts", defaultValue = "30") int maxAttempts) {
+    if (maxPending < 1
+        || batchSize < 1
+        || drainThreads < 1
+        || statusRetention < 0
+        || maxAttempts < 1) {
+      throw new IllegalArgumentException(
+          "Asynchronous writes need a positive pending limit, batch size, thread count and attempts");
+    }
+    this.unitService = unitService;
+    this.enabled = enabled;
+    this.directory = Path.of(directory);
+    this.segmentBytes = segmentMegabytes * 1024 * 1024;
+    this.maxPending = maxPending;
+    this.batchSize = batchSize;
+    this.drainThreads = drainThreads;
+    this.retryBackoffMillis = retryBackoffMillis;
+    this.statusRetention = statusRetention;
+    this.maxAttempts = maxAttempts;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled) {
+      return;
+    }
+    open();
+    if (drainThreads > 1) {
+      applyPool =
+          Executors.newFixedThreadPool(
+              drainThreads,
+              runnable -> {
+                Thread thread = new Thread(runnable, "mutation-apply");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    drainer = new Thread(this::drainLoop, "mutation-drainer");
+    drainer.setDaemon(true);
+    drainer.start();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (drainer != null) {
+      drainer.interrupt();
+      try {
+        drainer.join(5000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (applyPool != null) {
+      applyPool.shutdownNow();
+    }
+    MutationJournal current = journal;
+    if (current != null) {
+      try {
+        current.close();
+      } catch (IOException e) {
+        logger.warn("Failed to close mutation journal", e);
+      }
+    }
+  }
+
+  /**
+   * Returns whether a request asked for, and may get, an asynchronous response.
+   *
+   * @param prefer the value of the request's {@code Prefer} header, or null
+   * @return true if the write should be accepted with {@link #accept}
+   */
+  public boolean acceptsAsync(String prefer) {
+    return journal != null
+        && prefer != null
+        && prefer.toLowerCase(Locale.ROOT).contains(RESPOND_ASYNC);
+  }
+
+  /**
+   * Journals a write and queues it to be applied.
+   *
+   * <p>Returns once the write is forced to disk, together with the writes of any concurrent
+   * callers.
+   *
+   * @param type the kind of write
+   * @param unitId the unit written; for a create, an id from {@link UnitService#newUnitId}
+   * @param name the new name, or null for a delete
+   * @return the pending operation
+   * @throws CapacityExceededException if asynchronous writes are disabled or too many are pending
+   */
+  public OperationResponse accept(MutationType type, String unitId, String name) {
+    MutationJournal current = journal;
+    if (current == null) {
+      throw new CapacityExceededException("Asynchronous writes are disabled.", 60);
+    }
+    lock.lock();
+    try {
+      if (pending >= maxPending) {
+        rejected.increment();
+        throw new CapacityExceededException(
+            "Too many writes are waiting to be applied. Please retry later.", 1);
+      }
+      pending++;
+    } finally {
+      lock.unlock();
+    }
+
+    Mutation mutation =
+        new Mutation(
+            Generators.timeBasedEpochGenerator().generate().toString(),
+            type,
+            unitId,
+            name,
+            System.currentTimeMillis(),
+            false);
+    operations.put(mutation.operationId(), mutation);
+    try {
+      // Queued from the journal writer, so the drain order is the order on disk
+      current.append(mutation).thenRun(() -> enqueue(mutation)).join();
+    } catch (RuntimeException e) {
+      operations.remove(mutation.operationId());
+      lock.lock();
+      try {
+        pending--;
+      } finally {
+        lock.unlock();
+      }
+      if (e instanceof CompletionException) {
+        throw new IllegalStateException("Failed to journal the write", e.getCause());
+      }
+      throw e;
+    }
+    accepted.increment();
+    return mutation.toResponse();
+  }
+
+  /**
+   * Returns the status of an accepted write.
+   *
+   * <p>Pending writes are always known. Completed ones are kept up to {@code
+   * units.async.status-retention}, and across a restart only while their journal segment remains.
+   *
+   * @param operationId the operation id returned when the write was accepted
+   * @return the operation, or empty if it is unknown
+   */
+  public Optional<OperationResponse> status(String operationId) {
+    Mutation mutation = operations.get(operationId);
+    return mutation == null ? Optional.empty() : Optional.of(mutation.toResponse());
+  }
+
+  /**
+   * Returns a snapshot of queued writes, outcomes and journal size.
+   *
+   * @return the asynchronous write statistics
+   */
+  public AsyncWriteStats stats() {
+    int pendingNow;
+    lock.lock();
+    try {
+      pendingNow = pending;
+    } finally {
+      lock.unlock();
+    }
+    MutationJournal current = journal;
+    return new AsyncWriteStats(
+        enabled,
+        pendingNow,
+        accepted.sum(),
+        applied.sum(),
+        failed.sum(),
+        coalesced.sum(),
+        repositoryWrites.sum(),
+        retries.sum(),
+        rejected.sum(),
+        current == null ? 0 : current.segmentCount(),
+        current == null ? 0 : current.sizeBytes(),
+        current == null ? 0 : current.syncs());
+  }
+
+  /** Opens the journal and queues the writes it still holds. */
+  void open() {
+    MutationJournal opened;
+    try {
+      opened = MutationJournal.open(directory, segmentBytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open mutation journal in " + directory, e);
+    }
+    for (Mutation mutation : opened.recovered()) {
+      operations.put(mutation.operationId(), mutation);
+      if (mutation.status() == OperationStatus.PENDING) {
+        lock.lock();
+        try {
+          pending++;
+        } finally {
+          lock.unlock();
+        }
+        enqueue(mutation);
+      } else {
+        retain(mutation);
+      }
+    }
+    journal = opened;
+  }
+
+  /**
+   * Applies one round of pending writes on the calling thread.
+   *
+   * @return the number of unit ids in the round
+   */
+  int drainOnce() throws InterruptedException {
+    List<List<Mutation>> round;
+    lock.lock();
+    try {
+      round = takeRound();
+    } finally {
+      lock.unlock();
+    }
+    if (!round.isEmpty()) {
+      apply(round);
+    }
+    return round.size();
+  }
+
+  private void drainLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        List<List<Mutation>> round;
+        lock.lockInterruptibly();
+        try {
+          while (readyUnits.isEmpty()) {
+            ready.await();
+          }
+          round = takeRound();
+        } finally {
+          lock.unlock();
+        }
+        if (!apply(round) && retryBackoffMillis > 0) {
+          Thread.sleep(retryBackoffMillis);
+        }
+      } catch (InterruptedException e) {
+        return;
+      } catch (RuntimeException e) {
+        logger.error("Unexpected failure draining asynchronous writes", e);
+      }
+    }
+  }
+
+  private List<List<Mutation>> takeRound() {
+    List<List<Mutation>> round = new ArrayList<>(Math.min(batchSize, readyUnits.size()));
+    while (round.size() < batchSize && !readyUnits.isEmpty()) {
+      round.add(pendingByUnit.remove(readyUnits.pollFirst()));
+    }
+    return round;
+  }
+
+  /** Applies a round, one task per unit id; returns false if any write has to be retried. */
+  private boolean apply(List<List<Mutation>> round) throws InterruptedException {
+    List<Mutation> writes = new ArrayList<>();
+    round.forEach(writes::addAll);
+    try {
+      journal.applying(writes).join();
+    } catch (CompletionException e) {
+      logger.error("Failed to journal writes about to be applied; retrying", e.getCause());
+      retries.increment();
+      for (List<Mutation> mutations : round) {
+        requeue(mutations.get(0).unitId(), mutations);
+      }
+      return false;
+    }
+    if (applyPool == null || round.size() == 1) {
+      boolean done = true;
+      for (List<Mutation> mutations : round) {
+        done &= applyUnit(mutations);
+      }
+      return done;
+    }
+    List<Callable<Boolean>> tasks = new ArrayList<>(round.size());
+    for (List<Mutation> mutations : round) {
+      tasks.add(() -> applyUnit(mutations));
+    }
+    boolean done = true;
+    for (Future<Boolean> result : applyPool.invokeAll(tasks)) {
+      try {
+        done &= result.get();
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Applying asynchronous writes failed", e.getCause());
+      }
+    }
+    return done;
+  }
+
+  private boolean applyUnit(List<Mutation> mutations) {
+    String unitId = mutations.get(0).unitId();
+    // Writes in doubt were in an earlier round, so they lead the queue of their unit
+    int inDoubt = 0;
+    while (inDoubt < mutations.size() && mutations.get(inDoubt).inDoubt()) {
+      inDoubt++;
+    }
+    NetWrite net = NetWrite.of(inDoubt == 0 ? mutations : mutations.subList(0, inDoubt));
+    String refusal = new UnitNotFoundException(unitId).getMessage();
+    try {
+      if (inDoubt > 0 && !settle(net)) {
+        finish(net.contributors, OperationStatus.FAILED, IN_DOUBT_CHANGED);
+        finish(net.refused, OperationStatus.FAILED, refusal);
+        return applyRest(mutations, inDoubt);
+      }
+      if (inDoubt == 0) {
+        net.applyTo(unitService);
+      }
+    } catch (UnitNotFoundException e) {
+      finish(net.contributors, OperationStatus.FAILED, e.getMessage());
+      finish(net.refused, OperationStatus.FAILED, e.getMessage());
+      return applyRest(mutations, inDoubt);
+    } catch (RuntimeException e) {
+      if (e instanceof IllegalArgumentException || rejectedForGood(e)) {
+        logger.warn("Asynchronous write to unit {} rejected: {}", unitId, e.getMessage());
+        finish(net.contributors, OperationStatus.FAILED, e.getMessage());
+        finish(net.refused, OperationStatus.FAILED, refusal);
+        return applyRest(mutations, inDoubt);
+      }
+      retry(unitId, mutations, e);
+      return false;
+    }
+    if (net.type != null && inDoubt == 0) {
+      repositoryWrites.increment();
+    }
+    coalesced.add(net.contributors.size() - (net.type == null ? 0 : 1));
+    finish(net.contributors, OperationStatus.APPLIED, null);
+    finish(net.refused, OperationStatus.FAILED, refusal);
+    return applyRest(mutations, inDoubt);
+  }
+
+  /** Applies the writes queued behind settled writes in doubt, if any. */
+  private boolean applyRest(List<Mutation> mutations, int inDoubt) {
+    if (inDoubt == 0 || inDoubt == mutations.size()) {
+      return true;
+    }
+    return applyUnit(new ArrayList<>(mutations.subList(inDoubt, mutations.size())));
+  }
+
+  /**
+   * Settles writes that may have reached the repository before a restart without writing them
+   * twice.
+   *
+   * @return false if the unit has changed since, so the writes are neither known to be applied nor
+   *     safe to apply
+   */
+  private boolean settle(NetWrite net) {
+    if (net.type == null) {
+      return true;
+    }
+    String unitId = net.contributors.get(0).unitId();
+    Unit current;
+    try {
+      current = unitService.getUnitById(unitId);
+    } catch (UnitNotFoundException e) {
+      current = null;
+    }
+    if (net.type == MutationType.DELETE) {
+      // Ids are never reused, so a unit that still exists has not been deleted yet
+      if (current != null) {
+        unitService.deleteUnit(unitId);
+        repositoryWrites.increment();
+      }
+      return true;
+    }
+    return current != null && current.getName().equals(net.name);
+  }
+
+  /** Puts writes that failed transiently back in the queue, failing those out of attempts. */
+  private void retry(String unitId, List<Mutation> mutations, RuntimeException failure) {
+    retries.increment();
+    List<Mutation> again = new ArrayList<>(mutations.size());
+    List<Mutation> exhausted = new ArrayList<>();
+    for (Mutation mutation : mutations) {
+      mutation.failedAttempt();
+      (mutation.attempts() >= maxAttempts ? exhausted : again).add(mutation);
+    }
+    if (!exhausted.isEmpty()) {
+      logger.warn(
+          "Giving up on {} queued writes to unit {} after {} attempts",
+          exhausted.size(),
+          unitId,
+          maxAttempts,
+          failure);
+      finish(
+          exhausted,
+          OperationStatus.FAILED,
+          "Gave up after " + maxAttempts + " attempts: " + failure.getMessage());
+    } else {
+      logger.warn(
+          "Applying {} queued writes to unit {} failed; retrying", mutations.size(), unitId);
+      logger.debug("Asynchronous write failure", failure);
+    }
+    if (!again.isEmpty()) {
+      requeue(unitId, again);
+    }
+  }
+
+  /** Whether a write failed for a reason that retrying cannot change. */
+  private static boolean rejectedForGood(RuntimeException e) {
+    if (e instanceof ConstraintViolationException) {
+      return true;
+    }
+    // Malformed requests, failed conditions and oversized items; throttling and missing tables pass
+    return e instanceof AwsServiceException service
+        && service.statusCode() == 400
+        && !service.isThrottlingException()
+        && !(e instanceof ResourceNotFoundException);
+  }
+
+  private void enqueue(Mutation mutation) {
+    lock.lock();
+    try {
+      List<Mutation> queued = pendingByUnit.get(mutation.unitId());
+      if (queued == null) {
+        queued = new ArrayList<>();
+        pendingByUnit.put(mutation.unitId(), queued);
+        readyUnits.addLast(mutation.unitId());
+      }
+      queued.add(mutation);
+      ready.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Puts failed writes back at the head of the queue, ahead of writes that arrived since. */
+  private void requeue(String unitId, List<Mutation> mutations) {
+    lock.lock();
+    try {
+      List<Mutation> newer = pendingByUnit.get(unitId);
+      if (newer != null) {
+        mutations.addAll(newer);
+        readyUnits.remove(unitId);
+      }
+      pendingByUnit.put(unitId, mutations);
+      readyUnits.addFirst(unitId);
+      ready.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void finish(List<Mutation> mutations, OperationStatus status, String error) {
+    if (mutations.isEmpty()) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    for (Mutation mutation : mutations) {
+      mutation.complete(status, error, now);
+      journal.complete(mutation);
+      (status == OperationStatus.APPLIED ? applied : failed).increment();
+      retain(mutation);
+    }
+    lock.lock();
+    try {
+      pending -= mutations.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Keeps a completed operation's status, forgetting the oldest beyond the retention limit. */
+  private void retain(Mutation mutation) {
+    completed.add(mutation);
+    if (completedCount.incrementAndGet() > statusRetention) {
+      Mutation oldest = completed.poll();
+      if (oldest != null) {
+        completedCount.decrementAndGet();
+        operations.remove(oldest.operationId(), oldest);
+      }
+    }
+  }
+
+  /** The single write equivalent to a sequence of writes to one unit. */
+  private static final class NetWrite {
+
+    private MutationType type;
+    private String name;
+    private boolean absent;
+    private final List<Mutation> contributors = new ArrayList<>();
+    private final List<Mutation> refused = new ArrayList<>();
+
+    private static NetWrite of(List<Mutation> mutations) {
+      NetWrite net = new NetWrite();
+      for (Mutation mutation : mutations) {
+        net.fold(mutation);
+      }
+      return net;
+    }
+
+    private void fold(Mutation mutation) {
+      MutationType next = mutation.type();
+      if (next != MutationType.CREATE && (absent || type == MutationType.DELETE)) {
+        // Renaming or deleting a unit an earlier write in the group deletes
+        refused.add(mutation);
+        return;
+      }
+      contributors.add(mutation);
+      if (type == MutationType.CREATE && next == MutationType.DELETE) {
+        type = null;
+        name = null;
+        absent = true;
+      } else if (type == MutationType.CREATE && next == MutationType.UPDATE) {
+        name = mutation.name();
+      } else {
+        type = next;
+        name = mutation.name();
+        absent = false;
+      }
+    }
+
+    private void applyTo(UnitService unitService) {
+      if (type == null) {
+        return;
+      }
+      switch (type) {
+        case CREATE -> unitService.createUnit(contributors.get(0).unitId(), name);
+        case UPDATE -> unitService.updateUnit(contributors.get(0).unitId(), name);
+        case DELETE -> unitService.deleteUnit(contributors.get(0).unitId());
+      }
+    }
+  }
+}
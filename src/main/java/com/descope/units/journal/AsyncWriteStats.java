@@ -0,0 +1,174 @@
+package com.descope.units.journal;
+
+/**
+ * Point-in-time state of asynchronous writes.
+ *
+ * <p>Every journal sync covers all the writes that arrived while the previous one ran, so {@code
+ * accepted / journalSyncs} is the average group commit size.
+ */
+public class AsyncWriteStats {
+
+  private final boolean enabled;
+  private final int pending;
+  private final long accepted;
+  private final long applied;
+  private final long failed;
+  private final long coalesced;
+  private final long repositoryWrites;
+  private final long retries;
+  private final long rejected;
+  private final int journalSegments;
+  private final long journalBytes;
+  private final long journalSyncs;
+
+  /**
+   * Constructs an AsyncWriteStats snapshot.
+   *
+   * @param enabled whether writes may be accepted asynchronously
+   * @param pending the number of accepted writes not yet applied
+   * @param accepted the number of writes accepted since startup
+   * @param applied the number of accepted writes applied
+   * @param failed the number of accepted writes that failed
+   * @param coalesced the number of writes folded into another write to the same unit
+   * @param repositoryWrites the number of writes made to the repository
+   * @param retries the number of times a write was re-queued after a transient failure
+   * @param rejected the number of writes refused because too many were pending
+   * @param journalSegments the number of journal segment files
+   * @param journalBytes the bytes held in journal segment files
+   * @param journalSyncs the number of times the journal was forced to disk
+   */
+  public AsyncWriteStats(
+      boolean enabled,
+      int pending,
+      long accepted,
+      long applied,
+      long failed,
+      long coalesced,
+      long repositoryWrites,
+      long retries,
+      long rejected,
+      int journalSegments,
+      long journalBytes,
+      long journalSyncs) {
+    this.enabled = enabled;
+    this.pending = pending;
+    this.accepted = accepted;
+    this.applied = applied;
+    this.failed = failed;
+    this.coalesced = coalesced;
+    this.repositoryWrites = repositoryWrites;
+    this.retries = retries;
+    this.rejected = rejected;
+    this.journalSegments = journalSegments;
+    this.journalBytes = journalBytes;
+    this.journalSyncs = journalSyncs;
+  }
+
+  /**
+   * Returns whether writes may be accepted asynchronously.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the number of accepted writes not yet applied.
+   *
+   * @return the pending count
+   */
+  public int getPending() {
+    return pending;
+  }
+
+  /**
+   * Returns the number of writes accepted since startup.
+   *
+   * @return the accepted count
+   */
+  public long getAccepted() {
+    return accepted;
+  }
+
+  /**
+   * Returns the number of accepted writes applied, directly or folded into another.
+   *
+   * @return the applied count
+   */
+  public long getApplied() {
+    return applied;
+  }
+
+  /**
+   * Returns the number of accepted writes that failed when applied.
+   *
+   * @return the failed count
+   */
+  public long getFailed() {
+    return failed;
+  }
+
+  /**
+   * Returns the number of writes folded into another write to the same unit.
+   *
+   * @return the coalesced count
+   */
+  public long getCoalesced() {
+    return coalesced;
+  }
+
+  /**
+   * Returns the number of writes made to the repository by the drainer.
+   *
+   * @return the repository write count
+   */
+  public long getRepositoryWrites() {
+    return repositoryWrites;
+  }
+
+  /**
+   * Returns the number of times a write was re-queued after a transient failure.
+   *
+   * @return the retry count
+   */
+  public long getRetries() {
+    return retries;
+  }
+
+  /**
+   * Returns the number of writes refused because too many were pending.
+   *
+   * @return the rejected count
+   */
+  public long getRejected() {
+    return rejected;
+  }
+
+  /**
+   * Returns the number of journal segment files.
+   *
+   * @return the segment count
+   */
+  public int getJournalSegments() {
+    return journalSegments;
+  }
+
+  /**
+   * Returns the bytes held in journal segment files.
+   *
+   * @return the journal size in bytes
+   */
+  public long getJournalBytes() {
+    return journalBytes;
+  }
+
+  /**
+   * Returns the number of times the journal was forced to disk.
+   *
+   * @return the sync count
+   */
+  public long getJournalSyncs() {
+    return journalSyncs;
+  }
+}
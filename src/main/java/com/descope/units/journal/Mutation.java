@@ -0,0 +1,119 @@
+package com.descope.units.journal;
+
+import java.time.Instant;
+
+import com.descope.units.dto.OperationResponse;
+
+/**
+ * A write accepted into the {@link MutationJournal} and its progress.
+ *
+ * <p>The write itself is immutable; the status fields are set once, by the drainer, when the write
+ * is applied or fails.
+ */
+final class Mutation {
+
+  private final String operationId;
+  private final MutationType type;
+  private final String unitId;
+  private final String name;
+  private final long acceptedAtMillis;
+  private final boolean replayed;
+
+  // Set by the journal writer when the record is appended, or on recovery
+  volatile MutationJournal.Segment segment;
+
+  // Set on recovery when the journal shows the write may already have reached the repository
+  private volatile boolean inDoubt;
+  private volatile int attempts;
+
+  private volatile OperationStatus status = OperationStatus.PENDING;
+  private volatile String error;
+  private volatile long completedAtMillis;
+
+  Mutation(
+      String operationId,
+      MutationType type,
+      String unitId,
+      String name,
+      long acceptedAtMillis,
+      boolean replayed) {
+    this.operationId = operationId;
+    this.type = type;
+    this.unitId = unitId;
+    this.name = name;
+    this.acceptedAtMillis = acceptedAtMillis;
+    this.replayed = replayed;
+  }
+
+  String operationId() {
+    return operationId;
+  }
+
+  MutationType type() {
+    return type;
+  }
+
+  String unitId() {
+    return unitId;
+  }
+
+  /** The new name; null for a delete. */
+  String name() {
+    return name;
+  }
+
+  long acceptedAtMillis() {
+    return acceptedAtMillis;
+  }
+
+  /** Whether the write was recovered from the journal after a restart. */
+  boolean replayed() {
+    return replayed;
+  }
+
+  /** Whether the write was being applied when the application stopped, so it may have been. */
+  boolean inDoubt() {
+    return inDoubt;
+  }
+
+  void markInDoubt() {
+    inDoubt = true;
+  }
+
+  /** The number of times applying the write has failed transiently; only the drainer updates it. */
+  int attempts() {
+    return attempts;
+  }
+
+  void failedAttempt() {
+    attempts++;
+  }
+
+  OperationStatus status() {
+    return status;
+  }
+
+  String error() {
+    return error;
+  }
+
+  void complete(OperationStatus status, String error, long completedAtMillis) {
+    this.error = error;
+    this.completedAtMillis = completedAtMillis;
+    this.status = status;
+  }
+
+  OperationResponse toResponse() {
+    OperationStatus current = status;
+    return new OperationResponse(
+        operationId,
+        type.name(),
+        unitId,
+        current.name(),
+        error,
+        Instant.ofEpochMilli(acceptedAtMillis).toString(),
+        current == OperationStatus.PENDING
+            ? null
+            : Instant.ofEpochMilli(completedAtMillis).toString());
+  }
+}
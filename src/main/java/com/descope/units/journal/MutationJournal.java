@@ -0,0 +1,561 @@
+package com.descope.units.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-ahead journal of accepted mutations in append-only segment files.
+ *
+ * <p>Records use the layout of {@link com.descope.units.repository.log.UnitLog}: a CRC32 of the
+ * rest of the record, the body length, and the body. A mutation record holds the operation id,
+ * write type, unit id, name and acceptance time; an applying record marks an operation about to be
+ * written to the repository; a completion record marks an operation applied or failed.
+ *
+ * <p>A single writer thread appends records. It takes every record queued since its last write,
+ * writes them together and forces the file once, so concurrent writers share one fsync instead of
+ * paying for one each. {@link #append} and {@link #applying} complete only after the force.
+ * Completion records are not waited for: an operation whose completion is lost to a crash still has
+ * its applying record, so after the restart it is known to be in doubt rather than not yet started.
+ *
+ * <p>When the active segment reaches its size, a new one is started. A sealed segment is deleted
+ * once every mutation in it and in every older segment has completed, so the applying and
+ * completion records of a pending mutation, which may be in a newer segment, are never deleted
+ * before it. On open, existing segments are read in order and the mutations without a completion
+ * record are handed back for replay, marked in doubt if they have an applying record; a record
+ * whose length or checksum does not match ends reading of its segment, as a write torn by a crash
+ * would.
+ */
+final class MutationJournal implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(MutationJournal.class);
+
+  private static final int HEADER_SIZE = 8;
+  private static final int MAX_FIELD_BYTES = 0xFFFF;
+  private static final int MAX_BATCH = 1024;
+  private static final int MAX_ERROR_CHARS = 1024;
+  private static final byte MUTATION = 1;
+  private static final byte COMPLETION = 2;
+  private static final byte APPLYING = 3;
+  private static final String SEGMENT_PREFIX = "journal-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final Append CLOSE = new Append(null, null, null);
+
+  private final Path directory;
+  private final long segmentBytes;
+  private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+  private final Set<Segment> segments = ConcurrentHashMap.newKeySet();
+  private final List<Mutation> recovered = new ArrayList<>();
+  private final LongAdder records = new LongAdder();
+  private final LongAdder syncs = new LongAdder();
+  private final Thread writer;
+  private volatile boolean closed;
+
+  // Written only by the writer thread once open
+  private Segment active;
+
+  private MutationJournal(Path directory, long segmentBytes) {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    this.writer = new Thread(this::writeLoop, "mutation-journal");
+    this.writer.setDaemon(true);
+  }
+
+  /**
+   * Opens the journal in a directory, creating it if needed and reading existing segments.
+   *
+   * @param directory the directory holding the segment files
+   * @param segmentBytes the size after which a new segment is started
+   * @return the opened journal
+   * @throws IOException if the segments cannot be read or created
+   */
+  static MutationJournal open(Path directory, long segmentBytes) throws IOException {
+    if (segmentBytes < 1024) {
+      throw new IllegalArgumentException("Journal segment size must be at least 1 KiB");
+    }
+    Files.createDirectories(directory);
+    MutationJournal journal = new MutationJournal(directory, segmentBytes);
+    int nextId = journal.recover();
+    journal.active = journal.createSegment(nextId);
+    journal.writer.start();
+    return journal;
+  }
+
+  /**
+   * Returns the mutations read from the journal when it was opened, in the order they were
+   * accepted: pending ones to replay and, while their segments remain, completed ones.
+   *
+   * @return the recovered mutations
+   */
+  List<Mutation> recovered() {
+    return recovered;
+  }
+
+  /**
+   * Appends a mutation record.
+   *
+   * @param mutation the accepted mutation
+   * @return a future completed once the record is forced to disk
+   */
+  CompletableFuture<Void> append(Mutation mutation) {
+    CompletableFuture<Void> written = new CompletableFuture<>();
+    if (closed) {
+      written.completeExceptionally(new IOException("Mutation journal is closed"));
+      return written;
+    }
+    queue.add(new Append(encodeMutation(mutation), mutation, written));
+    return written;
+  }
+
+  /**
+   * Records that mutations are about to be written to the repository.
+   *
+   * @param mutations the mutations about to be applied
+   * @return a future completed once the records are forced to disk
+   */
+  CompletableFuture<Void> applying(List<Mutation> mutations) {
+    CompletableFuture<Void> written = new CompletableFuture<>();
+    if (closed) {
+      written.completeExceptionally(new IOException("Mutation journal is closed"));
+      return written;
+    }
+    for (int i = 0; i < mutations.size(); i++) {
+      boolean last = i == mutations.size() - 1;
+      queue.add(new Append(encodeApplying(mutations.get(i)), null, last ? written : null));
+    }
+    if (mutations.isEmpty()) {
+      written.complete(null);
+    }
+    return written;
+  }
+
+  /**
+   * Records that a mutation was applied or failed, allowing its segment to be deleted.
+   *
+   * @param mutation a mutation whose status is no longer pending
+   */
+  void complete(Mutation mutation) {
+    if (!closed) {
+      queue.add(new Append(encodeCompletion(mutation), null, null));
+    }
+    Segment segment = mutation.segment;
+    if (segment != null && segment.pending.decrementAndGet() == 0 && segment.sealed) {
+      deleteCompleted();
+    }
+  }
+
+  /**
+   * Returns the number of segment files.
+   *
+   * @return the segment count
+   */
+  int segmentCount() {
+    return segments.size();
+  }
+
+  /**
+   * Returns the bytes held in segment files.
+   *
+   * @return the journal size in bytes
+   */
+  long sizeBytes() {
+    long size = 0;
+    for (Segment segment : segments) {
+      size += segment.size;
+    }
+    return size;
+  }
+
+  /**
+   * Returns the number of records appended since the journal was opened.
+   *
+   * @return the record count
+   */
+  long recordsWritten() {
+    return records.sum();
+  }
+
+  /**
+   * Returns the number of times the journal was forced to disk.
+   *
+   * @return the sync count
+   */
+  long syncs() {
+    return syncs.sum();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    queue.add(CLOSE);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (Append append = queue.poll(); append != null; append = queue.poll()) {
+      if (append.written != null) {
+        append.written.completeExceptionally(new IOException("Mutation journal is closed"));
+      }
+    }
+    active.channel.force(false);
+    active.channel.close();
+  }
+
+  private int recover() throws IOException {
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files =
+          listing
+              .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+              .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+              .sorted()
+              .toList();
+    }
+
+    Map<String, Mutation> byOperation = new LinkedHashMap<>();
+    int nextId = 0;
+    for (Path file : files) {
+      Segment segment = new Segment(segmentIdOf(file), file, null);
+      segment.sealed = true;
+      segment.size = Files.size(file);
+      segments.add(segment);
+      read(segment, byOperation);
+      nextId = Math.max(nextId, segment.id + 1);
+    }
+
+    int pending = 0;
+    for (Mutation mutation : byOperation.values()) {
+      if (mutation.status() == OperationStatus.PENDING) {
+        mutation.segment.pending.incrementAndGet();
+        pending++;
+      }
+      recovered.add(mutation);
+    }
+    deleteCompleted();
+    if (!files.isEmpty()) {
+      logger.info(
+          "Opened mutation journal in {} with {} pending of {} recorded operations",
+          directory,
+          pending,
+          byOperation.size());
+    }
+    return nextId;
+  }
+
+  private void read(Segment segment, Map<String, Mutation> byOperation) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment.path));
+    int offset = 0;
+    while (offset + HEADER_SIZE <= buffer.limit()) {
+      int length = buffer.getInt(offset + 4);
+      if (length <= 0
+          || offset + HEADER_SIZE + length > buffer.limit()
+          || buffer.getInt(offset) != checksum(buffer, offset, length)) {
+        logger.warn(
+            "Corrupt record in {} at offset {}; ignoring the rest of the segment",
+            segment.path,
+            offset);
+        return;
+      }
+      ByteBuffer body = buffer.slice(offset + HEADER_SIZE, length);
+      byte kind = body.get();
+      String operationId = readString(body);
+      if (kind == MUTATION) {
+        MutationType type = MutationType.values()[body.get()];
+        String unitId = readString(body);
+        String name = body.get() == 1 ? readString(body) : null;
+        Mutation mutation = new Mutation(operationId, type, unitId, name, body.getLong(), true);
+        mutation.segment = segment;
+        byOperation.put(operationId, mutation);
+      } else if (kind == COMPLETION) {
+        OperationStatus status = OperationStatus.values()[body.get()];
+        String error = body.get() == 1 ? readString(body) : null;
+        long completedAtMillis = body.getLong();
+        Mutation mutation = byOperation.get(operationId);
+        if (mutation != null && mutation.status() == OperationStatus.PENDING) {
+          mutation.complete(status, error, completedAtMillis);
+        }
+      } else if (kind == APPLYING) {
+        Mutation mutation = byOperation.get(operationId);
+        if (mutation != null) {
+          mutation.markInDoubt();
+        }
+      }
+      offset += HEADER_SIZE + length;
+    }
+  }
+
+  private void writeLoop() {
+    List<Append> batch = new ArrayList<>();
+    boolean closing = false;
+    while (!closing) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        return;
+      }
+      queue.drainTo(batch, MAX_BATCH - 1);
+      int end = batch.indexOf(CLOSE);
+      if (end >= 0) {
+        closing = true;
+        batch.subList(end, batch.size()).clear();
+      }
+      write(batch);
+      batch.clear();
+    }
+  }
+
+  /** Writes a batch of records with a single force, rolling if full, then completes futures. */
+  private void write(List<Append> batch) {
+    IOException failure = null;
+    Segment segment = active;
+    boolean sync = false;
+    ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+    for (int i = 0; i < buffers.length; i++) {
+      Append append = batch.get(i);
+      buffers[i] = ByteBuffer.wrap(append.record);
+      if (append.mutation != null) {
+        append.mutation.segment = segment;
+        segment.pending.incrementAndGet();
+      }
+      sync |= append.written != null;
+    }
+    try {
+      long written = 0;
+      while (buffers.length > 0 && buffers[buffers.length - 1].hasRemaining()) {
+        written += segment.channel.write(buffers);
+      }
+      segment.size += written;
+      if (sync) {
+        segment.channel.force(false);
+        syncs.increment();
+      }
+      records.add(batch.size());
+    } catch (IOException e) {
+      logger.error("Failed to append to mutation journal segment {}", segment.path, e);
+      failure = e;
+    }
+
+    if (failure == null && segment.size >= segmentBytes) {
+      roll();
+    }
+
+    for (Append append : batch) {
+      if (append.written == null) {
+        continue;
+      }
+      if (failure == null) {
+        append.written.complete(null);
+      } else {
+        if (append.mutation != null) {
+          append.mutation.segment = null;
+          segment.pending.decrementAndGet();
+        }
+        append.written.completeExceptionally(failure);
+      }
+    }
+  }
+
+  private void roll() {
+    Segment sealed = active;
+    try {
+      active = createSegment(sealed.id + 1);
+      sealed.channel.force(false);
+      sealed.channel.close();
+    } catch (IOException e) {
+      logger.error("Failed to roll mutation journal segment {}", sealed.path, e);
+      return;
+    }
+    sealed.sealed = true;
+    if (sealed.pending.get() == 0) {
+      deleteCompleted();
+    }
+  }
+
+  private Segment createSegment(int id) throws IOException {
+    Path path = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    // Make the new file's directory entry durable, where the platform allows it
+    try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      directoryChannel.force(true);
+    } catch (IOException e) {
+      logger.debug("Could not sync journal directory {}", directory, e);
+    }
+    Segment segment = new Segment(id, path, channel);
+    segments.add(segment);
+    return segment;
+  }
+
+  /** Deletes the oldest segments, up to the first one that is active or has pending mutations. */
+  private synchronized void deleteCompleted() {
+    List<Segment> oldestFirst = new ArrayList<>(segments);
+    oldestFirst.sort(Comparator.comparingInt(segment -> segment.id));
+    for (Segment segment : oldestFirst) {
+      if (!segment.sealed || segment.pending.get() > 0) {
+        return;
+      }
+      delete(segment);
+    }
+  }
+
+  private void delete(Segment segment) {
+    if (!segments.remove(segment)) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(segment.path);
+      logger.debug("Deleted completed mutation journal segment {}", segment.path);
+    } catch (IOException e) {
+      logger.warn("Failed to delete mutation journal segment {}", segment.path, e);
+    }
+  }
+
+  private static int segmentIdOf(Path file) {
+    String name = file.getFileName().toString();
+    return Integer.parseInt(
+        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private static byte[] encodeMutation(Mutation mutation) {
+    byte[] operationId = utf8(mutation.operationId());
+    byte[] unitId = utf8(mutation.unitId());
+    byte[] name = mutation.name() == null ? null : utf8(mutation.name());
+    int length = 1 + 2 + operationId.length + 1 + 2 + unitId.length + 1 + field(name) + Long.BYTES;
+    ByteBuffer body = ByteBuffer.allocate(length);
+    body.put(MUTATION);
+    putString(body, operationId);
+    body.put((byte) mutation.type().ordinal());
+    putString(body, unitId);
+    putOptionalString(body, name);
+    body.putLong(mutation.acceptedAtMillis());
+    return frame(body.array());
+  }
+
+  private static byte[] encodeApplying(Mutation mutation) {
+    byte[] operationId = utf8(mutation.operationId());
+    ByteBuffer body = ByteBuffer.allocate(1 + 2 + operationId.length);
+    body.put(APPLYING);
+    putString(body, operationId);
+    return frame(body.array());
+  }
+
+  private static byte[] encodeCompletion(Mutation mutation) {
+    byte[] operationId = utf8(mutation.operationId());
+    String message = mutation.error();
+    byte[] error =
+        message == null
+            ? null
+            : utf8(
+                message.length() > MAX_ERROR_CHARS
+                    ? message.substring(0, MAX_ERROR_CHARS)
+                    : message);
+    ByteBuffer body = ByteBuffer.allocate(1 + 2 + operationId.length + 1 + 1 + field(error) + 8);
+    body.put(COMPLETION);
+    putString(body, operationId);
+    body.put((byte) mutation.status().ordinal());
+    putOptionalString(body, error);
+    body.putLong(System.currentTimeMillis());
+    return frame(body.array());
+  }
+
+  /** Prefixes a body with its checksum and length. */
+  private static byte[] frame(byte[] body) {
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + body.length);
+    record.putInt(4, body.length);
+    record.put(HEADER_SIZE, body);
+    record.putInt(0, checksum(record, 0, body.length));
+    return record.array();
+  }
+
+  private static byte[] utf8(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_FIELD_BYTES) {
+      throw new IllegalArgumentException("Journaled ids and names must each be under 64 KiB");
+    }
+    return bytes;
+  }
+
+  private static int field(byte[] value) {
+    return value == null ? 0 : 2 + value.length;
+  }
+
+  private static void putString(ByteBuffer body, byte[] value) {
+    body.putShort((short) value.length).put(value);
+  }
+
+  private static void putOptionalString(ByteBuffer body, byte[] value) {
+    body.put((byte) (value == null ? 0 : 1));
+    if (value != null) {
+      putString(body, value);
+    }
+  }
+
+  private static String readString(ByteBuffer body) {
+    byte[] bytes = new byte[Short.toUnsignedInt(body.getShort())];
+    body.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** CRC32 over the length field and the body of the record at {@code offset}. */
+  private static int checksum(ByteBuffer buffer, int offset, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.slice(offset + 4, 4 + length));
+    return (int) crc.getValue();
+  }
+
+  /** A segment file; only the active segment has an open channel. */
+  static final class Segment {
+
+    private final int id;
+    private final Path path;
+    private final FileChannel channel;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean sealed;
+    private volatile long size;
+
+    private Segment(int id, Path path, FileChannel channel) {
+      this.id = id;
+      this.path = path;
+      this.channel = channel;
+    }
+  }
+
+  private static final class Append {
+
+    private final byte[] record;
+    private final Mutation mutation;
+    private final CompletableFuture<Void> written;
+
+    private Append(byte[] record, Mutation mutation, CompletableFuture<Void> written) {
+      this.record = record;
+      this.mutation = mutation;
+      this.written = written;
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.descope.units.journal;
+
+/** The kind of write an accepted {@link Mutation} makes. */
+public enum MutationType {
+  /** Creates a unit with an id assigned when the write was accepted. */
+  CREATE,
+  /** Renames an existing unit. */
+  UPDATE,
+  /** Deletes an existing unit. */
+  DELETE
+}
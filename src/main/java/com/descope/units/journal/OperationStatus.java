@@ -0,0 +1,11 @@
+package com.descope.units.journal;
+
+/** The progress of an accepted write. */
+public enum OperationStatus {
+  /** Journaled and waiting to be applied. */
+  PENDING,
+  /** Applied to the repository, possibly folded into a later write to the same unit. */
+  APPLIED,
+  /** Rejected when applied, for example because the unit no longer exists. */
+  FAILED
+}
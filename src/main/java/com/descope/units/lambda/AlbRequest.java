@@ -0,0 +1,152 @@
+package com.descope.units.lambda;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The parts of an ALB target-group event the {@link AlbUnitRouter} routes on.
+ *
+ * <p>The load balancer passes the path and query string as the client sent them, still
+ * percent-encoded, and sends headers and query parameters either single-valued or, when the target
+ * group has multi-value headers enabled, as lists; only the first value of each is kept. Header
+ * names are lower-cased.
+ */
+final class AlbRequest {
+
+  private final String method;
+  private final String path;
+  private final Map<String, String> headers;
+  private final Map<String, String> query;
+  private final String body;
+  private final boolean multiValue;
+
+  private AlbRequest(
+      String method,
+      String path,
+      Map<String, String> headers,
+      Map<String, String> query,
+      String body,
+      boolean multiValue) {
+    this.method = method;
+    this.path = path;
+    this.headers = headers;
+    this.query = query;
+    this.body = body;
+    this.multiValue = multiValue;
+  }
+
+  /**
+   * Parses a Lambda event.
+   *
+   * @param objectMapper the mapper to read the event with
+   * @param event the raw event
+   * @return the request, or null if the event is not from a load balancer
+   * @throws IOException if the event is not JSON
+   */
+  static AlbRequest parse(ObjectMapper objectMapper, byte[] event) throws IOException {
+    JsonNode root = objectMapper.readTree(event);
+    if (root == null || !root.path("requestContext").has("elb")) {
+      return null;
+    }
+    boolean multiValue = root.has("multiValueHeaders");
+    Map<String, String> headers =
+        multiValue
+            ? firstValues(root.get("multiValueHeaders"), false)
+            : firstValues(root.get("headers"), false);
+    Map<String, String> query =
+        root.has("multiValueQueryStringParameters")
+            ? firstValues(root.get("multiValueQueryStringParameters"), true)
+            : firstValues(root.get("queryStringParameters"), true);
+    String body = root.path("body").isTextual() ? root.get("body").asText() : null;
+    if (body != null && root.path("isBase64Encoded").asBoolean(false)) {
+      body = new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+    }
+    return new AlbRequest(
+        root.path("httpMethod").asText(""),
+        root.path("path").asText(""),
+        headers,
+        query,
+        body,
+        multiValue);
+  }
+
+  String method() {
+    return method;
+  }
+
+  String path() {
+    return path;
+  }
+
+  /**
+   * Returns a request header.
+   *
+   * @param name the lower-case header name
+   * @return the first value, or null if absent
+   */
+  String header(String name) {
+    return headers.get(name);
+  }
+
+  /**
+   * Returns a decoded query parameter.
+   *
+   * @param name the parameter name
+   * @return the first value, or null if absent
+   */
+  String query(String name) {
+    return query.get(name);
+  }
+
+  String body() {
+    return body;
+  }
+
+  /** Returns whether the target group sends, and expects back, multi-value headers. */
+  boolean multiValue() {
+    return multiValue;
+  }
+
+  /**
+   * Decodes one percent-encoded path segment; unlike in a query string, a plus sign is literal.
+   *
+   * @param segment the raw segment
+   * @return the decoded segment
+   * @throws IllegalArgumentException if the encoding is malformed
+   */
+  static String decodePathSegment(String segment) {
+    return URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, String> firstValues(JsonNode node, boolean query) {
+    Map<String, String> values = new HashMap<>();
+    if (node == null || !node.isObject()) {
+      return values;
+    }
+    Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      JsonNode value = field.getValue().isArray() ? field.getValue().path(0) : field.getValue();
+      if (!value.isTextual()) {
+        continue;
+      }
+      if (query) {
+        values.putIfAbsent(
+            URLDecoder.decode(field.getKey(), StandardCharsets.UTF_8),
+            URLDecoder.decode(value.asText(), StandardCharsets.UTF_8));
+      } else {
+        values.putIfAbsent(field.getKey().toLowerCase(Locale.ROOT), value.asText());
+      }
+    }
+    return values;
+  }
+}
@@ -0,0 +1,134 @@
+package com.descope.units.lambda;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/** A response to an ALB target-group event: a status, single-valued headers and a text body. */
+final class AlbResponse {
+
+  private final int status;
+  private final Map<String, String> headers = new LinkedHashMap<>();
+  private final String body;
+
+  private AlbResponse(int status, String body) {
+    this.status = status;
+    this.body = body;
+  }
+
+  /**
+   * Creates a JSON response.
+   *
+   * @param status the HTTP status
+   * @param body the JSON body
+   * @return the response
+   */
+  static AlbResponse json(int status, String body) {
+    return new AlbResponse(status, body)
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+  }
+
+  /**
+   * Creates a response without a body.
+   *
+   * @param status the HTTP status
+   * @return the response
+   */
+  static AlbResponse empty(int status) {
+    return new AlbResponse(status, "");
+  }
+
+  /**
+   * Converts a response built by an exception mapper.
+   *
+   * @param response the mapped response
+   * @param objectMapper the mapper to serialize a non-text entity with
+   * @return the response
+   * @throws JsonProcessingException if the entity cannot be serialized
+   */
+  static AlbResponse from(Response response, ObjectMapper objectMapper)
+      throws JsonProcessingException {
+    Object entity = response.getEntity();
+    String body;
+    if (entity == null) {
+      body = "";
+    } else if (entity instanceof String) {
+      body = (String) entity;
+    } else {
+      body = objectMapper.writeValueAsString(entity);
+    }
+    AlbResponse converted = new AlbResponse(response.getStatus(), body);
+    response
+        .getHeaders()
+        .forEach(
+            (name, values) -> {
+              if (!values.isEmpty()) {
+                converted.header(name, String.valueOf(values.get(0)));
+              }
+            });
+    if (entity != null && !converted.headers.containsKey(HttpHeaders.CONTENT_TYPE)) {
+      converted.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+    }
+    return converted;
+  }
+
+  /**
+   * Sets a header.
+   *
+   * @param name the header name
+   * @param value the header value
+   * @return this response
+   */
+  AlbResponse header(String name, String value) {
+    headers.put(name, value);
+    return this;
+  }
+
+  int status() {
+    return status;
+  }
+
+  String header(String name) {
+    return headers.get(name);
+  }
+
+  String body() {
+    return body;
+  }
+
+  /**
+   * Serializes the response in the shape the load balancer expects.
+   *
+   * @param objectMapper the mapper to write the event with
+   * @param multiValue whether the target group uses multi-value headers
+   * @return the response event
+   * @throws JsonProcessingException if the response cannot be serialized
+   */
+  byte[] toEvent(ObjectMapper objectMapper, boolean multiValue) throws JsonProcessingException {
+    Map<String, Object> event = new LinkedHashMap<>();
+    event.put("statusCode", status);
+    event.put("statusDescription", status + " " + reasonPhrase(status));
+    event.put("isBase64Encoded", false);
+    if (multiValue) {
+      Map<String, List<String>> multiValueHeaders = new LinkedHashMap<>();
+      headers.forEach((name, value) -> multiValueHeaders.put(name, List.of(value)));
+      event.put("multiValueHeaders", multiValueHeaders);
+    } else {
+      event.put("headers", headers);
+    }
+    event.put("body", body);
+    return objectMapper.writeValueAsBytes(event);
+  }
+
+  private static String reasonPhrase(int status) {
+    Response.Status known = Response.Status.fromStatusCode(status);
+    return known == null ? "" : known.getReasonPhrase();
+  }
+}
@@ -0,0 +1,45 @@
+package com.descope.units.lambda;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+import io.quarkus.amazon.lambda.runtime.QuarkusStreamHandler;
+import io.quarkus.arc.Arc;
+
+/**
+ * Lambda handler that answers ALB requests for the unit routes directly and passes everything else
+ * to the Quarkus handler.
+ *
+ * <p>Set it as the function handler, {@code
+ * com.descope.units.lambda.AlbUnitHandler::handleRequest}, in place of {@code
+ * QuarkusStreamHandler}. The application starts as before, during the init phase, but unit requests
+ * then skip the virtual HTTP request, the Vert.x and JAX-RS pipelines and the classes they load on
+ * the first request; see {@link AlbUnitRouter}. Other routes, and events not from a load balancer,
+ * are served by the full stack unchanged.
+ */
+public class AlbUnitHandler {
+
+  // Starts the application when the runtime loads this class
+  private static final QuarkusStreamHandler APPLICATION = new QuarkusStreamHandler();
+  private static final AlbUnitRouter ROUTER = Arc.container().instance(AlbUnitRouter.class).get();
+
+  /**
+   * Handles one invocation.
+   *
+   * @param input the event
+   * @param output the stream to write the response to
+   * @param context the invocation context
+   * @throws IOException if the event cannot be read or the response written
+   */
+  public void handleRequest(InputStream input, OutputStream output, Context context)
+      throws IOException {
+    byte[] event = input.readAllBytes();
+    if (!ROUTER.handle(event, output, context)) {
+      APPLICATION.handleRequest(new ByteArrayInputStream(event), output, context);
+    }
+  }
+}
@@ -0,0 +1,425 @@
+package com.descope.units.lambda;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.descope.units.cache.CachedResponse;
+import com.descope.units.cache.CachedUnitReader;
+import com.descope.units.cache.Freshness;
+import com.descope.units.cache.ResponseCache;
+import com.descope.units.cache.UnitRead;
+import com.descope.units.deadline.Deadline;
+import com.descope.units.deadline.DeadlineContext;
+import com.descope.units.dto.CreateUnitRequest;
+import com.descope.units.dto.UnitPageResponse;
+import com.descope.units.dto.UnitResponse;
+import com.descope.units.dto.UpdateUnitRequest;
+import com.descope.units.exception.DeadlineExceededException;
+import com.descope.units.exception.GlobalExceptionHandler;
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
+import com.descope.units.overload.ClientQuotas;
+import com.descope.units.overload.LoadShedder;
+import com.descope.units.overload.RequestPriority;
+import com.descope.units.service.UnitService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.quarkus.arc.Unremovable;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the {@code /api/units} CRUD routes straight from ALB target-group events.
+ *
+ * <p>This is the {@link com.descope.units.resource.UnitResource} contract without the HTTP and
+ * JAX-RS layers in between: the same service calls, request validation, load shedding, deadline and
+ * response cache, with errors rendered by the same {@link GlobalExceptionHandler}. Anything it does
+ * not reproduce exactly, such as CORS, content negotiation, {@code Prefer}, conditional headers
+ * other than {@code If-None-Match}, and bodies or parameters the JAX-RS stack would reject on its
+ * own, is left to the full stack by returning false from {@link #handle}.
+ */
+@ApplicationScoped
+@Unremovable
+public class AlbUnitRouter {
+
+  private static final Logger logger = LoggerFactory.getLogger(AlbUnitRouter.class);
+
+  private static final String BASE_PATH = "/api/units";
+  private static final String RESOURCE = "UnitResource.";
+
+  private final UnitService unitService;
+  private final ResponseCache responseCache;
+  private final CachedUnitReader cachedUnitReader;
+  private final LoadShedder loadShedder;
+  private final ClientQuotas clientQuotas;
+  private final Validator validator;
+  private final GlobalExceptionHandler exceptionHandler;
+  private final ObjectMapper objectMapper;
+  private final ObjectReader createReader;
+  private final ObjectReader updateReader;
+  private final boolean deadlineEnabled;
+  private final long budgetNanos;
+  private final long lambdaReserveNanos;
+  private final long minRemainingNanos;
+
+  /**
+   * Constructs an AlbUnitRouter.
+   *
+   * @param unitService the unit service
+   * @param responseCache the cache of encoded unit responses
+   * @param cachedUnitReader the reader serving units through the response cache
+   * @param loadShedder the admission controller
+   * @param clientQuotas the per-client quotas and fair shares
+   * @param validator the validator for request bodies
+   * @param exceptionHandler the mapper rendering errors
+   * @param objectMapper the JSON mapper
+   * @param deadlineEnabled whether requests run under a deadline
+   * @param budgetMillis the time each request may take when invoked without a Lambda context
+   * @param lambdaReserveMillis the part of the Lambda remaining time kept for writing the response
+   * @param minRemainingMillis the least time left for a request to be started
+   */
+  @Inject
+  public AlbUnitRouter(
+      UnitService unitService,
+      ResponseCache responseCache,
+      CachedUnitReader cachedUnitReader,
+      LoadShedder loadShedder,
+      ClientQuotas clientQuotas,
+      Validator validator,
+      GlobalExceptionHandler exceptionHandler,
+      ObjectMapper objectMapper,
+      @ConfigProperty(name = "units.deadline.enabled", defaultValue = "true")
+          boolean deadlineEnabled,
+      @ConfigProperty(name = "units.deadline.budget-ms", defaultValue = "3000") long budgetMillis,
+      @ConfigProperty(name = "units.deadline.lambda-reserve-ms", defaultValue = "250")
+          long lambdaReserveMillis,
+      @ConfigProperty(name = "units.deadline.min-remaining-ms", defaultValue = "20")
+          long minRemainingMillis) {
+    this.unitService = unitService;
+    this.responseCache = responseCache;
+    this.cachedUnitReader = cachedUnitReader;
+    this.loadShedder = loadShedder;
+    this.clientQuotas = clientQuotas;
+    this.validator = validator;
+    this.exceptionHandler = exceptionHandler;
+    this.objectMapper = objectMapper;
+    this.createReader = objectMapper.readerFor(CreateUnitRequest.class);
+    this.updateReader = objectMapper.readerFor(UpdateUnitRequest.class);
+    this.deadlineEnabled = deadlineEnabled;
+    this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    this.lambdaReserveNanos = TimeUnit.MILLISECONDS.toNanos(lambdaReserveMillis);
+    this.minRemainingNanos = TimeUnit.MILLISECONDS.toNanos(minRemainingMillis);
+  }
+
+  /**
+   * Answers an event if it is an ALB request for one of the unit routes.
+   *
+   * @param event the raw Lambda event
+   * @param output the stream to write the response event to
+   * @param context the Lambda invocation context, or null outside Lambda
+   * @return true if the response was written; false if the event must go to the full stack
+   * @throws IOException if the response cannot be written
+   */
+  public boolean handle(byte[] event, OutputStream output, Context context) throws IOException {
+    AlbRequest request;
+    try {
+      request = AlbRequest.parse(objectMapper, event);
+    } catch (IOException e) {
+      return false;
+    }
+    Route route = request == null ? null : route(request);
+    if (route == null) {
+      return false;
+    }
+    output.write(dispatch(route, request, context).toEvent(objectMapper, request.multiValue()));
+    return true;
+  }
+
+  /** Matches a request to a unit route, or returns null for the full stack to handle it. */
+  private Route route(AlbRequest request) {
+    if (request.header("origin") != null
+        || request.header("prefer") != null
+        || !acceptsJson(request.header("accept"))) {
+      return null;
+    }
+    String method = request.method();
+    String path = request.path();
+    if (path.equals(BASE_PATH)) {
+      if (method.equals("GET")) {
+        String limit = request.query("limit");
+        if (limit != null && !isInt(limit)) {
+          return null;
+        }
+        return new Route(Operation.FIND, null, null);
+      }
+      if (method.equals("POST")) {
+        Object body = readBody(request, createReader);
+        return body == null ? null : new Route(Operation.CREATE, null, body);
+      }
+      return null;
+    }
+    if (!path.startsWith(BASE_PATH + "/")) {
+      return null;
+    }
+    String segment = path.substring(BASE_PATH.length() + 1);
+    if (segment.isEmpty() || segment.indexOf('/') >= 0) {
+      return null;
+    }
+    String id;
+    try {
+      id = AlbRequest.decodePathSegment(segment);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    switch (method) {
+      case "GET":
+        boolean otherPreconditions =
+            request.header("if-match") != null
+                || request.header("if-modified-since") != null
+                || request.header("if-unmodified-since") != null;
+        return otherPreconditions ? null : new Route(Operation.GET, id, null);
+      case "PUT":
+        Object body = readBody(request, updateReader);
+        return body == null ? null : new Route(Operation.UPDATE, id, body);
+      case "DELETE":
+        return new Route(Operation.DELETE, id, null);
+      default:
+        return null;
+    }
+  }
+
+  private AlbResponse dispatch(Route route, AlbRequest request, Context context)
+      throws JsonProcessingException {
+    ClientQuotas.Lease lease = null;
+    LoadShedder.Permit permit = null;
+    AlbResponse response;
+    try {
+      if (clientQuotas.isEnabled()) {
+        String clientId = request.header(clientQuotas.getClientHeader().toLowerCase(Locale.ROOT));
+        lease = clientQuotas.acquire(clientId, route.operation.priority);
+      }
+      permit = loadShedder.acquire(RESOURCE + route.operation.method, route.operation.priority);
+      try (DeadlineContext.Scope scope = attachDeadline(context)) {
+        response = invoke(route, request);
+      }
+    } catch (Exception e) {
+      response = AlbResponse.from(exceptionHandler.toResponse(e), objectMapper);
+    }
+    if (permit != null) {
+      permit.release(response.status() == Response.Status.SERVICE_UNAVAILABLE.getStatusCode());
+    }
+    if (lease != null) {
+      lease.release();
+    }
+    return response;
+  }
+
+  private AlbResponse invoke(Route route, AlbRequest request) throws JsonProcessingException {
+    switch (route.operation) {
+      case CREATE:
+        {
+          CreateUnitRequest body = validate((CreateUnitRequest) route.body);
+          Unit unit = unitService.createUnit(body.getName());
+          logger.info("Successfully created unit with id: {}", unit.getId());
+          return json(Response.Status.CREATED, UnitResponse.fromDomain(unit));
+        }
+      case GET:
+        return getUnit(route.id, request);
+      case FIND:
+        {
+          String limit = request.query("limit");
+          UnitPage page =
+              unitService.findUnitsByName(
+                  request.query("name"),
+                  limit == null ? UnitService.DEFAULT_PAGE_SIZE : Integer.parseInt(limit),
+                  request.query("cursor"));
+          return json(Response.Status.OK, UnitPageResponse.fromDomain(page));
+        }
+      case UPDATE:
+        {
+          UpdateUnitRequest body = validate((UpdateUnitRequest) route.body);
+          Unit unit = unitService.updateUnit(route.id, body.getName());
+          logger.info("Successfully updated unit with id: {}", route.id);
+          return json(Response.Status.OK, UnitResponse.fromDomain(unit));
+        }
+      case DELETE:
+        unitService.deleteUnit(route.id);
+        logger.info("Successfully deleted unit with id: {}", route.id);
+        return AlbResponse.empty(Response.Status.NO_CONTENT.getStatusCode());
+      default:
+        throw new IllegalStateException("Unrouted operation " + route.operation);
+    }
+  }
+
+  private AlbResponse getUnit(String id, AlbRequest request) throws JsonProcessingException {
+    if (!responseCache.isEnabled()) {
+      return json(Response.Status.OK, UnitResponse.fromDomain(unitService.getUnitById(id)));
+    }
+    UnitRead read = cachedUnitReader.read(id);
+    CachedResponse cached = read.getResponse();
+    String entityTag = formatEntityTag(cached);
+    AlbResponse response =
+        matches(request.header("if-none-match"), entityTag)
+            ? AlbResponse.empty(Response.Status.NOT_MODIFIED.getStatusCode())
+            : AlbResponse.json(
+                Response.Status.OK.getStatusCode(),
+                new String(cached.getBody(), StandardCharsets.UTF_8));
+    response.header(HttpHeaders.ETAG, entityTag);
+    if (read.getFreshness() != Freshness.FRESH) {
+      response
+          .header("Age", String.valueOf(read.getAgeSeconds()))
+          .header(
+              "Warning",
+              read.getFreshness() == Freshness.STALE
+                  ? "110 - \"Response is Stale\""
+                  : "111 - \"Revalidation Failed\"");
+    }
+    return response;
+  }
+
+  private DeadlineContext.Scope attachDeadline(Context context) {
+    if (!deadlineEnabled) {
+      return null;
+    }
+    long budget =
+        context == null
+            ? budgetNanos
+            : TimeUnit.MILLISECONDS.toNanos(context.getRemainingTimeInMillis())
+                - lambdaReserveNanos;
+    if (budget < minRemainingNanos) {
+      throw new DeadlineExceededException();
+    }
+    return DeadlineContext.attach(Deadline.after(Duration.ofNanos(budget)));
+  }
+
+  private <T> T validate(T body) {
+    Set<ConstraintViolation<T>> violations = validator.validate(body);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+    return body;
+  }
+
+  private AlbResponse json(Response.Status status, Object entity) throws JsonProcessingException {
+    return AlbResponse.json(status.getStatusCode(), objectMapper.writeValueAsString(entity));
+  }
+
+  /** Reads a JSON body, or returns null for a body the JAX-RS stack would handle differently. */
+  private static Object readBody(AlbRequest request, ObjectReader reader) {
+    String contentType = request.header("content-type");
+    String body = request.body();
+    if (contentType == null || !isJson(contentType) || body == null || body.isBlank()) {
+      return null;
+    }
+    try {
+      return reader.readValue(body);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static boolean isJson(String contentType) {
+    int parameters = contentType.indexOf(';');
+    String type = parameters < 0 ? contentType : contentType.substring(0, parameters);
+    return type.trim().equalsIgnoreCase(MediaType.APPLICATION_JSON);
+  }
+
+  private static boolean acceptsJson(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return true;
+    }
+    for (String range : accept.split(",")) {
+      int parameters = range.indexOf(';');
+      String type =
+          (parameters < 0 ? range : range.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+      if (type.equals("*/*") || type.equals("application/*") || type.equals("application/json")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isInt(String value) {
+    try {
+      Integer.parseInt(value);
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static String formatEntityTag(CachedResponse cached) {
+    String quoted = '"' + cached.getEntityTag().getValue() + '"';
+    return cached.getEntityTag().isWeak() ? "W/" + quoted : quoted;
+  }
+
+  /** Compares If-None-Match against an entity tag, weakly as the header requires. */
+  private static boolean matches(String ifNoneMatch, String entityTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String opaque = entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*")) {
+        return true;
+      }
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals(opaque)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** The unit routes, named after the {@code UnitResource} methods they stand in for. */
+  private enum Operation {
+    CREATE("createUnit", RequestPriority.WRITE),
+    GET("getUnit", RequestPriority.READ),
+    FIND("findUnits", RequestPriority.BULK),
+    UPDATE("updateUnit", RequestPriority.WRITE),
+    DELETE("deleteUnit", RequestPriority.WRITE);
+
+    private final String method;
+    private final RequestPriority priority;
+
+    Operation(String method, RequestPriority priority) {
+      this.method = method;
+      this.priority = priority;
+    }
+  }
+
+  private static final class Route {
+
+    private final Operation operation;
+    private final String id;
+    private final Object body;
+
+    private Route(Operation operation, String id, Object body) {
+      this.operation = operation;
+      this.id = id;
+      this.body = body;
+    }
+  }
+}
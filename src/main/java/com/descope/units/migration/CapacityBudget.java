@@ -0,0 +1,85 @@
+package com.descope.units.migration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket measured in DynamoDB capacity units rather than requests.
+ *
+ * <p>A scan page or transaction costs an amount that is only known once DynamoDB reports it, so
+ * callers wait until the bucket is not in debt, make the call and then charge what it consumed. The
+ * bucket holds at most one second of units, which bounds the burst after an idle period.
+ */
+final class CapacityBudget {
+
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final double unitsPerSecond;
+  private final LongSupplier nanoClock;
+  private double balance;
+  private long lastRefill;
+
+  /**
+   * Constructs a CapacityBudget that starts full.
+   *
+   * @param unitsPerSecond the sustained capacity units per second
+   * @param nanoClock the time source
+   */
+  CapacityBudget(double unitsPerSecond, LongSupplier nanoClock) {
+    if (unitsPerSecond <= 0) {
+      throw new IllegalArgumentException("Capacity units per second must be positive");
+    }
+    this.unitsPerSecond = unitsPerSecond;
+    this.nanoClock = nanoClock;
+    this.balance = unitsPerSecond;
+    this.lastRefill = nanoClock.getAsLong();
+  }
+
+  /**
+   * Returns the sustained capacity units per second.
+   *
+   * @return the rate
+   */
+  double getUnitsPerSecond() {
+    return unitsPerSecond;
+  }
+
+  /**
+   * Returns how long to wait before the next call.
+   *
+   * @return zero if the bucket is not in debt, else the nanoseconds until it is repaid
+   */
+  synchronized long nanosUntilAvailable() {
+    refill();
+    return balance >= 0 ? 0 : (long) Math.ceil(-balance / unitsPerSecond * NANOS_PER_SECOND);
+  }
+
+  /**
+   * Charges the capacity a call consumed.
+   *
+   * @param units the capacity units consumed
+   */
+  synchronized void consume(double units) {
+    refill();
+    balance -= units;
+  }
+
+  /**
+   * Sleeps until the bucket is not in debt.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  void awaitAvailable() throws InterruptedException {
+    long wait;
+    while ((wait = nanosUntilAvailable()) > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  private void refill() {
+    long now = nanoClock.getAsLong();
+    balance =
+        Math.min(unitsPerSecond, balance + (now - lastRefill) / NANOS_PER_SECOND * unitsPerSecond);
+    lastRefill = now;
+  }
+}
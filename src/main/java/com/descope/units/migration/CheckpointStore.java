@@ -0,0 +1,30 @@
+package com.descope.units.migration;
+
+import java.util.List;
+
+/** Where migrations save per-segment progress so that they can resume after a crash. */
+public interface CheckpointStore {
+
+  /**
+   * Loads the checkpoints of a migration.
+   *
+   * @param migration the migration name
+   * @return the saved checkpoints in any order, empty if the migration never ran
+   */
+  List<SegmentCheckpoint> load(String migration);
+
+  /**
+   * Saves the checkpoint of one segment, replacing the previous one.
+   *
+   * @param migration the migration name
+   * @param checkpoint the checkpoint
+   */
+  void save(String migration, SegmentCheckpoint checkpoint);
+
+  /**
+   * Deletes every checkpoint of a migration, so that it runs from the beginning.
+   *
+   * @param migration the migration name
+   */
+  void clear(String migration);
+}
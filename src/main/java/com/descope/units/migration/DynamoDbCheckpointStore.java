@@ -0,0 +1,127 @@
+package com.descope.units.migration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+/**
+ * Keeps checkpoints in a DynamoDB table keyed by migration name ({@code job}, string) and segment
+ * ({@code segment}, number). The last evaluated key of a segment is stored as a map attribute, in
+ * the form DynamoDB returned it.
+ */
+final class DynamoDbCheckpointStore implements CheckpointStore {
+
+  private static final String JOB = "job";
+  private static final String SEGMENT = "segment";
+  private static final String TOTAL_SEGMENTS = "totalSegments";
+  private static final String LAST_KEY = "lastKey";
+  private static final String DONE = "done";
+  private static final String SCANNED = "scanned";
+  private static final String UPDATED = "updated";
+  private static final String UNCHANGED = "unchanged";
+  private static final String CONFLICTS = "conflicts";
+  private static final String FAILED = "failed";
+
+  private final DynamoDbClient client;
+  private final String tableName;
+
+  /**
+   * Constructs a DynamoDbCheckpointStore.
+   *
+   * @param client the DynamoDB client
+   * @param tableName the name of the checkpoint table
+   */
+  DynamoDbCheckpointStore(DynamoDbClient client, String tableName) {
+    this.client = client;
+    this.tableName = tableName;
+  }
+
+  @Override
+  public List<SegmentCheckpoint> load(String migration) {
+    List<SegmentCheckpoint> checkpoints = new ArrayList<>();
+    for (Map<String, AttributeValue> item : query(migration)) {
+      MigrationCounts counts =
+          new MigrationCounts(
+              number(item, SCANNED),
+              number(item, UPDATED),
+              number(item, UNCHANGED),
+              number(item, CONFLICTS),
+              number(item, FAILED));
+      AttributeValue lastKey = item.get(LAST_KEY);
+      checkpoints.add(
+          new SegmentCheckpoint(
+              (int) number(item, SEGMENT),
+              (int) number(item, TOTAL_SEGMENTS),
+              lastKey == null ? null : lastKey.m(),
+              item.containsKey(DONE) && Boolean.TRUE.equals(item.get(DONE).bool()),
+              counts));
+    }
+    return checkpoints;
+  }
+
+  @Override
+  public void save(String migration, SegmentCheckpoint checkpoint) {
+    MigrationCounts counts = checkpoint.getCounts();
+    Map<String, AttributeValue> item = new HashMap<>();
+    item.put(JOB, AttributeValue.fromS(migration));
+    item.put(SEGMENT, number(checkpoint.getSegment()));
+    item.put(TOTAL_SEGMENTS, number(checkpoint.getTotalSegments()));
+    if (checkpoint.getLastKey() != null) {
+      item.put(LAST_KEY, AttributeValue.fromM(checkpoint.getLastKey()));
+    }
+    item.put(DONE, AttributeValue.fromBool(checkpoint.isDone()));
+    item.put(SCANNED, number(counts.getScanned()));
+    item.put(UPDATED, number(counts.getUpdated()));
+    item.put(UNCHANGED, number(counts.getUnchanged()));
+    item.put(CONFLICTS, number(counts.getConflicts()));
+    item.put(FAILED, number(counts.getFailed()));
+    client.putItem(request -> request.tableName(tableName).item(item));
+  }
+
+  @Override
+  public void clear(String migration) {
+    for (Map<String, AttributeValue> item : query(migration)) {
+      client.deleteItem(
+          request ->
+              request
+                  .tableName(tableName)
+                  .key(Map.of(JOB, item.get(JOB), SEGMENT, item.get(SEGMENT))));
+    }
+  }
+
+  private List<Map<String, AttributeValue>> query(String migration) {
+    List<Map<String, AttributeValue>> items = new ArrayList<>();
+    Map<String, AttributeValue> startKey = null;
+    do {
+      QueryRequest.Builder request =
+          QueryRequest.builder()
+              .tableName(tableName)
+              .keyConditionExpression("#job = :job")
+              .expressionAttributeNames(Map.of("#job", JOB))
+              .expressionAttributeValues(Map.of(":job", AttributeValue.fromS(migration)))
+              .consistentRead(true);
+      if (startKey != null) {
+        request.exclusiveStartKey(startKey);
+      }
+      QueryResponse response = client.query(request.build());
+      items.addAll(response.items());
+      startKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+    } while (startKey != null && !startKey.isEmpty());
+    return items;
+  }
+
+  private static AttributeValue number(long value) {
+    return AttributeValue.fromN(Long.toString(value));
+  }
+
+  private static long number(Map<String, AttributeValue> item, String attribute) {
+    AttributeValue value = item.get(attribute);
+    return value == null || value.n() == null ? 0 : Long.parseLong(value.n());
+  }
+}
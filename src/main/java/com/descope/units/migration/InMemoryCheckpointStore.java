@@ -0,0 +1,34 @@
+package com.descope.units.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps checkpoints in memory, so a migration resumes after being cancelled but not after the
+ * process exits. Used when no checkpoint table is configured.
+ */
+final class InMemoryCheckpointStore implements CheckpointStore {
+
+  private final Map<String, Map<Integer, SegmentCheckpoint>> checkpoints =
+      new ConcurrentHashMap<>();
+
+  @Override
+  public List<SegmentCheckpoint> load(String migration) {
+    Map<Integer, SegmentCheckpoint> segments = checkpoints.get(migration);
+    return segments == null ? List.of() : new ArrayList<>(segments.values());
+  }
+
+  @Override
+  public void save(String migration, SegmentCheckpoint checkpoint) {
+    checkpoints
+        .computeIfAbsent(migration, name -> new ConcurrentHashMap<>())
+        .put(checkpoint.getSegment(), checkpoint);
+  }
+
+  @Override
+  public void clear(String migration) {
+    checkpoints.remove(migration);
+  }
+}
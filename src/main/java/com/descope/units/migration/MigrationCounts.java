@@ -0,0 +1,96 @@
+package com.descope.units.migration;
+
+/**
+ * Numbers of items a migration has processed, by outcome.
+ *
+ * <p>A conflict is an item that changed between being scanned and being written; it is read again
+ * and transformed afresh, and counted as failed only if it keeps changing.
+ */
+public final class MigrationCounts {
+
+  /** No items processed. */
+  public static final MigrationCounts ZERO = new MigrationCounts(0, 0, 0, 0, 0);
+
+  private final long scanned;
+  private final long updated;
+  private final long unchanged;
+  private final long conflicts;
+  private final long failed;
+
+  /**
+   * Constructs MigrationCounts.
+   *
+   * @param scanned the items read by the scan
+   * @param updated the items rewritten
+   * @param unchanged the items the migration left as they were, or that were deleted meanwhile
+   * @param conflicts the writes that lost a race with another writer
+   * @param failed the items given up on after repeated conflicts
+   */
+  public MigrationCounts(long scanned, long updated, long unchanged, long conflicts, long failed) {
+    this.scanned = scanned;
+    this.updated = updated;
+    this.unchanged = unchanged;
+    this.conflicts = conflicts;
+    this.failed = failed;
+  }
+
+  /**
+   * Returns the sum of these counts and others.
+   *
+   * @param other the counts to add
+   * @return the sum
+   */
+  public MigrationCounts plus(MigrationCounts other) {
+    return new MigrationCounts(
+        scanned + other.scanned,
+        updated + other.updated,
+        unchanged + other.unchanged,
+        conflicts + other.conflicts,
+        failed + other.failed);
+  }
+
+  /**
+   * Returns the number of items read by the scan.
+   *
+   * @return the scanned count
+   */
+  public long getScanned() {
+    return scanned;
+  }
+
+  /**
+   * Returns the number of items rewritten.
+   *
+   * @return the updated count
+   */
+  public long getUpdated() {
+    return updated;
+  }
+
+  /**
+   * Returns the number of items left as they were.
+   *
+   * @return the unchanged count
+   */
+  public long getUnchanged() {
+    return unchanged;
+  }
+
+  /**
+   * Returns the number of writes that lost a race with another writer.
+   *
+   * @return the conflict count
+   */
+  public long getConflicts() {
+    return conflicts;
+  }
+
+  /**
+   * Returns the number of items given up on.
+   *
+   * @return the failed count
+   */
+  public long getFailed() {
+    return failed;
+  }
+}
@@ -0,0 +1,425 @@
+package com.descope.units.migration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import com.descope.units.model.UnitDao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+/**
+ * One run of a {@link UnitMigration} over a table.
+ *
+ * <p>Each scan segment is read page by page. Items the migration changes are written back in
+ * transactions of up to {@code batchSize} puts, each conditional on the item still holding every
+ * scalar attribute it was scanned with, so a write made by the application meanwhile is never
+ * overwritten: the item is read again and transformed afresh. Only once a page's writes have
+ * succeeded is the segment's position checkpointed, which makes a resumed run repeat at most one
+ * page per segment. Reads and writes each wait on a {@link CapacityBudget} charged with the
+ * capacity DynamoDB reports as consumed. Every item written is passed on to a listener, so caches
+ * and indexes that the write bypassed can be brought up to date.
+ */
+final class MigrationJob {
+
+  private static final Logger logger = LoggerFactory.getLogger(MigrationJob.class);
+
+  /** Tries per item before it is counted as failed. */
+  static final int MAX_ATTEMPTS = 5;
+
+  private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+
+  private final UnitMigration migration;
+  private final DynamoDbClient client;
+  private final String tableName;
+  private final int totalSegments;
+  private final int pageSize;
+  private final int batchSize;
+  private final CapacityBudget readBudget;
+  private final CapacityBudget writeBudget;
+  private final CheckpointStore checkpoints;
+  private final Consumer<Map<String, AttributeValue>> rewritten;
+  private final AtomicReferenceArray<SegmentCheckpoint> progress;
+
+  private volatile boolean stopping;
+  private volatile MigrationState state = MigrationState.IDLE;
+  private volatile String error;
+
+  /**
+   * Constructs a MigrationJob, resuming from saved checkpoints.
+   *
+   * @param migration the transformation to apply
+   * @param client the DynamoDB client
+   * @param tableName the table to migrate
+   * @param totalSegments the number of parallel scan segments
+   * @param pageSize the most items read per scan call
+   * @param batchSize the most puts per transaction, at most 100
+   * @param readBudget the read capacity the scan may use
+   * @param writeBudget the write capacity the rewrites may use
+   * @param checkpoints where progress is saved
+   * @param rewritten told of each item as written, once its transaction has succeeded
+   * @throws IllegalArgumentException if the saved checkpoints used another number of segments
+   */
+  MigrationJob(
+      UnitMigration migration,
+      DynamoDbClient client,
+      String tableName,
+      int totalSegments,
+      int pageSize,
+      int batchSize,
+      CapacityBudget readBudget,
+      CapacityBudget writeBudget,
+      CheckpointStore checkpoints,
+      Consumer<Map<String, AttributeValue>> rewritten) {
+    if (batchSize < 1 || batchSize > 100) {
+      throw new IllegalArgumentException("Batch size must be between 1 and 100");
+    }
+    this.migration = migration;
+    this.client = client;
+    this.tableName = tableName;
+    this.totalSegments = totalSegments;
+    this.pageSize = pageSize;
+    this.batchSize = batchSize;
+    this.readBudget = readBudget;
+    this.writeBudget = writeBudget;
+    this.checkpoints = checkpoints;
+    this.rewritten = rewritten;
+    this.progress = new AtomicReferenceArray<>(totalSegments);
+    for (int segment = 0; segment < totalSegments; segment++) {
+      progress.set(segment, SegmentCheckpoint.start(segment, totalSegments));
+    }
+    for (SegmentCheckpoint saved : checkpoints.load(migration.name())) {
+      if (saved.getTotalSegments() != totalSegments) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Migration %s was checkpointed with %d segments; resume it with as many or restart it",
+                migration.name(), saved.getTotalSegments()));
+      }
+      progress.set(saved.getSegment(), saved);
+    }
+  }
+
+  /**
+   * Runs every segment that is not done yet.
+   *
+   * @param executor runs the segments, ideally one thread each
+   * @return a future completing when every segment has stopped
+   */
+  CompletableFuture<Void> start(Executor executor) {
+    state = MigrationState.RUNNING;
+    CompletableFuture<?>[] segments = new CompletableFuture<?>[totalSegments];
+    for (int segment = 0; segment < totalSegments; segment++) {
+      int current = segment;
+      segments[segment] = CompletableFuture.runAsync(() -> runSegment(current), executor);
+    }
+    return CompletableFuture.allOf(segments)
+        .handle(
+            (result, failure) -> {
+              finish(failure);
+              return null;
+            });
+  }
+
+  /** Asks every segment to stop after checkpointing its current page. */
+  void cancel() {
+    stopping = true;
+  }
+
+  /**
+   * Returns whether segments are still running.
+   *
+   * @return true while running
+   */
+  boolean isRunning() {
+    return state == MigrationState.RUNNING;
+  }
+
+  /**
+   * Returns the progress of the run.
+   *
+   * @return the status
+   */
+  MigrationStatus status() {
+    MigrationCounts counts = MigrationCounts.ZERO;
+    int done = 0;
+    for (int segment = 0; segment < totalSegments; segment++) {
+      SegmentCheckpoint checkpoint = progress.get(segment);
+      counts = counts.plus(checkpoint.getCounts());
+      if (checkpoint.isDone()) {
+        done++;
+      }
+    }
+    return new MigrationStatus(
+        migration.name(),
+        state,
+        tableName,
+        totalSegments,
+        done,
+        counts,
+        readBudget.getUnitsPerSecond(),
+        writeBudget.getUnitsPerSecond(),
+        error);
+  }
+
+  private void runSegment(int segment) {
+    SegmentCheckpoint checkpoint = progress.get(segment);
+    try {
+      while (!checkpoint.isDone() && !stopping) {
+        readBudget.awaitAvailable();
+        ScanRequest.Builder request =
+            ScanRequest.builder()
+                .tableName(tableName)
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .limit(pageSize)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        if (checkpoint.getLastKey() != null) {
+          request.exclusiveStartKey(checkpoint.getLastKey());
+        }
+        ScanResponse page = client.scan(request.build());
+        readBudget.consume(
+            units(page.consumedCapacity(), Math.max(0.5, page.items().size() * 0.5)));
+
+        MigrationCounts pageCounts = migratePage(page.items());
+        Map<String, AttributeValue> lastKey =
+            page.hasLastEvaluatedKey() && !page.lastEvaluatedKey().isEmpty()
+                ? page.lastEvaluatedKey()
+                : null;
+        checkpoint =
+            new SegmentCheckpoint(
+                segment,
+                totalSegments,
+                lastKey,
+                lastKey == null,
+                checkpoint.getCounts().plus(pageCounts));
+        checkpoints.save(migration.name(), checkpoint);
+        progress.set(segment, checkpoint);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      stopping = true;
+    } catch (RuntimeException e) {
+      // One failing segment is usually a bug in the migration; stop the others too
+      stopping = true;
+      throw e;
+    }
+  }
+
+  private MigrationCounts migratePage(List<Map<String, AttributeValue>> items)
+      throws InterruptedException {
+    Tally tally = new Tally();
+    tally.scanned = items.size();
+    Deque<PendingWrite> queue = new ArrayDeque<>();
+    for (Map<String, AttributeValue> item : items) {
+      enqueue(item, 1, queue, tally);
+    }
+    while (!queue.isEmpty()) {
+      List<PendingWrite> batch = new ArrayList<>(batchSize);
+      while (batch.size() < batchSize && !queue.isEmpty()) {
+        batch.add(queue.poll());
+      }
+      write(batch, queue, tally);
+    }
+    return tally.toCounts();
+  }
+
+  private void write(List<PendingWrite> batch, Deque<PendingWrite> queue, Tally tally)
+      throws InterruptedException {
+    List<TransactWriteItem> puts = new ArrayList<>(batch.size());
+    for (PendingWrite write : batch) {
+      puts.add(TransactWriteItem.builder().put(conditionalPut(write)).build());
+    }
+    writeBudget.awaitAvailable();
+    try {
+      TransactWriteItemsResponse response =
+          client.transactWriteItems(
+              TransactWriteItemsRequest.builder()
+                  .transactItems(puts)
+                  .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                  .build());
+      writeBudget.consume(units(response.consumedCapacity(), 2.0 * batch.size()));
+      tally.updated += batch.size();
+      for (PendingWrite write : batch) {
+        rewritten.accept(write.migrated);
+      }
+    } catch (TransactionCanceledException e) {
+      writeBudget.consume(2.0 * batch.size());
+      List<CancellationReason> reasons =
+          e.hasCancellationReasons() ? e.cancellationReasons() : List.of();
+      for (int i = 0; i < batch.size(); i++) {
+        PendingWrite write = batch.get(i);
+        String code = i < reasons.size() ? reasons.get(i).code() : null;
+        if (CONDITIONAL_CHECK_FAILED.equals(code)) {
+          tally.conflicts++;
+          reread(write, queue, tally);
+        } else if (write.attempts < MAX_ATTEMPTS) {
+          // Cancelled because of another item in the transaction, or a transient conflict
+          queue.add(new PendingWrite(write.original, write.migrated, write.attempts + 1));
+        } else {
+          tally.failed++;
+        }
+      }
+    }
+  }
+
+  private void reread(PendingWrite write, Deque<PendingWrite> queue, Tally tally)
+      throws InterruptedException {
+    if (write.attempts >= MAX_ATTEMPTS) {
+      logger.warn(
+          "Migration {} gave up on item {} after {} conflicting writes",
+          migration.name(),
+          write.original.get(UnitDao.ID_ATTRIBUTE),
+          write.attempts);
+      tally.failed++;
+      return;
+    }
+    readBudget.awaitAvailable();
+    GetItemResponse current =
+        client.getItem(
+            GetItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of(UnitDao.ID_ATTRIBUTE, write.original.get(UnitDao.ID_ATTRIBUTE)))
+                .consistentRead(true)
+                .build());
+    readBudget.consume(1);
+    if (!current.hasItem() || current.item().isEmpty()) {
+      tally.unchanged++;
+      return;
+    }
+    enqueue(current.item(), write.attempts + 1, queue, tally);
+  }
+
+  private void enqueue(
+      Map<String, AttributeValue> item, int attempt, Deque<PendingWrite> queue, Tally tally) {
+    Map<String, AttributeValue> migrated = migration.migrate(item);
+    if (migrated == null) {
+      tally.unchanged++;
+      return;
+    }
+    if (!item.get(UnitDao.ID_ATTRIBUTE).equals(migrated.get(UnitDao.ID_ATTRIBUTE))) {
+      throw new IllegalStateException(
+          "Migration " + migration.name() + " changed the key of an item");
+    }
+    queue.add(new PendingWrite(item, migrated, attempt));
+  }
+
+  private Put conditionalPut(PendingWrite write) {
+    Map<String, String> names = new HashMap<>();
+    Map<String, AttributeValue> values = new HashMap<>();
+    StringJoiner condition = new StringJoiner(" AND ");
+    int i = 0;
+    for (Map.Entry<String, AttributeValue> attribute : write.original.entrySet()) {
+      AttributeValue value = attribute.getValue();
+      if (value.s() == null && value.n() == null && value.b() == null && value.bool() == null) {
+        continue;
+      }
+      names.put("#a" + i, attribute.getKey());
+      values.put(":v" + i, value);
+      condition.add("#a" + i + " = :v" + i);
+      i++;
+    }
+    return Put.builder()
+        .tableName(tableName)
+        .item(write.migrated)
+        .conditionExpression(condition.toString())
+        .expressionAttributeNames(names)
+        .expressionAttributeValues(values)
+        .build();
+  }
+
+  private void finish(Throwable failure) {
+    if (failure != null) {
+      Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+      error = cause.getMessage();
+      state = MigrationState.FAILED;
+      logger.error("Migration {} failed", migration.name(), cause);
+    } else {
+      MigrationStatus status = status();
+      state =
+          status.getSegmentsDone() == totalSegments
+              ? MigrationState.COMPLETED
+              : MigrationState.CANCELLED;
+      MigrationCounts counts = status.getCounts();
+      logger.info(
+          "Migration {} {}: scanned {}, updated {}, unchanged {}, conflicts {}, failed {}",
+          migration.name(),
+          state.name().toLowerCase(Locale.ROOT),
+          counts.getScanned(),
+          counts.getUpdated(),
+          counts.getUnchanged(),
+          counts.getConflicts(),
+          counts.getFailed());
+    }
+  }
+
+  private static double units(ConsumedCapacity consumed, double estimate) {
+    return consumed == null || consumed.capacityUnits() == null
+        ? estimate
+        : consumed.capacityUnits();
+  }
+
+  private static double units(List<ConsumedCapacity> consumed, double estimate) {
+    double total = 0;
+    for (ConsumedCapacity capacity : consumed) {
+      if (capacity.capacityUnits() == null) {
+        return estimate;
+      }
+      total += capacity.capacityUnits();
+    }
+    return consumed.isEmpty() ? estimate : total;
+  }
+
+  /** An item to rewrite, with the version it was read as. */
+  private static final class PendingWrite {
+
+    private final Map<String, AttributeValue> original;
+    private final Map<String, AttributeValue> migrated;
+    private final int attempts;
+
+    private PendingWrite(
+        Map<String, AttributeValue> original, Map<String, AttributeValue> migrated, int attempts) {
+      this.original = original;
+      this.migrated = migrated;
+      this.attempts = attempts;
+    }
+  }
+
+  /** Counts for one page, turned into {@link MigrationCounts} once the page is written. */
+  private static final class Tally {
+    private long scanned;
+    private long updated;
+    private long unchanged;
+    private long conflicts;
+    private long failed;
+
+    private MigrationCounts toCounts() {
+      return new MigrationCounts(scanned, updated, unchanged, conflicts, failed);
+    }
+  }
+}
@@ -0,0 +1,341 @@
+package com.descope.units.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import com.descope.units.cache.ResponseCache;
+import com.descope.units.cache.UnitCache;
+import com.descope.units.changes.ChangeFeed;
+import com.descope.units.changes.ChangeType;
+import com.descope.units.exception.ConflictException;
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitDao;
+import com.descope.units.ratelimit.DynamoDbThrottler;
+import com.descope.units.replica.UnitReplica;
+import com.descope.units.repository.IdEncoding;
+import com.descope.units.repository.ThrottledDynamoDbClient;
+import com.descope.units.search.NameSearchIndex;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputDescription;
+
+/**
+ * Starts, tracks and cancels {@link UnitMigration}s over the units table.
+ *
+ * <p>A migration runs in the background with one thread per scan segment. Its scan and rewrites
+ * each use at most {@code units.migration.capacity-fraction} of the table's provisioned read and
+ * write capacity, or of a configured rate for on-demand tables. Progress is checkpointed per
+ * segment in {@code dynamodb.table.migrations}, so starting a migration that was interrupted, by a
+ * crash or a cancel, resumes it; without that table progress is kept in memory only.
+ *
+ * <p>Rewrites go straight to the table. On this instance, each rewritten unit is dropped from the
+ * unit cache, both tiers, and the response cache, updated in the replica and search index, and
+ * published to the change feed. Other instances see the new values once their in-process caches
+ * expire; their replica, search index and change feed follow the table stream when enabled, and
+ * otherwise keep the old names until restarted.
+ *
+ * <p>Besides the management endpoints, setting {@code units.migration.run} starts a migration at
+ * startup, and {@code units.migration.exit-when-done} then stops the process when it ends, which
+ * runs the application as a one-off command.
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = "units.repository.type", stringValue = "log", enableIfMissing = true)
+public class MigrationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(MigrationRunner.class);
+
+  private final Map<String, UnitMigration> migrations = new TreeMap<>();
+  private final Map<String, MigrationJob> jobs = new ConcurrentHashMap<>();
+  private final DynamoDbClient dynamoDbClient;
+  private final DynamoDbClient throttledClient;
+  private final CheckpointStore checkpoints;
+  private final IdEncoding idEncoding;
+  private final String tableName;
+  private final int segments;
+  private final double capacityFraction;
+  private final double onDemandReadUnits;
+  private final double onDemandWriteUnits;
+  private final int pageSize;
+  private final int batchSize;
+  private final Optional<String> runOnStartup;
+  private final boolean exitWhenDone;
+  private final UnitCache unitCache;
+  private final ResponseCache responseCache;
+  private final NameSearchIndex nameSearchIndex;
+  private final UnitReplica unitReplica;
+  private final ChangeFeed changeFeed;
+
+  /**
+   * Constructs a MigrationRunner.
+   *
+   * @param migrations the available migrations
+   * @param dynamoDbClient the DynamoDB client
+   * @param throttler the client-side rate limiter and retry policy
+   * @param tableName the name of the DynamoDB table keyed by string ids
+   * @param idEncoding the id key encoding, which decides the table to migrate
+   * @param binaryTableName the name of the DynamoDB table keyed by binary ids
+   * @param checkpointTableName the table checkpoints are kept in, or empty to keep them in memory
+   * @param segments the number of parallel scan segments
+   * @param capacityFraction the share of provisioned capacity a migration may use
+   * @param onDemandReadUnits the read units per second used on on-demand tables
+   * @param onDemandWriteUnits the write units per second used on on-demand tables
+   * @param pageSize the most items read per scan call
+   * @param batchSize the most items written per transaction
+   * @param runOnStartup the migration to start at startup, if any
+   * @param exitWhenDone whether to stop the process once the startup migration ends
+   * @param unitCache the two-tier unit cache rewritten units are dropped from
+   * @param responseCache the encoded response cache rewritten units are dropped from
+   * @param nameSearchIndex the name search index rewritten units are updated in
+   * @param unitReplica the in-memory copy of the table rewritten units are updated in
+   * @param changeFeed the feed rewritten units are published to
+   */
+  @Inject
+  public MigrationRunner(
+      Instance<UnitMigration> migrations,
+      DynamoDbClient dynamoDbClient,
+      DynamoDbThrottler throttler,
+      @ConfigProperty(name = "dynamodb.table.units") String tableName,
+      @ConfigProperty(name = "dynamodb.id-encoding", defaultValue = "string") String idEncoding,
+      @ConfigProperty(name = "dynamodb.table.units-binary") Optional<String> binaryTableName,
+      @ConfigProperty(name = "dynamodb.table.migrations") Optional<String> checkpointTableName,
+      @ConfigProperty(name = "units.migration.segments", defaultValue = "4") int segments,
+      @ConfigProperty(name = "units.migration.capacity-fraction", defaultValue = "0.25")
+          double capacityFraction,
+      @ConfigProperty(name = "units.migration.on-demand-read-units", defaultValue = "200")
+          double onDemandReadUnits,
+      @ConfigProperty(name = "units.migration.on-demand-write-units", defaultValue = "100")
+          double onDemandWriteUnits,
+      @ConfigProperty(name = "units.migration.page-size", defaultValue = "100") int pageSize,
+      @ConfigProperty(name = "units.migration.batch-size", defaultValue = "25") int batchSize,
+      @ConfigProperty(name = "units.migration.run") Optional<String> runOnStartup,
+      @ConfigProperty(name = "units.migration.exit-when-done", defaultValue = "false")
+          boolean exitWhenDone,
+      UnitCache unitCache,
+      ResponseCache responseCache,
+      NameSearchIndex nameSearchIndex,
+      UnitReplica unitReplica,
+      ChangeFeed changeFeed) {
+    for (UnitMigration migration : migrations) {
+      this.migrations.put(migration.name(), migration);
+    }
+    this.dynamoDbClient = dynamoDbClient;
+    this.throttledClient = ThrottledDynamoDbClient.wrap(dynamoDbClient, throttler);
+    this.checkpoints =
+        checkpointTableName
+            .<CheckpointStore>map(table -> new DynamoDbCheckpointStore(throttledClient, table))
+            .orElseGet(InMemoryCheckpointStore::new);
+    this.idEncoding = IdEncoding.fromKey(idEncoding);
+    this.tableName =
+        this.idEncoding == IdEncoding.BINARY ? binaryTableName.orElse(tableName) : tableName;
+    this.segments = segments;
+    this.capacityFraction = capacityFraction;
+    this.onDemandReadUnits = onDemandReadUnits;
+    this.onDemandWriteUnits = onDemandWriteUnits;
+    this.pageSize = pageSize;
+    this.batchSize = batchSize;
+    this.runOnStartup = runOnStartup;
+    this.exitWhenDone = exitWhenDone;
+    this.unitCache = unitCache;
+    this.responseCache = responseCache;
+    this.nameSearchIndex = nameSearchIndex;
+    this.unitReplica = unitReplica;
+    this.changeFeed = changeFeed;
+    if (checkpointTableName.isEmpty()) {
+      logger.info("No dynamodb.table.migrations configured; migrations resume only in-process");
+    }
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (runOnStartup.isEmpty()) {
+      return;
+    }
+    try {
+      start(runOnStartup.get(), false);
+    } catch (RuntimeException e) {
+      logger.error("Could not start migration {}", runOnStartup.get(), e);
+      if (exitWhenDone) {
+        Quarkus.asyncExit(1);
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    jobs.values().forEach(MigrationJob::cancel);
+  }
+
+  /**
+   * Starts a migration, resuming it from its checkpoints.
+   *
+   * @param name the migration name
+   * @param restart whether to discard the checkpoints and start from the beginning
+   * @return the status of the started migration
+   * @throws IllegalArgumentException if the migration is unknown
+   * @throws ConflictException if the migration is running or cannot start now
+   */
+  public synchronized MigrationStatus start(String name, boolean restart) {
+    UnitMigration migration = migration(name);
+    MigrationJob previous = jobs.get(name);
+    if (previous != null && previous.isRunning()) {
+      throw new ConflictException("Migration " + name + " is already running");
+    }
+    if (idEncoding == IdEncoding.MIGRATING) {
+      throw new ConflictException(
+          "Migrations cannot run while unit ids are migrating to binary keys");
+    }
+    if (restart) {
+      checkpoints.clear(name);
+    }
+    ProvisionedThroughputDescription capacity = provisionedCapacity();
+    MigrationJob job =
+        new MigrationJob(
+            migration,
+            throttledClient,
+            tableName,
+            segments,
+            pageSize,
+            batchSize,
+            new CapacityBudget(
+                unitsPerSecond(
+                    capacity == null ? null : capacity.readCapacityUnits(), onDemandReadUnits),
+                System::nanoTime),
+            new CapacityBudget(
+                unitsPerSecond(
+                    capacity == null ? null : capacity.writeCapacityUnits(), onDemandWriteUnits),
+                System::nanoTime),
+            checkpoints,
+            this::refresh);
+    ExecutorService executor = Executors.newFixedThreadPool(segments, threadFactory(name));
+    jobs.put(name, job);
+    logger.info("Starting migration {} on {} with {} segments", name, tableName, segments);
+    job.start(executor)
+        .whenComplete(
+            (result, failure) -> {
+              executor.shutdown();
+              if (exitWhenDone && runOnStartup.filter(name::equals).isPresent()) {
+                Quarkus.asyncExit(job.status().getState() == MigrationState.COMPLETED ? 0 : 1);
+              }
+            });
+    return job.status();
+  }
+
+  /**
+   * Asks a running migration to stop after checkpointing; starting it again resumes it.
+   *
+   * @param name the migration name
+   * @return the status of the migration
+   * @throws IllegalArgumentException if the migration is unknown
+   * @throws ConflictException if the migration is not running
+   */
+  public MigrationStatus cancel(String name) {
+    migration(name);
+    MigrationJob job = jobs.get(name);
+    if (job == null || !job.isRunning()) {
+      throw new ConflictException("Migration " + name + " is not running");
+    }
+    job.cancel();
+    return job.status();
+  }
+
+  /**
+   * Returns the progress of a migration.
+   *
+   * @param name the migration name
+   * @return the status, idle if it has not run in this process
+   * @throws IllegalArgumentException if the migration is unknown
+   */
+  public MigrationStatus status(String name) {
+    migration(name);
+    MigrationJob job = jobs.get(name);
+    return job == null ? MigrationStatus.idle(name, tableName) : job.status();
+  }
+
+  /**
+   * Returns the progress of every available migration, by name.
+   *
+   * @return the statuses
+   */
+  public List<MigrationStatus> statuses() {
+    List<MigrationStatus> statuses = new ArrayList<>();
+    for (String name : migrations.keySet()) {
+      statuses.add(status(name));
+    }
+    return statuses;
+  }
+
+  /** Brings this instance's caches and indexes up to date with a unit a migration rewrote. */
+  private void refresh(Map<String, AttributeValue> item) {
+    String id = IdEncoding.idOf(item.get(UnitDao.ID_ATTRIBUTE));
+    AttributeValue name = item.get(UnitDao.NAME_ATTRIBUTE);
+    if (id == null || name == null || name.s() == null) {
+      return;
+    }
+    Unit unit = new Unit(id, name.s());
+    unitCache.invalidate(id);
+    responseCache.invalidate(id);
+    unitReplica.put(unit);
+    nameSearchIndex.upsert(unit);
+    changeFeed.publish(ChangeType.UPDATED, id, unit.getName());
+  }
+
+  private UnitMigration migration(String name) {
+    UnitMigration migration = migrations.get(name);
+    if (migration == null) {
+      throw new IllegalArgumentException("Unknown migration: " + name);
+    }
+    return migration;
+  }
+
+  private ProvisionedThroughputDescription provisionedCapacity() {
+    try {
+      return dynamoDbClient
+          .describeTable(request -> request.tableName(tableName))
+          .table()
+          .provisionedThroughput();
+    } catch (SdkException e) {
+      logger.warn("Could not read the capacity of {}: {}", tableName, e.getMessage());
+      return null;
+    }
+  }
+
+  private double unitsPerSecond(Long provisioned, double onDemand) {
+    // On-demand tables report zero provisioned capacity
+    if (provisioned == null || provisioned <= 0) {
+      return onDemand;
+    }
+    return Math.max(1, provisioned * capacityFraction);
+  }
+
+  private static ThreadFactory threadFactory(String name) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, "migration-" + name + "-" + count.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
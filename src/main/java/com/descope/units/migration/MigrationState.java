@@ -0,0 +1,15 @@
+package com.descope.units.migration;
+
+/** Lifecycle of a migration within this process. */
+public enum MigrationState {
+  /** Not started since the process started; it may have checkpoints from an earlier run. */
+  IDLE,
+  /** Segments are being scanned and rewritten. */
+  RUNNING,
+  /** Stopped on request after checkpointing; starting it again resumes. */
+  CANCELLED,
+  /** Every segment was scanned to the end. */
+  COMPLETED,
+  /** Stopped on an error; starting it again resumes from the last checkpoint. */
+  FAILED
+}
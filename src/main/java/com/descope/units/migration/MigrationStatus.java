@@ -0,0 +1,145 @@
+package com.descope.units.migration;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** Point-in-time progress of a migration. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MigrationStatus {
+
+  private final String name;
+  private final MigrationState state;
+  private final String table;
+  private final int segments;
+  private final int segmentsDone;
+  private final MigrationCounts counts;
+  private final double readUnitsPerSecond;
+  private final double writeUnitsPerSecond;
+  private final String error;
+
+  /**
+   * Constructs a MigrationStatus snapshot.
+   *
+   * @param name the migration name
+   * @param state the lifecycle state
+   * @param table the table being migrated
+   * @param segments the number of scan segments, zero if not started
+   * @param segmentsDone the segments scanned to the end
+   * @param counts the items processed so far
+   * @param readUnitsPerSecond the read capacity the scan may use
+   * @param writeUnitsPerSecond the write capacity the rewrites may use
+   * @param error the error that stopped the migration, or null
+   */
+  public MigrationStatus(
+      String name,
+      MigrationState state,
+      String table,
+      int segments,
+      int segmentsDone,
+      MigrationCounts counts,
+      double readUnitsPerSecond,
+      double writeUnitsPerSecond,
+      String error) {
+    this.name = name;
+    this.state = state;
+    this.table = table;
+    this.segments = segments;
+    this.segmentsDone = segmentsDone;
+    this.counts = counts;
+    this.readUnitsPerSecond = readUnitsPerSecond;
+    this.writeUnitsPerSecond = writeUnitsPerSecond;
+    this.error = error;
+  }
+
+  /**
+   * Returns the status of a migration that has not run in this process.
+   *
+   * @param name the migration name
+   * @param table the table it would migrate
+   * @return the status
+   */
+  public static MigrationStatus idle(String name, String table) {
+    return new MigrationStatus(
+        name, MigrationState.IDLE, table, 0, 0, MigrationCounts.ZERO, 0, 0, null);
+  }
+
+  /**
+   * Returns the migration name.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the lifecycle state.
+   *
+   * @return the state
+   */
+  public MigrationState getState() {
+    return state;
+  }
+
+  /**
+   * Returns the table being migrated.
+   *
+   * @return the table name
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Returns the number of scan segments.
+   *
+   * @return the segment count, zero if not started
+   */
+  public int getSegments() {
+    return segments;
+  }
+
+  /**
+   * Returns the number of segments scanned to the end.
+   *
+   * @return the completed segment count
+   */
+  public int getSegmentsDone() {
+    return segmentsDone;
+  }
+
+  /**
+   * Returns the items processed so far, including by earlier runs that were resumed.
+   *
+   * @return the counts
+   */
+  public MigrationCounts getCounts() {
+    return counts;
+  }
+
+  /**
+   * Returns the read capacity units per second the scan may use.
+   *
+   * @return the read rate
+   */
+  public double getReadUnitsPerSecond() {
+    return readUnitsPerSecond;
+  }
+
+  /**
+   * Returns the write capacity units per second the rewrites may use.
+   *
+   * @return the write rate
+   */
+  public double getWriteUnitsPerSecond() {
+    return writeUnitsPerSecond;
+  }
+
+  /**
+   * Returns the error that stopped the migration.
+   *
+   * @return the error message, or null
+   */
+  public String getError() {
+    return error;
+  }
+}
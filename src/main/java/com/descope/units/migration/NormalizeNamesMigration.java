@@ -0,0 +1,52 @@
+package com.descope.units.migration;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import com.descope.units.model.UnitDao;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Example migration that rewrites stored unit names in Unicode NFC form, with surrounding
+ * whitespace removed and inner runs of whitespace collapsed to one space.
+ *
+ * <p>It tidies the names already in the table once. Creates, updates and lookups by name take names
+ * as given, so names written afterwards are not normalized and an exact lookup must match the
+ * stored form.
+ */
+@ApplicationScoped
+public class NormalizeNamesMigration implements UnitMigration {
+
+  private static final Pattern WHITESPACE =
+      Pattern.compile("\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+
+  @Override
+  public String name() {
+    return "normalize-names";
+  }
+
+  @Override
+  public Map<String, AttributeValue> migrate(Map<String, AttributeValue> item) {
+    AttributeValue name = item.get(UnitDao.NAME_ATTRIBUTE);
+    if (name == null || name.s() == null) {
+      return null;
+    }
+    String normalized = normalize(name.s());
+    if (normalized.isEmpty() || normalized.equals(name.s())) {
+      return null;
+    }
+    Map<String, AttributeValue> migrated = new HashMap<>(item);
+    migrated.put(UnitDao.NAME_ATTRIBUTE, AttributeValue.fromS(normalized));
+    return migrated;
+  }
+
+  static String normalize(String name) {
+    String composed = Normalizer.normalize(name, Normalizer.Form.NFC);
+    return WHITESPACE.matcher(composed).replaceAll(" ").trim();
+  }
+}
@@ -0,0 +1,95 @@
+package com.descope.units.migration;
+
+import java.util.Map;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Progress of one scan segment of a migration, saved after every page whose writes have succeeded.
+ */
+public final class SegmentCheckpoint {
+
+  private final int segment;
+  private final int totalSegments;
+  private final Map<String, AttributeValue> lastKey;
+  private final boolean done;
+  private final MigrationCounts counts;
+
+  /**
+   * Constructs a SegmentCheckpoint.
+   *
+   * @param segment the scan segment
+   * @param totalSegments the number of segments the table is scanned in
+   * @param lastKey the key to continue the scan after, or null to start from the beginning
+   * @param done whether the segment has been scanned to the end
+   * @param counts the items processed so far
+   */
+  public SegmentCheckpoint(
+      int segment,
+      int totalSegments,
+      Map<String, AttributeValue> lastKey,
+      boolean done,
+      MigrationCounts counts) {
+    this.segment = segment;
+    this.totalSegments = totalSegments;
+    this.lastKey = lastKey == null || lastKey.isEmpty() ? null : Map.copyOf(lastKey);
+    this.done = done;
+    this.counts = counts;
+  }
+
+  /**
+   * Returns the checkpoint of a segment that has not started.
+   *
+   * @param segment the scan segment
+   * @param totalSegments the number of segments the table is scanned in
+   * @return the checkpoint
+   */
+  public static SegmentCheckpoint start(int segment, int totalSegments) {
+    return new SegmentCheckpoint(segment, totalSegments, null, false, MigrationCounts.ZERO);
+  }
+
+  /**
+   * Returns the scan segment.
+   *
+   * @return the segment number, from zero
+   */
+  public int getSegment() {
+    return segment;
+  }
+
+  /**
+   * Returns the number of segments the table is scanned in.
+   *
+   * @return the total segments
+   */
+  public int getTotalSegments() {
+    return totalSegments;
+  }
+
+  /**
+   * Returns the key to continue the scan after.
+   *
+   * @return the last evaluated key, or null to start from the beginning
+   */
+  public Map<String, AttributeValue> getLastKey() {
+    return lastKey;
+  }
+
+  /**
+   * Returns whether the segment has been scanned to the end.
+   *
+   * @return true once done
+   */
+  public boolean isDone() {
+    return done;
+  }
+
+  /**
+   * Returns the items processed so far.
+   *
+   * @return the counts
+   */
+  public MigrationCounts getCounts() {
+    return counts;
+  }
+}
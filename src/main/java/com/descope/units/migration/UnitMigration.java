@@ -0,0 +1,31 @@
+package com.descope.units.migration;
+
+import java.util.Map;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * A transformation applied to every item of the units table by the {@link MigrationRunner}.
+ *
+ * <p>Implementations are CDI beans and are found by {@link #name()}. The transformation sees raw
+ * DynamoDB items, so it can add, rename or drop attributes that {@code UnitDao} does not know yet.
+ * It must be idempotent: an interrupted migration resumes from its last checkpoint, and items
+ * written after that checkpoint are transformed again.
+ */
+public interface UnitMigration {
+
+  /**
+   * Returns the name the migration is started by.
+   *
+   * @return the migration name, such as {@code normalize-names}
+   */
+  String name();
+
+  /**
+   * Transforms one item.
+   *
+   * @param item the item as stored, which must not be modified
+   * @return the item to store instead, with the same key, or null to leave it unchanged
+   */
+  Map<String, AttributeValue> migrate(Map<String, AttributeValue> item);
+}
@@ -0,0 +1,98 @@
+package com.descope.units.model;
+
+import java.util.Objects;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+
+/**
+ * Data Access Object for a unit stored with a 16-byte binary id.
+ *
+ * <p>Same attributes and name index as {@link UnitDao}, but the {@code id} partition key is of type
+ * {@code B}. Conversion between the binary and string forms of the id is done by the repository.
+ */
+@DynamoDbBean
+public class BinaryUnitDao {
+
+  private SdkBytes id;
+  private String name;
+
+  /** Default constructor required by DynamoDB Enhanced Client. */
+  public BinaryUnitDao() {}
+
+  /**
+   * Constructs a BinaryUnitDao with the specified id and name.
+   *
+   * @param id the binary unit identifier
+   * @param name the unit name
+   */
+  public BinaryUnitDao(SdkBytes id, String name) {
+    this.id = id;
+    this.name = name;
+  }
+
+  /**
+   * Returns the binary unit identifier (partition key).
+   *
+   * @return the unit id
+   */
+  @DynamoDbPartitionKey
+  @DynamoDbAttribute(UnitDao.ID_ATTRIBUTE)
+  public SdkBytes getId() {
+    return id;
+  }
+
+  /**
+   * Sets the binary unit identifier.
+   *
+   * @param id the unit id
+   */
+  public void setId(SdkBytes id) {
+    this.id = id;
+  }
+
+  /**
+   * Returns the unit name (partition key of the name index).
+   *
+   * @return the unit name
+   */
+  @DynamoDbSecondaryPartitionKey(indexNames = UnitDao.NAME_INDEX)
+  @DynamoDbAttribute(UnitDao.NAME_ATTRIBUTE)
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Sets the unit name.
+   *
+   * @param name the unit name
+   */
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BinaryUnitDao that = (BinaryUnitDao) o;
+    return Objects.equals(id, that.id) && Objects.equals(name, that.name);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, name);
+  }
+
+  @Override
+  public String toString() {
+    return "BinaryUnitDao{" + "id=" + id + ", name='" + name + '\'' + '}';
+  }
+}
@@ -5,6 +5,7 @@ import java.util.Objects;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
 
 /**
  * Data Access Object (DAO) for Unit entity mapped to DynamoDB.
@@ -15,6 +16,15 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbParti
 @DynamoDbBean
 public class UnitDao {
 
+  /** Name of the global secondary index keyed on the unit name. */
+  public static final String NAME_INDEX = "name-index";
+
+  /** Attribute name of the partition key. */
+  public static final String ID_ATTRIBUTE = "id";
+
+  /** Attribute name of the unit name. */
+  public static final String NAME_ATTRIBUTE = "name";
+
   private String id;
   private String name;
 
@@ -55,8 +65,11 @@ public class UnitDao {
   /**
    * Returns the name of this unit.
    *
+   * <p>The name is also the partition key of the {@value #NAME_INDEX} global secondary index.
+   *
    * @return the unit name
    */
+  @DynamoDbSecondaryPartitionKey(indexNames = NAME_INDEX)
   @DynamoDbAttribute("name")
   public String getName() {
     return name;
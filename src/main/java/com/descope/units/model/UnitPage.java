@@ -0,0 +1,76 @@
+package com.descope.units.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A single page of units returned by a paginated query.
+ *
+ * <p>The cursor is opaque to callers; passing it back to the same query resumes after the last unit
+ * of this page. A null cursor means there are no further pages.
+ */
+public class UnitPage {
+
+  private final List<Unit> items;
+  private final String nextCursor;
+
+  /**
+   * Constructs a UnitPage with the specified items and continuation cursor.
+   *
+   * @param items the units on this page
+   * @param nextCursor the cursor for the next page, or null if this is the last page
+   */
+  public UnitPage(List<Unit> items, String nextCursor) {
+    this.items = List.copyOf(items);
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Returns the units on this page.
+   *
+   * @return an unmodifiable list of units
+   */
+  public List<Unit> getItems() {
+    return items;
+  }
+
+  /**
+   * Returns the cursor for the next page.
+   *
+   * @return the next cursor, or null if this is the last page
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  /**
+   * Returns whether another page may follow this one.
+   *
+   * @return true if a next cursor is present
+   */
+  public boolean hasMore() {
+    return nextCursor != null;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    UnitPage unitPage = (UnitPage) o;
+    return Objects.equals(items, unitPage.items) && Objects.equals(nextCursor, unitPage.nextCursor);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(items, nextCursor);
+  }
+
+  @Override
+  public String toString() {
+    return "UnitPage{" + "items=" + items + ", nextCursor='" + nextCursor + '\'' + '}';
+  }
+}
@@ -0,0 +1,164 @@
+package com.descope.units.overload;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency, after TCP Vegas.
+ *
+ * <p>The lowest latency seen approximates the no-load service time. For each completed request the
+ * limiter estimates how many requests are queued rather than being served as {@code limit * (1 -
+ * noLoadRtt / rtt)}. A short queue means there is headroom and the limit grows; a long queue means
+ * latency is being bought with waiting and the limit shrinks. Requests that failed because a
+ * downstream was overloaded shrink the limit multiplicatively. Steps are proportional to {@code
+ * log10(limit)} so large limits move faster than small ones.
+ *
+ * <p>The no-load latency is re-measured every {@code probeInterval} samples so that a permanent
+ * change in the backend is picked up instead of pinning the limit low forever.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double DROP_DECREASE = 0.9;
+
+  private final double minLimit;
+  private final double maxLimit;
+  private final Map<RequestPriority, Double> shares;
+  private final int probeInterval;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private volatile double limit;
+  private long noLoadRttNanos;
+  private long lastRttNanos;
+  private int samplesSinceProbe;
+
+  /**
+   * Constructs an AdaptiveConcurrencyLimiter.
+   *
+   * @param initialLimit the starting concurrency limit
+   * @param minLimit the floor the limit never drops below
+   * @param maxLimit the ceiling the limit never grows above
+   * @param writeShare the fraction of the limit writes may occupy, in (0, 1]
+   * @param bulkShare the fraction of the limit bulk requests may occupy, in (0, 1]
+   * @param probeInterval the number of samples between re-measurements of the no-load latency
+   */
+  public AdaptiveConcurrencyLimiter(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      double writeShare,
+      double bulkShare,
+      int probeInterval) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("Limit bounds must satisfy 1 <= minLimit <= maxLimit");
+    }
+    if (writeShare <= 0 || writeShare > 1 || bulkShare <= 0 || bulkShare > 1) {
+      throw new IllegalArgumentException("Priority shares must be in (0, 1]");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.probeInterval = probeInterval;
+    this.shares = new EnumMap<>(RequestPriority.class);
+    shares.put(RequestPriority.READ, 1.0);
+    shares.put(RequestPriority.WRITE, writeShare);
+    shares.put(RequestPriority.BULK, bulkShare);
+  }
+
+  /**
+   * Admits a request if the in-flight count is below the share of the limit for its priority.
+   *
+   * @param priority the priority of the request
+   * @return true if admitted, in which case {@link #onComplete} must be called exactly once
+   */
+  public boolean tryAcquire(RequestPriority priority) {
+    int allowed = Math.max(1, (int) (limit * shares.get(priority)));
+    while (true) {
+      int current = inFlight.get();
+      if (current >= allowed) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases an admitted request and adjusts the limit.
+   *
+   * @param rttNanos the time the request took
+   * @param dropped whether the request failed because a downstream was overloaded
+   */
+  public void onComplete(long rttNanos, boolean dropped) {
+    int current = inFlight.getAndDecrement();
+    synchronized (this) {
+      adjust(rttNanos, dropped, current);
+    }
+  }
+
+  private void adjust(long rttNanos, boolean dropped, int inFlightAtCompletion) {
+    lastRttNanos = rttNanos;
+    if (++samplesSinceProbe >= probeInterval) {
+      samplesSinceProbe = 0;
+      noLoadRttNanos = rttNanos;
+    } else if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+      noLoadRttNanos = rttNanos;
+    }
+
+    double current = limit;
+    double step = Math.max(1, Math.log10(current));
+    if (dropped) {
+      limit = Math.max(minLimit, current * DROP_DECREASE);
+      return;
+    }
+    // When far below the limit, latency says nothing about whether a higher limit would help
+    if (inFlightAtCompletion * 2 < current) {
+      return;
+    }
+
+    double queued = current * (1 - (double) noLoadRttNanos / Math.max(1, rttNanos));
+    if (queued <= 3 * step) {
+      limit = Math.min(maxLimit, current + step);
+    } else if (queued >= 6 * step) {
+      limit = Math.max(minLimit, current - step);
+    }
+  }
+
+  /**
+   * Returns the current concurrency limit.
+   *
+   * @return the limit
+   */
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * Returns the number of admitted requests that have not completed.
+   *
+   * @return the in-flight count
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * Returns the current estimate of the no-load latency.
+   *
+   * @return the latency in microseconds, zero before the first sample
+   */
+  public synchronized long getNoLoadRttMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(noLoadRttNanos);
+  }
+
+  /**
+   * Returns the latency of the most recently completed request.
+   *
+   * @return the latency in microseconds, zero before the first sample
+   */
+  public synchronized long getLastRttMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(lastRttNanos);
+  }
+}
@@ -0,0 +1,57 @@
+package com.descope.units.overload;
+
+import java.util.Map;
+
+/**
+ * Point-in-time state of the {@link ClientQuotas}.
+ *
+ * <p>Clients not named in configuration are keyed by a fingerprint of their id, so ids that are
+ * credentials never appear in statistics.
+ */
+public class ClientQuotaStats {
+
+  private final boolean enabled;
+  private final int activeWeight;
+  private final Map<String, ClientUsageStats> clients;
+
+  /**
+   * Constructs a ClientQuotaStats snapshot.
+   *
+   * @param enabled whether client quotas are enforced
+   * @param activeWeight the summed weight of clients with requests in progress
+   * @param clients the usage of each client keyed by client name
+   */
+  public ClientQuotaStats(
+      boolean enabled, int activeWeight, Map<String, ClientUsageStats> clients) {
+    this.enabled = enabled;
+    this.activeWeight = activeWeight;
+    this.clients = clients;
+  }
+
+  /**
+   * Returns whether client quotas are enforced.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the summed weight of clients with requests in progress.
+   *
+   * @return the active weight
+   */
+  public int getActiveWeight() {
+    return activeWeight;
+  }
+
+  /**
+   * Returns the usage of each client.
+   *
+   * @return the usage keyed by client name
+   */
+  public Map<String, ClientUsageStats> getClients() {
+    return clients;
+  }
+}
@@ -0,0 +1,418 @@
+package com.descope.units.overload;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.descope.units.exception.QuotaExceededException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-client quotas and fair sharing of the {@link LoadShedder}'s concurrency limit.
+ *
+ * <p>Clients are told apart by the {@code units.quota.client-header} request header; requests
+ * without it count as one anonymous client. Each client has a token bucket, and a request takes one
+ * token, or {@code write-cost} or {@code bulk-cost} tokens for writes and bulk requests, which use
+ * more DynamoDB capacity. A request that finds too few tokens is rejected with a {@link
+ * QuotaExceededException} whose retry delay is the time the bucket needs to refill.
+ *
+ * <p>Each client also has a weight. While less than {@code fair-share-threshold} of the concurrency
+ * limit is in use, any client may use the spare capacity. Above it, a client may only have its
+ * weighted share of the limit in progress, that is {@code limit * weight / active weight}, where
+ * the active weight sums the weights of the clients with requests in progress. This is the
+ * admission counterpart of a weighted fair queue: requests over their share are rejected instead of
+ * queued, so a bulk client at its share cannot make an interactive client wait. Fair sharing needs
+ * load shedding enabled, which tracks the concurrency it shares.
+ *
+ * <p>Rates, bursts and weights default to {@code default-rate}, {@code default-burst} and {@code
+ * default-weight}, and may be set per client with {@code units.quota.clients}, written as {@code
+ * client=rate:burst:weight} entries separated by commas. At most {@code max-clients} other clients
+ * are tracked one by one. When the table is full, clients with nothing in progress whose bucket has
+ * refilled are evicted, which loses no state since a new bucket starts full; clients that still
+ * cannot be tracked share one bucket.
+ *
+ * <p>Quotas are only as strong as the client header. A caller free to choose its id gets a fresh
+ * burst with each new one, so the header must carry an authenticated key, such as one set by an API
+ * gateway or authenticating proxy after it checked the caller's credentials.
+ */
+@ApplicationScoped
+public class ClientQuotas {
+
+  private static final Logger logger = LoggerFactory.getLogger(ClientQuotas.class);
+
+  /** Name of the client that sends no client header. */
+  static final String ANONYMOUS = "anonymous";
+
+  /** Name of the client that unconfigured clients beyond the tracked maximum share. */
+  static final String OVERFLOW = "other";
+
+  /** Shortest time between sweeps for idle clients while the client table is full. */
+  private static final long EVICTION_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final boolean enabled;
+  private final String clientHeader;
+  private final double defaultRate;
+  private final double defaultBurst;
+  private final int defaultWeight;
+  private final double writeCost;
+  private final double bulkCost;
+  private final double fairShareThreshold;
+  private final int maxClients;
+  private final LoadShedder loadShedder;
+  private final LongSupplier nanoClock;
+  private final Map<String, Limits> configured;
+  private final Map<String, Client> clients = new ConcurrentHashMap<>();
+  private final AtomicLong nextEvictionNanos;
+  private final AtomicInteger activeWeight = new AtomicInteger();
+
+  /**
+   * Constructs ClientQuotas from configuration.
+   *
+   * @param enabled whether client quotas are enforced
+   * @param clientHeader the request header identifying the client, such as an API key header
+   * @param defaultRate the tokens per second of a client without its own settings
+   * @param defaultBurst the bucket size of a client without its own settings
+   * @param defaultWeight the fair share weight of a client without its own settings
+   * @param clients per-client settings as {@code client=rate:burst:weight} entries
+   * @param writeCost the tokens a write takes
+   * @param bulkCost the tokens a bulk request, such as a listing or search, takes
+   * @param fairShareThreshold the fraction of the concurrency limit in use above which clients are
+   *     held to their fair share
+   * @param maxClients the most unconfigured clients tracked one by one
+   * @param loadShedder the admission controller whose concurrency limit is shared
+   */
+  @Inject
+  public ClientQuotas(
+      @ConfigProperty(name = "units.quota.enabled", defaultValue = "false") boolean enabled,
+      @ConfigProperty(name = "units.quota.client-header", defaultValue = "X-Client-Id")
+          String clientHeader,
+      @ConfigProperty(name = "units.quota.default-rate", defaultValue = "100") double defaultRate,
+      @ConfigProperty(name = "units.quota.default-burst", defaultValue = "200") double defaultBurst,
+      @ConfigProperty(name = "units.quota.default-weight", defaultValue = "1") int defaultWeight,
+      @ConfigProperty(name = "units.quota.clients") Optional<String> clients,
+      @ConfigProperty(name = "units.quota.write-cost", defaultValue = "1") double writeCost,
+      @ConfigProperty(name = "units.quota.bulk-cost", defaultValue = "5") double bulkCost,
+      @ConfigProperty(name = "units.quota.fair-share-threshold", defaultValue = "0.75")
+          double fairShareThreshold,
+      @ConfigProperty(name = "units.quota.max-clients", defaultValue = "10000") int maxClients,
+      LoadShedder loadShedder) {
+    this(
+        enabled,
+        clientHeader,
+        defaultRate,
+        defaultBurst,
+        defaultWeight,
+        clients.map(ClientQuotas::parseClients).orElse(Map.of()),
+        writeCost,
+        bulkCost,
+        fairShareThreshold,
+        maxClients,
+        loadShedder,
+        System::nanoTime);
+    if (enabled) {
+      logger.info(
+          "Client quotas enabled by {} header ({} per second, burst {}, {} configured clients)",
+          clientHeader,
+          defaultRate,
+          defaultBurst,
+          configured.size());
+    }
+  }
+
+  ClientQuotas(
+      boolean enabled,
+      String clientHeader,
+      double defaultRate,
+      double defaultBurst,
+      int defaultWeight,
+      Map<String, Limits> configured,
+      double writeCost,
+      double bulkCost,
+      double fairShareThreshold,
+      int maxClients,
+      LoadShedder loadShedder,
+      LongSupplier nanoClock) {
+    if (defaultRate <= 0 || defaultBurst < 1 || defaultWeight < 1) {
+      throw new IllegalArgumentException(
+          "Client quotas need a positive rate, a burst of at least 1 and a weight of at least 1");
+    }
+    if (fairShareThreshold <= 0 || fairShareThreshold > 1) {
+      throw new IllegalArgumentException("Fair share threshold must be in (0, 1]");
+    }
+    this.enabled = enabled;
+    this.clientHeader = clientHeader;
+    this.defaultRate = defaultRate;
+    this.defaultBurst = defaultBurst;
+    this.defaultWeight = defaultWeight;
+    this.configured = Map.copyOf(configured);
+    this.writeCost = writeCost;
+    this.bulkCost = bulkCost;
+    this.fairShareThreshold = fairShareThreshold;
+    this.maxClients = maxClients;
+    this.loadShedder = loadShedder;
+    this.nanoClock = nanoClock;
+    this.nextEvictionNanos = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  /**
+   * Returns whether client quotas are enforced.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the request header identifying the client.
+   *
+   * @return the header name
+   */
+  public String getClientHeader() {
+    return clientHeader;
+  }
+
+  /**
+   * Admits a request of a client or rejects it.
+   *
+   * @param clientId the value of the client header, or null if the request has none
+   * @param priority the admission class of the endpoint
+   * @return the lease to release when the request completes, or null if quotas are disabled
+   * @throws QuotaExceededException if the client is out of tokens or over its fair share
+   */
+  public Lease acquire(String clientId, RequestPriority priority) {
+    if (!enabled) {
+      return null;
+    }
+    Client client = client(clientId);
+    if (overFairShare(client)) {
+      client.fairShareRejections.increment();
+      logger.debug("Client {} is over its fair share", client.name);
+      throw new QuotaExceededException(
+          "Too many concurrent requests from this client. Please retry later.", 1);
+    }
+    long waitNanos = client.bucket.tryTake(cost(priority), nanoClock.getAsLong());
+    if (waitNanos > 0) {
+      client.quotaRejections.increment();
+      logger.debug("Client {} is out of quota", client.name);
+      throw new QuotaExceededException(
+          "Request quota exceeded. Please retry later.",
+          Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+    }
+    client.admitted.increment();
+    if (client.inFlight.getAndIncrement() == 0) {
+      activeWeight.addAndGet(client.limits.weight);
+    }
+    return new Lease(client);
+  }
+
+  /**
+   * Returns the quota usage of each client.
+   *
+   * @return the client quota statistics
+   */
+  public ClientQuotaStats stats() {
+    long now = nanoClock.getAsLong();
+    Map<String, ClientUsageStats> usage = new TreeMap<>();
+    clients.forEach(
+        (id, client) ->
+            usage.put(
+                client.name,
+                new ClientUsageStats(
+                    client.limits.weight,
+                    client.limits.rate,
+                    client.bucket.available(now),
+                    client.inFlight.get(),
+                    client.admitted.sum(),
+                    client.quotaRejections.sum(),
+                    client.fairShareRejections.sum())));
+    return new ClientQuotaStats(enabled, activeWeight.get(), usage);
+  }
+
+  private boolean overFairShare(Client client) {
+    if (!loadShedder.isEnabled()) {
+      return false;
+    }
+    int limit = loadShedder.limit();
+    if (loadShedder.inFlight() < limit * fairShareThreshold) {
+      return false;
+    }
+    int inFlight = client.inFlight.get();
+    int active = activeWeight.get() + (inFlight == 0 ? client.limits.weight : 0);
+    double share = (double) limit * client.limits.weight / Math.max(1, active);
+    return inFlight >= Math.max(1, Math.ceil(share));
+  }
+
+  private double cost(RequestPriority priority) {
+    switch (priority) {
+      case WRITE:
+        return writeCost;
+      case BULK:
+        return bulkCost;
+      default:
+        return 1;
+    }
+  }
+
+  private Client client(String clientId) {
+    String id = clientId == null || clientId.isBlank() ? ANONYMOUS : clientId;
+    Client client = clients.get(id);
+    if (client != null) {
+      return client;
+    }
+    Limits limits = configured.get(id);
+    if (limits == null && clients.size() >= maxClients) {
+      evictIdle(nanoClock.getAsLong());
+      if (clients.size() >= maxClients) {
+        id = OVERFLOW;
+      }
+    }
+    String key = id;
+    Limits clientLimits =
+        limits != null ? limits : new Limits(defaultRate, defaultBurst, defaultWeight);
+    String name =
+        limits != null || key.equals(ANONYMOUS) || key.equals(OVERFLOW) ? key : fingerprint(key);
+    return clients.computeIfAbsent(key, k -> new Client(name, clientLimits, nanoClock.getAsLong()));
+  }
+
+  /**
+   * Drops clients that have nothing in progress and a full bucket, at most once per {@link
+   * #EVICTION_INTERVAL_NANOS}. Such a client is recreated exactly as it was if it returns.
+   */
+  private void evictIdle(long nowNanos) {
+    long next = nextEvictionNanos.get();
+    if (nowNanos - next < 0
+        || !nextEvictionNanos.compareAndSet(next, nowNanos + EVICTION_INTERVAL_NANOS)) {
+      return;
+    }
+    int evicted = 0;
+    for (Map.Entry<String, Client> entry : clients.entrySet()) {
+      Client client = entry.getValue();
+      if (client.inFlight.get() == 0
+          && client.bucket.available(nowNanos) >= client.limits.burst
+          && clients.remove(entry.getKey(), client)) {
+        evicted++;
+      }
+    }
+    if (evicted > 0) {
+      logger.debug("Evicted {} idle quota clients", evicted);
+    }
+  }
+
+  /** Returns a short digest of an unconfigured client id, which may be a credential. */
+  static String fingerprint(String clientId) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(clientId.getBytes(StandardCharsets.UTF_8));
+      StringBuilder name = new StringBuilder("#");
+      for (int i = 0; i < 6; i++) {
+        name.append(String.format("%02x", digest[i]));
+      }
+      return name.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Parses per-client settings.
+   *
+   * @param value {@code client=rate:burst:weight} entries separated by commas
+   * @return the settings keyed by client id
+   * @throws IllegalArgumentException if an entry is malformed
+   */
+  static Map<String, Limits> parseClients(String value) {
+    Map<String, Limits> parsed = new HashMap<>();
+    for (String entry : value.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      int separator = entry.lastIndexOf('=');
+      String[] parts = separator < 0 ? new String[0] : entry.substring(separator + 1).split(":");
+      if (separator <= 0 || parts.length != 3) {
+        throw new IllegalArgumentException(
+            "Client quota '" + entry.trim() + "' must be written as client=rate:burst:weight");
+      }
+      try {
+        Limits limits =
+            new Limits(
+                Double.parseDouble(parts[0].trim()),
+                Double.parseDouble(parts[1].trim()),
+                Integer.parseInt(parts[2].trim()));
+        if (limits.rate <= 0 || limits.burst < 1 || limits.weight < 1) {
+          throw new IllegalArgumentException(
+              "Client quota '" + entry.trim() + "' needs a positive rate, burst and weight");
+        }
+        parsed.put(entry.substring(0, separator).trim(), limits);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(
+            "Client quota '" + entry.trim() + "' must be written as client=rate:burst:weight", e);
+      }
+    }
+    return parsed;
+  }
+
+  /** Rate, burst and weight of one client. */
+  static final class Limits {
+
+    private final double rate;
+    private final double burst;
+    private final int weight;
+
+    Limits(double rate, double burst, int weight) {
+      this.rate = rate;
+      this.burst = burst;
+      this.weight = weight;
+    }
+  }
+
+  /** An admitted request of a client; must be released exactly once. */
+  public final class Lease {
+
+    private final Client client;
+
+    private Lease(Client client) {
+      this.client = client;
+    }
+
+    /** Releases the client's share of concurrency held by the request. */
+    public void release() {
+      if (client.inFlight.decrementAndGet() == 0) {
+        activeWeight.addAndGet(-client.limits.weight);
+      }
+    }
+  }
+
+  private static final class Client {
+
+    private final String name;
+    private final Limits limits;
+    private final TokenBucket bucket;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder quotaRejections = new LongAdder();
+    private final LongAdder fairShareRejections = new LongAdder();
+
+    private Client(String name, Limits limits, long nowNanos) {
+      this.name = name;
+      this.limits = limits;
+      this.bucket = new TokenBucket(limits.rate, limits.burst, nowNanos);
+    }
+  }
+}
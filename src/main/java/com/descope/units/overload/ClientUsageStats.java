@@ -0,0 +1,105 @@
+package com.descope.units.overload;
+
+/** Point-in-time quota usage of one client. */
+public class ClientUsageStats {
+
+  private final int weight;
+  private final double ratePerSecond;
+  private final double availableTokens;
+  private final int inFlight;
+  private final long admitted;
+  private final long quotaRejections;
+  private final long fairShareRejections;
+
+  /**
+   * Constructs a ClientUsageStats snapshot.
+   *
+   * @param weight the client's weight in fair sharing
+   * @param ratePerSecond the tokens the client's bucket gains per second
+   * @param availableTokens the tokens left in the client's bucket
+   * @param inFlight the client's admitted requests in progress
+   * @param admitted the client's admitted requests
+   * @param quotaRejections the client's requests rejected for lack of tokens
+   * @param fairShareRejections the client's requests rejected for exceeding its fair share
+   */
+  public ClientUsageStats(
+      int weight,
+      double ratePerSecond,
+      double availableTokens,
+      int inFlight,
+      long admitted,
+      long quotaRejections,
+      long fairShareRejections) {
+    this.weight = weight;
+    this.ratePerSecond = ratePerSecond;
+    this.availableTokens = availableTokens;
+    this.inFlight = inFlight;
+    this.admitted = admitted;
+    this.quotaRejections = quotaRejections;
+    this.fairShareRejections = fairShareRejections;
+  }
+
+  /**
+   * Returns the client's weight in fair sharing.
+   *
+   * @return the weight
+   */
+  public int getWeight() {
+    return weight;
+  }
+
+  /**
+   * Returns the tokens the client's bucket gains per second.
+   *
+   * @return the refill rate
+   */
+  public double getRatePerSecond() {
+    return ratePerSecond;
+  }
+
+  /**
+   * Returns the tokens left in the client's bucket.
+   *
+   * @return the available tokens
+   */
+  public double getAvailableTokens() {
+    return availableTokens;
+  }
+
+  /**
+   * Returns the client's admitted requests in progress.
+   *
+   * @return the in-flight count
+   */
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Returns the number of the client's requests that were admitted.
+   *
+   * @return the admitted count
+   */
+  public long getAdmitted() {
+    return admitted;
+  }
+
+  /**
+   * Returns the number of the client's requests rejected for lack of tokens.
+   *
+   * @return the rejection count
+   */
+  public long getQuotaRejections() {
+    return quotaRejections;
+  }
+
+  /**
+   * Returns the number of the client's requests rejected for exceeding its fair share of
+   * concurrency.
+   *
+   * @return the rejection count
+   */
+  public long getFairShareRejections() {
+    return fairShareRejections;
+  }
+}
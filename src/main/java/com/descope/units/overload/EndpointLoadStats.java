@@ -0,0 +1,61 @@
+package com.descope.units.overload;
+
+/** Point-in-time load of a single REST endpoint. */
+public class EndpointLoadStats {
+
+  private final int inFlight;
+  private final long completed;
+  private final long rejections;
+  private final long meanLatencyMicros;
+
+  /**
+   * Constructs an EndpointLoadStats snapshot.
+   *
+   * @param inFlight the number of admitted requests in progress
+   * @param completed the number of admitted requests that completed
+   * @param rejections the number of rejected requests
+   * @param meanLatencyMicros the exponentially weighted mean latency in microseconds
+   */
+  public EndpointLoadStats(int inFlight, long completed, long rejections, long meanLatencyMicros) {
+    this.inFlight = inFlight;
+    this.completed = completed;
+    this.rejections = rejections;
+    this.meanLatencyMicros = meanLatencyMicros;
+  }
+
+  /**
+   * Returns the number of admitted requests in progress.
+   *
+   * @return the in-flight count
+   */
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Returns the number of admitted requests that completed.
+   *
+   * @return the completed count
+   */
+  public long getCompleted() {
+    return completed;
+  }
+
+  /**
+   * Returns the number of rejected requests.
+   *
+   * @return the rejection count
+   */
+  public long getRejections() {
+    return rejections;
+  }
+
+  /**
+   * Returns the exponentially weighted mean latency.
+   *
+   * @return the latency in microseconds
+   */
+  public long getMeanLatencyMicros() {
+    return meanLatencyMicros;
+  }
+}
@@ -0,0 +1,23 @@
+package com.descope.units.overload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a resource method as subject to adaptive concurrency limiting.
+ *
+ * <p>Requests to unannotated methods, such as management endpoints, are never shed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface LoadShed {
+
+  /**
+   * Returns the admission class of the annotated method.
+   *
+   * @return the request priority
+   */
+  RequestPriority value();
+}
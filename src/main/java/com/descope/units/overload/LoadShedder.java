@@ -0,0 +1,195 @@
+package com.descope.units.overload;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.descope.units.exception.CapacityExceededException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission control for REST requests.
+ *
+ * <p>Requests are admitted against a shared {@link AdaptiveConcurrencyLimiter}, since every
+ * endpoint competes for the same worker threads and DynamoDB capacity. Requests over the limit for
+ * their {@link RequestPriority} are rejected immediately with a {@link CapacityExceededException}
+ * instead of queueing, which keeps latency bounded for the requests that are admitted. In-flight
+ * counts, latency and rejections are also tracked per endpoint for diagnosis.
+ */
+@ApplicationScoped
+public class LoadShedder {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadShedder.class);
+
+  private static final int PROBE_INTERVAL = 1000;
+
+  private final boolean enabled;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final long retryAfterSeconds;
+  private final Map<RequestPriority, LongAdder> rejections = new EnumMap<>(RequestPriority.class);
+  private final Map<String, EndpointLoad> endpoints = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a LoadShedder.
+   *
+   * @param enabled whether requests are shed
+   * @param initialLimit the starting concurrency limit
+   * @param minLimit the floor of the concurrency limit
+   * @param maxLimit the ceiling of the concurrency limit
+   * @param writeShare the fraction of the limit writes may occupy
+   * @param bulkShare the fraction of the limit bulk requests may occupy
+   * @param retryAfterSeconds the delay suggested to rejected clients
+   */
+  @Inject
+  public LoadShedder(
+      @ConfigProperty(name = "units.overload.enabled", defaultValue = "true") boolean enabled,
+      @ConfigProperty(name = "units.overload.initial-limit", defaultValue = "50") int initialLimit,
+      @ConfigProperty(name = "units.overload.min-limit", defaultValue = "5") int minLimit,
+      @ConfigProperty(name = "units.overload.max-limit", defaultValue = "500") int maxLimit,
+      @ConfigProperty(name = "units.overload.write-share", defaultValue = "0.9") double writeShare,
+      @ConfigProperty(name = "units.overload.bulk-share", defaultValue = "0.5") double bulkShare,
+      @ConfigProperty(name = "units.overload.retry-after-seconds", defaultValue = "1")
+          long retryAfterSeconds) {
+    this(
+        enabled,
+        new AdaptiveConcurrencyLimiter(
+            initialLimit, minLimit, maxLimit, writeShare, bulkShare, PROBE_INTERVAL),
+        retryAfterSeconds);
+    logger.info(
+        "Load shedding {} (initial limit {}, bounds {}-{})",
+        enabled ? "enabled" : "disabled",
+        initialLimit,
+        minLimit,
+        maxLimit);
+  }
+
+  LoadShedder(boolean enabled, AdaptiveConcurrencyLimiter limiter, long retryAfterSeconds) {
+    this.enabled = enabled;
+    this.limiter = limiter;
+    this.retryAfterSeconds = retryAfterSeconds;
+    for (RequestPriority priority : RequestPriority.values()) {
+      rejections.put(priority, new LongAdder());
+    }
+  }
+
+  /**
+   * Returns whether requests are shed.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Returns the current concurrency limit. */
+  int limit() {
+    return limiter.getLimit();
+  }
+
+  /** Returns the number of admitted requests in progress. */
+  int inFlight() {
+    return limiter.getInFlight();
+  }
+
+  /**
+   * Admits a request or rejects it.
+   *
+   * @param endpoint the name of the endpoint being called
+   * @param priority the admission class of the endpoint
+   * @return the permit to release when the request completes, or null if shedding is disabled
+   * @throws CapacityExceededException if the request is over the concurrency limit
+   */
+  public Permit acquire(String endpoint, RequestPriority priority) {
+    if (!enabled) {
+      return null;
+    }
+    EndpointLoad load = endpoints.computeIfAbsent(endpoint, key -> new EndpointLoad());
+    if (!limiter.tryAcquire(priority)) {
+      rejections.get(priority).increment();
+      load.rejections.increment();
+      logger.debug("Shedding {} request to {}", priority.key(), endpoint);
+      throw new CapacityExceededException(
+          "The service is overloaded. Please retry later.", retryAfterSeconds);
+    }
+    load.inFlight.incrementAndGet();
+    return new Permit(load, System.nanoTime());
+  }
+
+  /**
+   * Returns the current limit, in-flight count and per-endpoint load.
+   *
+   * @return the load shedding statistics
+   */
+  public LoadSheddingStats stats() {
+    Map<String, Long> rejected = new TreeMap<>();
+    rejections.forEach((priority, count) -> rejected.put(priority.key(), count.sum()));
+    Map<String, EndpointLoadStats> perEndpoint = new TreeMap<>();
+    endpoints.forEach((name, load) -> perEndpoint.put(name, load.snapshot()));
+    return new LoadSheddingStats(
+        enabled,
+        limiter.getLimit(),
+        limiter.getInFlight(),
+        limiter.getNoLoadRttMicros(),
+        rejected,
+        perEndpoint);
+  }
+
+  /** An admitted request; must be released exactly once. */
+  public final class Permit {
+
+    private final EndpointLoad load;
+    private final long startNanos;
+
+    private Permit(EndpointLoad load, long startNanos) {
+      this.load = load;
+      this.startNanos = startNanos;
+    }
+
+    /**
+     * Releases the permit and feeds the request latency to the limiter.
+     *
+     * @param dropped whether the request failed because a downstream was overloaded
+     */
+    public void release(boolean dropped) {
+      long rtt = System.nanoTime() - startNanos;
+      load.inFlight.decrementAndGet();
+      load.record(rtt);
+      limiter.onComplete(rtt, dropped);
+    }
+  }
+
+  private static final class EndpointLoad {
+
+    private static final double ALPHA = 0.1;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private volatile double meanLatencyNanos;
+
+    private void record(long rttNanos) {
+      completed.increment();
+      // Racy updates lose a sample now and then, which an average of this kind tolerates
+      double mean = meanLatencyNanos;
+      meanLatencyNanos = mean == 0 ? rttNanos : mean + ALPHA * (rttNanos - mean);
+    }
+
+    private EndpointLoadStats snapshot() {
+      return new EndpointLoadStats(
+          inFlight.get(),
+          completed.sum(),
+          rejections.sum(),
+          TimeUnit.NANOSECONDS.toMicros((long) meanLatencyNanos));
+    }
+  }
+}
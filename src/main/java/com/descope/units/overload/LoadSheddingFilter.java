@@ -0,0 +1,95 @@
+package com.descope.units.overload;
+
+import java.lang.reflect.Method;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Applies the {@link LoadShedder} to resource methods annotated with {@link LoadShed}.
+ *
+ * <p>Rejected requests surface as a {@link com.descope.units.exception.CapacityExceededException},
+ * which the global exception handler turns into a 503 with a {@code Retry-After} header. The permit
+ * is released from the response filter, which also runs for responses produced by exception
+ * mappers. A 503 from an admitted request means a downstream is overloaded and shrinks the limit.
+ *
+ * <p>With {@link ClientQuotas} enabled, the client's quota and fair share are checked first; a
+ * client over either gets a 429 and never takes a place in the concurrency limit.
+ */
+@Provider
+public class LoadSheddingFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+  private static final String PERMIT_PROPERTY = LoadSheddingFilter.class.getName() + ".permit";
+  private static final String LEASE_PROPERTY = LoadSheddingFilter.class.getName() + ".lease";
+
+  private final LoadShedder loadShedder;
+  private final ClientQuotas clientQuotas;
+
+  @Context ResourceInfo resourceInfo;
+
+  /**
+   * Constructs a LoadSheddingFilter.
+   *
+   * @param loadShedder the admission controller
+   * @param clientQuotas the per-client quotas and fair shares
+   */
+  @Inject
+  public LoadSheddingFilter(LoadShedder loadShedder, ClientQuotas clientQuotas) {
+    this.loadShedder = loadShedder;
+    this.clientQuotas = clientQuotas;
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    Method method = resourceInfo.getResourceMethod();
+    LoadShed annotation = method == null ? null : method.getAnnotation(LoadShed.class);
+    if (annotation == null) {
+      return;
+    }
+    String endpoint = resourceInfo.getResourceClass().getSimpleName() + "." + method.getName();
+    ClientQuotas.Lease lease =
+        clientQuotas.isEnabled()
+            ? clientQuotas.acquire(
+                requestContext.getHeaderString(clientQuotas.getClientHeader()), annotation.value())
+            : null;
+    LoadShedder.Permit permit;
+    try {
+      permit = loadShedder.acquire(endpoint, annotation.value());
+    } catch (RuntimeException e) {
+      if (lease != null) {
+        lease.release();
+      }
+      throw e;
+    }
+    if (lease != null) {
+      requestContext.setProperty(LEASE_PROPERTY, lease);
+    }
+    if (permit != null) {
+      requestContext.setProperty(PERMIT_PROPERTY, permit);
+    }
+  }
+
+  @Override
+  public void filter(
+      ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+    Object permit = requestContext.getProperty(PERMIT_PROPERTY);
+    if (permit != null) {
+      requestContext.removeProperty(PERMIT_PROPERTY);
+      boolean dropped =
+          responseContext.getStatus() == Response.Status.SERVICE_UNAVAILABLE.getStatusCode();
+      ((LoadShedder.Permit) permit).release(dropped);
+    }
+    Object lease = requestContext.getProperty(LEASE_PROPERTY);
+    if (lease != null) {
+      requestContext.removeProperty(LEASE_PROPERTY);
+      ((ClientQuotas.Lease) lease).release();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.descope.units.overload;
+
+import java.util.Map;
+
+/** Point-in-time state of the {@link LoadShedder}. */
+public class LoadSheddingStats {
+
+  private final boolean enabled;
+  private final int limit;
+  private final int inFlight;
+  private final long noLoadLatencyMicros;
+  private final Map<String, Long> rejections;
+  private final Map<String, EndpointLoadStats> endpoints;
+
+  /**
+   * Constructs a LoadSheddingStats snapshot.
+   *
+   * @param enabled whether requests are shed
+   * @param limit the current concurrency limit
+   * @param inFlight the number of admitted requests in progress
+   * @param noLoadLatencyMicros the estimated latency of a request on an idle service
+   * @param rejections the number of rejected requests keyed by priority
+   * @param endpoints the load of each endpoint keyed by endpoint name
+   */
+  public LoadSheddingStats(
+      boolean enabled,
+      int limit,
+      int inFlight,
+      long noLoadLatencyMicros,
+      Map<String, Long> rejections,
+      Map<String, EndpointLoadStats> endpoints) {
+    this.enabled = enabled;
+    this.limit = limit;
+    this.inFlight = inFlight;
+    this.noLoadLatencyMicros = noLoadLatencyMicros;
+    this.rejections = rejections;
+    this.endpoints = endpoints;
+  }
+
+  /**
+   * Returns whether requests are shed.
+   *
+   * @return true if load shedding is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the current concurrency limit.
+   *
+   * @return the limit
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Returns the number of admitted requests in progress.
+   *
+   * @return the in-flight count
+   */
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Returns the estimated latency of a request on an idle service.
+   *
+   * @return the latency in microseconds
+   */
+  public long getNoLoadLatencyMicros() {
+    return noLoadLatencyMicros;
+  }
+
+  /**
+   * Returns the number of rejected requests by priority.
+   *
+   * @return the rejection counts keyed by priority
+   */
+  public Map<String, Long> getRejections() {
+    return rejections;
+  }
+
+  /**
+   * Returns the load of each endpoint.
+   *
+   * @return the endpoint statistics keyed by endpoint name
+   */
+  public Map<String, EndpointLoadStats> getEndpoints() {
+    return endpoints;
+  }
+}
@@ -0,0 +1,27 @@
+package com.descope.units.overload;
+
+import java.util.Locale;
+
+/**
+ * Admission classes for REST requests under load.
+ *
+ * <p>Each class may only fill part of the adaptive concurrency limit, so when the service is
+ * saturated bulk requests are shed first, then writes, and single-item reads last.
+ */
+public enum RequestPriority {
+  /** Single-item reads. May use the whole limit. */
+  READ,
+  /** Single-item creates, updates and deletes. */
+  WRITE,
+  /** Requests returning or touching many items, such as listings and searches. */
+  BULK;
+
+  /**
+   * Returns the lower-case key used for this priority in configuration and statistics.
+   *
+   * @return the configuration key
+   */
+  public String key() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,65 @@
+package com.descope.units.overload;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket refilled continuously at a fixed rate up to a burst size.
+ *
+ * <p>Callers pass the current time, so one clock read serves every bucket a request touches and
+ * tests can drive time directly.
+ */
+final class TokenBucket {
+
+  private final double ratePerNano;
+  private final double burst;
+
+  // Guarded by this
+  private double tokens;
+  private long refilledAtNanos;
+
+  TokenBucket(double ratePerSecond, double burst, long nowNanos) {
+    if (ratePerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("Token bucket needs a positive rate and a burst of 1+");
+    }
+    this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.burst = burst;
+    this.tokens = burst;
+    this.refilledAtNanos = nowNanos;
+  }
+
+  /**
+   * Takes tokens if enough are available.
+   *
+   * @param cost the tokens to take; may exceed the burst, in which case the bucket must be full
+   * @param nowNanos the current time
+   * @return 0 if the tokens were taken, otherwise the nanoseconds until they will be available
+   */
+  synchronized long tryTake(double cost, long nowNanos) {
+    refill(nowNanos);
+    double needed = Math.min(cost, burst);
+    if (tokens >= needed) {
+      tokens -= needed;
+      return 0;
+    }
+    return Math.max(1, (long) Math.ceil((needed - tokens) / ratePerNano));
+  }
+
+  /**
+   * Returns the tokens currently available.
+   *
+   * @param nowNanos the current time
+   * @return the available tokens
+   */
+  synchronized double available(long nowNanos) {
+    refill(nowNanos);
+    return tokens;
+  }
+
+  private void refill(long nowNanos) {
+    long elapsed = nowNanos - refilledAtNanos;
+    if (elapsed > 0) {
+      tokens = Math.min(burst, tokens + elapsed * ratePerNano);
+      refilledAtNanos = nowNanos;
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package com.descope.units.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter whose rate adapts with additive-increase/multiplicative-decrease.
+ *
+ * <p>Every successful call nudges the rate up so that it grows by {@code additiveIncrease} permits
+ * per second for each second of sustained success. A throttling signal cuts the rate by the {@code
+ * multiplicativeDecrease} factor, at most once per cooldown window so that a burst of throttles
+ * from requests already in flight counts as a single congestion event. The bucket holds at most one
+ * second of permits at the current rate.
+ */
+public class AdaptiveRateLimiter {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+  private final double minRate;
+  private final double maxRate;
+  private final double additiveIncrease;
+  private final double multiplicativeDecrease;
+  private final LongSupplier nanoClock;
+
+  private double rate;
+  private double tokens;
+  private long lastRefillNanos;
+  private long lastDecreaseNanos;
+  private long successes;
+  private long throttles;
+  private long rejections;
+
+  /**
+   * Constructs an AdaptiveRateLimiter.
+   *
+   * @param initialRate the starting rate in permits per second
+   * @param minRate the floor the rate never drops below
+   * @param maxRate the ceiling the rate never grows above
+   * @param additiveIncrease permits per second gained per second of sustained success
+   * @param multiplicativeDecrease the factor applied to the rate on throttling, in (0, 1)
+   */
+  public AdaptiveRateLimiter(
+      double initialRate,
+      double minRate,
+      double maxRate,
+      double additiveIncrease,
+      double multiplicativeDecrease) {
+    this(initialRate, minRate, maxRate, additiveIncrease, multiplicativeDecrease, System::nanoTime);
+  }
+
+  AdaptiveRateLimiter(
+      double initialRate,
+      double minRate,
+      double maxRate,
+      double additiveIncrease,
+      double multiplicativeDecrease,
+      LongSupplier nanoClock) {
+    if (minRate <= 0 || maxRate < minRate) {
+      throw new IllegalArgumentException("Rate bounds must satisfy 0 < minRate <= maxRate");
+    }
+    if (multiplicativeDecrease <= 0 || multiplicativeDecrease >= 1) {
+      throw new IllegalArgumentException("Multiplicative decrease must be between 0 and 1");
+    }
+    this.minRate = minRate;
+    this.maxRate = maxRate;
+    this.additiveIncrease = additiveIncrease;
+    this.multiplicativeDecrease = multiplicativeDecrease;
+    this.nanoClock = nanoClock;
+    this.rate = Math.max(minRate, Math.min(maxRate, initialRate));
+    this.tokens = capacity();
+    this.lastRefillNanos = nanoClock.getAsLong();
+    this.lastDecreaseNanos = lastRefillNanos - DECREASE_COOLDOWN_NANOS;
+  }
+
+  /**
+   * Reserves a permit if it becomes available within the maximum wait.
+   *
+   * <p>The caller must wait the returned number of nanoseconds before proceeding. Reservations
+   * queue fairly: each one pushes the next caller's wait further out.
+   *
+   * @param maxWaitNanos the longest the caller is prepared to wait
+   * @return the nanoseconds to wait, or -1 if the permit would not be available in time
+   */
+  public synchronized long reserve(long maxWaitNanos) {
+    refill();
+    if (tokens >= 1) {
+      tokens -= 1;
+      return 0;
+    }
+    long waitNanos = (long) Math.ceil((1 - tokens) / rate * NANOS_PER_SECOND);
+    if (waitNanos > maxWaitNanos) {
+      rejections++;
+      return -1;
+    }
+    tokens -= 1;
+    return waitNanos;
+  }
+
+  /** Records a successful call and additively increases the rate. */
+  public synchronized void onSuccess() {
+    successes++;
+    rate = Math.min(maxRate, rate + additiveIncrease / rate);
+  }
+
+  /** Records a throttled call and multiplicatively decreases the rate. */
+  public synchronized void onThrottle() {
+    throttles++;
+    long now = nanoClock.getAsLong();
+    if (now - lastDecreaseNanos < DECREASE_COOLDOWN_NANOS) {
+      return;
+    }
+    refill();
+    lastDecreaseNanos = now;
+    rate = Math.max(minRate, rate * multiplicativeDecrease);
+    // Drop any burst allowance accumulated at the old rate
+    tokens = Math.min(tokens, 0);
+  }
+
+  /**
+   * Returns how long until a permit would be available, accounting for queued reservations.
+   *
+   * @return the wait in seconds, or zero if a permit is available now
+   */
+  public synchronized double secondsUntilAvailable() {
+    refill();
+    return tokens >= 1 ? 0 : (1 - tokens) / rate;
+  }
+
+  /**
+   * Returns the current rate.
+   *
+   * @return the rate in permits per second
+   */
+  public synchronized double getRate() {
+    return rate;
+  }
+
+  /**
+   * Returns a snapshot of the limiter state.
+   *
+   * @return the limiter statistics
+   */
+  public synchronized RateLimiterStats stats() {
+    refill();
+    return new RateLimiterStats(rate, tokens, successes, throttles, rejections);
+  }
+
+  private double capacity() {
+    return Math.max(1, rate);
+  }
+
+  private void refill() {
+    long now = nanoClock.getAsLong();
+    long elapsed = now - lastRefillNanos;
+    if (elapsed > 0) {
+      tokens = Math.min(capacity(), tokens + rate * elapsed / NANOS_PER_SECOND);
+      lastRefillNanos = now;
+    }
+  }
+}
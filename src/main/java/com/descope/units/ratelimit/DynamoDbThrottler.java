@@ -0,0 +1,278 @@
+package com.descope.units.ratelimit;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.descope.units.deadline.Deadline;
+import com.descope.units.deadline.DeadlineContext;
+import com.descope.units.exception.CapacityExceededException;
+import com.descope.units.exception.DeadlineExceededException;
+
+import org.eclipse.microprofile.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.RequestLimitExceededException;
+
+/**
+ * Client-side admission control and retry policy for DynamoDB calls.
+ *
+ * <p>Each {@link OperationType} has its own {@link AdaptiveRateLimiter} and {@link RetryBudget}.
+ * Calls wait for a permit before they are sent; throttling responses shrink the rate, successes
+ * grow it again. Throttled and transient failures are retried with full-jitter exponential backoff,
+ * but only while the retry budget allows, which prevents the retry storms that amplify throttling.
+ * When a call cannot be admitted in time or runs out of retries on throttling, a {@link
+ * CapacityExceededException} is raised so the client is told to back off.
+ *
+ * <p>Calls made for a request with a {@link Deadline} never wait or back off past it. When the time
+ * runs out, a {@link DeadlineExceededException} is raised instead of trying again.
+ *
+ * <p>The SDK's own retries must be disabled for calls routed through this class; otherwise both
+ * layers retry and the budget is meaningless.
+ */
+@ApplicationScoped
+public class DynamoDbThrottler {
+
+  private static final Logger logger = LoggerFactory.getLogger(DynamoDbThrottler.class);
+
+  private static final String PREFIX = "dynamodb.rate-limit.";
+
+  private final boolean enabled;
+  private final Map<OperationType, AdaptiveRateLimiter> limiters;
+  private final Map<OperationType, RetryBudget> budgets;
+  private final long maxWaitNanos;
+  private final int maxAttempts;
+  private final long baseBackoffMillis;
+  private final long maxBackoffMillis;
+
+  /**
+   * Constructs a DynamoDbThrottler from {@code dynamodb.rate-limit.*} configuration.
+   *
+   * @param config the application configuration
+   */
+  @Inject
+  public DynamoDbThrottler(Config config) {
+    this(
+        value(config, "enabled", Boolean.class, true),
+        limitersFrom(config),
+        budgetsFrom(config),
+        TimeUnit.MILLISECONDS.toNanos(value(config, "max-wait-ms", Long.class, 1000L)),
+        value(config, "max-attempts", Integer.class, 3),
+        value(config, "base-backoff-ms", Long.class, 25L),
+        value(config, "max-backoff-ms", Long.class, 1000L));
+  }
+
+  DynamoDbThrottler(
+      boolean enabled,
+      Map<OperationType, AdaptiveRateLimiter> limiters,
+      Map<OperationType, RetryBudget> budgets,
+      long maxWaitNanos,
+      int maxAttempts,
+      long baseBackoffMillis,
+      long maxBackoffMillis) {
+    this.enabled = enabled;
+    this.limiters = limiters;
+    this.budgets = budgets;
+    this.maxWaitNanos = maxWaitNanos;
+    this.maxAttempts = maxAttempts;
+    this.baseBackoffMillis = baseBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    logger.info(
+        "DynamoDB rate limiting {} (max attempts: {})",
+        enabled ? "enabled" : "disabled",
+        maxAttempts);
+  }
+
+  /**
+   * Returns whether admission control and budgeted retries are active.
+   *
+   * @return true if calls are rate limited
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Executes a DynamoDB call under the limiter and retry budget for its operation type.
+   *
+   * @param type the operation type
+   * @param call the call to execute
+   * @param <T> the result type
+   * @return the call result
+   * @throws CapacityExceededException if the call could not be admitted or stayed throttled
+   * @throws DeadlineExceededException if the calling request's deadline passed first
+   */
+  public <T> T execute(OperationType type, Supplier<T> call) {
+    if (!enabled) {
+      return call.get();
+    }
+    AdaptiveRateLimiter limiter = limiters.get(type);
+    RetryBudget budget = budgets.get(type);
+    budget.onRequest();
+
+    Deadline deadline = DeadlineContext.current();
+
+    for (int attempt = 1; ; attempt++) {
+      admit(type, limiter, deadline);
+      try {
+        T result = call.get();
+        limiter.onSuccess();
+        return result;
+      } catch (SdkException e) {
+        boolean throttled = isThrottling(e);
+        if (throttled) {
+          limiter.onThrottle();
+        }
+        if (deadline != null && isTimeout(e)) {
+          throw new DeadlineExceededException(e);
+        }
+        if (!throttled && !isTransient(e)) {
+          throw e;
+        }
+        long backoff = backoffMillis(attempt);
+        boolean outOfTime =
+            deadline != null && deadline.remainingNanos() <= TimeUnit.MILLISECONDS.toNanos(backoff);
+        if (attempt >= maxAttempts || outOfTime || !budget.tryRetry()) {
+          logger.warn(
+              "Giving up on {} call after {} attempts: {}", type.key(), attempt, e.getMessage());
+          if (outOfTime) {
+            throw new DeadlineExceededException(e);
+          }
+          if (throttled) {
+            throw new CapacityExceededException(
+                "The data store is throttling requests. Please retry later.",
+                retryAfterSeconds(limiter),
+                e);
+          }
+          throw e;
+        }
+        sleep(backoff);
+      }
+    }
+  }
+
+  /**
+   * Returns the state of every limiter and its retry budget.
+   *
+   * @return the statistics keyed by operation type key
+   */
+  public Map<String, RateLimiterStats> stats() {
+    Map<String, RateLimiterStats> stats = new LinkedHashMap<>();
+    for (OperationType type : OperationType.values()) {
+      stats.put(type.key(), limiters.get(type).stats().withRetries(budgets.get(type)));
+    }
+    return stats;
+  }
+
+  /**
+   * Returns whether an SDK error signals throttling.
+   *
+   * @param e the SDK error
+   * @return true for provisioned-throughput, request-limit and other throttling errors
+   */
+  public static boolean isThrottling(SdkException e) {
+    return e instanceof ProvisionedThroughputExceededException
+        || e instanceof RequestLimitExceededException
+        || (e instanceof SdkServiceException && ((SdkServiceException) e).isThrottlingException());
+  }
+
+  private static boolean isTransient(SdkException e) {
+    if (e instanceof SdkServiceException) {
+      return ((SdkServiceException) e).statusCode() >= 500;
+    }
+    return e.retryable() || e.getCause() instanceof IOException;
+  }
+
+  private static boolean isTimeout(SdkException e) {
+    return e instanceof ApiCallTimeoutException || e instanceof ApiCallAttemptTimeoutException;
+  }
+
+  private void admit(OperationType type, AdaptiveRateLimiter limiter, Deadline deadline) {
+    long maxWait = maxWaitNanos;
+    if (deadline != null) {
+      long remaining = deadline.remainingNanos();
+      if (remaining <= 0) {
+        throw new DeadlineExceededException();
+      }
+      maxWait = Math.min(maxWait, remaining);
+    }
+    long waitNanos = limiter.reserve(maxWait);
+    if (waitNanos < 0) {
+      throw new CapacityExceededException(
+          String.format("Too many %s requests to the data store. Please retry later.", type.key()),
+          retryAfterSeconds(limiter));
+    }
+    if (waitNanos > 0) {
+      sleep(TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+    }
+  }
+
+  private long backoffMillis(int attempt) {
+    long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+    return ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+
+  private static long retryAfterSeconds(AdaptiveRateLimiter limiter) {
+    return Math.max(1, (long) Math.ceil(limiter.secondsUntilAvailable()));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for DynamoDB capacity", e);
+    }
+  }
+
+  private static Map<OperationType, AdaptiveRateLimiter> limitersFrom(Config config) {
+    double minRate = value(config, "min-rate", Double.class, 1.0);
+    double increase = value(config, "additive-increase", Double.class, 10.0);
+    double decrease = value(config, "multiplicative-decrease", Double.class, 0.5);
+    Map<OperationType, AdaptiveRateLimiter> limiters = new EnumMap<>(OperationType.class);
+    for (OperationType type : OperationType.values()) {
+      double initial = value(config, type.key() + ".initial-rate", Double.class, defaultRate(type));
+      double max = value(config, type.key() + ".max-rate", Double.class, defaultRate(type) * 10);
+      limiters.put(type, new AdaptiveRateLimiter(initial, minRate, max, increase, decrease));
+    }
+    return limiters;
+  }
+
+  private static Map<OperationType, RetryBudget> budgetsFrom(Config config) {
+    double ratio = value(config, "retry-budget-ratio", Double.class, 0.1);
+    double size = value(config, "retry-budget-size", Double.class, 20.0);
+    Map<OperationType, RetryBudget> budgets = new EnumMap<>(OperationType.class);
+    for (OperationType type : OperationType.values()) {
+      budgets.put(type, new RetryBudget(ratio, size));
+    }
+    return budgets;
+  }
+
+  private static double defaultRate(OperationType type) {
+    switch (type) {
+      case READ:
+        return 1000;
+      case WRITE:
+        return 500;
+      default:
+        return 50;
+    }
+  }
+
+  private static <T> T value(Config config, String name, Class<T> type, T defaultValue) {
+    return config.getOptionalValue(PREFIX + name, type).orElse(defaultValue);
+  }
+}
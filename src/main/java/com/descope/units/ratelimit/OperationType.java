@@ -0,0 +1,27 @@
+package com.descope.units.ratelimit;
+
+import java.util.Locale;
+
+/**
+ * Classes of data store operations that are rate limited independently.
+ *
+ * <p>Reads and writes draw on separate DynamoDB capacity, and batch operations such as scans
+ * consume far more capacity per call than single-item requests, so each gets its own limiter.
+ */
+public enum OperationType {
+  /** Single-item reads and queries. */
+  READ,
+  /** Single-item puts, updates and deletes. */
+  WRITE,
+  /** Scans and batch reads or writes. */
+  BATCH;
+
+  /**
+   * Returns the lower-case key used for this type in configuration and metrics.
+   *
+   * @return the configuration key
+   */
+  public String key() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,142 @@
+package com.descope.units.ratelimit;
+
+/**
+ * Point-in-time state of an {@link AdaptiveRateLimiter} and its {@link RetryBudget}.
+ *
+ * <p>Retry fields are zero until the stats are combined with a budget via {@link
+ * #withRetries(RetryBudget)}.
+ */
+public class RateLimiterStats {
+
+  private final double rate;
+  private final double availableTokens;
+  private final long successes;
+  private final long throttles;
+  private final long rejections;
+  private final double retryBudget;
+  private final long retries;
+  private final long retriesDenied;
+
+  /**
+   * Constructs limiter statistics without retry information.
+   *
+   * @param rate the current rate in permits per second
+   * @param availableTokens the tokens in the bucket; negative when callers are queued
+   * @param successes the number of successful calls
+   * @param throttles the number of throttled calls
+   * @param rejections the number of calls rejected because the wait would be too long
+   */
+  public RateLimiterStats(
+      double rate, double availableTokens, long successes, long throttles, long rejections) {
+    this(rate, availableTokens, successes, throttles, rejections, 0, 0, 0);
+  }
+
+  private RateLimiterStats(
+      double rate,
+      double availableTokens,
+      long successes,
+      long throttles,
+      long rejections,
+      double retryBudget,
+      long retries,
+      long retriesDenied) {
+    this.rate = rate;
+    this.availableTokens = availableTokens;
+    this.successes = successes;
+    this.throttles = throttles;
+    this.rejections = rejections;
+    this.retryBudget = retryBudget;
+    this.retries = retries;
+    this.retriesDenied = retriesDenied;
+  }
+
+  /**
+   * Returns a copy of these statistics including the state of the retry budget.
+   *
+   * @param budget the retry budget paired with the limiter
+   * @return the combined statistics
+   */
+  public RateLimiterStats withRetries(RetryBudget budget) {
+    return new RateLimiterStats(
+        rate,
+        availableTokens,
+        successes,
+        throttles,
+        rejections,
+        budget.getAvailable(),
+        budget.getRetries(),
+        budget.getExhausted());
+  }
+
+  /**
+   * Returns the current rate.
+   *
+   * @return the rate in permits per second
+   */
+  public double getRate() {
+    return rate;
+  }
+
+  /**
+   * Returns the tokens in the bucket.
+   *
+   * @return the available tokens; negative when callers are queued
+   */
+  public double getAvailableTokens() {
+    return availableTokens;
+  }
+
+  /**
+   * Returns the number of successful calls.
+   *
+   * @return the success count
+   */
+  public long getSuccesses() {
+    return successes;
+  }
+
+  /**
+   * Returns the number of throttled calls.
+   *
+   * @return the throttle count
+   */
+  public long getThrottles() {
+    return throttles;
+  }
+
+  /**
+   * Returns the number of calls rejected because the wait would be too long.
+   *
+   * @return the rejection count
+   */
+  public long getRejections() {
+    return rejections;
+  }
+
+  /**
+   * Returns the retries currently available in the budget.
+   *
+   * @return the retry budget balance
+   */
+  public double getRetryBudget() {
+    return retryBudget;
+  }
+
+  /**
+   * Returns the number of retries performed.
+   *
+   * @return the retry count
+   */
+  public long getRetries() {
+    return retries;
+  }
+
+  /**
+   * Returns the number of retries denied because the budget was empty.
+   *
+   * @return the denied retry count
+   */
+  public long getRetriesDenied() {
+    return retriesDenied;
+  }
+}
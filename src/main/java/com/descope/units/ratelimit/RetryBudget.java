@@ -0,0 +1,81 @@
+package com.descope.units.ratelimit;
+
+/**
+ * Caps retries to a fraction of first attempts.
+ *
+ * <p>Each first attempt deposits {@code ratio} tokens and each retry withdraws one, so over time
+ * retries can add at most {@code ratio} extra load. The balance is capped so a long quiet period
+ * cannot bank an unbounded burst, and starts full so that a freshly started instance can still
+ * retry.
+ */
+public class RetryBudget {
+
+  private final double ratio;
+  private final double maxTokens;
+
+  private double tokens;
+  private long retries;
+  private long exhausted;
+
+  /**
+   * Constructs a RetryBudget.
+   *
+   * @param ratio tokens deposited per first attempt, e.g. 0.1 to allow 10% retries
+   * @param maxTokens the maximum balance
+   */
+  public RetryBudget(double ratio, double maxTokens) {
+    if (ratio < 0 || maxTokens < 0) {
+      throw new IllegalArgumentException("Retry budget ratio and size must not be negative");
+    }
+    this.ratio = ratio;
+    this.maxTokens = maxTokens;
+    this.tokens = maxTokens;
+  }
+
+  /** Records a first attempt, depositing into the budget. */
+  public synchronized void onRequest() {
+    tokens = Math.min(maxTokens, tokens + ratio);
+  }
+
+  /**
+   * Withdraws one retry from the budget.
+   *
+   * @return true if the retry is allowed
+   */
+  public synchronized boolean tryRetry() {
+    if (tokens >= 1) {
+      tokens -= 1;
+      retries++;
+      return true;
+    }
+    exhausted++;
+    return false;
+  }
+
+  /**
+   * Returns the current balance.
+   *
+   * @return the number of retries currently available
+   */
+  public synchronized double getAvailable() {
+    return tokens;
+  }
+
+  /**
+   * Returns the number of retries allowed so far.
+   *
+   * @return the retry count
+   */
+  public synchronized long getRetries() {
+    return retries;
+  }
+
+  /**
+   * Returns the number of retries denied because the budget was empty.
+   *
+   * @return the denied retry count
+   */
+  public synchronized long getExhausted() {
+    return exhausted;
+  }
+}
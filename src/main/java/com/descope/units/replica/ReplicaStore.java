@@ -0,0 +1,172 @@
+package com.descope.units.replica;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
+
+/**
+ * Every unit of the table, by id and by name.
+ *
+ * <p>Names are indexed as the single id that carries them or, for the few names shared by several
+ * units, a sorted copy-on-write array of ids, so a table of mostly distinct names costs one map
+ * entry per unit in each map. All changes to a unit go through {@link ConcurrentHashMap#compute} on
+ * its id, which keeps both maps in step without a global lock.
+ *
+ * <p>While a store is being loaded, live changes record the ids they touch, and scanned units for
+ * those ids are dropped: a scan that read a unit before a change can neither roll the change back
+ * nor resurrect a deleted unit.
+ */
+final class ReplicaStore {
+
+  private final Map<String, String> names = new ConcurrentHashMap<>();
+  private final Map<String, Object> idsByName = new ConcurrentHashMap<>();
+
+  /** Ids changed while loading; null once loaded. */
+  private volatile Set<String> touchedDuringLoad;
+
+  static ReplicaStore loading() {
+    ReplicaStore store = new ReplicaStore();
+    store.touchedDuringLoad = ConcurrentHashMap.newKeySet();
+    return store;
+  }
+
+  /** Ends the load; scanned units are no longer accepted. */
+  void loaded() {
+    touchedDuringLoad = null;
+  }
+
+  int size() {
+    return names.size();
+  }
+
+  Unit get(String id) {
+    String name = names.get(id);
+    return name == null ? null : new Unit(id, name);
+  }
+
+  /**
+   * Returns the units with a name, in id order, after the cursor.
+   *
+   * @param name the exact name
+   * @param limit the most units returned
+   * @param cursor the last id of the previous page, or null for the first page
+   * @return the page; its cursor is the last id returned when more ids follow
+   */
+  UnitPage findByName(String name, int limit, String cursor) {
+    String[] ids = ids(idsByName.get(name));
+    int start = 0;
+    if (cursor != null) {
+      int position = Arrays.binarySearch(ids, cursor);
+      start = position >= 0 ? position + 1 : -position - 1;
+    }
+    int end = Math.min(ids.length, start + limit);
+    List<Unit> units = new ArrayList<>(Math.max(0, end - start));
+    for (int i = start; i < end; i++) {
+      // A unit renamed since the ids were read no longer belongs on the page
+      if (name.equals(names.get(ids[i]))) {
+        units.add(new Unit(ids[i], name));
+      }
+    }
+    return new UnitPage(units, end < ids.length ? ids[end - 1] : null);
+  }
+
+  /** Applies a live create or update. */
+  void put(String id, String name) {
+    names.compute(
+        id,
+        (key, previous) -> {
+          Set<String> touched = touchedDuringLoad;
+          if (touched != null) {
+            touched.add(id);
+          }
+          return replace(id, previous, name);
+        });
+  }
+
+  /** Applies a live delete. */
+  void remove(String id) {
+    names.compute(
+        id,
+        (key, previous) -> {
+          Set<String> touched = touchedDuringLoad;
+          if (touched != null) {
+            touched.add(id);
+          }
+          if (previous != null) {
+            unindex(previous, id);
+          }
+          return null;
+        });
+  }
+
+  /** Adds a unit read by the load, unless a live change touched it first. */
+  void putScanned(String id, String name) {
+    names.compute(
+        id,
+        (key, previous) -> {
+          Set<String> touched = touchedDuringLoad;
+          if (touched == null || touched.contains(id)) {
+            return previous;
+          }
+          return replace(id, previous, name);
+        });
+  }
+
+  private String replace(String id, String previous, String name) {
+    if (name.equals(previous)) {
+      return previous;
+    }
+    if (previous != null) {
+      unindex(previous, id);
+    }
+    idsByName.compute(name, (key, ids) -> ids == null ? id : with(ids(ids), id));
+    return name;
+  }
+
+  private void unindex(String name, String id) {
+    idsByName.computeIfPresent(name, (key, ids) -> without(ids(ids), id));
+  }
+
+  private static String[] ids(Object entry) {
+    if (entry == null) {
+      return new String[0];
+    }
+    return entry instanceof String ? new String[] {(String) entry} : (String[]) entry;
+  }
+
+  private static Object with(String[] ids, String id) {
+    int position = Arrays.binarySearch(ids, id);
+    if (position >= 0) {
+      return ids.length == 1 ? ids[0] : ids;
+    }
+    int insertAt = -position - 1;
+    String[] grown = new String[ids.length + 1];
+    System.arraycopy(ids, 0, grown, 0, insertAt);
+    grown[insertAt] = id;
+    System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+    return grown;
+  }
+
+  private static Object without(String[] ids, String id) {
+    int position = Arrays.binarySearch(ids, id);
+    if (position < 0) {
+      return ids.length == 1 ? ids[0] : ids;
+    }
+    if (ids.length == 1) {
+      return null;
+    }
+    if (ids.length == 2) {
+      return ids[1 - position];
+    }
+    String[] shrunk = new String[ids.length - 1];
+    System.arraycopy(ids, 0, shrunk, 0, position);
+    System.arraycopy(ids, position + 1, shrunk, position, ids.length - position - 1);
+    return shrunk;
+  }
+}
@@ -0,0 +1,342 @@
+package com.descope.units.replica;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.descope.units.changes.ChangeType;
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
+import com.descope.units.search.NameSearchIndex;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A full copy of the units table held in memory, for tables small enough to fit and read far more
+ * than written.
+ *
+ * <p>With {@code units.replica.enabled=true}, {@link UnitReplicaLoader} fills the replica from a
+ * parallel scan at startup, and the table's DynamoDB stream keeps it current with writes made by
+ * any instance. Writes through this instance are applied as soon as DynamoDB accepts them. Changes
+ * read from the stream also update the {@link NameSearchIndex}, so searches see other instances'
+ * writes too.
+ *
+ * <p>The replica answers reads by id and by name only while it is {@link #isServing serving}: once
+ * loaded, and no more than {@code units.replica.max-lag-ms} behind the stream. The lag is the time
+ * since the start of the last stream poll that read every shard to its end; while it is exceeded,
+ * reads go to DynamoDB. If the stream position is lost, changes may have been missed, so the
+ * replica stops serving until it has been loaded again.
+ */
+@ApplicationScoped
+public class UnitReplica {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnitReplica.class);
+
+  private final NameSearchIndex nameSearchIndex;
+  private final boolean enabled;
+  private final long maxLagMillis;
+  private final LongSupplier clock;
+
+  /** The store reads are served from; null until the first load completes. */
+  private volatile ReplicaStore live;
+
+  /** The store being loaded; null between loads. */
+  private volatile ReplicaStore loading;
+
+  private volatile boolean consistent;
+  private volatile boolean loadNeeded;
+  private volatile long loadStartedAt;
+  private volatile long lossesAtLoadStart;
+  private volatile long caughtUpAt;
+  private volatile long lastLoadedAt;
+  private volatile long lastLoadMillis;
+  private volatile boolean missingImagesReported;
+
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder loadFailures = new LongAdder();
+  private final LongAdder replicatedChanges = new LongAdder();
+  private final LongAdder positionLosses = new LongAdder();
+  private final LongAdder servedReads = new LongAdder();
+
+  /**
+   * Constructs a UnitReplica from configuration.
+   *
+   * @param nameSearchIndex the search index updated with changes read from the stream
+   * @param enabled whether the table is replicated in memory
+   * @param maxLagMillis how far behind the stream the replica may be and still serve reads
+   */
+  @Inject
+  public UnitReplica(
+      NameSearchIndex nameSearchIndex,
+      @ConfigProperty(name = "units.replica.enabled", defaultValue = "false") boolean enabled,
+      @ConfigProperty(name = "units.replica.max-lag-ms", defaultValue = "10000")
+          long maxLagMillis) {
+    this(nameSearchIndex, enabled, maxLagMillis, System::currentTimeMillis);
+  }
+
+  UnitReplica(
+      NameSearchIndex nameSearchIndex, boolean enabled, long maxLagMillis, LongSupplier clock) {
+    if (maxLagMillis <= 0) {
+      throw new IllegalArgumentException("Replica max lag must be positive");
+    }
+    this.nameSearchIndex = nameSearchIndex;
+    this.enabled = enabled;
+    this.maxLagMillis = maxLagMillis;
+    this.clock = clock;
+    this.loadNeeded = enabled;
+  }
+
+  /**
+   * Returns whether the table is replicated in memory.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns whether reads may be served from the replica right now.
+   *
+   * @return true if the replica is loaded, has missed no changes, and has read the stream within
+   *     the allowed lag
+   */
+  public boolean isServing() {
+    if (!enabled || live == null || !consistent) {
+      return false;
+    }
+    // A stream never read leaves writes from other instances unseen for as long as it lasts
+    long lag = lagMillis();
+    return lag >= 0 && lag <= maxLagMillis;
+  }
+
+  /**
+   * Returns a unit from the replica; only meaningful while {@link #isServing}.
+   *
+   * @param id the unit id
+   * @return the unit, or null if it does not exist
+   */
+  public Unit find(String id) {
+    servedReads.increment();
+    return live.get(id);
+  }
+
+  /**
+   * Returns a page of the units with a name from the replica; only meaningful while {@link
+   * #isServing}.
+   *
+   * <p>Units are returned in id order and the cursor is the last id returned, so a cursor from a
+   * DynamoDB page is a position in the same order; a listing that switches between the replica and
+   * DynamoDB part-way may repeat or skip units.
+   *
+   * @param name the exact unit name
+   * @param limit the maximum number of units to return
+   * @param cursor the cursor returned by the previous page, or null for the first page
+   * @return a page of matching units
+   */
+  public UnitPage findByName(String name, int limit, String cursor) {
+    servedReads.increment();
+    return live.findByName(name, limit, cursor);
+  }
+
+  /**
+   * Applies a create or update made through this instance.
+   *
+   * @param unit the unit as written
+   */
+  public void put(Unit unit) {
+    if (!enabled) {
+      return;
+    }
+    forEachStore(store -> store.put(unit.getId(), unit.getName()));
+  }
+
+  /**
+   * Applies a delete made through this instance.
+   *
+   * @param id the unit id
+   */
+  public void remove(String id) {
+    if (!enabled) {
+      return;
+    }
+    forEachStore(store -> store.remove(id));
+  }
+
+  /**
+   * Applies a change read from the DynamoDB stream, and passes it on to the search index.
+   *
+   * @param type the kind of change
+   * @param id the unit id
+   * @param name the unit name after the change, or null for a delete or when the stream record has
+   *     no new image
+   */
+  public void applyReplicated(ChangeType type, String id, String name) {
+    if (!enabled) {
+      return;
+    }
+    if (type != ChangeType.DELETED && name == null) {
+      // A stream without new images cannot keep the replica current
+      consistent = false;
+      if (!missingImagesReported) {
+        missingImagesReported = true;
+        logger.error(
+            "DynamoDB stream records carry no new image; set the stream view type to NEW_IMAGE"
+                + " or NEW_AND_OLD_IMAGES to serve reads from the replica");
+      }
+      return;
+    }
+    replicatedChanges.increment();
+    if (type == ChangeType.DELETED) {
+      forEachStore(store -> store.remove(id));
+      nameSearchIndex.remove(id);
+    } else {
+      forEachStore(store -> store.put(id, name));
+      nameSearchIndex.upsert(new Unit(id, name));
+    }
+  }
+
+  /**
+   * Records a stream poll that read every shard to its end.
+   *
+   * @param pollStartedAt when the poll started, in epoch milliseconds
+   */
+  public void streamCaughtUp(long pollStartedAt) {
+    synchronized (this) {
+      if (pollStartedAt > caughtUpAt) {
+        caughtUpAt = pollStartedAt;
+      }
+      notifyAll();
+    }
+  }
+
+  /** Records that the stream position was lost, so changes may have been missed. */
+  public void streamPositionLost() {
+    if (!enabled) {
+      return;
+    }
+    positionLosses.increment();
+    consistent = false;
+    loadNeeded = true;
+    logger.warn("Unit replica may have missed changes; serving from DynamoDB until reloaded");
+  }
+
+  /**
+   * Returns how far the replica is behind the stream.
+   *
+   * @return the lag in milliseconds, or -1 if the stream has not been read yet
+   */
+  public long lagMillis() {
+    long caughtUp = caughtUpAt;
+    return caughtUp == 0 ? -1 : Math.max(0, clock.getAsLong() - caughtUp);
+  }
+
+  /**
+   * Returns the size, lag and load history of the replica.
+   *
+   * @return the replica statistics
+   */
+  public UnitReplicaStats stats() {
+    ReplicaStore store = live;
+    return new UnitReplicaStats(
+        enabled,
+        isServing(),
+        store == null ? 0 : store.size(),
+        lagMillis(),
+        maxLagMillis,
+        lastLoadedAt,
+        lastLoadMillis,
+        loads.sum(),
+        loadFailures.sum(),
+        replicatedChanges.sum(),
+        positionLosses.sum(),
+        servedReads.sum());
+  }
+
+  /** Returns whether the replica must be loaded, at startup or after the stream was lost. */
+  boolean isLoadNeeded() {
+    return loadNeeded;
+  }
+
+  /** Starts a load into a new store; live changes reach both stores until it completes. */
+  void beginLoad() {
+    loadNeeded = false;
+    lossesAtLoadStart = positionLosses.sum();
+    loadStartedAt = clock.getAsLong();
+    loading = ReplicaStore.loading();
+  }
+
+  /**
+   * Waits until the stream has been read from a poll started after the load began, so that every
+   * change the scan might miss is still to come from the stream.
+   *
+   * @param timeoutMillis the longest time to wait
+   * @return true if the stream was read in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  boolean awaitStream(long timeoutMillis) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    synchronized (this) {
+      while (caughtUpAt < loadStartedAt) {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+          return false;
+        }
+        wait(remaining);
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Adds a unit read by the load.
+   *
+   * @param unit the scanned unit
+   */
+  void loadScanned(Unit unit) {
+    ReplicaStore store = loading;
+    if (store != null) {
+      store.putScanned(unit.getId(), unit.getName());
+    }
+  }
+
+  /**
+   * Finishes a load, serving the new store if it succeeded.
+   *
+   * @param successful whether every unit was read
+   */
+  void completeLoad(boolean successful) {
+    ReplicaStore store = loading;
+    loading = null;
+    if (!successful || store == null) {
+      loadFailures.increment();
+      loadNeeded = true;
+      return;
+    }
+    store.loaded();
+    live = store;
+    // A stream lost during the load may have taken changes the scan had already passed
+    consistent = !missingImagesReported && positionLosses.sum() == lossesAtLoadStart;
+    lastLoadedAt = clock.getAsLong();
+    lastLoadMillis = lastLoadedAt - loadStartedAt;
+    loads.increment();
+    logger.info("Loaded {} units into the replica in {} ms", store.size(), lastLoadMillis);
+  }
+
+  private void forEachStore(Consumer<ReplicaStore> change) {
+    ReplicaStore current = live;
+    if (current != null) {
+      change.accept(current);
+    }
+    ReplicaStore next = loading;
+    if (next != null) {
+      change.accept(next);
+    }
+  }
+}
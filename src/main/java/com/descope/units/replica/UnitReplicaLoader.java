@@ -0,0 +1,113 @@
+package com.descope.units.replica;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import com.descope.units.repository.UnitRepository;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the {@link UnitReplica} from a parallel table scan, at startup and again whenever it may
+ * have missed changes.
+ *
+ * <p>Each load first waits for the DynamoDB stream to be read, so every change the scan might miss
+ * is still to come from the stream; changes that arrive during the scan take precedence over the
+ * scanned values. Snapshots are not used: the stream is followed from its latest record, so the
+ * changes between a snapshot and startup would be lost. A failed load is retried after {@code
+ * units.replica.retry-seconds}.
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = "units.repository.type", stringValue = "log", enableIfMissing = true)
+public class UnitReplicaLoader {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnitReplicaLoader.class);
+
+  private final UnitReplica replica;
+  private final UnitRepository unitRepository;
+  private final int scanSegments;
+  private final long streamWaitMillis;
+  private final long retrySeconds;
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * Constructs a UnitReplicaLoader.
+   *
+   * @param replica the replica to load
+   * @param unitRepository the repository to scan
+   * @param scanSegments the number of parallel scan segments
+   * @param streamWaitSeconds how long a load waits for the DynamoDB stream before scanning anyway
+   * @param retrySeconds the delay between checks for a load that failed or is needed again
+   */
+  @Inject
+  public UnitReplicaLoader(
+      UnitReplica replica,
+      UnitRepository unitRepository,
+      @ConfigProperty(name = "units.replica.scan-segments", defaultValue = "4") int scanSegments,
+      @ConfigProperty(name = "units.replica.stream-wait-seconds", defaultValue = "30")
+          long streamWaitSeconds,
+      @ConfigProperty(name = "units.replica.retry-seconds", defaultValue = "30")
+          long retrySeconds) {
+    this.replica = replica;
+    this.unitRepository = unitRepository;
+    this.scanSegments = scanSegments;
+    this.streamWaitMillis = TimeUnit.SECONDS.toMillis(streamWaitSeconds);
+    this.retrySeconds = retrySeconds;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!replica.isEnabled()) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "unit-replica-loader");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(this::loadIfNeeded, 0, retrySeconds, TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /** Loads the replica if it has not been loaded or may have missed changes. */
+  void loadIfNeeded() {
+    if (!replica.isLoadNeeded()) {
+      return;
+    }
+    replica.beginLoad();
+    try {
+      if (!replica.awaitStream(streamWaitMillis)) {
+        logger.warn(
+            "DynamoDB stream not read within {} ms; the replica will not serve until it is",
+            streamWaitMillis);
+      }
+      logger.info("Loading unit replica with {} scan segments", scanSegments);
+      unitRepository.scanAll(scanSegments, replica::loadScanned);
+      replica.completeLoad(true);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      replica.completeLoad(false);
+    } catch (RuntimeException e) {
+      logger.warn("Failed to load unit replica; retrying in {} seconds", retrySeconds, e);
+      replica.completeLoad(false);
+    }
+  }
+}
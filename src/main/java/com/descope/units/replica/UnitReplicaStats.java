@@ -0,0 +1,169 @@
+package com.descope.units.replica;
+
+/** Point-in-time state of the in-memory unit replica on this instance. */
+public class UnitReplicaStats {
+
+  private final boolean enabled;
+  private final boolean serving;
+  private final int units;
+  private final long lagMillis;
+  private final long maxLagMillis;
+  private final long lastLoadedAt;
+  private final long lastLoadMillis;
+  private final long loads;
+  private final long loadFailures;
+  private final long replicatedChanges;
+  private final long positionLosses;
+  private final long servedReads;
+
+  /**
+   * Constructs a UnitReplicaStats snapshot.
+   *
+   * @param enabled whether the table is replicated in memory
+   * @param serving whether reads are served from the replica right now
+   * @param units the number of units in the replica
+   * @param lagMillis how far the replica is behind the stream, or -1 before the stream is read
+   * @param maxLagMillis the lag beyond which reads go to DynamoDB
+   * @param lastLoadedAt when the last load completed
+   * @param lastLoadMillis how long the last load took
+   * @param loads the number of completed loads
+   * @param loadFailures the number of loads that failed
+   * @param replicatedChanges the changes applied from the DynamoDB stream
+   * @param positionLosses the times the stream position was lost
+   * @param servedReads the reads served from the replica
+   */
+  public UnitReplicaStats(
+      boolean enabled,
+      boolean serving,
+      int units,
+      long lagMillis,
+      long maxLagMillis,
+      long lastLoadedAt,
+      long lastLoadMillis,
+      long loads,
+      long loadFailures,
+      long replicatedChanges,
+      long positionLosses,
+      long servedReads) {
+    this.enabled = enabled;
+    this.serving = serving;
+    this.units = units;
+    this.lagMillis = lagMillis;
+    this.maxLagMillis = maxLagMillis;
+    this.lastLoadedAt = lastLoadedAt;
+    this.lastLoadMillis = lastLoadMillis;
+    this.loads = loads;
+    this.loadFailures = loadFailures;
+    this.replicatedChanges = replicatedChanges;
+    this.positionLosses = positionLosses;
+    this.servedReads = servedReads;
+  }
+
+  /**
+   * Returns whether the table is replicated in memory.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns whether reads are served from the replica right now.
+   *
+   * @return true if serving
+   */
+  public boolean isServing() {
+    return serving;
+  }
+
+  /**
+   * Returns the number of units in the replica.
+   *
+   * @return the unit count
+   */
+  public int getUnits() {
+    return units;
+  }
+
+  /**
+   * Returns how far the replica is behind the DynamoDB stream.
+   *
+   * @return the lag in milliseconds, or -1 before the stream is read
+   */
+  public long getLagMillis() {
+    return lagMillis;
+  }
+
+  /**
+   * Returns the lag beyond which reads go to DynamoDB.
+   *
+   * @return the maximum lag in milliseconds
+   */
+  public long getMaxLagMillis() {
+    return maxLagMillis;
+  }
+
+  /**
+   * Returns when the last load completed.
+   *
+   * @return epoch milliseconds, or zero before the first load
+   */
+  public long getLastLoadedAt() {
+    return lastLoadedAt;
+  }
+
+  /**
+   * Returns how long the last load took.
+   *
+   * @return the duration in milliseconds
+   */
+  public long getLastLoadMillis() {
+    return lastLoadMillis;
+  }
+
+  /**
+   * Returns the number of completed loads.
+   *
+   * @return the load count
+   */
+  public long getLoads() {
+    return loads;
+  }
+
+  /**
+   * Returns the number of loads that failed.
+   *
+   * @return the failure count
+   */
+  public long getLoadFailures() {
+    return loadFailures;
+  }
+
+  /**
+   * Returns the number of changes applied from the DynamoDB stream.
+   *
+   * @return the change count
+   */
+  public long getReplicatedChanges() {
+    return replicatedChanges;
+  }
+
+  /**
+   * Returns the number of times the stream position was lost.
+   *
+   * @return the loss count
+   */
+  public long getPositionLosses() {
+    return positionLosses;
+  }
+
+  /**
+   * Returns the number of reads served from the replica.
+   *
+   * @return the read count
+   */
+  public long getServedReads() {
+    return servedReads;
+  }
+}
@@ -0,0 +1,87 @@
+package com.descope.units.repository;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies string-keyed units into the binary id table in the background at startup while ids are
+ * {@link IdEncoding#MIGRATING}.
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = "units.repository.type", stringValue = "log", enableIfMissing = true)
+public class BinaryIdBackfill {
+
+  private static final Logger logger = LoggerFactory.getLogger(BinaryIdBackfill.class);
+
+  private final DynamoDbUnitRepository repository;
+  private final boolean onStartup;
+  private final int scanSegments;
+  private ExecutorService executor;
+
+  /**
+   * Constructs a BinaryIdBackfill.
+   *
+   * @param repository the migrating repository
+   * @param onStartup whether to run the backfill when the application starts
+   * @param scanSegments the number of parallel scan segments
+   */
+  @Inject
+  public BinaryIdBackfill(
+      DynamoDbUnitRepository repository,
+      @ConfigProperty(name = "dynamodb.id-encoding.backfill-on-startup", defaultValue = "false")
+          boolean onStartup,
+      @ConfigProperty(name = "dynamodb.id-encoding.backfill-segments", defaultValue = "4")
+          int scanSegments) {
+    this.repository = repository;
+    this.onStartup = onStartup;
+    this.scanSegments = scanSegments;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!onStartup) {
+      return;
+    }
+    if (repository.getIdEncoding() != IdEncoding.MIGRATING) {
+      logger.warn(
+          "Binary id backfill requested but id encoding is {}; skipping",
+          repository.getIdEncoding());
+      return;
+    }
+    executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "binary-id-backfill");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.execute(this::run);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private void run() {
+    try {
+      repository.backfillBinaryIds(scanSegments);
+    } catch (RuntimeException e) {
+      // Copies are idempotent, so a restart simply runs the backfill again
+      logger.warn("Binary id backfill failed", e);
+    }
+  }
+}
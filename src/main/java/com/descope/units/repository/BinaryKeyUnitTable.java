@@ -0,0 +1,139 @@
+package com.descope.units.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.descope.units.model.BinaryUnitDao;
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitDao;
+import com.descope.units.model.UnitPage;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+/**
+ * Units table keyed by the 16-byte binary UUID ({@code B}).
+ *
+ * <p>Ids cross this class's boundary as canonical strings, so callers and the name query cursor are
+ * unchanged. An id that is not a UUID cannot be stored here: lookups and deletes of one find
+ * nothing, and writes are rejected.
+ */
+final class BinaryKeyUnitTable implements UnitTable {
+
+  private final DynamoDbTable<BinaryUnitDao> table;
+  private final DynamoDbIndex<BinaryUnitDao> nameIndex;
+
+  BinaryKeyUnitTable(DynamoDbEnhancedClient enhancedClient, String tableName) {
+    this.table = enhancedClient.table(tableName, TableSchema.fromBean(BinaryUnitDao.class));
+    this.nameIndex = table.index(UnitDao.NAME_INDEX);
+  }
+
+  @Override
+  public Unit get(String id) {
+    byte[] key = UuidCodec.encode(id);
+    if (key == null) {
+      return null;
+    }
+    BinaryUnitDao dao =
+        table.getItem(Key.builder().partitionValue(SdkBytes.fromByteArrayUnsafe(key)).build());
+    return dao == null ? null : toDomain(dao);
+  }
+
+  @Override
+  public void put(Unit unit) {
+    table.putItem(toDao(unit));
+  }
+
+  @Override
+  public boolean putIfAbsent(Unit unit) {
+    try {
+      table.putItem(
+          PutItemEnhancedRequest.builder(BinaryUnitDao.class)
+              .item(toDao(unit))
+              .conditionExpression(StringKeyUnitTable.ID_ABSENT)
+              .build());
+      return true;
+    } catch (ConditionalCheckFailedException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public void delete(String id) {
+    byte[] key = UuidCodec.encode(id);
+    if (key != null) {
+      table.deleteItem(Key.builder().partitionValue(SdkBytes.fromByteArrayUnsafe(key)).build());
+    }
+  }
+
+  @Override
+  public UnitPage queryByName(String name, int limit, String cursor) {
+    QueryEnhancedRequest.Builder request =
+        QueryEnhancedRequest.builder()
+            .queryConditional(
+                QueryConditional.keyEqualTo(Key.builder().partitionValue(name).build()))
+            .attributesToProject(UnitDao.ID_ATTRIBUTE, UnitDao.NAME_ATTRIBUTE)
+            .limit(limit);
+
+    if (cursor != null) {
+      byte[] startId = UuidCodec.encode(cursor);
+      if (startId == null) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      // A GSI start key carries both the index key and the table key
+      request.exclusiveStartKey(
+          Map.of(
+              UnitDao.ID_ATTRIBUTE, AttributeValue.fromB(SdkBytes.fromByteArrayUnsafe(startId)),
+              UnitDao.NAME_ATTRIBUTE, AttributeValue.fromS(name)));
+    }
+
+    Page<BinaryUnitDao> page = nameIndex.query(request.build()).iterator().next();
+    List<Unit> units = new ArrayList<>(page.items().size());
+    for (BinaryUnitDao dao : page.items()) {
+      units.add(toDomain(dao));
+    }
+    Map<String, AttributeValue> lastKey = page.lastEvaluatedKey();
+    String nextCursor =
+        lastKey == null || lastKey.isEmpty()
+            ? null
+            : UuidCodec.decode(lastKey.get(UnitDao.ID_ATTRIBUTE).b().asByteArrayUnsafe());
+    return new UnitPage(units, nextCursor);
+  }
+
+  @Override
+  public long scanSegment(int segment, int totalSegments, Consumer<Unit> consumer) {
+    ScanEnhancedRequest request =
+        ScanEnhancedRequest.builder().segment(segment).totalSegments(totalSegments).build();
+    long count = 0;
+    for (BinaryUnitDao dao : table.scan(request).items()) {
+      consumer.accept(toDomain(dao));
+      count++;
+    }
+    return count;
+  }
+
+  private static BinaryUnitDao toDao(Unit unit) {
+    byte[] key = UuidCodec.encode(unit.getId());
+    if (key == null) {
+      throw new IllegalArgumentException("Unit id is not a UUID: " + unit.getId());
+    }
+    return new BinaryUnitDao(SdkBytes.fromByteArrayUnsafe(key), unit.getName());
+  }
+
+  private static Unit toDomain(BinaryUnitDao dao) {
+    return new Unit(UuidCodec.decode(dao.getId().asByteArrayUnsafe()), dao.getName());
+  }
+}
@@ -0,0 +1,294 @@
+package com.descope.units.repository;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import com.descope.units.changes.ChangeFeed;
+import com.descope.units.changes.ChangeType;
+import com.descope.units.model.UnitDao;
+import com.descope.units.replica.UnitReplica;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamResponse;
+import software.amazon.awssdk.services.dynamodb.model.ExpiredIteratorException;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.Shard;
+import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.TrimmedDataAccessException;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClient;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClientBuilder;
+
+/**
+ * Publishes unit changes made by other instances to the {@link ChangeFeed}, read from the DynamoDB
+ * stream of the table that takes writes.
+ *
+ * <p>Shards open at startup are read from their latest record; shards that appear later, as
+ * DynamoDB splits or rolls them over, are read from their oldest. If an iterator expires the stream
+ * is picked up again at its latest records, and subscribers miss what happened in between.
+ *
+ * <p>The stream is also followed, whether or not the change feed is, to keep the {@link
+ * UnitReplica} current; it is told after each poll that read every shard to its end, and when the
+ * stream position was lost.
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = "units.repository.type", stringValue = "log", enableIfMissing = true)
+public class DynamoDbStreamChangeSource {
+
+  private static final Logger logger = LoggerFactory.getLogger(DynamoDbStreamChangeSource.class);
+
+  private static final long SHARD_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+  /** Records a GetRecords call returns at most; a full page means more are waiting. */
+  private static final int MAX_RECORDS_PER_CALL = 1000;
+
+  private final ChangeFeed changeFeed;
+  private final UnitReplica unitReplica;
+  private final DynamoDbClient dynamoDbClient;
+  private final boolean enabled;
+  private final Optional<String> configuredStreamArn;
+  private final long pollIntervalMillis;
+  private final String region;
+  private final Optional<String> endpointOverride;
+  private final String tableName;
+
+  /** Iterator of each shard still being read, by shard id; used only by the poller thread. */
+  private final Map<String, String> iterators = new LinkedHashMap<>();
+
+  /** Every shard seen, including closed ones; used only by the poller thread. */
+  private final Set<String> knownShards = new HashSet<>();
+
+  private DynamoDbStreamsClient streams;
+  private String streamArn;
+  private ScheduledExecutorService poller;
+  private long lastShardRefresh;
+  private boolean started;
+
+  /**
+   * Constructs a DynamoDbStreamChangeSource.
+   *
+   * @param changeFeed the change feed to publish to
+   * @param unitReplica the in-memory replica kept current from the stream
+   * @param dynamoDbClient the DynamoDB client, used to look up the stream of the table
+   * @param enabled whether to publish changes from the table stream to the change feed
+   * @param streamArn the stream to follow, or empty to use the table's latest stream
+   * @param pollIntervalMillis the interval between reads of each shard
+   * @param region the region of the table
+   * @param endpointOverride the DynamoDB endpoint, for local development
+   * @param tableName the name of the DynamoDB table keyed by string ids
+   * @param idEncoding the id key encoding, which decides the table that takes writes
+   * @param binaryTableName the name of the DynamoDB table keyed by binary ids
+   */
+  @Inject
+  public DynamoDbStreamChangeSource(
+      ChangeFeed changeFeed,
+      UnitReplica unitReplica,
+      DynamoDbClient dynamoDbClient,
+      @ConfigProperty(name = "units.changes.dynamodb-stream.enabled", defaultValue = "false")
+          boolean enabled,
+      @ConfigProperty(name = "units.changes.dynamodb-stream.arn") Optional<String> streamArn,
+      @ConfigProperty(
+              name = "units.changes.dynamodb-stream.poll-interval-ms",
+              defaultValue = "1000")
+          long pollIntervalMillis,
+      @ConfigProperty(name = "quarkus.dynamodb.aws.region", defaultValue = "us-east-1")
+          String region,
+      @ConfigProperty(name = "quarkus.dynamodb.endpoint-override")
+          Optional<String> endpointOverride,
+      @ConfigProperty(name = "dynamodb.table.units") String tableName,
+      @ConfigProperty(name = "dynamodb.id-encoding", defaultValue = "string") String idEncoding,
+      @ConfigProperty(name = "dynamodb.table.units-binary") Optional<String> binaryTableName) {
+    this.changeFeed = changeFeed;
+    this.unitReplica = unitReplica;
+    this.dynamoDbClient = dynamoDbClient;
+    this.enabled = enabled && changeFeed.isEnabled();
+    this.configuredStreamArn = streamArn;
+    this.pollIntervalMillis = pollIntervalMillis;
+    this.region = region;
+    this.endpointOverride = endpointOverride;
+    this.tableName =
+        IdEncoding.fromKey(idEncoding) == IdEncoding.STRING
+            ? tableName
+            : binaryTableName.orElse(tableName);
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled && !unitReplica.isEnabled()) {
+      return;
+    }
+    DynamoDbStreamsClientBuilder builder =
+        DynamoDbStreamsClient.builder()
+            .region(Region.of(region))
+            .credentialsProvider(DefaultCredentialsProvider.create())
+            .httpClientBuilder(UrlConnectionHttpClient.builder());
+    endpointOverride.ifPresent(endpoint -> builder.endpointOverride(URI.create(endpoint)));
+    streams = builder.build();
+    poller =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "dynamodb-stream-changes");
+              thread.setDaemon(true);
+              return thread;
+            });
+    poller.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (poller != null) {
+      poller.shutdownNow();
+    }
+    if (streams != null) {
+      streams.close();
+    }
+  }
+
+  private void poll() {
+    long startedAt = System.currentTimeMillis();
+    try {
+      if (streamArn == null) {
+        streamArn = resolveStreamArn();
+        logger.info("Following DynamoDB stream {} for unit changes", streamArn);
+      }
+      if (!started || System.nanoTime() - lastShardRefresh >= SHARD_REFRESH_NANOS) {
+        refreshShards();
+      }
+      boolean shardClosed = false;
+      boolean behind = false;
+      for (Iterator<Map.Entry<String, String>> it = iterators.entrySet().iterator();
+          it.hasNext(); ) {
+        Map.Entry<String, String> shard = it.next();
+        GetRecordsResponse response =
+            streams.getRecords(request -> request.shardIterator(shard.getValue()));
+        response.records().forEach(this::publish);
+        behind |= response.records().size() >= MAX_RECORDS_PER_CALL;
+        if (response.nextShardIterator() == null) {
+          it.remove();
+          shardClosed = true;
+        } else {
+          shard.setValue(response.nextShardIterator());
+        }
+      }
+      if (shardClosed) {
+        // A closed shard's children hold the records that follow it
+        refreshShards();
+      }
+      if (!behind && !shardClosed) {
+        unitReplica.streamCaughtUp(startedAt);
+      }
+    } catch (ExpiredIteratorException | TrimmedDataAccessException e) {
+      logger.warn("Lost position in DynamoDB stream, resuming from latest: {}", e.getMessage());
+      iterators.clear();
+      knownShards.clear();
+      started = false;
+      unitReplica.streamPositionLost();
+    } catch (RuntimeException e) {
+      logger.warn("Failed to read DynamoDB stream for unit changes: {}", e.getMessage());
+    }
+  }
+
+  private String resolveStreamArn() {
+    if (configuredStreamArn.isPresent()) {
+      return configuredStreamArn.get();
+    }
+    String latest =
+        dynamoDbClient
+            .describeTable(request -> request.tableName(tableName))
+            .table()
+            .latestStreamArn();
+    if (latest == null) {
+      throw new IllegalStateException("Table " + tableName + " has no stream enabled");
+    }
+    return latest;
+  }
+
+  private void refreshShards() {
+    String lastShardId = null;
+    do {
+      String exclusiveStart = lastShardId;
+      DescribeStreamResponse response =
+          streams.describeStream(
+              request -> request.streamArn(streamArn).exclusiveStartShardId(exclusiveStart));
+      for (Shard shard : response.streamDescription().shards()) {
+        if (!knownShards.add(shard.shardId())) {
+          continue;
+        }
+        boolean closed = shard.sequenceNumberRange().endingSequenceNumber() != null;
+        if (!started && closed) {
+          continue;
+        }
+        ShardIteratorType type =
+            started ? ShardIteratorType.TRIM_HORIZON : ShardIteratorType.LATEST;
+        String iterator =
+            streams
+                .getShardIterator(
+                    request ->
+                        request
+                            .streamArn(streamArn)
+                            .shardId(shard.shardId())
+                            .shardIteratorType(type))
+                .shardIterator();
+        if (iterator != null) {
+          iterators.put(shard.shardId(), iterator);
+        }
+      }
+      lastShardId = response.streamDescription().lastEvaluatedShardId();
+    } while (lastShardId != null);
+    started = true;
+    lastShardRefresh = System.nanoTime();
+  }
+
+  private void publish(Record record) {
+    ChangeType type;
+    switch (record.eventName()) {
+      case INSERT:
+        type = ChangeType.CREATED;
+        break;
+      case MODIFY:
+        type = ChangeType.UPDATED;
+        break;
+      case REMOVE:
+        type = ChangeType.DELETED;
+        break;
+      default:
+        return;
+    }
+    String id = IdEncoding.idOf(record.dynamodb().keys().get(UnitDao.ID_ATTRIBUTE));
+    if (id == null) {
+      return;
+    }
+    String name = null;
+    if (type != ChangeType.DELETED && record.dynamodb().hasNewImage()) {
+      AttributeValue value = record.dynamodb().newImage().get(UnitDao.NAME_ATTRIBUTE);
+      name = value == null ? null : value.s();
+    }
+    unitReplica.applyReplicated(type, id, name);
+    if (enabled) {
+      changeFeed.publishReplicated(type, id, name);
+    }
+  }
+}
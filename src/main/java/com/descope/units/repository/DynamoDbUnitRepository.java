@@ -1,57 +1,147 @@
 package com.descope.units.repository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import com.descope.units.cache.UnitCache;
+import com.descope.units.hedging.ReadHedger;
+import com.descope.units.jfr.Recorded;
 import com.descope.units.model.Unit;
-import com.descope.units.model.UnitDao;
+import com.descope.units.model.UnitPage;
+import com.descope.units.ratelimit.DynamoDbThrottler;
+import com.descope.units.replica.UnitReplica;
+import com.descope.units.routing.DynamoDbReplicas;
+import com.descope.units.routing.LatencyRouter;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
-import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
 /**
  * DynamoDB implementation of the UnitRepository interface.
  *
- * <p>This implementation uses the AWS SDK v2 Enhanced Client for DynamoDB operations.
+ * <p>This implementation uses the AWS SDK v2 Enhanced Client for DynamoDB operations. All calls go
+ * through a {@link ThrottledDynamoDbClient}, which applies adaptive client-side rate limits and
+ * budgeted retries in place of the SDK's default retry behaviour. Point reads by id may
+ * additionally be hedged by the {@link ReadHedger}.
+ *
+ * <p>Ids are stored as strings or, to shrink items, keys and index entries, as 16-byte binary UUIDs
+ * in a second table (see {@link IdEncoding}). While {@link IdEncoding#MIGRATING}, writes go to both
+ * tables, deletes remove from the string table first, and {@link #backfillBinaryIds} copies units
+ * that only exist in the string table. The API sees string ids either way.
+ *
+ * <p>With replica regions configured (see {@link DynamoDbReplicas}), reads by id and name go to
+ * whichever region currently answers best, while writes, deletes and scans stay in the home region.
+ * Replication is asynchronous, so a replica may return an older version of a unit or an older name
+ * query page. A read by id that misses in a replica is repeated in the home region, so a unit just
+ * created is found, and the existence checks before updates and deletes agree with the home region.
+ *
+ * <p>Reads by id go through the {@link UnitCache} first, which writes and deletes keep current.
+ *
+ * <p>While the in-memory {@link UnitReplica} is serving, reads by id and name are answered from it
+ * without calling DynamoDB or the cache. Writes and deletes are applied to it once DynamoDB has
+ * accepted them.
  */
 @ApplicationScoped
+@Recorded
+@UnlessBuildProperty(name = "units.repository.type", stringValue = "log", enableIfMissing = true)
 public class DynamoDbUnitRepository implements UnitRepository {
 
   private static final Logger logger = LoggerFactory.getLogger(DynamoDbUnitRepository.class);
 
-  private final DynamoDbTable<UnitDao> table;
+  private final IdEncoding idEncoding;
+  private final ReadHedger readHedger;
+  private final UnitCache unitCache;
+  private final UnitReplica unitReplica;
+
+  /** Tables in the home region, which take every write. */
+  private final Tables home;
+
+  /** Tables to read from keyed by region, home included, when reads are routed; otherwise null. */
+  private final Map<String, Tables> readTables;
+
+  /** Chooses the region of each read; null when there are no replica regions. */
+  private final LatencyRouter router;
 
   /**
-   * Constructs a DynamoDbUnitRepository with the specified DynamoDB client and table name.
+   * Constructs a DynamoDbUnitRepository with the specified DynamoDB client and table names.
    *
    * @param dynamoDbClient the DynamoDB client
-   * @param tableName the name of the DynamoDB table
+   * @param throttler the client-side rate limiter and retry policy
+   * @param readHedger the hedging policy for point reads
+   * @param tableName the name of the DynamoDB table keyed by string ids
+   * @param idEncoding the id key encoding: {@code string}, {@code migrating} or {@code binary}
+   * @param binaryTableName the name of the DynamoDB table keyed by binary ids
+   * @param replicas the clients of replica regions reads may be routed to
+   * @param unitCache the in-process and shared cache of units read by id
+   * @param unitReplica the in-memory copy of the table that serves reads when current
    */
   @Inject
   public DynamoDbUnitRepository(
       DynamoDbClient dynamoDbClient,
-      @ConfigProperty(name = "dynamodb.table.units") String tableName) {
-    DynamoDbEnhancedClient enhancedClient =
-        DynamoDbEnhancedClient.builder().dynamoDbClient(dynamoDbClient).build();
-
-    this.table = enhancedClient.table(tableName, TableSchema.fromBean(UnitDao.class));
-    logger.info("Initialized DynamoDbUnitRepository with table: {}", tableName);
+      DynamoDbThrottler throttler,
+      ReadHedger readHedger,
+      @ConfigProperty(name = "dynamodb.table.units") String tableName,
+      @ConfigProperty(name = "dynamodb.id-encoding", defaultValue = "string") String idEncoding,
+      @ConfigProperty(name = "dynamodb.table.units-binary") Optional<String> binaryTableName,
+      DynamoDbReplicas replicas,
+      UnitCache unitCache,
+      UnitReplica unitReplica) {
+    this.idEncoding = IdEncoding.fromKey(idEncoding);
+    this.readHedger = readHedger;
+    this.unitCache = unitCache;
+    this.unitReplica = unitReplica;
+    if (this.idEncoding != IdEncoding.STRING && binaryTableName.isEmpty()) {
+      throw new IllegalStateException(
+          "dynamodb.table.units-binary is required for id encoding " + idEncoding);
+    }
+    String binaryTable = binaryTableName.orElse(null);
+    this.home = new Tables(dynamoDbClient, throttler, this.idEncoding, tableName, binaryTable);
+    if (replicas.isEnabled()) {
+      this.readTables = new HashMap<>();
+      readTables.put(replicas.getHomeRegion(), home);
+      replicas
+          .getReplicaClients()
+          .forEach(
+              (region, client) ->
+                  readTables.put(
+                      region,
+                      new Tables(client, throttler, this.idEncoding, tableName, binaryTable)));
+      this.router = replicas.getRouter();
+    } else {
+      this.readTables = null;
+      this.router = null;
+    }
+    logger.info(
+        "Initialized DynamoDbUnitRepository with table: {} (id encoding: {}, binary table: {})",
+        tableName,
+        this.idEncoding,
+        binaryTableName.orElse("none"));
   }
 
   @Override
   public Unit save(Unit unit) {
     logger.debug("Saving unit with id: {}", unit.getId());
-    UnitDao dao = UnitDao.fromDomain(unit);
-    table.putItem(dao);
+    write(unit);
+    unitCache.written(unit);
+    unitReplica.put(unit);
     logger.info("Successfully saved unit with id: {}", unit.getId());
     return unit;
   }
@@ -59,23 +149,39 @@ public class DynamoDbUnitRepository implements UnitRepository {
   @Override
   public Optional<Unit> findById(String id) {
     logger.debug("Finding unit by id: {}", id);
-    Key key = Key.builder().partitionValue(id).build();
-    UnitDao dao = table.getItem(key);
+    Unit unit =
+        unitReplica.isServing() ? unitReplica.find(id) : unitCache.read(id, this::findUncached);
 
-    if (dao == null) {
+    if (unit == null) {
       logger.debug("Unit not found with id: {}", id);
       return Optional.empty();
     }
 
     logger.debug("Found unit with id: {}", id);
-    return Optional.of(dao.toDomain());
+    return Optional.of(unit);
+  }
+
+  @Override
+  public UnitPage findByName(String name, int limit, String cursor) {
+    logger.debug("Finding units by name: {} (limit: {})", name, limit);
+    if (unitReplica.isServing()) {
+      return unitReplica.findByName(name, limit, cursor);
+    }
+    UnitPage page =
+        router == null
+            ? home.complete.queryByName(name, limit, cursor)
+            : router.read(
+                region -> readTables.get(region).complete.queryByName(name, limit, cursor));
+    logger.debug("Found {} units with name: {}", page.getItems().size(), name);
+    return page;
   }
 
   @Override
   public Unit update(Unit unit) {
     logger.debug("Updating unit with id: {}", unit.getId());
-    UnitDao dao = UnitDao.fromDomain(unit);
-    table.putItem(dao);
+    write(unit);
+    unitCache.written(unit);
+    unitReplica.put(unit);
     logger.info("Successfully updated unit with id: {}", unit.getId());
     return unit;
   }
@@ -83,8 +189,14 @@ public class DynamoDbUnitRepository implements UnitRepository {
   @Override
   public void deleteById(String id) {
     logger.debug("Deleting unit with id: {}", id);
-    Key key = Key.builder().partitionValue(id).build();
-    table.deleteItem(key);
+    // String table first: a backfill copy racing this delete then sees the unit gone and undoes
+    // itself, or lands before the binary delete below
+    if (home.legacy != null) {
+      home.legacy.delete(id);
+    }
+    home.primary.delete(id);
+    unitCache.invalidate(id);
+    unitReplica.remove(id);
     logger.info("Successfully deleted unit with id: {}", id);
   }
 
@@ -93,4 +205,175 @@ public class DynamoDbUnitRepository implements UnitRepository {
     logger.debug("Checking if unit exists with id: {}", id);
     return findById(id).isPresent();
   }
+
+  @Override
+  public void scanAll(int totalSegments, Consumer<Unit> consumer) {
+    parallelScan(home.complete, totalSegments, consumer);
+  }
+
+  /**
+   * Returns how ids are stored.
+   *
+   * @return the id encoding
+   */
+  public IdEncoding getIdEncoding() {
+    return idEncoding;
+  }
+
+  /**
+   * Copies every unit that exists only in the string table into the binary table.
+   *
+   * <p>Only valid while {@link IdEncoding#MIGRATING}. Copies never replace an item already in the
+   * binary table, which dual writes keep current. A copy whose unit was deleted while it was in
+   * flight is removed again. Units whose id is not a UUID cannot be copied and are counted.
+   *
+   * @param totalSegments the number of segments to scan in parallel
+   * @return the number of units copied
+   * @throws IllegalStateException if the repository is not migrating
+   */
+  public long backfillBinaryIds(int totalSegments) {
+    UnitTable legacy = home.legacy;
+    UnitTable primary = home.primary;
+    if (legacy == null) {
+      throw new IllegalStateException("Binary id backfill requires id encoding migrating");
+    }
+    logger.info("Backfilling binary id table with {} segments", totalSegments);
+    LongAdder copied = new LongAdder();
+    LongAdder present = new LongAdder();
+    LongAdder invalid = new LongAdder();
+    parallelScan(
+        legacy,
+        totalSegments,
+        unit -> {
+          if (UuidCodec.encode(unit.getId()) == null) {
+            invalid.increment();
+          } else if (!primary.putIfAbsent(unit)) {
+            present.increment();
+          } else if (legacy.get(unit.getId()) == null) {
+            primary.delete(unit.getId());
+          } else {
+            copied.increment();
+          }
+        });
+    logger.info(
+        "Binary id backfill complete: {} copied, {} already present, {} non-UUID ids skipped",
+        copied.sum(),
+        present.sum(),
+        invalid.sum());
+    return copied.sum();
+  }
+
+  private void write(Unit unit) {
+    // String table first while migrating: it serves name queries and scans, so it must not miss
+    // a unit the binary table has
+    if (home.legacy != null) {
+      home.legacy.put(unit);
+    }
+    home.primary.put(unit);
+  }
+
+  private Unit findUncached(String id) {
+    if (router == null) {
+      return findIn(home, id);
+    }
+    Tables[] answered = new Tables[1];
+    Unit unit =
+        router.read(
+            region -> {
+              answered[0] = readTables.get(region);
+              return findIn(answered[0], id);
+            });
+    if (unit == null && answered[0] != home) {
+      // The replica may not have received the unit yet
+      unit = findIn(home, id);
+    }
+    return unit;
+  }
+
+  private Unit findIn(Tables tables, String id) {
+    Unit unit = readHedger.read(() -> tables.primary.get(id));
+    if (unit == null && tables.legacy != null) {
+      unit = readHedger.read(() -> tables.legacy.get(id));
+    }
+    return unit;
+  }
+
+  private void parallelScan(UnitTable source, int totalSegments, Consumer<Unit> consumer) {
+    if (totalSegments < 1) {
+      throw new IllegalArgumentException("Total segments must be at least 1");
+    }
+    logger.info("Scanning units table with {} segments", totalSegments);
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            totalSegments,
+            runnable -> {
+              Thread thread = new Thread(runnable, "units-scan");
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<?>> segments = new ArrayList<>(totalSegments);
+      for (int segment = 0; segment < totalSegments; segment++) {
+        int current = segment;
+        segments.add(
+            executor.submit(
+                () -> {
+                  long count = source.scanSegment(current, totalSegments, consumer);
+                  logger.debug(
+                      "Scanned {} units from segment {}/{}", count, current, totalSegments);
+                }));
+      }
+      for (Future<?> segment : segments) {
+        segment.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while scanning units table", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Failed to scan units table", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** The units tables of one region, as used under the configured id encoding. */
+  private static final class Tables {
+
+    /** Table point reads and writes go to first. */
+    private final UnitTable primary;
+
+    /** String table still written and read as a fallback while migrating; otherwise null. */
+    private final UnitTable legacy;
+
+    /** Table holding every unit, used for name queries and scans. */
+    private final UnitTable complete;
+
+    private Tables(
+        DynamoDbClient client,
+        DynamoDbThrottler throttler,
+        IdEncoding idEncoding,
+        String tableName,
+        String binaryTableName) {
+      DynamoDbEnhancedClient enhancedClient =
+          DynamoDbEnhancedClient.builder()
+              .dynamoDbClient(ThrottledDynamoDbClient.wrap(client, throttler))
+              .build();
+      if (idEncoding == IdEncoding.STRING) {
+        this.primary = new StringKeyUnitTable(enhancedClient, tableName);
+        this.legacy = null;
+        this.complete = primary;
+      } else {
+        this.primary = new BinaryKeyUnitTable(enhancedClient, binaryTableName);
+        this.legacy =
+            idEncoding == IdEncoding.MIGRATING
+                ? new StringKeyUnitTable(enhancedClient, tableName)
+                : null;
+        this.complete = legacy != null ? legacy : primary;
+      }
+    }
+  }
 }
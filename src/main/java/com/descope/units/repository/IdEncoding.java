@@ -0,0 +1,53 @@
+package com.descope.units.repository;
+
+import java.util.Locale;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * How unit ids are stored as DynamoDB keys.
+ *
+ * <p>A key attribute's type cannot change in place, so binary ids live in a second table. Moving
+ * from string to binary keys goes through {@link #MIGRATING} while the binary table is backfilled.
+ */
+public enum IdEncoding {
+  /** 36-character UUID strings ({@code S}) in the units table. */
+  STRING,
+  /**
+   * Writes go to both tables. Point reads try the binary table first and fall back to the string
+   * table; name queries and scans use the string table, which stays complete.
+   */
+  MIGRATING,
+  /** 16-byte UUIDs ({@code B}) in the binary table only. */
+  BINARY;
+
+  /**
+   * Parses an encoding from its configuration key.
+   *
+   * @param key the key, such as {@code binary}
+   * @return the encoding
+   * @throws IllegalArgumentException if the key is not an encoding
+   */
+  public static IdEncoding fromKey(String key) {
+    return valueOf(key.trim().toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Reads a unit id from a key attribute of either table.
+   *
+   * @param key the {@code id} attribute, a UUID string or 16 bytes
+   * @return the id as a UUID string, or null if the attribute holds neither
+   */
+  public static String idOf(AttributeValue key) {
+    if (key == null) {
+      return null;
+    }
+    if (key.s() != null) {
+      return key.s();
+    }
+    if (key.b() != null && key.b().asByteArrayUnsafe().length == UuidCodec.BYTES) {
+      return UuidCodec.decode(key.b().asByteArray());
+    }
+    return null;
+  }
+}
@@ -0,0 +1,188 @@
+package com.descope.units.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.descope.units.jfr.Recorded;
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
+import com.descope.units.repository.log.UnitLog;
+import com.descope.units.repository.log.UnitLogStats;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.runtime.Startup;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Embedded implementation of UnitRepository backed by a local {@link UnitLog}.
+ *
+ * <p>Selected at build time with {@code units.repository.type=log} in place of {@link
+ * DynamoDbUnitRepository}. It is meant for edge deployments without DynamoDB and as a baseline that
+ * shows how much latency DynamoDB adds. The log is replayed when the application starts, and sealed
+ * segments that are mostly garbage are compacted in the background.
+ */
+@ApplicationScoped
+@Startup
+@Recorded
+@IfBuildProperty(name = "units.repository.type", stringValue = "log")
+public class LogStructuredUnitRepository implements UnitRepository {
+
+  private static final Logger logger = LoggerFactory.getLogger(LogStructuredUnitRepository.class);
+
+  private final UnitLog log;
+  private final ScheduledExecutorService compactor;
+
+  /**
+   * Constructs a LogStructuredUnitRepository, replaying any existing log.
+   *
+   * @param directory the directory holding the segment files
+   * @param segmentSizeMb the size of each segment file in MiB
+   * @param syncWrites whether each write is forced to disk before returning
+   * @param compactionIntervalSeconds the delay between compaction runs, or 0 to disable them
+   * @param compactionGarbageRatio the garbage share that makes a segment worth compacting
+   */
+  @Inject
+  public LogStructuredUnitRepository(
+      @ConfigProperty(name = "units.log.directory", defaultValue = "data/units-log")
+          String directory,
+      @ConfigProperty(name = "units.log.segment-size-mb", defaultValue = "64") int segmentSizeMb,
+      @ConfigProperty(name = "units.log.sync-writes", defaultValue = "false") boolean syncWrites,
+      @ConfigProperty(name = "units.log.compaction-interval-seconds", defaultValue = "60")
+          long compactionIntervalSeconds,
+      @ConfigProperty(name = "units.log.compaction-garbage-ratio", defaultValue = "0.5")
+          double compactionGarbageRatio) {
+    try {
+      this.log = UnitLog.open(Path.of(directory), segmentSizeMb * 1024 * 1024, syncWrites);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open unit log in " + directory, e);
+    }
+    if (compactionIntervalSeconds > 0) {
+      this.compactor =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "units-log-compaction");
+                thread.setDaemon(true);
+                return thread;
+              });
+      compactor.scheduleWithFixedDelay(
+          () -> compact(compactionGarbageRatio),
+          compactionIntervalSeconds,
+          compactionIntervalSeconds,
+          TimeUnit.SECONDS);
+    } else {
+      this.compactor = null;
+    }
+    logger.info("Initialized LogStructuredUnitRepository in: {}", directory);
+  }
+
+  @Override
+  public Unit save(Unit unit) {
+    logger.debug("Saving unit with id: {}", unit.getId());
+    log.put(unit);
+    return unit;
+  }
+
+  @Override
+  public Optional<Unit> findById(String id) {
+    logger.debug("Finding unit by id: {}", id);
+    return log.get(id);
+  }
+
+  @Override
+  public UnitPage findByName(String name, int limit, String cursor) {
+    logger.debug("Finding units by name: {} (limit: {})", name, limit);
+    // One extra id tells whether another page follows
+    List<String> ids = log.idsByName(name, cursor, limit + 1);
+    boolean hasMore = ids.size() > limit;
+    List<Unit> units = new ArrayList<>(Math.min(limit, ids.size()));
+    for (String id : hasMore ? ids.subList(0, limit) : ids) {
+      log.get(id).ifPresent(units::add);
+    }
+    String nextCursor = hasMore ? ids.get(limit - 1) : null;
+    return new UnitPage(units, nextCursor);
+  }
+
+  @Override
+  public Unit update(Unit unit) {
+    logger.debug("Updating unit with id: {}", unit.getId());
+    log.put(unit);
+    return unit;
+  }
+
+  @Override
+  public void deleteById(String id) {
+    logger.debug("Deleting unit with id: {}", id);
+    log.delete(id);
+  }
+
+  @Override
+  public boolean existsById(String id) {
+    return log.contains(id);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The log is in memory-mapped files, so units are visited on the calling thread; the segment
+   * count only has to be valid.
+   */
+  @Override
+  public void scanAll(int totalSegments, Consumer<Unit> consumer) {
+    if (totalSegments < 1) {
+      throw new IllegalArgumentException("Total segments must be at least 1");
+    }
+    log.forEach(consumer);
+  }
+
+  /**
+   * Returns the size of the underlying log.
+   *
+   * @return the log statistics
+   */
+  public UnitLogStats stats() {
+    return log.stats();
+  }
+
+  @PreDestroy
+  void close() {
+    try {
+      if (compactor != null) {
+        compactor.shutdown();
+        // Let a running compaction finish rather than cut it off mid-segment
+        compactor.awaitTermination(10, TimeUnit.SECONDS);
+      }
+      log.close();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      logger.warn("Failed to close unit log", e);
+    }
+  }
+
+  private void compact(double garbageRatio) {
+    try {
+      int compacted = log.compact(garbageRatio);
+      if (compacted > 0) {
+        logger.info("Compacted {} log segments, {} remain", compacted, log.stats().getSegments());
+      }
+    } catch (RuntimeException e) {
+      // Keep the schedule alive; the next run retries
+      logger.error("Unit log compaction failed", e);
+    }
+  }
+}
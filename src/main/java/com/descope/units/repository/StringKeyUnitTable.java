@@ -0,0 +1,110 @@
+package com.descope.units.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitDao;
+import com.descope.units.model.UnitPage;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+/** Units table keyed by the 36-character UUID string ({@code S}). */
+final class StringKeyUnitTable implements UnitTable {
+
+  /** Condition for writes that must not replace an existing item. */
+  static final Expression ID_ABSENT =
+      Expression.builder()
+          .expression("attribute_not_exists(#id)")
+          .expressionNames(Map.of("#id", UnitDao.ID_ATTRIBUTE))
+          .build();
+
+  private final DynamoDbTable<UnitDao> table;
+  private final DynamoDbIndex<UnitDao> nameIndex;
+
+  StringKeyUnitTable(DynamoDbEnhancedClient enhancedClient, String tableName) {
+    this.table = enhancedClient.table(tableName, TableSchema.fromBean(UnitDao.class));
+    this.nameIndex = table.index(UnitDao.NAME_INDEX);
+  }
+
+  @Override
+  public Unit get(String id) {
+    UnitDao dao = table.getItem(Key.builder().partitionValue(id).build());
+    return dao == null ? null : dao.toDomain();
+  }
+
+  @Override
+  public void put(Unit unit) {
+    table.putItem(UnitDao.fromDomain(unit));
+  }
+
+  @Override
+  public boolean putIfAbsent(Unit unit) {
+    try {
+      table.putItem(
+          PutItemEnhancedRequest.builder(UnitDao.class)
+              .item(UnitDao.fromDomain(unit))
+              .conditionExpression(ID_ABSENT)
+              .build());
+      return true;
+    } catch (ConditionalCheckFailedException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public void delete(String id) {
+    table.deleteItem(Key.builder().partitionValue(id).build());
+  }
+
+  @Override
+  public UnitPage queryByName(String name, int limit, String cursor) {
+    QueryEnhancedRequest.Builder request =
+        QueryEnhancedRequest.builder()
+            .queryConditional(
+                QueryConditional.keyEqualTo(Key.builder().partitionValue(name).build()))
+            .attributesToProject(UnitDao.ID_ATTRIBUTE, UnitDao.NAME_ATTRIBUTE)
+            .limit(limit);
+
+    if (cursor != null) {
+      // A GSI start key carries both the index key and the table key
+      request.exclusiveStartKey(
+          Map.of(
+              UnitDao.ID_ATTRIBUTE, AttributeValue.fromS(cursor),
+              UnitDao.NAME_ATTRIBUTE, AttributeValue.fromS(name)));
+    }
+
+    Page<UnitDao> page = nameIndex.query(request.build()).iterator().next();
+    List<Unit> units = page.items().stream().map(UnitDao::toDomain).collect(Collectors.toList());
+    Map<String, AttributeValue> lastKey = page.lastEvaluatedKey();
+    String nextCursor =
+        lastKey == null || lastKey.isEmpty() ? null : lastKey.get(UnitDao.ID_ATTRIBUTE).s();
+    return new UnitPage(units, nextCursor);
+  }
+
+  @Override
+  public long scanSegment(int segment, int totalSegments, Consumer<Unit> consumer) {
+    ScanEnhancedRequest request =
+        ScanEnhancedRequest.builder().segment(segment).totalSegments(totalSegments).build();
+    long count = 0;
+    for (UnitDao dao : table.scan(request).items()) {
+      consumer.accept(dao.toDomain());
+      count++;
+    }
+    return count;
+  }
+}
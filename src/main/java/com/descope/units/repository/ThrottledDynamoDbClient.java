@@ -0,0 +1,206 @@
+package com.descope.units.repository;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.descope.units.deadline.Deadline;
+import com.descope.units.deadline.DeadlineContext;
+import com.descope.units.ratelimit.DynamoDbThrottler;
+import com.descope.units.ratelimit.OperationType;
+
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.SdkPlugin;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbServiceClientConfiguration;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+/**
+ * DynamoDB client decorator that routes data-plane calls through a {@link DynamoDbThrottler}.
+ *
+ * <p>The Enhanced Client does not expose per-request retry settings, so this decorator sits
+ * underneath it: every item, query, scan, batch and transaction call is classified by {@link
+ * OperationType}, admitted by the matching limiter, and sent with the SDK's built-in retries
+ * switched off so that the throttler's retry budget is the only retry layer. When the calling
+ * request has a {@link Deadline}, each attempt is sent with the time left as its SDK timeout.
+ * Operations not overridden here fall back to the {@link DynamoDbClient} defaults and are
+ * unsupported.
+ */
+public final class ThrottledDynamoDbClient implements DynamoDbClient {
+
+  private static final SdkPlugin NO_SDK_RETRIES =
+      config ->
+          config.overrideConfiguration(
+              config.overrideConfiguration().toBuilder()
+                  .retryStrategy(AwsRetryStrategy.doNotRetry())
+                  .build());
+
+  private final DynamoDbClient delegate;
+  private final DynamoDbThrottler throttler;
+
+  /**
+   * Wraps a client, or returns it unchanged when throttling is disabled.
+   *
+   * @param delegate the client to wrap
+   * @param throttler the throttler to route calls through
+   * @return the client to use
+   */
+  public static DynamoDbClient wrap(DynamoDbClient delegate, DynamoDbThrottler throttler) {
+    return throttler.isEnabled() ? new ThrottledDynamoDbClient(delegate, throttler) : delegate;
+  }
+
+  private ThrottledDynamoDbClient(DynamoDbClient delegate, DynamoDbThrottler throttler) {
+    this.delegate = delegate;
+    this.throttler = throttler;
+  }
+
+  @Override
+  public GetItemResponse getItem(GetItemRequest request) {
+    return execute(
+        OperationType.READ,
+        () ->
+            delegate.getItem(
+                request.toBuilder()
+                    .overrideConfiguration(attemptConfiguration(request.overrideConfiguration()))
+                    .build()));
+  }
+
+  @Override
+  public QueryResponse query(QueryRequest request) {
+    return execute(
+        OperationType.READ,
+        () ->
+            delegate.query(
+                request.toBuilder()
+                    .overrideConfiguration(attemptConfiguration(request.overrideConfiguration()))
+                    .build()));
+  }
+
+  @Override
+  public PutItemResponse putItem(PutItemRequest request) {
+    return execute(
+        OperationType.WRITE,
+        () ->
+            delegate.putItem(
+                request.toBuilder()
+                    .overrideConfiguration(attemptConfiguration(request.overrideConfiguration()))
+                    .build()));
+  }
+
+  @Override
+  public UpdateItemResponse updateItem(UpdateItemRequest request) {
+    return execute(
+        OperationType.WRITE,
+        () ->
+            delegate.updateItem(
+                request.toBuilder()
+                    .overrideConfiguration(attemptConfiguration(request.overrideConfiguration()))
+                    .build()));
+  }
+
+  @Override
+  public DeleteItemResponse deleteItem(DeleteItemRequest request) {
+    return execute(
+        OperationType.WRITE,
+        () ->
+            delegate.deleteItem(
+                request.toBuilder()
+                    .overrideConfiguration(attemptConfiguration(request.overrideConfiguration()))
+                    .build()));
+  }
+
+  @Override
+  public ScanResponse scan(ScanRequest request) {
+    return execute(
+        OperationType.BATCH,
+        () ->
+            delegate.scan(
+                request.toBuilder()
+                    .overrideConfiguration(attemptConfiguration(request.overrideConfiguration()))
+                    .build()));
+  }
+
+  @Override
+  public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+    return execute(
+        OperationType.BATCH,
+        () ->
+            delegate.batchGetItem(
+                request.toBuilder()
+                    .overrideConfiguration(attemptConfiguration(request.overrideConfiguration()))
+                    .build()));
+  }
+
+  @Override
+  public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+    return execute(
+        OperationType.BATCH,
+        () ->
+            delegate.batchWriteItem(
+                request.toBuilder()
+                    .overrideConfiguration(attemptConfiguration(request.overrideConfiguration()))
+                    .build()));
+  }
+
+  @Override
+  public TransactWriteItemsResponse transactWriteItems(TransactWriteItemsRequest request) {
+    return execute(
+        OperationType.BATCH,
+        () ->
+            delegate.transactWriteItems(
+                request.toBuilder()
+                    .overrideConfiguration(attemptConfiguration(request.overrideConfiguration()))
+                    .build()));
+  }
+
+  @Override
+  public DynamoDbServiceClientConfiguration serviceClientConfiguration() {
+    return delegate.serviceClientConfiguration();
+  }
+
+  @Override
+  public String serviceName() {
+    return delegate.serviceName();
+  }
+
+  @Override
+  public void close() {
+    // The delegate is owned by the container
+  }
+
+  private <T> T execute(OperationType type, Supplier<T> call) {
+    return throttler.execute(type, call);
+  }
+
+  private static AwsRequestOverrideConfiguration attemptConfiguration(
+      Optional<AwsRequestOverrideConfiguration> existing) {
+    AwsRequestOverrideConfiguration.Builder builder =
+        existing
+            .map(AwsRequestOverrideConfiguration::toBuilder)
+            .orElseGet(AwsRequestOverrideConfiguration::builder)
+            .addPlugin(NO_SDK_RETRIES);
+    // Built per attempt, so a retry only gets the time the request has left
+    Deadline deadline = DeadlineContext.current();
+    if (deadline != null) {
+      builder.apiCallTimeout(deadline.remaining());
+    }
+    return builder.build();
+  }
+}
@@ -1,8 +1,10 @@
 package com.descope.units.repository;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
 
 /**
  * Repository interface for Unit entity persistence operations.
@@ -27,6 +29,19 @@ public interface UnitRepository {
    */
   Optional<Unit> findById(String id);
 
+  /**
+   * Finds units whose name exactly matches the specified name.
+   *
+   * <p>Results are returned one page at a time. Implementations must not scan the whole data store;
+   * the cost of a lookup should be proportional to the number of matches.
+   *
+   * @param name the exact unit name
+   * @param limit the maximum number of units to return
+   * @param cursor the cursor returned by the previous page, or null for the first page
+   * @return a page of matching units
+   */
+  UnitPage findByName(String name, int limit, String cursor);
+
   /**
    * Updates an existing unit in the data store.
    *
@@ -49,4 +64,15 @@ public interface UnitRepository {
    * @return true if the unit exists, false otherwise
    */
   boolean existsById(String id);
+
+  /**
+   * Streams every unit in the data store to the consumer using a parallel scan.
+   *
+   * <p>The consumer is invoked concurrently from up to {@code totalSegments} threads and must be
+   * thread-safe. This method blocks until all segments have been read.
+   *
+   * @param totalSegments the number of segments to scan in parallel
+   * @param consumer the consumer receiving each unit
+   */
+  void scanAll(int totalSegments, Consumer<Unit> consumer);
 }
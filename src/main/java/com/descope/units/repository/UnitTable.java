@@ -0,0 +1,41 @@
+package com.descope.units.repository;
+
+import java.util.function.Consumer;
+
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
+
+/**
+ * One DynamoDB units table, hiding how its id key is encoded.
+ *
+ * <p>{@link DynamoDbUnitRepository} composes one or two of these depending on the {@link
+ * IdEncoding}.
+ */
+interface UnitTable {
+
+  /** Returns the unit with the given id, or null if there is none. */
+  Unit get(String id);
+
+  /** Writes a unit, replacing any unit with the same id. */
+  void put(Unit unit);
+
+  /**
+   * Writes a unit only if no item has its id.
+   *
+   * @return true if the unit was written
+   */
+  boolean putIfAbsent(Unit unit);
+
+  /** Deletes the unit with the given id, if any. */
+  void delete(String id);
+
+  /** Returns a page of units with the given name from the name index. */
+  UnitPage queryByName(String name, int limit, String cursor);
+
+  /**
+   * Streams one segment of a parallel scan to the consumer.
+   *
+   * @return the number of units read
+   */
+  long scanSegment(int segment, int totalSegments, Consumer<Unit> consumer);
+}
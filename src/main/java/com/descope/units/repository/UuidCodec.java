@@ -0,0 +1,71 @@
+package com.descope.units.repository;
+
+/**
+ * Converts canonical UUID strings to and from their 16-byte binary form.
+ *
+ * <p>The binary form is the big-endian bytes of the UUID, so binary keys sort and partition like
+ * the UUIDv7 timestamp they start with. Decoding always produces lower-case text.
+ */
+final class UuidCodec {
+
+  /** Length of a UUID in bytes. */
+  static final int BYTES = 16;
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private UuidCodec() {}
+
+  /**
+   * Encodes a canonical UUID string.
+   *
+   * @param id the id, such as {@code 01933b5e-7f00-7000-8000-000000000000}
+   * @return the 16 bytes, or null if the id is not a canonical UUID
+   */
+  static byte[] encode(String id) {
+    if (id == null || id.length() != 36) {
+      return null;
+    }
+    byte[] bytes = new byte[BYTES];
+    int b = 0;
+    for (int i = 0; i < 36; ) {
+      if (i == 8 || i == 13 || i == 18 || i == 23) {
+        if (id.charAt(i) != '-') {
+          return null;
+        }
+        i++;
+        continue;
+      }
+      int high = Character.digit(id.charAt(i), 16);
+      int low = Character.digit(id.charAt(i + 1), 16);
+      if (high < 0 || low < 0) {
+        return null;
+      }
+      bytes[b++] = (byte) ((high << 4) | low);
+      i += 2;
+    }
+    return bytes;
+  }
+
+  /**
+   * Decodes 16 bytes into a canonical lower-case UUID string.
+   *
+   * @param bytes the binary UUID
+   * @return the UUID string
+   * @throws IllegalArgumentException if the array is not 16 bytes long
+   */
+  static String decode(byte[] bytes) {
+    if (bytes.length != BYTES) {
+      throw new IllegalArgumentException("Binary id must be 16 bytes, was " + bytes.length);
+    }
+    char[] text = new char[36];
+    int c = 0;
+    for (int b = 0; b < BYTES; b++) {
+      if (b == 4 || b == 6 || b == 8 || b == 10) {
+        text[c++] = '-';
+      }
+      text[c++] = HEX[(bytes[b] >> 4) & 0xf];
+      text[c++] = HEX[bytes[b] & 0xf];
+    }
+    return new String(text);
+  }
+}
@@ -0,0 +1,649 @@
+package com.descope.units.repository.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.descope.units.model.Unit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only store of units in memory-mapped segment files.
+ *
+ * <p>Every change is appended as a record: a CRC32 of the rest of the record, the body length, and
+ * a body holding the record type, id and name. Puts and deletes (tombstones) are never modified in
+ * place; an in-memory index maps each id to the location of its latest put, and a second index maps
+ * names to ids. When the active segment is full, a new one is started.
+ *
+ * <p>On open, every segment is replayed in order to rebuild the indexes. A record whose length or
+ * checksum does not match ends replay of its segment; in the active segment that is a write torn by
+ * a crash, so the tail is zeroed and appending resumes there.
+ *
+ * <p>Overwritten and deleted entries leave garbage behind. {@link #compact} copies the live records
+ * of mostly-garbage sealed segments to the end of the log and deletes those segments. A tombstone
+ * counts as live while an older segment may still hold a put for its id, so compaction carries it
+ * forward until the last such segment is gone and then drops it.
+ *
+ * <p>Writes by default survive a crash of the process but not of the host; with {@code syncWrites}
+ * each record is forced to disk before the write returns.
+ */
+public final class UnitLog implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnitLog.class);
+
+  private static final int HEADER_SIZE = 8;
+  private static final int MAX_FIELD_BYTES = 0xFFFF;
+  private static final byte PUT = 1;
+  private static final byte DELETE = 2;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final boolean syncWrites;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Guarded by lock
+  private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+  private final Map<String, Long> locations = new HashMap<>();
+  private final Map<String, NavigableSet<String>> idsByName = new HashMap<>();
+  // Deleted ids whose tombstone still cancels a put in an older segment
+  private final Map<String, Tombstone> tombstones = new HashMap<>();
+  // Segments holding superseded puts of a live id, other than the segment of its latest put
+  private final Map<String, Set<Integer>> stalePuts = new HashMap<>();
+  private Segment active;
+  private long compactedSegments;
+  private long corruptRecords;
+
+  private UnitLog(Path directory, int segmentSize, boolean syncWrites) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.syncWrites = syncWrites;
+  }
+
+  /**
+   * Opens the log in a directory, creating it if needed and replaying existing segments.
+   *
+   * @param directory the directory holding the segment files
+   * @param segmentSize the size of each segment file in bytes
+   * @param syncWrites whether each write is forced to disk before returning
+   * @return the opened log
+   * @throws IOException if the segments cannot be read or created
+   */
+  public static UnitLog open(Path directory, int segmentSize, boolean syncWrites)
+      throws IOException {
+    if (segmentSize < 1024) {
+      throw new IllegalArgumentException("Segment size must be at least 1 KiB");
+    }
+    Files.createDirectories(directory);
+    UnitLog log = new UnitLog(directory, segmentSize, syncWrites);
+    log.recover();
+    return log;
+  }
+
+  /**
+   * Stores a unit, replacing any previous version with the same id.
+   *
+   * @param unit the unit to store
+   */
+  public void put(Unit unit) {
+    byte[] body = encode(PUT, unit.getId(), unit.getName());
+    lock.writeLock().lock();
+    try {
+      long location = append(body);
+      segment(location).liveBytes += HEADER_SIZE + body.length;
+      indexPut(unit.getId(), unit.getName(), location);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Deletes a unit.
+   *
+   * @param id the unit id
+   * @return true if the unit existed
+   */
+  public boolean delete(String id) {
+    byte[] body = encode(DELETE, id, "");
+    lock.writeLock().lock();
+    try {
+      if (!locations.containsKey(id)) {
+        return false;
+      }
+      indexDelete(id, append(body));
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the latest version of a unit.
+   *
+   * @param id the unit id
+   * @return the unit, or empty if absent or deleted
+   */
+  public Optional<Unit> get(String id) {
+    lock.readLock().lock();
+    try {
+      Long location = locations.get(id);
+      return location == null ? Optional.empty() : Optional.of(read(location));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns whether a unit exists.
+   *
+   * @param id the unit id
+   * @return true if the unit exists
+   */
+  public boolean contains(String id) {
+    lock.readLock().lock();
+    try {
+      return locations.containsKey(id);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns ids of units with a name, in ascending id order.
+   *
+   * @param name the exact name
+   * @param afterId only ids greater than this are returned, or null to start at the first
+   * @param limit the maximum number of ids to return
+   * @return the matching ids
+   */
+  public List<String> idsByName(String name, String afterId, int limit) {
+    lock.readLock().lock();
+    try {
+      NavigableSet<String> ids = idsByName.get(name);
+      List<String> result = new ArrayList<>(Math.min(limit, ids == null ? 0 : ids.size()));
+      if (ids != null) {
+        for (String id : afterId == null ? ids : ids.tailSet(afterId, false)) {
+          if (result.size() == limit) {
+            break;
+          }
+          result.add(id);
+        }
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Visits every stored unit.
+   *
+   * <p>The set of ids is taken up front; units deleted during the visit are skipped.
+   *
+   * @param consumer receives each unit
+   */
+  public void forEach(Consumer<Unit> consumer) {
+    List<String> ids;
+    lock.readLock().lock();
+    try {
+      ids = new ArrayList<>(locations.keySet());
+    } finally {
+      lock.readLock().unlock();
+    }
+    for (String id : ids) {
+      get(id).ifPresent(consumer);
+    }
+  }
+
+  /**
+   * Rewrites sealed segments whose share of garbage is at least {@code minGarbageRatio}.
+   *
+   * @param minGarbageRatio the garbage share that makes a segment worth compacting, in [0, 1]
+   * @return the number of segments compacted
+   */
+  public synchronized int compact(double minGarbageRatio) {
+    List<Segment> candidates = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (Segment segment : segments.values()) {
+        if (segment != active && segment.garbageRatio() >= minGarbageRatio) {
+          candidates.add(segment);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    for (Segment segment : candidates) {
+      compactSegment(segment);
+    }
+    return candidates.size();
+  }
+
+  /**
+   * Returns the size of the log and its indexes.
+   *
+   * @return the log statistics
+   */
+  public UnitLogStats stats() {
+    lock.readLock().lock();
+    try {
+      long written = 0;
+      long live = 0;
+      for (Segment segment : segments.values()) {
+        written += segment.position;
+        live += segment.liveBytes;
+      }
+      return new UnitLogStats(
+          segments.size(), locations.size(), written, live, compactedSegments, corruptRecords);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      if (active != null) {
+        active.buffer.force();
+      }
+      for (Segment segment : segments.values()) {
+        segment.channel.close();
+      }
+      segments.clear();
+      active = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void recover() throws IOException {
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files =
+          listing
+              .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+              .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+              .sorted()
+              .toList();
+    }
+
+    lock.writeLock().lock();
+    try {
+      for (Path file : files) {
+        Segment segment = Segment.open(file, segmentIdOf(file), segmentSize);
+        segments.put(segment.id, segment);
+        replay(segment);
+      }
+      if (segments.isEmpty()) {
+        active = createSegment(0);
+      } else {
+        active = segments.lastEntry().getValue();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    logger.info(
+        "Opened unit log in {} with {} segments and {} units",
+        directory,
+        segments.size(),
+        locations.size());
+  }
+
+  private void replay(Segment segment) {
+    ByteBuffer buffer = segment.buffer;
+    int offset = 0;
+    while (offset + HEADER_SIZE <= buffer.capacity()) {
+      int length = buffer.getInt(offset + 4);
+      if (length == 0) {
+        break;
+      }
+      if (length < 0
+          || offset + HEADER_SIZE + length > buffer.capacity()
+          || buffer.getInt(offset) != checksum(buffer, offset, length)) {
+        corruptRecords++;
+        logger.warn(
+            "Corrupt record in {} at offset {}; ignoring the rest of the segment",
+            segment.path,
+            offset);
+        // Zero the torn tail so that appends resumed here are not followed by stale bytes
+        for (int i = offset; i < buffer.capacity(); i++) {
+          buffer.put(i, (byte) 0);
+        }
+        break;
+      }
+
+      long location = location(segment.id, offset);
+      String id = readId(buffer, offset);
+      if (buffer.get(offset + HEADER_SIZE) == PUT) {
+        segment.liveBytes += HEADER_SIZE + length;
+        indexPut(id, readName(buffer, offset), location);
+      } else {
+        indexDelete(id, location);
+      }
+      offset += HEADER_SIZE + length;
+    }
+    segment.position = offset;
+  }
+
+  private void compactSegment(Segment segment) {
+    int moved = 0;
+    int offset = 0;
+    while (offset < segment.position) {
+      lock.writeLock().lock();
+      try {
+        ByteBuffer buffer = segment.buffer;
+        int length = buffer.getInt(offset + 4);
+        long location = location(segment.id, offset);
+        String id = readId(buffer, offset);
+        boolean isPut = buffer.get(offset + HEADER_SIZE) == PUT;
+        if (isPut && Long.valueOf(location).equals(locations.get(id))) {
+          byte[] body = new byte[length];
+          buffer.get(offset + HEADER_SIZE, body);
+          long target = append(body);
+          segment(target).liveBytes += HEADER_SIZE + length;
+          segment.liveBytes -= HEADER_SIZE + length;
+          locations.put(id, target);
+          moved++;
+        } else if (!isPut) {
+          Tombstone tombstone = tombstones.get(id);
+          if (tombstone != null && tombstone.location == location) {
+            segment.liveBytes -= HEADER_SIZE + length;
+            if (tombstone.putSegments.isEmpty()) {
+              tombstones.remove(id);
+            } else {
+              byte[] body = new byte[length];
+              buffer.get(offset + HEADER_SIZE, body);
+              tombstone.location = append(body);
+              segment(tombstone.location).liveBytes += HEADER_SIZE + length;
+            }
+          }
+        }
+        offset += HEADER_SIZE + length;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    lock.writeLock().lock();
+    try {
+      if (syncWrites) {
+        active.buffer.force();
+      }
+      segments.remove(segment.id);
+      segment.channel.close();
+      Files.deleteIfExists(segment.path);
+      compactedSegments++;
+      forgetPutsIn(segment.id);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete compacted segment " + segment.path, e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    logger.info("Compacted segment {}, moving {} live units", segment.path, moved);
+  }
+
+  /** Appends a record body to the active segment, rolling to a new one if it does not fit. */
+  private long append(byte[] body) {
+    int recordSize = HEADER_SIZE + body.length;
+    if (recordSize > segmentSize) {
+      throw new IllegalArgumentException("Record of " + recordSize + " bytes exceeds segment size");
+    }
+    if (active.position + recordSize > active.buffer.capacity()) {
+      if (syncWrites) {
+        active.buffer.force();
+      }
+      active = createSegment(active.id + 1);
+    }
+
+    MappedByteBuffer buffer = active.buffer;
+    int offset = active.position;
+    // Body first, then length, then checksum: a crash part-way leaves a record that fails replay
+    buffer.put(offset + HEADER_SIZE, body);
+    buffer.putInt(offset + 4, body.length);
+    buffer.putInt(offset, checksum(buffer, offset, body.length));
+    if (syncWrites) {
+      buffer.force(offset, recordSize);
+    }
+    active.position += recordSize;
+    return location(active.id, offset);
+  }
+
+  /** Indexes the put of a unit appended at {@code location}. */
+  private void indexPut(String id, String name, long location) {
+    Long previous = locations.put(id, location);
+    Set<Integer> putSegments;
+    if (previous != null) {
+      putSegments = stalePuts.computeIfAbsent(id, key -> new HashSet<>());
+      putSegments.add(segmentId(previous));
+      release(id, previous);
+    } else {
+      Tombstone tombstone = tombstones.remove(id);
+      if (tombstone == null) {
+        putSegments = null;
+      } else {
+        putSegments = tombstone.putSegments;
+        segment(tombstone.location).liveBytes -= recordSize(tombstone.location);
+        stalePuts.put(id, putSegments);
+      }
+    }
+    if (putSegments != null) {
+      putSegments.remove(segmentId(location));
+      if (putSegments.isEmpty()) {
+        stalePuts.remove(id);
+      }
+    }
+    // Added after the release, which unindexes the previous name even when it is unchanged
+    idsByName.computeIfAbsent(name, key -> new TreeSet<>()).add(id);
+  }
+
+  /**
+   * Indexes the tombstone of a unit appended at {@code location}, keeping it live while an older
+   * segment still holds a put for the id.
+   */
+  private void indexDelete(String id, long location) {
+    Long previous = locations.remove(id);
+    Set<Integer> putSegments = null;
+    if (previous != null) {
+      putSegments = stalePuts.remove(id);
+      if (putSegments == null) {
+        putSegments = new HashSet<>();
+      }
+      putSegments.add(segmentId(previous));
+      release(id, previous);
+    } else {
+      // A tombstone carried forward by compaction, or replayed after its copy was made
+      Tombstone older = tombstones.remove(id);
+      if (older != null) {
+        putSegments = older.putSegments;
+        segment(older.location).liveBytes -= recordSize(older.location);
+      }
+    }
+    if (putSegments != null) {
+      // Puts in the tombstone's own segment go when it does
+      putSegments.remove(segmentId(location));
+      if (!putSegments.isEmpty()) {
+        tombstones.put(id, new Tombstone(location, putSegments));
+        segment(location).liveBytes += recordSize(location);
+      }
+    }
+  }
+
+  /** Forgets the puts of a deleted segment, dropping tombstones that no longer cancel any. */
+  private void forgetPutsIn(int segmentId) {
+    Iterator<Tombstone> iterator = tombstones.values().iterator();
+    while (iterator.hasNext()) {
+      Tombstone tombstone = iterator.next();
+      if (tombstone.putSegments.remove(segmentId) && tombstone.putSegments.isEmpty()) {
+        segment(tombstone.location).liveBytes -= recordSize(tombstone.location);
+        iterator.remove();
+      }
+    }
+    stalePuts
+        .values()
+        .removeIf(putSegments -> putSegments.remove(segmentId) && putSegments.isEmpty());
+  }
+
+  /** Accounts for the put at {@code location} being superseded by a newer record. */
+  private void release(String id, long location) {
+    Segment segment = segment(location);
+    int offset = offsetOf(location);
+    segment.liveBytes -= HEADER_SIZE + segment.buffer.getInt(offset + 4);
+    String name = readName(segment.buffer, offset);
+    NavigableSet<String> ids = idsByName.get(name);
+    if (ids != null) {
+      ids.remove(id);
+      if (ids.isEmpty()) {
+        idsByName.remove(name);
+      }
+    }
+  }
+
+  private Segment createSegment(int id) {
+    Path path = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    try {
+      Segment segment = Segment.open(path, id, segmentSize);
+      segments.put(id, segment);
+      return segment;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create log segment " + path, e);
+    }
+  }
+
+  private Unit read(long location) {
+    Segment segment = segment(location);
+    int offset = offsetOf(location);
+    return new Unit(readId(segment.buffer, offset), readName(segment.buffer, offset));
+  }
+
+  private Segment segment(long location) {
+    return segments.get(segmentId(location));
+  }
+
+  private int recordSize(long location) {
+    return HEADER_SIZE + segment(location).buffer.getInt(offsetOf(location) + 4);
+  }
+
+  private static int segmentId(long location) {
+    return (int) (location >>> 32);
+  }
+
+  private static long location(int segmentId, int offset) {
+    return ((long) segmentId << 32) | offset;
+  }
+
+  private static int offsetOf(long location) {
+    return (int) location;
+  }
+
+  private static int segmentIdOf(Path file) {
+    String name = file.getFileName().toString();
+    return Integer.parseInt(
+        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private static byte[] encode(byte type, String id, String name) {
+    byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    if (idBytes.length > MAX_FIELD_BYTES || nameBytes.length > MAX_FIELD_BYTES) {
+      throw new IllegalArgumentException("Unit id and name must each be under 64 KiB");
+    }
+    ByteBuffer body = ByteBuffer.allocate(1 + 2 + idBytes.length + 2 + nameBytes.length);
+    body.put(type);
+    body.putShort((short) idBytes.length).put(idBytes);
+    body.putShort((short) nameBytes.length).put(nameBytes);
+    return body.array();
+  }
+
+  private static String readId(ByteBuffer buffer, int offset) {
+    int start = offset + HEADER_SIZE + 1;
+    return readString(buffer, start + 2, Short.toUnsignedInt(buffer.getShort(start)));
+  }
+
+  private static String readName(ByteBuffer buffer, int offset) {
+    int idStart = offset + HEADER_SIZE + 1;
+    int nameStart = idStart + 2 + Short.toUnsignedInt(buffer.getShort(idStart));
+    return readString(buffer, nameStart + 2, Short.toUnsignedInt(buffer.getShort(nameStart)));
+  }
+
+  private static String readString(ByteBuffer buffer, int start, int length) {
+    byte[] bytes = new byte[length];
+    buffer.get(start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** CRC32 over the length field and the body of the record at {@code offset}. */
+  private static int checksum(ByteBuffer buffer, int offset, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.slice(offset + 4, 4 + length));
+    return (int) crc.getValue();
+  }
+
+  private static final class Tombstone {
+
+    private final Set<Integer> putSegments;
+    private long location;
+
+    private Tombstone(long location, Set<Integer> putSegments) {
+      this.location = location;
+      this.putSegments = putSegments;
+    }
+  }
+
+  private static final class Segment {
+
+    private final int id;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position;
+    private long liveBytes;
+
+    private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+      this.id = id;
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    private static Segment open(Path path, int id, int segmentSize) throws IOException {
+      FileChannel channel =
+          FileChannel.open(
+              path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      // A segment written with a larger configured size keeps its size
+      long size = Math.max(channel.size(), segmentSize);
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      return new Segment(id, path, channel, buffer);
+    }
+
+    private double garbageRatio() {
+      return position == 0 ? 0 : 1 - (double) liveBytes / position;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.descope.units.repository.log;
+
+/** Point-in-time size of a {@link UnitLog}. */
+public class UnitLogStats {
+
+  private final int segments;
+  private final int units;
+  private final long writtenBytes;
+  private final long liveBytes;
+  private final long compactedSegments;
+  private final long corruptRecords;
+
+  /**
+   * Constructs a UnitLogStats snapshot.
+   *
+   * @param segments the number of segment files
+   * @param units the number of stored units
+   * @param writtenBytes the bytes appended to the current segments
+   * @param liveBytes the bytes holding the latest version of a unit
+   * @param compactedSegments the number of segments compacted since the log was opened
+   * @param corruptRecords the number of corrupt records found during recovery
+   */
+  public UnitLogStats(
+      int segments,
+      int units,
+      long writtenBytes,
+      long liveBytes,
+      long compactedSegments,
+      long corruptRecords) {
+    this.segments = segments;
+    this.units = units;
+    this.writtenBytes = writtenBytes;
+    this.liveBytes = liveBytes;
+    this.compactedSegments = compactedSegments;
+    this.corruptRecords = corruptRecords;
+  }
+
+  /**
+   * Returns the number of segment files.
+   *
+   * @return the segment count
+   */
+  public int getSegments() {
+    return segments;
+  }
+
+  /**
+   * Returns the number of stored units.
+   *
+   * @return the unit count
+   */
+  public int getUnits() {
+    return units;
+  }
+
+  /**
+   * Returns the bytes appended to the current segments.
+   *
+   * @return the written bytes
+   */
+  public long getWrittenBytes() {
+    return writtenBytes;
+  }
+
+  /**
+   * Returns the bytes holding the latest version of a unit.
+   *
+   * @return the live bytes
+   */
+  public long getLiveBytes() {
+    return liveBytes;
+  }
+
+  /**
+   * Returns the number of segments compacted since the log was opened.
+   *
+   * @return the compacted segment count
+   */
+  public long getCompactedSegments() {
+    return compactedSegments;
+  }
+
+  /**
+   * Returns the number of corrupt records found during recovery.
+   *
+   * @return the corrupt record count
+   */
+  public long getCorruptRecords() {
+    return corruptRecords;
+  }
+}
@@ -0,0 +1,307 @@
+package com.descope.units.resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import com.descope.units.cache.ResponseCache;
+import com.descope.units.cache.UnitCache;
+import com.descope.units.changes.ChangeFeed;
+import com.descope.units.dto.ErrorResponse;
+import com.descope.units.exception.CapacityExceededException;
+import com.descope.units.existence.UnitExistenceFilter;
+import com.descope.units.hedging.ReadHedger;
+import com.descope.units.hotkeys.HotKeyTracker;
+import com.descope.units.jfr.FlightRecordings;
+import com.descope.units.journal.AsyncMutations;
+import com.descope.units.overload.ClientQuotas;
+import com.descope.units.overload.LoadShedder;
+import com.descope.units.ratelimit.DynamoDbThrottler;
+import com.descope.units.replica.UnitReplica;
+import com.descope.units.routing.DynamoDbReplicas;
+import com.descope.units.search.NameSearchIndex;
+import com.descope.units.snapshot.UnitSnapshots;
+
+/**
+ * REST resource exposing operational state of in-process components.
+ *
+ * <p>These endpoints are intended for operators and dashboards rather than API clients. They are
+ * read-only, and those that expose sensitive data are {@link OperatorOnly}.
+ */
+@Path("/management")
+@Produces(MediaType.APPLICATION_JSON)
+public class ManagementResource {
+
+  private final NameSearchIndex nameSearchIndex;
+  private final DynamoDbThrottler dynamoDbThrottler;
+  private final ReadHedger readHedger;
+  private final LoadShedder loadShedder;
+  private final UnitExistenceFilter existenceFilter;
+  private final ResponseCache responseCache;
+  private final HotKeyTracker hotKeyTracker;
+  private final DynamoDbReplicas dynamoDbReplicas;
+  private final ChangeFeed changeFeed;
+  private final UnitSnapshots unitSnapshots;
+  private final FlightRecordings flightRecordings;
+  private final AsyncMutations asyncMutations;
+  private final UnitCache unitCache;
+  private final UnitReplica unitReplica;
+  private final ClientQuotas clientQuotas;
+
+  /**
+   * Constructs a ManagementResource.
+   *
+   * @param nameSearchIndex the name search index
+   * @param dynamoDbThrottler the DynamoDB rate limiter
+   * @param readHedger the DynamoDB read hedger
+   * @param loadShedder the REST admission controller
+   * @param existenceFilter the unit id existence filter
+   * @param responseCache the encoded unit response cache
+   * @param hotKeyTracker the per-id access tracker
+   * @param dynamoDbReplicas the DynamoDB replica regions reads are routed across
+   * @param changeFeed the unit change feed
+   * @param unitSnapshots the unit snapshot writer and restorer
+   * @param flightRecordings the continuous Flight Recorder recording
+   * @param asyncMutations the journal of writes accepted for background application
+   * @param unitCache the two-tier unit cache
+   * @param unitReplica the in-memory copy of the units table
+   * @param clientQuotas the per-client quotas and fair shares
+   */
+  @Inject
+  public ManagementResource(
+      NameSearchIndex nameSearchIndex,
+      DynamoDbThrottler dynamoDbThrottler,
+      ReadHedger readHedger,
+      LoadShedder loadShedder,
+      UnitExistenceFilter existenceFilter,
+      ResponseCache responseCache,
+      HotKeyTracker hotKeyTracker,
+      DynamoDbReplicas dynamoDbReplicas,
+      ChangeFeed changeFeed,
+      UnitSnapshots unitSnapshots,
+      FlightRecordings flightRecordings,
+      AsyncMutations asyncMutations,
+      UnitCache unitCache,
+      UnitReplica unitReplica,
+      ClientQuotas clientQuotas) {
+    this.nameSearchIndex = nameSearchIndex;
+    this.dynamoDbThrottler = dynamoDbThrottler;
+    this.readHedger = readHedger;
+    this.loadShedder = loadShedder;
+    this.existenceFilter = existenceFilter;
+    this.responseCache = responseCache;
+    this.hotKeyTracker = hotKeyTracker;
+    this.dynamoDbReplicas = dynamoDbReplicas;
+    this.changeFeed = changeFeed;
+    this.unitSnapshots = unitSnapshots;
+    this.flightRecordings = flightRecordings;
+    this.asyncMutations = asyncMutations;
+    this.unitCache = unitCache;
+    this.unitReplica = unitReplica;
+    this.clientQuotas = clientQuotas;
+  }
+
+  /**
+   * Returns the size and estimated memory footprint of the name search index.
+   *
+   * @return the index statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/search-index")
+  public Response getSearchIndexStats() {
+    return Response.ok(nameSearchIndex.stats()).build();
+  }
+
+  /**
+   * Returns the current rate, throttle counts and retry budget of each DynamoDB rate limiter.
+   *
+   * @return the limiter statistics keyed by operation type with HTTP 200 status
+   */
+  @GET
+  @Path("/rate-limiters")
+  public Response getRateLimiterStats() {
+    return Response.ok(dynamoDbThrottler.stats()).build();
+  }
+
+  /**
+   * Returns read hedging counters and the current hedge delay.
+   *
+   * @return the hedging statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/hedging")
+  public Response getHedgingStats() {
+    return Response.ok(readHedger.stats()).build();
+  }
+
+  /**
+   * Returns the adaptive concurrency limit, in-flight requests and rejections per endpoint.
+   *
+   * @return the load shedding statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/load-shedding")
+  public Response getLoadSheddingStats() {
+    return Response.ok(loadShedder.stats()).build();
+  }
+
+  /**
+   * Returns the size, memory use and definite-miss count of the unit existence filter.
+   *
+   * @return the filter statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/existence-filter")
+  public Response getExistenceFilterStats() {
+    return Response.ok(existenceFilter.stats()).build();
+  }
+
+  /**
+   * Returns the size, byte budget and hit counters of the encoded response cache.
+   *
+   * @return the response cache statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/response-cache")
+  public Response getResponseCacheStats() {
+    return Response.ok(responseCache.stats()).build();
+  }
+
+  /**
+   * Returns the most read and most written unit ids over the last complete window, with their
+   * estimated access rates.
+   *
+   * @return the hot key statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/hot-keys")
+  public Response getHotKeyStats() {
+    return Response.ok(hotKeyTracker.stats()).build();
+  }
+
+  /**
+   * Returns the latency and error rate of each DynamoDB region reads are routed across.
+   *
+   * @return the routing statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/routing")
+  public Response getRoutingStats() {
+    return Response.ok(dynamoDbReplicas.stats()).build();
+  }
+
+  /**
+   * Returns change feed subscribers and counts of published, replicated and dropped changes.
+   *
+   * @return the change feed statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/changes")
+  public Response getChangeFeedStats() {
+    return Response.ok(changeFeed.stats()).build();
+  }
+
+  /**
+   * Returns the unit snapshots last written and restored by this instance.
+   *
+   * @return the snapshot statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/snapshots")
+  public Response getSnapshotStats() {
+    return Response.ok(unitSnapshots.stats()).build();
+  }
+
+  /**
+   * Returns pending asynchronous writes, their outcomes and the size of the journal.
+   *
+   * @return the asynchronous write statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/async-writes")
+  public Response getAsyncWriteStats() {
+    return Response.ok(asyncMutations.stats()).build();
+  }
+
+  /**
+   * Returns the hit counts of both unit cache tiers and the health of the shared tier.
+   *
+   * @return the unit cache statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/unit-cache")
+  public Response getUnitCacheStats() {
+    return Response.ok(unitCache.stats()).build();
+  }
+
+  /**
+   * Returns the size of the in-memory replica and how far it is behind the DynamoDB stream.
+   *
+   * @return the replica statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/replica")
+  public Response getReplicaStats() {
+    return Response.ok(unitReplica.stats()).build();
+  }
+
+  /**
+   * Returns each client's quota usage, in-flight requests and rejections.
+   *
+   * @return the client quota statistics with HTTP 200 status
+   */
+  @GET
+  @Path("/quotas")
+  public Response getClientQuotaStats() {
+    return Response.ok(clientQuotas.stats()).build();
+  }
+
+  /**
+   * Returns the last minutes of the continuous Flight Recorder recording, for JDK Mission Control.
+   *
+   * <p>Operator-only, since recordings show the service's internals.
+   *
+   * @return the recording file with HTTP 200 status, or 404 if flight recording is disabled
+   * @throws IOException if the recording cannot be written
+   * @throws CapacityExceededException if another dump is being downloaded
+   */
+  @GET
+  @Path("/jfr")
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  @OperatorOnly
+  public Response getFlightRecording() throws IOException {
+    if (!flightRecordings.isRecording()) {
+      return Response.status(Response.Status.NOT_FOUND)
+          .type(MediaType.APPLICATION_JSON_TYPE)
+          .entity(
+              new ErrorResponse(
+                  "Flight recording is disabled.", Response.Status.NOT_FOUND.getStatusCode()))
+          .build();
+    }
+    java.nio.file.Path file =
+        flightRecordings
+            .dump()
+            .orElseThrow(
+                () ->
+                    new CapacityExceededException(
+                        "A flight recording is already being downloaded.", 5));
+    StreamingOutput body =
+        output -> {
+          try {
+            Files.copy(file, output);
+          } finally {
+            flightRecordings.discard(file);
+          }
+        };
+    return Response.ok(body)
+        .header("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"")
+        .build();
+  }
+}
@@ -0,0 +1,93 @@
+package com.descope.units.resource;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import com.descope.units.migration.MigrationRunner;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
+
+/**
+ * REST resource for running table migrations.
+ *
+ * <p>Like the other management endpoints, these are intended for operators rather than API clients.
+ * Starting and cancelling a migration are {@link OperatorOnly}. A migration runs in the background
+ * of the instance that received the request.
+ */
+@Path("/management/migrations")
+@Produces(MediaType.APPLICATION_JSON)
+@UnlessBuildProperty(name = "units.repository.type", stringValue = "log", enableIfMissing = true)
+public class MigrationResource {
+
+  private final MigrationRunner migrationRunner;
+
+  /**
+   * Constructs a MigrationResource.
+   *
+   * @param migrationRunner the migration runner
+   */
+  @Inject
+  public MigrationResource(MigrationRunner migrationRunner) {
+    this.migrationRunner = migrationRunner;
+  }
+
+  /**
+   * Returns the progress of every available migration.
+   *
+   * @return the migration statuses with HTTP 200 status
+   */
+  @GET
+  public Response listMigrations() {
+    return Response.ok(migrationRunner.statuses()).build();
+  }
+
+  /**
+   * Returns the progress of one migration.
+   *
+   * @param name the migration name
+   * @return the migration status with HTTP 200 status
+   */
+  @GET
+  @Path("/{name}")
+  public Response getMigration(@PathParam("name") String name) {
+    return Response.ok(migrationRunner.status(name)).build();
+  }
+
+  /**
+   * Starts a migration, resuming it from its checkpoints unless asked to restart.
+   *
+   * @param name the migration name
+   * @param restart whether to discard the checkpoints and start from the beginning
+   * @return the migration status with HTTP 202 status
+   */
+  @POST
+  @Path("/{name}")
+  @OperatorOnly
+  public Response startMigration(
+      @PathParam("name") String name,
+      @QueryParam("restart") @DefaultValue("false") boolean restart) {
+    return Response.accepted(migrationRunner.start(name, restart)).build();
+  }
+
+  /**
+   * Stops a running migration after its current pages are checkpointed.
+   *
+   * @param name the migration name
+   * @return the migration status with HTTP 200 status
+   */
+  @DELETE
+  @Path("/{name}")
+  @OperatorOnly
+  public Response cancelMigration(@PathParam("name") String name) {
+    return Response.ok(migrationRunner.cancel(name)).build();
+  }
+}
@@ -0,0 +1,16 @@
+package com.descope.units.resource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a management method that exposes sensitive data or changes the table, so only operators
+ * holding the {@code units.management.token} may call it.
+ *
+ * <p>Read-only statistics endpoints stay unannotated. See {@link OperatorTokenFilter}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface OperatorOnly {}
@@ -0,0 +1,82 @@
+package com.descope.units.resource;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import com.descope.units.dto.ErrorResponse;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Requires the operator token on resource methods annotated with {@link OperatorOnly}.
+ *
+ * <p>The token is sent as {@code Authorization: Bearer <token>}. Without {@code
+ * units.management.token} configured, annotated methods answer 404 as if they did not exist, so a
+ * deployment that never set a token exposes nothing. A missing or wrong token gets 401.
+ */
+@Provider
+public class OperatorTokenFilter implements ContainerRequestFilter {
+
+  private static final String BEARER = "Bearer ";
+
+  private final Optional<byte[]> token;
+
+  @Context ResourceInfo resourceInfo;
+
+  /**
+   * Constructs an OperatorTokenFilter.
+   *
+   * @param token the token operators present, or empty to disable operator-only endpoints
+   */
+  @Inject
+  public OperatorTokenFilter(
+      @ConfigProperty(name = "units.management.token") Optional<String> token) {
+    this.token =
+        token
+            .filter(value -> !value.isBlank())
+            .map(value -> value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    Method method = resourceInfo.getResourceMethod();
+    if (method == null || !method.isAnnotationPresent(OperatorOnly.class)) {
+      return;
+    }
+    if (token.isEmpty()) {
+      requestContext.abortWith(error(Response.Status.NOT_FOUND, "Not found."));
+      return;
+    }
+    String authorization = requestContext.getHeaderString(HttpHeaders.AUTHORIZATION);
+    if (authorization == null
+        || !authorization.startsWith(BEARER)
+        || !MessageDigest.isEqual(
+            token.get(),
+            authorization.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8))) {
+      requestContext.abortWith(
+          Response.fromResponse(
+                  error(Response.Status.UNAUTHORIZED, "A valid operator token is required."))
+              .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+              .build());
+    }
+  }
+
+  private static Response error(Response.Status status, String message) {
+    return Response.status(status)
+        .type(MediaType.APPLICATION_JSON_TYPE)
+        .entity(new ErrorResponse(message, status.getStatusCode()))
+        .build();
+  }
+}
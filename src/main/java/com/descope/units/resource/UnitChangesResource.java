@@ -0,0 +1,141 @@
+package com.descope.units.resource;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import com.descope.units.changes.ChangeFeed;
+import com.descope.units.changes.ChangeSink;
+import com.descope.units.changes.UnitChange;
+import com.descope.units.exception.CapacityExceededException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * REST resource streaming unit changes as server-sent events.
+ *
+ * <p>Each change is an event named {@code created}, {@code updated} or {@code deleted} whose data
+ * is the unit id and name. A client that reconnects sends the id of the last event it received in
+ * {@code Last-Event-ID} and is sent the changes it missed; if they are no longer available it
+ * receives a {@code reset} event and should reload the units it follows. Streams are long-lived, so
+ * they are neither time-bounded nor load-shed like the request/response endpoints.
+ */
+@Path("/units:changes")
+public class UnitChangesResource {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnitChangesResource.class);
+
+  /** The most unit ids a single subscription may follow. */
+  static final int MAX_FILTER_IDS = 100;
+
+  private final ChangeFeed changeFeed;
+
+  /**
+   * Constructs a UnitChangesResource.
+   *
+   * @param changeFeed the feed of unit changes
+   */
+  @Inject
+  public UnitChangesResource(ChangeFeed changeFeed) {
+    this.changeFeed = changeFeed;
+  }
+
+  /**
+   * Streams unit changes until the client disconnects.
+   *
+   * @param ids the unit ids to follow, repeated or comma-separated; all units if absent
+   * @param lastEventId the id of the last event received before reconnecting
+   * @param eventSink the client connection
+   * @param sse the event factory
+   */
+  @GET
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public void streamChanges(
+      @QueryParam("ids") List<String> ids,
+      @HeaderParam("Last-Event-ID") String lastEventId,
+      @Context SseEventSink eventSink,
+      @Context Sse sse) {
+    if (!changeFeed.isEnabled()) {
+      throw new CapacityExceededException("The change feed is disabled.", 60);
+    }
+    Set<String> filter = parseIds(ids);
+    logger.debug("Subscribing to changes of {} units from {}", filter.size(), lastEventId);
+    changeFeed.subscribe(filter, lastEventId, new SseChangeSink(eventSink, sse));
+  }
+
+  private static Set<String> parseIds(List<String> ids) {
+    Set<String> filter = new LinkedHashSet<>();
+    if (ids == null) {
+      return filter;
+    }
+    for (String param : ids) {
+      for (String id : param.split(",")) {
+        String trimmed = id.trim();
+        if (!trimmed.isEmpty()) {
+          filter.add(trimmed);
+        }
+      }
+    }
+    if (filter.size() > MAX_FILTER_IDS) {
+      throw new IllegalArgumentException(
+          String.format("At most %d unit ids can be followed", MAX_FILTER_IDS));
+    }
+    return filter;
+  }
+
+  /** Writes change feed events to an SSE connection. */
+  private static final class SseChangeSink implements ChangeSink {
+
+    private final SseEventSink eventSink;
+    private final Sse sse;
+
+    private SseChangeSink(SseEventSink eventSink, Sse sse) {
+      this.eventSink = eventSink;
+      this.sse = sse;
+    }
+
+    @Override
+    public CompletionStage<?> send(UnitChange change) {
+      return eventSink.send(
+          sse.newEventBuilder()
+              .id(change.getEventId())
+              .name(change.getType().eventName())
+              .mediaType(MediaType.APPLICATION_JSON_TYPE)
+              .data(UnitChange.class, change)
+              .build());
+    }
+
+    @Override
+    public CompletionStage<?> sendReset() {
+      return eventSink.send(sse.newEventBuilder().name("reset").data("{}").build());
+    }
+
+    @Override
+    public CompletionStage<?> sendHeartbeat() {
+      return eventSink.send(sse.newEventBuilder().comment("heartbeat").build());
+    }
+
+    @Override
+    public boolean isClosed() {
+      return eventSink.isClosed();
+    }
+
+    @Override
+    public void close() {
+      eventSink.close();
+    }
+  }
+}
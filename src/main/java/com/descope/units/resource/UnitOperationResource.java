@@ -0,0 +1,60 @@
+package com.descope.units.resource;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import com.descope.units.dto.ErrorResponse;
+import com.descope.units.journal.AsyncMutations;
+import com.descope.units.overload.LoadShed;
+import com.descope.units.overload.RequestPriority;
+
+/**
+ * REST resource reporting the progress of writes accepted with {@code Prefer: respond-async}.
+ *
+ * <p>Clients poll the location returned with HTTP 202 until the status is {@code APPLIED} or {@code
+ * FAILED}.
+ */
+@Path("/units:operations")
+@Produces(MediaType.APPLICATION_JSON)
+public class UnitOperationResource {
+
+  private final AsyncMutations asyncMutations;
+
+  /**
+   * Constructs a UnitOperationResource.
+   *
+   * @param asyncMutations the journal of accepted writes
+   */
+  @Inject
+  public UnitOperationResource(AsyncMutations asyncMutations) {
+    this.asyncMutations = asyncMutations;
+  }
+
+  /**
+   * Returns the status of an accepted write.
+   *
+   * @param operationId the operation id returned when the write was accepted
+   * @return the operation with HTTP 200 status, or HTTP 404 if it is unknown
+   */
+  @LoadShed(RequestPriority.READ)
+  @GET
+  @Path("/{operationId}")
+  public Response getOperation(@PathParam("operationId") String operationId) {
+    return asyncMutations
+        .status(operationId)
+        .map(operation -> Response.ok(operation).build())
+        .orElseGet(
+            () ->
+                Response.status(Response.Status.NOT_FOUND)
+                    .entity(
+                        new ErrorResponse(
+                            "Operation with id '" + operationId + "' not found",
+                            Response.Status.NOT_FOUND.getStatusCode()))
+                    .build());
+  }
+}
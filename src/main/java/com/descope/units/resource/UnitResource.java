@@ -4,19 +4,38 @@ import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 
+import com.descope.units.cache.CachedResponse;
+import com.descope.units.cache.CachedUnitReader;
+import com.descope.units.cache.Freshness;
+import com.descope.units.cache.ResponseCache;
+import com.descope.units.cache.UnitRead;
+import com.descope.units.deadline.RequestDeadline;
 import com.descope.units.dto.CreateUnitRequest;
+import com.descope.units.dto.OperationResponse;
+import com.descope.units.dto.UnitPageResponse;
 import com.descope.units.dto.UnitResponse;
 import com.descope.units.dto.UpdateUnitRequest;
+import com.descope.units.journal.AsyncMutations;
+import com.descope.units.journal.MutationType;
 import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
+import com.descope.units.overload.LoadShed;
+import com.descope.units.overload.RequestPriority;
 import com.descope.units.service.UnitService;
 
 import org.slf4j.Logger;
@@ -26,7 +45,12 @@ import org.slf4j.LoggerFactory;
  * REST resource for unit management operations.
  *
  * <p>This resource provides endpoints for creating, retrieving, updating, and deleting units.
+ *
+ * <p>When asynchronous writes are enabled, a create, update or delete sent with {@code Prefer:
+ * respond-async} is journaled and answered with HTTP 202 and the location of its operation status
+ * instead of waiting for the data store; see {@link AsyncMutations}.
  */
+@RequestDeadline
 @Path("/units")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -35,26 +59,50 @@ public class UnitResource {
   private static final Logger logger = LoggerFactory.getLogger(UnitResource.class);
 
   private final UnitService unitService;
+  private final ResponseCache responseCache;
+  private final CachedUnitReader cachedUnitReader;
+  private final AsyncMutations asyncMutations;
 
   /**
    * Constructs a UnitResource with the specified service.
    *
    * @param unitService the unit service
+   * @param responseCache the cache of encoded unit responses
+   * @param cachedUnitReader the reader serving units through the response cache
+   * @param asyncMutations the journal accepting writes to apply in the background
    */
   @Inject
-  public UnitResource(UnitService unitService) {
+  public UnitResource(
+      UnitService unitService,
+      ResponseCache responseCache,
+      CachedUnitReader cachedUnitReader,
+      AsyncMutations asyncMutations) {
     this.unitService = unitService;
+    this.responseCache = responseCache;
+    this.cachedUnitReader = cachedUnitReader;
+    this.asyncMutations = asyncMutations;
   }
 
   /**
    * Creates a new unit.
    *
    * @param request the create unit request
-   * @return the created unit response with HTTP 201 status
+   * @param prefer the {@code Prefer} header; {@code respond-async} asks for HTTP 202
+   * @param uriInfo the request URI, for locating the operation status
+   * @return the created unit response with HTTP 201 status, or the operation with HTTP 202
    */
+  @LoadShed(RequestPriority.WRITE)
   @POST
-  public Response createUnit(@Valid CreateUnitRequest request) {
+  public Response createUnit(
+      @Valid CreateUnitRequest request,
+      @HeaderParam("Prefer") String prefer,
+      @Context UriInfo uriInfo) {
     logger.debug("Received request to create unit with name: {}", request.getName());
+    if (asyncMutations.acceptsAsync(prefer)) {
+      return accepted(
+          asyncMutations.accept(MutationType.CREATE, unitService.newUnitId(), request.getName()),
+          uriInfo);
+    }
     Unit unit = unitService.createUnit(request.getName());
     UnitResponse response = UnitResponse.fromDomain(unit);
     logger.info("Successfully created unit with id: {}", response.getId());
@@ -64,17 +112,63 @@ public class UnitResource {
   /**
    * Retrieves a unit by its identifier.
    *
+   * <p>When the response cache is enabled, the encoded body is served from it with an {@code ETag},
+   * and a matching {@code If-None-Match} gets HTTP 304. A stale body carries {@code Age} and a
+   * {@code Warning}: 110 while it is being refreshed, 111 when reading the unit failed.
+   *
    * @param id the unit identifier
+   * @param request the request, for evaluating conditional headers
    * @return the unit response with HTTP 200 status
    */
+  @LoadShed(RequestPriority.READ)
   @GET
   @Path("/{id}")
-  public Response getUnit(@PathParam("id") String id) {
+  public Response getUnit(@PathParam("id") String id, @Context Request request) {
     logger.debug("Received request to get unit with id: {}", id);
-    Unit unit = unitService.getUnitById(id);
-    UnitResponse response = UnitResponse.fromDomain(unit);
-    logger.debug("Successfully retrieved unit with id: {}", id);
-    return Response.ok(response).build();
+    if (!responseCache.isEnabled()) {
+      Unit unit = unitService.getUnitById(id);
+      UnitResponse response = UnitResponse.fromDomain(unit);
+      logger.debug("Successfully retrieved unit with id: {}", id);
+      return Response.ok(response).build();
+    }
+
+    UnitRead read = cachedUnitReader.read(id);
+    CachedResponse cached = read.getResponse();
+    Response.ResponseBuilder builder = request.evaluatePreconditions(cached.getEntityTag());
+    if (builder == null) {
+      builder = Response.ok(cached.getBody(), MediaType.APPLICATION_JSON_TYPE);
+    }
+    builder.tag(cached.getEntityTag());
+    if (read.getFreshness() != Freshness.FRESH) {
+      builder
+          .header("Age", read.getAgeSeconds())
+          .header(
+              "Warning",
+              read.getFreshness() == Freshness.STALE
+                  ? "110 - \"Response is Stale\""
+                  : "111 - \"Revalidation Failed\"");
+    }
+    return builder.build();
+  }
+
+  /**
+   * Finds units by exact name.
+   *
+   * @param name the exact unit name
+   * @param limit the maximum number of units to return
+   * @param cursor the cursor returned by the previous page, if any
+   * @return a page of matching units with HTTP 200 status
+   */
+  @LoadShed(RequestPriority.BULK)
+  @GET
+  public Response findUnits(
+      @QueryParam("name") String name,
+      @QueryParam("limit") @DefaultValue("" + UnitService.DEFAULT_PAGE_SIZE) int limit,
+      @QueryParam("cursor") String cursor) {
+    logger.debug("Received request to find units by name: {}", name);
+    UnitPage page = unitService.findUnitsByName(name, limit, cursor);
+    logger.debug("Found {} units with name: {}", page.getItems().size(), name);
+    return Response.ok(UnitPageResponse.fromDomain(page)).build();
   }
 
   /**
@@ -82,12 +176,22 @@ public class UnitResource {
    *
    * @param id the unit identifier
    * @param request the update unit request
-   * @return the updated unit response with HTTP 200 status
+   * @param prefer the {@code Prefer} header; {@code respond-async} asks for HTTP 202
+   * @param uriInfo the request URI, for locating the operation status
+   * @return the updated unit response with HTTP 200 status, or the operation with HTTP 202
    */
+  @LoadShed(RequestPriority.WRITE)
   @PUT
   @Path("/{id}")
-  public Response updateUnit(@PathParam("id") String id, @Valid UpdateUnitRequest request) {
+  public Response updateUnit(
+      @PathParam("id") String id,
+      @Valid UpdateUnitRequest request,
+      @HeaderParam("Prefer") String prefer,
+      @Context UriInfo uriInfo) {
     logger.debug("Received request to update unit with id: {}", id);
+    if (asyncMutations.acceptsAsync(prefer)) {
+      return accepted(asyncMutations.accept(MutationType.UPDATE, id, request.getName()), uriInfo);
+    }
     Unit unit = unitService.updateUnit(id, request.getName());
     UnitResponse response = UnitResponse.fromDomain(unit);
     logger.info("Successfully updated unit with id: {}", id);
@@ -98,14 +202,38 @@ public class UnitResource {
    * Deletes a unit by its identifier.
    *
    * @param id the unit identifier
-   * @return HTTP 204 No Content status
+   * @param prefer the {@code Prefer} header; {@code respond-async} asks for HTTP 202
+   * @param uriInfo the request URI, for locating the operation status
+   * @return HTTP 204 No Content status, or the operation with HTTP 202
    */
+  @LoadShed(RequestPriority.WRITE)
   @DELETE
   @Path("/{id}")
-  public Response deleteUnit(@PathParam("id") String id) {
+  public Response deleteUnit(
+      @PathParam("id") String id, @HeaderParam("Prefer") String prefer, @Context UriInfo uriInfo) {
     logger.debug("Received request to delete unit with id: {}", id);
+    if (asyncMutations.acceptsAsync(prefer)) {
+      return accepted(asyncMutations.accept(MutationType.DELETE, id, null), uriInfo);
+    }
     unitService.deleteUnit(id);
     logger.info("Successfully deleted unit with id: {}", id);
     return Response.noContent().build();
   }
+
+  private static Response accepted(OperationResponse operation, UriInfo uriInfo) {
+    logger.debug(
+        "Accepted {} of unit {} as operation {}",
+        operation.getType(),
+        operation.getUnitId(),
+        operation.getOperationId());
+    return Response.accepted(operation)
+        .location(
+            uriInfo
+                .getBaseUriBuilder()
+                .path(UnitOperationResource.class)
+                .path(operation.getOperationId())
+                .build())
+        .header("Preference-Applied", "respond-async")
+        .build();
+  }
 }
@@ -0,0 +1,69 @@
+package com.descope.units.resource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import com.descope.units.deadline.RequestDeadline;
+import com.descope.units.dto.UnitPageResponse;
+import com.descope.units.dto.UnitResponse;
+import com.descope.units.model.Unit;
+import com.descope.units.overload.LoadShed;
+import com.descope.units.overload.RequestPriority;
+import com.descope.units.service.UnitService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * REST resource for unit name search.
+ *
+ * <p>This resource serves autocomplete-style prefix and substring queries from the in-process name
+ * index.
+ */
+@RequestDeadline
+@Path("/units:search")
+@Produces(MediaType.APPLICATION_JSON)
+public class UnitSearchResource {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnitSearchResource.class);
+
+  private final UnitService unitService;
+
+  /**
+   * Constructs a UnitSearchResource with the specified service.
+   *
+   * @param unitService the unit service
+   */
+  @Inject
+  public UnitSearchResource(UnitService unitService) {
+    this.unitService = unitService;
+  }
+
+  /**
+   * Searches unit names.
+   *
+   * @param query the search text
+   * @param limit the maximum number of results
+   * @return the ranked matches with HTTP 200 status
+   */
+  @LoadShed(RequestPriority.BULK)
+  @GET
+  public Response searchUnits(
+      @QueryParam("q") String query,
+      @QueryParam("limit") @DefaultValue("" + UnitService.DEFAULT_SEARCH_LIMIT) int limit) {
+    logger.debug("Received request to search units for: {}", query);
+    List<Unit> units = unitService.searchUnits(query, limit);
+    List<UnitResponse> items =
+        units.stream().map(UnitResponse::fromDomain).collect(Collectors.toList());
+    return Response.ok(new UnitPageResponse(items, null)).build();
+  }
+}
@@ -0,0 +1,181 @@
+package com.descope.units.routing;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.descope.units.exception.CapacityExceededException;
+import com.descope.units.exception.DeadlineExceededException;
+import com.descope.units.jfr.JfrExecutionInterceptor;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+
+/**
+ * DynamoDB clients for the replica regions of a global table, and the router choosing among them.
+ *
+ * <p>The home region is the one of the application's default DynamoDB client ({@code
+ * quarkus.dynamodb.aws.region}); it takes every write. Each region listed in {@code
+ * dynamodb.replicas.regions} gets its own client, optionally pointed at {@code
+ * dynamodb.replicas.<region>.endpoint-override}, and serves reads when it answers faster than home.
+ * With no replica regions, routing is disabled and everything uses the default client.
+ */
+@ApplicationScoped
+public class DynamoDbReplicas {
+
+  private static final Logger logger = LoggerFactory.getLogger(DynamoDbReplicas.class);
+
+  private final String homeRegion;
+  private final Map<String, DynamoDbClient> replicaClients;
+  private final LatencyRouter router;
+
+  /**
+   * Constructs DynamoDbReplicas from configuration.
+   *
+   * @param config the application configuration, for per-region endpoint overrides
+   * @param homeRegion the region of the default DynamoDB client
+   * @param replicaRegions the other regions to read from
+   * @param probeIntervalMillis how often each region that is not the best receives a read
+   * @param alpha the weight of each new sample in the latency and error rate averages
+   */
+  @Inject
+  public DynamoDbReplicas(
+      Config config,
+      @ConfigProperty(name = "quarkus.dynamodb.aws.region", defaultValue = "us-east-1")
+          String homeRegion,
+      @ConfigProperty(name = "dynamodb.replicas.regions") Optional<List<String>> replicaRegions,
+      @ConfigProperty(name = "dynamodb.replicas.probe-interval-ms", defaultValue = "1000")
+          long probeIntervalMillis,
+      @ConfigProperty(name = "dynamodb.replicas.ewma-alpha", defaultValue = "0.2") double alpha) {
+    this(
+        homeRegion,
+        buildClients(config, homeRegion, replicaRegions.orElse(List.of())),
+        TimeUnit.MILLISECONDS.toNanos(probeIntervalMillis),
+        alpha);
+  }
+
+  DynamoDbReplicas(
+      String homeRegion,
+      Map<String, DynamoDbClient> replicaClients,
+      long probeIntervalNanos,
+      double alpha) {
+    this.homeRegion = homeRegion;
+    this.replicaClients = replicaClients;
+    this.router =
+        replicaClients.isEmpty()
+            ? null
+            : new LatencyRouter(
+                homeRegion,
+                List.copyOf(replicaClients.keySet()),
+                alpha,
+                probeIntervalNanos,
+                DynamoDbReplicas::isEndpointFailure);
+    if (router != null) {
+      logger.info(
+          "Routing DynamoDB reads across {} (home) and {}", homeRegion, replicaClients.keySet());
+    }
+  }
+
+  /**
+   * Returns whether reads are routed across replica regions.
+   *
+   * @return true if at least one replica region is configured
+   */
+  public boolean isEnabled() {
+    return router != null;
+  }
+
+  /**
+   * Returns the region that takes every write.
+   *
+   * @return the home region
+   */
+  public String getHomeRegion() {
+    return homeRegion;
+  }
+
+  /**
+   * Returns the clients of the replica regions, in configuration order.
+   *
+   * @return the clients keyed by region, empty if routing is disabled
+   */
+  public Map<String, DynamoDbClient> getReplicaClients() {
+    return replicaClients;
+  }
+
+  /**
+   * Returns the router choosing the region for each read.
+   *
+   * @return the router, or null if routing is disabled
+   */
+  public LatencyRouter getRouter() {
+    return router;
+  }
+
+  /**
+   * Returns the health of each region and routing counters.
+   *
+   * @return the routing statistics
+   */
+  public RoutingStats stats() {
+    return router == null ? RoutingStats.disabled() : router.stats();
+  }
+
+  @PreDestroy
+  void close() {
+    replicaClients.values().forEach(DynamoDbClient::close);
+  }
+
+  /**
+   * Returns whether an error says something about the region that raised it, so that the read
+   * should be tried in another region. Running out of request time or of local rate limiter permits
+   * does not.
+   */
+  static boolean isEndpointFailure(RuntimeException e) {
+    if (e instanceof SdkException) {
+      return true;
+    }
+    return e instanceof CapacityExceededException
+        && !(e instanceof DeadlineExceededException)
+        && e.getCause() instanceof SdkException;
+  }
+
+  private static Map<String, DynamoDbClient> buildClients(
+      Config config, String homeRegion, List<String> regions) {
+    Map<String, DynamoDbClient> clients = new LinkedHashMap<>();
+    for (String region : regions) {
+      String name = region.trim();
+      if (name.isEmpty() || name.equals(homeRegion) || clients.containsKey(name)) {
+        continue;
+      }
+      DynamoDbClientBuilder builder =
+          DynamoDbClient.builder()
+              .region(Region.of(name))
+              .credentialsProvider(DefaultCredentialsProvider.create())
+              .httpClientBuilder(UrlConnectionHttpClient.builder())
+              .overrideConfiguration(
+                  override -> override.addExecutionInterceptor(new JfrExecutionInterceptor()));
+      config
+          .getOptionalValue("dynamodb.replicas." + name + ".endpoint-override", String.class)
+          .ifPresent(endpoint -> builder.endpointOverride(URI.create(endpoint)));
+      clients.put(name, builder.build());
+    }
+    return clients;
+  }
+}
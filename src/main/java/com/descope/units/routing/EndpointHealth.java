@@ -0,0 +1,139 @@
+package com.descope.units.routing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free moving averages of one endpoint's latency and error rate.
+ *
+ * <p>Both are exponentially weighted, so a few slow or failed calls move them quickly and old
+ * behaviour fades. A failed call counts as an error but not as a latency sample. The score ranks
+ * endpoints: lower is better, and each percentage point of errors costs as much as a tenth more
+ * latency. An endpoint failing most calls is unhealthy whatever its latency.
+ */
+final class EndpointHealth {
+
+  private static final double ERROR_PENALTY = 10;
+  private static final double UNHEALTHY_ERROR_RATE = 0.5;
+
+  private final String name;
+  private final boolean home;
+  private final double alpha;
+  private final AtomicLong latencyBits = new AtomicLong(Double.doubleToLongBits(0));
+  private final AtomicLong errorRateBits = new AtomicLong(Double.doubleToLongBits(0));
+  private final AtomicLong lastUsedNanos;
+  private final LongAdder reads = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+
+  /**
+   * Constructs an EndpointHealth.
+   *
+   * @param name the endpoint name
+   * @param home whether the endpoint is the home endpoint
+   * @param alpha the weight of each new sample, in (0, 1]
+   * @param nowNanos the current time
+   */
+  EndpointHealth(String name, boolean home, double alpha, long nowNanos) {
+    this.name = name;
+    this.home = home;
+    this.alpha = alpha;
+    this.lastUsedNanos = new AtomicLong(nowNanos);
+  }
+
+  String name() {
+    return name;
+  }
+
+  boolean isHome() {
+    return home;
+  }
+
+  /**
+   * Records the outcome of a call.
+   *
+   * @param latencyNanos how long the call took
+   * @param success whether the call succeeded
+   */
+  void record(long latencyNanos, boolean success) {
+    reads.increment();
+    if (success) {
+      update(latencyBits, latencyNanos, true);
+      update(errorRateBits, 0, false);
+    } else {
+      failures.increment();
+      update(errorRateBits, 1, false);
+    }
+  }
+
+  /**
+   * Returns the routing score; endpoints never measured score zero so they are tried first.
+   *
+   * @return the score, lower is better
+   */
+  double score() {
+    double latency = latencyNanos();
+    double errorRate = errorRate();
+    if (latency == 0 && errorRate > 0) {
+      // Failed without ever succeeding
+      return Double.POSITIVE_INFINITY;
+    }
+    return latency * (1 + ERROR_PENALTY * errorRate);
+  }
+
+  /**
+   * Returns whether most recent calls succeeded; unhealthy endpoints are only used as a last resort
+   * and for probes.
+   *
+   * @return true if the endpoint is healthy
+   */
+  boolean isHealthy() {
+    return errorRate() < UNHEALTHY_ERROR_RATE;
+  }
+
+  double latencyNanos() {
+    return Double.longBitsToDouble(latencyBits.get());
+  }
+
+  double errorRate() {
+    return Double.longBitsToDouble(errorRateBits.get());
+  }
+
+  /**
+   * Claims this endpoint for a probe if it has not been used for the given interval.
+   *
+   * @param nowNanos the current time
+   * @param intervalNanos the probe interval
+   * @return true if the caller should send its read here
+   */
+  boolean tryClaimProbe(long nowNanos, long intervalNanos) {
+    long last = lastUsedNanos.get();
+    return nowNanos - last >= intervalNanos && lastUsedNanos.compareAndSet(last, nowNanos);
+  }
+
+  void markUsed(long nowNanos) {
+    lastUsedNanos.set(nowNanos);
+  }
+
+  EndpointStats stats() {
+    return new EndpointStats(
+        name,
+        home,
+        TimeUnit.NANOSECONDS.toMicros((long) latencyNanos()),
+        errorRate(),
+        reads.sum(),
+        failures.sum());
+  }
+
+  private void update(AtomicLong bits, double sample, boolean seed) {
+    long current;
+    long next;
+    do {
+      current = bits.get();
+      double average = Double.longBitsToDouble(current);
+      // The first latency sample replaces the initial zero rather than being averaged with it
+      double updated = seed && average == 0 ? sample : average + alpha * (sample - average);
+      next = Double.doubleToLongBits(updated);
+    } while (!bits.compareAndSet(current, next));
+  }
+}
@@ -0,0 +1,86 @@
+package com.descope.units.routing;
+
+/** Point-in-time health of one endpoint of a {@link LatencyRouter}. */
+public class EndpointStats {
+
+  private final String name;
+  private final boolean home;
+  private final long latencyMicros;
+  private final double errorRate;
+  private final long reads;
+  private final long failures;
+
+  /**
+   * Constructs an EndpointStats snapshot.
+   *
+   * @param name the endpoint name
+   * @param home whether this is the home endpoint
+   * @param latencyMicros the moving average latency of successful reads in microseconds
+   * @param errorRate the moving average share of failed reads
+   * @param reads the number of reads sent to the endpoint
+   * @param failures the number of those reads that failed
+   */
+  public EndpointStats(
+      String name, boolean home, long latencyMicros, double errorRate, long reads, long failures) {
+    this.name = name;
+    this.home = home;
+    this.latencyMicros = latencyMicros;
+    this.errorRate = errorRate;
+    this.reads = reads;
+    this.failures = failures;
+  }
+
+  /**
+   * Returns the endpoint name.
+   *
+   * @return the name, such as a region
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns whether this is the home endpoint, which also takes all writes.
+   *
+   * @return true for the home endpoint
+   */
+  public boolean isHome() {
+    return home;
+  }
+
+  /**
+   * Returns the moving average latency of successful reads.
+   *
+   * @return the latency in microseconds, zero until the first success
+   */
+  public long getLatencyMicros() {
+    return latencyMicros;
+  }
+
+  /**
+   * Returns the moving average share of failed reads.
+   *
+   * @return the error rate, between 0 and 1
+   */
+  public double getErrorRate() {
+    return errorRate;
+  }
+
+  /**
+   * Returns the number of reads sent to the endpoint.
+   *
+   * @return the read count
+   */
+  public long getReads() {
+    return reads;
+  }
+
+  /**
+   * Returns the number of reads sent to the endpoint that failed.
+   *
+   * @return the failure count
+   */
+  public long getFailures() {
+    return failures;
+  }
+}
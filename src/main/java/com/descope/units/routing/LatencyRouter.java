@@ -0,0 +1,142 @@
+package com.descope.units.routing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends each read to the endpoint that currently answers best, failing over to the others.
+ *
+ * <p>Endpoints are ranked by {@link EndpointHealth}: healthy before unhealthy, then by latency
+ * weighted by error rate. An endpoint that is never chosen would never be measured again, so once
+ * per probe interval each one receives a single read ahead of the best endpoint. A read that fails
+ * with an error the failover predicate accepts is retried on the next endpoint in rank order; any
+ * other error is rethrown at once and not held against the endpoint.
+ */
+public final class LatencyRouter {
+
+  private static final Logger logger = LoggerFactory.getLogger(LatencyRouter.class);
+
+  private static final Comparator<EndpointHealth> RANK =
+      Comparator.comparing((EndpointHealth endpoint) -> !endpoint.isHealthy())
+          .thenComparingDouble(EndpointHealth::score);
+
+  private final List<EndpointHealth> endpoints;
+  private final long probeIntervalNanos;
+  private final Predicate<RuntimeException> failOver;
+  private final LongSupplier nanoClock;
+  private final LongAdder failovers = new LongAdder();
+  private final LongAdder probes = new LongAdder();
+
+  /**
+   * Constructs a LatencyRouter.
+   *
+   * @param home the name of the home endpoint, preferred while endpoints score the same
+   * @param others the names of the other endpoints
+   * @param alpha the weight of each new sample in the moving averages, in (0, 1]
+   * @param probeIntervalNanos how often each endpoint that is not the best receives a read
+   * @param failOver which errors send the read on to the next endpoint
+   */
+  public LatencyRouter(
+      String home,
+      List<String> others,
+      double alpha,
+      long probeIntervalNanos,
+      Predicate<RuntimeException> failOver) {
+    this(home, others, alpha, probeIntervalNanos, failOver, System::nanoTime);
+  }
+
+  LatencyRouter(
+      String home,
+      List<String> others,
+      double alpha,
+      long probeIntervalNanos,
+      Predicate<RuntimeException> failOver,
+      LongSupplier nanoClock) {
+    if (alpha <= 0 || alpha > 1) {
+      throw new IllegalArgumentException("Alpha must be in (0, 1]");
+    }
+    long now = nanoClock.getAsLong();
+    List<EndpointHealth> all = new ArrayList<>(others.size() + 1);
+    all.add(new EndpointHealth(home, true, alpha, now));
+    for (String other : others) {
+      all.add(new EndpointHealth(other, false, alpha, now));
+    }
+    this.endpoints = List.copyOf(all);
+    this.probeIntervalNanos = probeIntervalNanos;
+    this.failOver = failOver;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Executes a read on the best endpoint, failing over in rank order.
+   *
+   * @param read the read, given the name of the endpoint to use
+   * @param <R> the result type
+   * @return the result of the first endpoint that succeeded
+   * @throws RuntimeException the error of the last endpoint tried
+   */
+  public <R> R read(Function<String, R> read) {
+    List<EndpointHealth> order = order();
+    RuntimeException failure = null;
+    for (int i = 0; i < order.size(); i++) {
+      EndpointHealth endpoint = order.get(i);
+      long start = nanoClock.getAsLong();
+      endpoint.markUsed(start);
+      try {
+        R result = read.apply(endpoint.name());
+        endpoint.record(nanoClock.getAsLong() - start, true);
+        return result;
+      } catch (RuntimeException e) {
+        if (!failOver.test(e)) {
+          throw e;
+        }
+        endpoint.record(nanoClock.getAsLong() - start, false);
+        failure = e;
+        if (i + 1 < order.size()) {
+          failovers.increment();
+          logger.debug(
+              "Read from {} failed, failing over to {}: {}",
+              endpoint.name(),
+              order.get(i + 1).name(),
+              e.getMessage());
+        }
+      }
+    }
+    throw failure;
+  }
+
+  /**
+   * Returns the health of each endpoint and routing counters.
+   *
+   * @return the routing statistics
+   */
+  public RoutingStats stats() {
+    List<EndpointStats> stats = new ArrayList<>(endpoints.size());
+    for (EndpointHealth endpoint : endpoints) {
+      stats.add(endpoint.stats());
+    }
+    return new RoutingStats(true, failovers.sum(), probes.sum(), stats);
+  }
+
+  private List<EndpointHealth> order() {
+    List<EndpointHealth> order = new ArrayList<>(endpoints);
+    order.sort(RANK);
+    long now = nanoClock.getAsLong();
+    for (int i = 1; i < order.size(); i++) {
+      if (order.get(i).tryClaimProbe(now, probeIntervalNanos)) {
+        probes.increment();
+        order.add(0, order.remove(i));
+        break;
+      }
+    }
+    return order;
+  }
+}
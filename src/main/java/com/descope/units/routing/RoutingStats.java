@@ -0,0 +1,77 @@
+package com.descope.units.routing;
+
+import java.util.List;
+
+/**
+ * Point-in-time state of read routing across DynamoDB endpoints.
+ *
+ * <p>A failover is a read retried on another endpoint after an error; a probe is a read sent to an
+ * endpoint that is not the best, to keep its health current.
+ */
+public class RoutingStats {
+
+  private final boolean enabled;
+  private final long failovers;
+  private final long probes;
+  private final List<EndpointStats> endpoints;
+
+  /**
+   * Constructs a RoutingStats snapshot.
+   *
+   * @param enabled whether reads are routed across several endpoints
+   * @param failovers the number of reads retried on another endpoint
+   * @param probes the number of reads sent to an endpoint to measure it
+   * @param endpoints the health of each endpoint, home first
+   */
+  public RoutingStats(boolean enabled, long failovers, long probes, List<EndpointStats> endpoints) {
+    this.enabled = enabled;
+    this.failovers = failovers;
+    this.probes = probes;
+    this.endpoints = endpoints;
+  }
+
+  /**
+   * Returns routing statistics for a single endpoint with routing disabled.
+   *
+   * @return the statistics
+   */
+  public static RoutingStats disabled() {
+    return new RoutingStats(false, 0, 0, List.of());
+  }
+
+  /**
+   * Returns whether reads are routed across several endpoints.
+   *
+   * @return true if routing is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the number of reads retried on another endpoint after an error.
+   *
+   * @return the failover count
+   */
+  public long getFailovers() {
+    return failovers;
+  }
+
+  /**
+   * Returns the number of reads sent to an endpoint that was not the best, to measure it.
+   *
+   * @return the probe count
+   */
+  public long getProbes() {
+    return probes;
+  }
+
+  /**
+   * Returns the health of each endpoint, home first.
+   *
+   * @return the endpoint statistics
+   */
+  public List<EndpointStats> getEndpoints() {
+    return endpoints;
+  }
+}
@@ -0,0 +1,293 @@
+package com.descope.units.search;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Radix (path-compressed) trie mapping string keys to integer document ids.
+ *
+ * <p>Edges carry whole label fragments rather than single characters, and children are kept in
+ * sorted arrays rather than maps, so a node costs a handful of references regardless of fan-out.
+ * Nodes are split on insert and merged again on remove, keeping the tree minimal.
+ *
+ * <p>This class is not thread-safe; callers must synchronize access.
+ */
+final class CompactTrie {
+
+  private static final Node[] NO_CHILDREN = new Node[0];
+  private static final int[] NO_DOCS = new int[0];
+
+  private final Node root = new Node("");
+  private int nodeCount = 1;
+  private long labelChars;
+
+  /** Callback receiving documents in ascending (key length, key) order. */
+  @FunctionalInterface
+  interface DocVisitor {
+
+    /**
+     * Visits a document stored under a key.
+     *
+     * @param doc the document id
+     * @return true to continue visiting, false to stop
+     */
+    boolean visit(int doc);
+  }
+
+  /**
+   * Adds a document under the specified key.
+   *
+   * @param key the key
+   * @param doc the document id
+   */
+  void insert(String key, int doc) {
+    Node node = root;
+    String rest = key;
+    while (!rest.isEmpty()) {
+      int index = node.childIndex(rest.charAt(0));
+      if (index < 0) {
+        Node leaf = new Node(rest);
+        node.insertChild(-index - 1, leaf);
+        nodeCount++;
+        labelChars += rest.length();
+        node = leaf;
+        rest = "";
+        break;
+      }
+
+      Node child = node.children[index];
+      int common = commonPrefixLength(child.label, rest);
+      if (common < child.label.length()) {
+        // Split the edge so the shared fragment becomes its own node
+        Node middle = new Node(child.label.substring(0, common));
+        child.label = child.label.substring(common);
+        middle.children = new Node[] {child};
+        node.children[index] = middle;
+        nodeCount++;
+        child = middle;
+      }
+      node = child;
+      rest = rest.substring(common);
+    }
+    node.addDoc(doc);
+  }
+
+  /**
+   * Removes a document from the specified key.
+   *
+   * @param key the key
+   * @param doc the document id
+   * @return true if the document was present
+   */
+  boolean remove(String key, int doc) {
+    return remove(root, key, doc);
+  }
+
+  private boolean remove(Node node, String rest, int doc) {
+    if (rest.isEmpty()) {
+      return node.removeDoc(doc);
+    }
+    int index = node.childIndex(rest.charAt(0));
+    if (index < 0) {
+      return false;
+    }
+    Node child = node.children[index];
+    if (!rest.startsWith(child.label)) {
+      return false;
+    }
+    boolean removed = remove(child, rest.substring(child.label.length()), doc);
+    if (removed) {
+      compact(node, index);
+    }
+    return removed;
+  }
+
+  /** Drops an empty child or merges a pass-through child into its only descendant. */
+  private void compact(Node parent, int index) {
+    Node child = parent.children[index];
+    if (child.docCount > 0) {
+      return;
+    }
+    if (child.children.length == 0) {
+      parent.removeChild(index);
+      nodeCount--;
+      labelChars -= child.label.length();
+    } else if (child.children.length == 1) {
+      Node only = child.children[0];
+      only.label = child.label + only.label;
+      parent.children[index] = only;
+      nodeCount--;
+    }
+  }
+
+  /**
+   * Visits every document whose key starts with the prefix, shortest keys first and then in
+   * lexicographic order, until the visitor asks to stop.
+   *
+   * @param prefix the key prefix
+   * @param visitor the visitor
+   */
+  void visitByLength(String prefix, DocVisitor visitor) {
+    Node node = root;
+    String rest = prefix;
+    int depth = 0;
+    String path = "";
+    while (!rest.isEmpty()) {
+      int index = node.childIndex(rest.charAt(0));
+      if (index < 0) {
+        return;
+      }
+      Node child = node.children[index];
+      if (child.label.startsWith(rest)) {
+        // The prefix ends inside this edge
+        node = child;
+        path = prefix.substring(0, depth) + child.label;
+        rest = "";
+        break;
+      }
+      if (!rest.startsWith(child.label)) {
+        return;
+      }
+      depth += child.label.length();
+      rest = rest.substring(child.label.length());
+      node = child;
+      path = prefix.substring(0, depth);
+    }
+
+    // Key lengths only grow along edges, so a priority queue yields keys in (length, key) order
+    PriorityQueue<Cursor> queue = new PriorityQueue<>();
+    queue.add(new Cursor(node, path));
+    while (!queue.isEmpty()) {
+      Cursor cursor = queue.poll();
+      Node current = cursor.node;
+      for (int i = 0; i < current.docCount; i++) {
+        if (!visitor.visit(current.docs[i])) {
+          return;
+        }
+      }
+      for (Node child : current.children) {
+        queue.add(new Cursor(child, cursor.path + child.label));
+      }
+    }
+  }
+
+  /**
+   * Returns the number of nodes in the trie, including the root.
+   *
+   * @return the node count
+   */
+  int nodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Returns an estimate of the heap occupied by the trie.
+   *
+   * <p>Assumes compressed object pointers and Latin-1 compact strings.
+   *
+   * @param docCount the number of documents stored
+   * @return the estimated size in bytes
+   */
+  long estimatedBytes(int docCount) {
+    // Node: header + 4 fields; label String + backing array; children and docs arrays
+    long perNode = 32 + 24 + 16 + 16 + 16;
+    return nodeCount * perNode + labelChars + (nodeCount - 1) * 4L + docCount * 4L;
+  }
+
+  private static int commonPrefixLength(String a, String b) {
+    int max = Math.min(a.length(), b.length());
+    int i = 0;
+    while (i < max && a.charAt(i) == b.charAt(i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static final class Cursor implements Comparable<Cursor> {
+
+    private final Node node;
+    private final String path;
+
+    private Cursor(Node node, String path) {
+      this.node = node;
+      this.path = path;
+    }
+
+    @Override
+    public int compareTo(Cursor other) {
+      int byLength = Integer.compare(path.length(), other.path.length());
+      return byLength != 0 ? byLength : path.compareTo(other.path);
+    }
+  }
+
+  private static final class Node {
+
+    private String label;
+    private Node[] children = NO_CHILDREN;
+    private int[] docs = NO_DOCS;
+    private int docCount;
+
+    private Node(String label) {
+      this.label = label;
+    }
+
+    /** Binary search by first label character; returns -(insertion point) - 1 when absent. */
+    private int childIndex(char first) {
+      int low = 0;
+      int high = children.length - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        char c = children[mid].label.charAt(0);
+        if (c < first) {
+          low = mid + 1;
+        } else if (c > first) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+
+    private void insertChild(int position, Node child) {
+      Node[] grown = new Node[children.length + 1];
+      System.arraycopy(children, 0, grown, 0, position);
+      grown[position] = child;
+      System.arraycopy(children, position, grown, position + 1, children.length - position);
+      children = grown;
+    }
+
+    private void removeChild(int position) {
+      if (children.length == 1) {
+        children = NO_CHILDREN;
+        return;
+      }
+      Node[] shrunk = new Node[children.length - 1];
+      System.arraycopy(children, 0, shrunk, 0, position);
+      System.arraycopy(children, position + 1, shrunk, position, shrunk.length - position);
+      children = shrunk;
+    }
+
+    private void addDoc(int doc) {
+      if (docCount == docs.length) {
+        docs = Arrays.copyOf(docs, Math.max(1, docCount * 2));
+      }
+      docs[docCount++] = doc;
+    }
+
+    private boolean removeDoc(int doc) {
+      for (int i = 0; i < docCount; i++) {
+        if (docs[i] == doc) {
+          // Shift rather than swap so documents keep insertion order
+          System.arraycopy(docs, i + 1, docs, i, docCount - i - 1);
+          docCount--;
+          if (docCount == 0) {
+            docs = NO_DOCS;
+          }
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
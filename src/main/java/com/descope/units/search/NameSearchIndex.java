@@ -0,0 +1,302 @@
+package com.descope.units.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import com.descope.units.model.Unit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process search index over unit names.
+ *
+ * <p>Prefix queries are answered by a {@link CompactTrie}, substring queries by trigram postings in
+ * an {@link NgramIndex}. Results are ranked exact match first, then prefix matches by length, then
+ * substring matches that start at a word boundary, then all other substring matches. Names are
+ * matched case-insensitively.
+ *
+ * <p>The index is populated from a table scan at startup (see {@link NameSearchIndexLoader}) and
+ * kept current by the write path in {@code UnitService}. Writes that arrive while the scan is still
+ * running take precedence over the scanned values, so a slow scan can never resurrect a deleted
+ * unit or roll back a rename.
+ */
+@ApplicationScoped
+public class NameSearchIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(NameSearchIndex.class);
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final CompactTrie trie = new CompactTrie();
+  private final NgramIndex ngrams = new NgramIndex();
+  private final Map<String, Integer> docsByUnitId = new HashMap<>();
+
+  private Unit[] units = new Unit[64];
+  private String[] normalizedNames = new String[64];
+  private int[] freeDocs = new int[16];
+  private int freeCount;
+  private int nextDoc;
+  private long textChars;
+
+  private Set<String> touchedDuringLoad;
+  private boolean ready;
+
+  /**
+   * Adds or replaces a unit in the index.
+   *
+   * @param unit the unit
+   */
+  public void upsert(Unit unit) {
+    lock.writeLock().lock();
+    try {
+      markTouched(unit.getId());
+      put(unit);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes a unit from the index.
+   *
+   * @param id the unit identifier
+   */
+  public void remove(String id) {
+    lock.writeLock().lock();
+    try {
+      markTouched(id);
+      Integer doc = docsByUnitId.remove(id);
+      if (doc != null) {
+        release(doc);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Searches unit names for the query.
+   *
+   * <p>Substring matches are only found for queries of at least three characters; shorter queries
+   * return prefix matches only.
+   *
+   * @param query the search text
+   * @param limit the maximum number of results
+   * @return the best matching units in rank order
+   */
+  public List<Unit> search(String query, int limit) {
+    String normalized = normalize(query);
+    List<Unit> results = new ArrayList<>(Math.min(limit, 64));
+
+    lock.readLock().lock();
+    try {
+      trie.visitByLength(
+          normalized,
+          doc -> {
+            results.add(units[doc]);
+            return results.size() < limit;
+          });
+
+      int remaining = limit - results.size();
+      if (remaining > 0 && normalized.length() >= NgramIndex.GRAM_LENGTH) {
+        results.addAll(substringMatches(normalized, remaining));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return results;
+  }
+
+  /** Ranks non-prefix substring matches, keeping only the best {@code limit} in a bounded heap. */
+  private List<Unit> substringMatches(String query, int limit) {
+    PriorityQueue<Match> worstFirst = new PriorityQueue<>(Collections.reverseOrder());
+    for (int doc : ngrams.candidates(query)) {
+      String name = normalizedNames[doc];
+      // Prefix matches, including those that also contain the query later, came from the trie
+      if (name.startsWith(query)) {
+        continue;
+      }
+      int position = name.indexOf(query, 1);
+      if (position < 0) {
+        continue;
+      }
+      worstFirst.add(new Match(doc, name, position));
+      if (worstFirst.size() > limit) {
+        worstFirst.poll();
+      }
+    }
+
+    Match[] ranked = worstFirst.toArray(new Match[0]);
+    Arrays.sort(ranked);
+    List<Unit> matches = new ArrayList<>(ranked.length);
+    for (Match match : ranked) {
+      matches.add(units[match.doc]);
+    }
+    return matches;
+  }
+
+  /** Prepares the index for a bulk load that runs concurrently with live writes. */
+  void beginLoad() {
+    lock.writeLock().lock();
+    try {
+      touchedDuringLoad = new HashSet<>();
+      ready = false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds a unit read by the startup scan unless a live write has already touched it.
+   *
+   * @param unit the scanned unit
+   */
+  void loadScanned(Unit unit) {
+    lock.writeLock().lock();
+    try {
+      if (touchedDuringLoad != null && touchedDuringLoad.contains(unit.getId())) {
+        return;
+      }
+      put(unit);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Finishes a bulk load.
+   *
+   * @param successful whether the scan completed; a failed load leaves the index partial
+   */
+  void completeLoad(boolean successful) {
+    lock.writeLock().lock();
+    try {
+      touchedDuringLoad = null;
+      ready = successful;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    logger.info("Name search index load {}: {}", successful ? "completed" : "failed", stats());
+  }
+
+  /**
+   * Returns the current size and estimated memory footprint of the index.
+   *
+   * @return the index statistics
+   */
+  public NameSearchIndexStats stats() {
+    lock.readLock().lock();
+    try {
+      int unitCount = docsByUnitId.size();
+      // Map entry + boxed doc id + Unit + three strings and their arrays, plus table slots
+      long docBytes = unitCount * (32L + 16 + 24 + 3 * 40 + 12) + textChars;
+      long arrayBytes = (units.length + normalizedNames.length) * 4L + freeDocs.length * 4L;
+      long estimatedBytes =
+          trie.estimatedBytes(unitCount) + ngrams.estimatedBytes() + docBytes + arrayBytes;
+      return new NameSearchIndexStats(
+          ready,
+          unitCount,
+          trie.nodeCount(),
+          ngrams.termCount(),
+          ngrams.postingCount(),
+          estimatedBytes);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void markTouched(String id) {
+    if (touchedDuringLoad != null) {
+      touchedDuringLoad.add(id);
+    }
+  }
+
+  private void put(Unit unit) {
+    Integer existing = docsByUnitId.get(unit.getId());
+    if (existing != null) {
+      if (units[existing].getName().equals(unit.getName())) {
+        return;
+      }
+      release(existing);
+    }
+
+    int doc = allocate();
+    String normalized = normalize(unit.getName());
+    units[doc] = unit;
+    normalizedNames[doc] = normalized;
+    textChars += unit.getId().length() + unit.getName().length() + normalized.length();
+    docsByUnitId.put(unit.getId(), doc);
+    trie.insert(normalized, doc);
+    ngrams.add(normalized, doc);
+  }
+
+  private void release(int doc) {
+    String normalized = normalizedNames[doc];
+    trie.remove(normalized, doc);
+    ngrams.remove(normalized, doc);
+    textChars -= units[doc].getId().length() + units[doc].getName().length() + normalized.length();
+    units[doc] = null;
+    normalizedNames[doc] = null;
+    if (freeCount == freeDocs.length) {
+      freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+    }
+    freeDocs[freeCount++] = doc;
+  }
+
+  private int allocate() {
+    if (freeCount > 0) {
+      return freeDocs[--freeCount];
+    }
+    if (nextDoc == units.length) {
+      units = Arrays.copyOf(units, nextDoc * 2);
+      normalizedNames = Arrays.copyOf(normalizedNames, nextDoc * 2);
+    }
+    return nextDoc++;
+  }
+
+  private static String normalize(String text) {
+    return text.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static final class Match implements Comparable<Match> {
+
+    private final int doc;
+    private final String name;
+    private final int position;
+    private final boolean wordStart;
+
+    private Match(int doc, String name, int position) {
+      this.doc = doc;
+      this.name = name;
+      this.position = position;
+      this.wordStart = !Character.isLetterOrDigit(name.charAt(position - 1));
+    }
+
+    @Override
+    public int compareTo(Match other) {
+      if (wordStart != other.wordStart) {
+        return wordStart ? -1 : 1;
+      }
+      if (position != other.position) {
+        return Integer.compare(position, other.position);
+      }
+      if (name.length() != other.name.length()) {
+        return Integer.compare(name.length(), other.name.length());
+      }
+      int byName = name.compareTo(other.name);
+      return byName != 0 ? byName : Integer.compare(doc, other.doc);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.descope.units.search;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import com.descope.units.repository.UnitRepository;
+import com.descope.units.snapshot.UnitSnapshots;
+
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Populates the {@link NameSearchIndex} from a parallel table scan when the application starts.
+ *
+ * <p>If a recent snapshot is available (see {@link UnitSnapshots}), the index is loaded from it
+ * instead and no scan is made; live writes since the snapshot still take precedence.
+ *
+ * <p>The scan runs on a background thread so startup is not delayed; searches issued before it
+ * finishes see a partial index. Failures are logged and leave the index serving whatever it has
+ * loaded plus live writes.
+ */
+@ApplicationScoped
+public class NameSearchIndexLoader {
+
+  private static final Logger logger = LoggerFactory.getLogger(NameSearchIndexLoader.class);
+
+  private final NameSearchIndex index;
+  private final UnitRepository unitRepository;
+  private final UnitSnapshots snapshots;
+  private final boolean loadOnStartup;
+  private final int scanSegments;
+
+  /**
+   * Constructs a NameSearchIndexLoader.
+   *
+   * @param index the index to populate
+   * @param unitRepository the repository to scan
+   * @param snapshots the snapshots to load from instead of scanning, when recent enough
+   * @param loadOnStartup whether to scan the table at startup
+   * @param scanSegments the number of parallel scan segments
+   */
+  @Inject
+  public NameSearchIndexLoader(
+      NameSearchIndex index,
+      UnitRepository unitRepository,
+      UnitSnapshots snapshots,
+      @ConfigProperty(name = "units.search.load-on-startup", defaultValue = "true")
+          boolean loadOnStartup,
+      @ConfigProperty(name = "units.search.scan-segments", defaultValue = "4") int scanSegments) {
+    this.index = index;
+    this.unitRepository = unitRepository;
+    this.snapshots = snapshots;
+    this.loadOnStartup = loadOnStartup;
+    this.scanSegments = scanSegments;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!loadOnStartup) {
+      logger.info("Name search index startup load is disabled");
+      return;
+    }
+    Thread loader = new Thread(this::load, "name-search-index-loader");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  /** Loads the index from a snapshot or a table scan, blocking until it completes or fails. */
+  void load() {
+    index.beginLoad();
+    try {
+      if (!snapshots.restore(takenAt -> {}, index::loadScanned)) {
+        logger.info("Loading name search index with {} scan segments", scanSegments);
+        unitRepository.scanAll(scanSegments, index::loadScanned);
+      }
+      index.completeLoad(true);
+    } catch (RuntimeException e) {
+      logger.warn("Failed to load name search index; serving live writes only", e);
+      index.completeLoad(false);
+    }
+  }
+}
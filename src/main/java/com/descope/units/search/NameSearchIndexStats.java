@@ -0,0 +1,114 @@
+package com.descope.units.search;
+
+/**
+ * Point-in-time size and memory statistics of the {@link NameSearchIndex}.
+ *
+ * <p>Byte counts are estimates derived from object counts, assuming a 64-bit JVM with compressed
+ * object pointers; they are meant for capacity planning, not exact accounting.
+ */
+public class NameSearchIndexStats {
+
+  private final boolean ready;
+  private final int units;
+  private final int trieNodes;
+  private final int ngramTerms;
+  private final long ngramPostings;
+  private final long estimatedBytes;
+
+  /**
+   * Constructs a NameSearchIndexStats snapshot.
+   *
+   * @param ready whether the startup load has completed
+   * @param units the number of indexed units
+   * @param trieNodes the number of trie nodes
+   * @param ngramTerms the number of distinct trigrams
+   * @param ngramPostings the total number of trigram postings
+   * @param estimatedBytes the estimated heap footprint in bytes
+   */
+  public NameSearchIndexStats(
+      boolean ready,
+      int units,
+      int trieNodes,
+      int ngramTerms,
+      long ngramPostings,
+      long estimatedBytes) {
+    this.ready = ready;
+    this.units = units;
+    this.trieNodes = trieNodes;
+    this.ngramTerms = ngramTerms;
+    this.ngramPostings = ngramPostings;
+    this.estimatedBytes = estimatedBytes;
+  }
+
+  /**
+   * Returns whether the startup load has completed.
+   *
+   * @return true once the index reflects the full table
+   */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Returns the number of indexed units.
+   *
+   * @return the unit count
+   */
+  public int getUnits() {
+    return units;
+  }
+
+  /**
+   * Returns the number of trie nodes.
+   *
+   * @return the node count
+   */
+  public int getTrieNodes() {
+    return trieNodes;
+  }
+
+  /**
+   * Returns the number of distinct trigrams.
+   *
+   * @return the term count
+   */
+  public int getNgramTerms() {
+    return ngramTerms;
+  }
+
+  /**
+   * Returns the total number of trigram postings.
+   *
+   * @return the posting count
+   */
+  public long getNgramPostings() {
+    return ngramPostings;
+  }
+
+  /**
+   * Returns the estimated heap footprint.
+   *
+   * @return the estimated size in bytes
+   */
+  public long getEstimatedBytes() {
+    return estimatedBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "NameSearchIndexStats{"
+        + "ready="
+        + ready
+        + ", units="
+        + units
+        + ", trieNodes="
+        + trieNodes
+        + ", ngramTerms="
+        + ngramTerms
+        + ", ngramPostings="
+        + ngramPostings
+        + ", estimatedBytes="
+        + estimatedBytes
+        + '}';
+  }
+}
@@ -0,0 +1,149 @@
+package com.descope.units.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from character trigrams to the documents containing them.
+ *
+ * <p>Each trigram is packed into a single {@code long} key and its postings are stored as a plain
+ * {@code int[]}. A substring query only needs the shortest postings list among its trigrams: every
+ * match must appear in it, and candidates are verified against the full text afterwards.
+ *
+ * <p>This class is not thread-safe; callers must synchronize access.
+ */
+final class NgramIndex {
+
+  /** Length of the indexed n-grams; shorter queries cannot be answered by this index. */
+  static final int GRAM_LENGTH = 3;
+
+  private static final int[] NO_POSTINGS = new int[0];
+
+  private final Map<Long, Postings> postings = new HashMap<>();
+  private long postingCount;
+
+  /**
+   * Indexes every distinct trigram of the text for the document.
+   *
+   * @param text the normalized text
+   * @param doc the document id
+   */
+  void add(String text, int doc) {
+    for (long gram : distinctGrams(text)) {
+      postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+      postingCount++;
+    }
+  }
+
+  /**
+   * Removes the document from the postings of every trigram of the text.
+   *
+   * @param text the normalized text the document was indexed with
+   * @param doc the document id
+   */
+  void remove(String text, int doc) {
+    for (long gram : distinctGrams(text)) {
+      Postings list = postings.get(gram);
+      if (list != null && list.remove(doc)) {
+        postingCount--;
+        if (list.size == 0) {
+          postings.remove(gram);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the smallest postings list among the query's trigrams.
+   *
+   * <p>Every document containing the query appears in the result, but not every document in the
+   * result contains the query; callers must verify candidates.
+   *
+   * @param query the normalized query, at least {@link #GRAM_LENGTH} characters long
+   * @return the candidate documents; the array may be longer than the candidate count
+   */
+  int[] candidates(String query) {
+    Postings best = null;
+    for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+      Postings list = postings.get(gram(query, i));
+      if (list == null) {
+        return NO_POSTINGS;
+      }
+      if (best == null || list.size < best.size) {
+        best = list;
+      }
+    }
+    return best == null ? NO_POSTINGS : Arrays.copyOf(best.docs, best.size);
+  }
+
+  /**
+   * Returns the number of distinct trigrams indexed.
+   *
+   * @return the term count
+   */
+  int termCount() {
+    return postings.size();
+  }
+
+  /**
+   * Returns the total number of postings across all trigrams.
+   *
+   * @return the posting count
+   */
+  long postingCount() {
+    return postingCount;
+  }
+
+  /**
+   * Returns an estimate of the heap occupied by the index.
+   *
+   * <p>Assumes compressed object pointers.
+   *
+   * @return the estimated size in bytes
+   */
+  long estimatedBytes() {
+    // HashMap node + boxed Long key + Postings object + int[] header + table slot
+    long perTerm = 32 + 16 + 24 + 16 + 8;
+    return postings.size() * perTerm + postingCount * 4L;
+  }
+
+  private static Set<Long> distinctGrams(String text) {
+    Set<Long> grams = new HashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+      grams.add(gram(text, i));
+    }
+    return grams;
+  }
+
+  private static long gram(String text, int offset) {
+    return ((long) text.charAt(offset) << 32)
+        | ((long) text.charAt(offset + 1) << 16)
+        | text.charAt(offset + 2);
+  }
+
+  private static final class Postings {
+
+    private int[] docs = new int[2];
+    private int size;
+
+    private void add(int doc) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+      }
+      docs[size++] = doc;
+    }
+
+    private boolean remove(int doc) {
+      for (int i = 0; i < size; i++) {
+        if (docs[i] == doc) {
+          docs[i] = docs[--size];
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -1,11 +1,21 @@
 package com.descope.units.service;
 
+import java.util.List;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import com.descope.units.cache.ResponseCache;
+import com.descope.units.changes.ChangeFeed;
+import com.descope.units.changes.ChangeType;
 import com.descope.units.exception.UnitNotFoundException;
+import com.descope.units.existence.UnitExistenceFilter;
+import com.descope.units.hotkeys.HotKeyTracker;
+import com.descope.units.jfr.Recorded;
 import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
 import com.descope.units.repository.UnitRepository;
+import com.descope.units.search.NameSearchIndex;
 import com.fasterxml.uuid.Generators;
 
 import org.slf4j.Logger;
@@ -18,20 +28,52 @@ import org.slf4j.LoggerFactory;
  * update, and deletion. It uses UUIDv7 for generating unique identifiers.
  */
 @ApplicationScoped
+@Recorded
 public class UnitService {
 
   private static final Logger logger = LoggerFactory.getLogger(UnitService.class);
 
+  /** Page size used when a caller does not specify one. */
+  public static final int DEFAULT_PAGE_SIZE = 25;
+
+  /** Largest page size a caller may request. */
+  public static final int MAX_PAGE_SIZE = 100;
+
+  /** Number of search results returned when a caller does not specify a limit. */
+  public static final int DEFAULT_SEARCH_LIMIT = 10;
+
   private final UnitRepository unitRepository;
+  private final NameSearchIndex nameSearchIndex;
+  private final UnitExistenceFilter existenceFilter;
+  private final ResponseCache responseCache;
+  private final HotKeyTracker hotKeyTracker;
+  private final ChangeFeed changeFeed;
 
   /**
-   * Constructs a UnitService with the specified repository.
+   * Constructs a UnitService with the specified repository, search index, existence filter,
+   * response cache, hot key tracker and change feed.
    *
    * @param unitRepository the unit repository
+   * @param nameSearchIndex the in-process name search index kept current by writes
+   * @param existenceFilter the filter that answers lookups of unknown ids without I/O
+   * @param responseCache the encoded response cache invalidated by writes
+   * @param hotKeyTracker the tracker counting reads and writes per unit id
+   * @param changeFeed the feed notifying subscribers of writes
    */
   @Inject
-  public UnitService(UnitRepository unitRepository) {
+  public UnitService(
+      UnitRepository unitRepository,
+      NameSearchIndex nameSearchIndex,
+      UnitExistenceFilter existenceFilter,
+      ResponseCache responseCache,
+      HotKeyTracker hotKeyTracker,
+      ChangeFeed changeFeed) {
     this.unitRepository = unitRepository;
+    this.nameSearchIndex = nameSearchIndex;
+    this.existenceFilter = existenceFilter;
+    this.responseCache = responseCache;
+    this.hotKeyTracker = hotKeyTracker;
+    this.changeFeed = changeFeed;
   }
 
   /**
@@ -44,10 +86,30 @@ public class UnitService {
    * @throws IllegalArgumentException if the name is null or empty
    */
   public Unit createUnit(String name) {
+    return createUnit(newUnitId(), name);
+  }
+
+  /**
+   * Creates a new unit with an identifier obtained beforehand from {@link #newUnitId}.
+   *
+   * <p>Creating a unit again with the same identifier overwrites it, so any cached response for the
+   * identifier is invalidated. The identifier may have been generated long before, so it is added
+   * to the existence filter.
+   *
+   * @param id the unit identifier
+   * @param name the name of the unit
+   * @return the created unit
+   * @throws IllegalArgumentException if the name is null or empty
+   */
+  public Unit createUnit(String id, String name) {
     logger.debug("Creating new unit with name: {}", name);
-    String id = generateUuidV7();
     Unit unit = new Unit(id, name);
     Unit savedUnit = unitRepository.save(unit);
+    responseCache.invalidate(id);
+    existenceFilter.add(id);
+    hotKeyTracker.recordWrite(id);
+    nameSearchIndex.upsert(savedUnit);
+    changeFeed.publish(ChangeType.CREATED, savedUnit.getId(), savedUnit.getName());
     logger.info("Created unit with id: {}", savedUnit.getId());
     return savedUnit;
   }
@@ -60,16 +122,71 @@ public class UnitService {
    * @throws UnitNotFoundException if the unit is not found
    */
   public Unit getUnitById(String id) {
+    hotKeyTracker.recordRead(id);
+    return loadUnitById(id);
+  }
+
+  /**
+   * Retrieves a unit by its identifier without counting the read toward hot keys.
+   *
+   * <p>For callers that count the client's read themselves, such as the response cache, which
+   * serves most reads without coming here and also reloads units in the background.
+   *
+   * @param id the unit identifier
+   * @return the unit
+   * @throws UnitNotFoundException if the unit is not found
+   */
+  public Unit loadUnitById(String id) {
     logger.debug("Retrieving unit with id: {}", id);
+    rejectKnownMissing(id);
     return unitRepository
         .findById(id)
         .orElseThrow(
             () -> {
-              logger.warn("Unit not found with id: {}", id);
+              logger.debug("Unit not found with id: {}", id);
               return new UnitNotFoundException(id);
             });
   }
 
+  /**
+   * Finds units whose name exactly matches the specified name.
+   *
+   * <p>The lookup is served by the name index and never scans the whole table.
+   *
+   * @param name the exact unit name
+   * @param limit the maximum number of units to return, between 1 and {@link #MAX_PAGE_SIZE}
+   * @param cursor the cursor returned by the previous page, or null for the first page
+   * @return a page of matching units
+   * @throws IllegalArgumentException if the name is null or empty, or the limit is out of range
+   */
+  public UnitPage findUnitsByName(String name, int limit, String cursor) {
+    logger.debug("Finding units by name: {}", name);
+    if (name == null || name.trim().isEmpty()) {
+      throw new IllegalArgumentException("Unit name cannot be null or empty");
+    }
+    validatePageSize(limit);
+    return unitRepository.findByName(name, limit, cursor);
+  }
+
+  /**
+   * Searches unit names by prefix and substring.
+   *
+   * <p>The search is served entirely from the in-process name index and performs no I/O.
+   *
+   * @param query the search text
+   * @param limit the maximum number of results, between 1 and {@link #MAX_PAGE_SIZE}
+   * @return the best matching units in rank order
+   * @throws IllegalArgumentException if the query is null or empty, or the limit is out of range
+   */
+  public List<Unit> searchUnits(String query, int limit) {
+    logger.debug("Searching units for: {}", query);
+    if (query == null || query.trim().isEmpty()) {
+      throw new IllegalArgumentException("Search query cannot be null or empty");
+    }
+    validatePageSize(limit);
+    return nameSearchIndex.search(query, limit);
+  }
+
   /**
    * Updates an existing unit with the specified name.
    *
@@ -81,15 +198,20 @@ public class UnitService {
    */
   public Unit updateUnit(String id, String name) {
     logger.debug("Updating unit with id: {}", id);
+    hotKeyTracker.recordWrite(id);
 
     // Verify the unit exists
+    rejectKnownMissing(id);
     if (!unitRepository.existsById(id)) {
-      logger.warn("Cannot update - unit not found with id: {}", id);
+      logger.debug("Cannot update - unit not found with id: {}", id);
       throw new UnitNotFoundException(id);
     }
 
     Unit unit = new Unit(id, name);
     Unit updatedUnit = unitRepository.update(unit);
+    responseCache.invalidate(id);
+    nameSearchIndex.upsert(updatedUnit);
+    changeFeed.publish(ChangeType.UPDATED, updatedUnit.getId(), updatedUnit.getName());
     logger.info("Updated unit with id: {}", updatedUnit.getId());
     return updatedUnit;
   }
@@ -102,25 +224,45 @@ public class UnitService {
    */
   public void deleteUnit(String id) {
     logger.debug("Deleting unit with id: {}", id);
+    hotKeyTracker.recordWrite(id);
 
     // Verify the unit exists before deleting
+    rejectKnownMissing(id);
     if (!unitRepository.existsById(id)) {
-      logger.warn("Cannot delete - unit not found with id: {}", id);
+      logger.debug("Cannot delete - unit not found with id: {}", id);
       throw new UnitNotFoundException(id);
     }
 
     unitRepository.deleteById(id);
+    responseCache.invalidate(id);
+    nameSearchIndex.remove(id);
+    existenceFilter.remove(id);
+    changeFeed.publish(ChangeType.DELETED, id, null);
     logger.info("Deleted unit with id: {}", id);
   }
 
+  private void rejectKnownMissing(String id) {
+    if (existenceFilter.definitelyAbsent(id)) {
+      logger.debug("Unit id not in existence filter: {}", id);
+      throw new UnitNotFoundException(id);
+    }
+  }
+
+  private void validatePageSize(int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException(
+          String.format("Page size must be between 1 and %d", MAX_PAGE_SIZE));
+    }
+  }
+
   /**
-   * Generates a UUIDv7 string.
+   * Generates the identifier for a unit about to be created.
    *
    * <p>UUIDv7 is time-ordered and provides better database performance compared to UUIDv4.
    *
    * @return a UUIDv7 string
    */
-  private String generateUuidV7() {
+  public String newUnitId() {
     return Generators.timeBasedEpochGenerator().generate().toString();
   }
 }
@@ -0,0 +1,132 @@
+package com.descope.units.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A directory of snapshot files named after the time they were taken.
+ *
+ * <p>Snapshots are written to a temporary file and moved into place atomically, so a reader, which
+ * may be another instance sharing the directory, never sees a partly written snapshot under its
+ * final name.
+ */
+final class SnapshotDirectory {
+
+  private static final Logger logger = LoggerFactory.getLogger(SnapshotDirectory.class);
+
+  private static final String PREFIX = "units-";
+  private static final String SUFFIX = ".snapshot";
+  private static final Pattern NAME = Pattern.compile("units-(\\d+)\\.snapshot");
+
+  private final Path directory;
+
+  SnapshotDirectory(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Returns the directory.
+   *
+   * @return the directory path
+   */
+  Path path() {
+    return directory;
+  }
+
+  /**
+   * Creates an empty temporary file in the directory to write a snapshot to.
+   *
+   * @return the temporary file
+   * @throws IOException if the directory cannot be created or written
+   */
+  Path newTemporaryFile() throws IOException {
+    Files.createDirectories(directory);
+    Path file = Files.createTempFile(directory, PREFIX, ".tmp");
+    // The writer creates the file itself
+    Files.delete(file);
+    return file;
+  }
+
+  /**
+   * Moves a finished snapshot into place.
+   *
+   * @param temporary the written file
+   * @param takenAtMillis when the snapshot was taken
+   * @return the snapshot file
+   * @throws IOException if the file cannot be moved
+   */
+  Path publish(Path temporary, long takenAtMillis) throws IOException {
+    return Files.move(
+        temporary,
+        directory.resolve(PREFIX + takenAtMillis + SUFFIX),
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Returns the snapshots in the directory, newest first.
+   *
+   * @return the snapshot files, empty if the directory does not exist
+   * @throws IOException if the directory cannot be listed
+   */
+  List<Path> list() throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    List<Path> snapshots = new ArrayList<>();
+    try (Stream<Path> files = Files.list(directory)) {
+      files.filter(file -> takenAt(file) >= 0).forEach(snapshots::add);
+    }
+    snapshots.sort(Comparator.comparingLong(SnapshotDirectory::takenAt).reversed());
+    return snapshots;
+  }
+
+  /**
+   * Returns the newest snapshot.
+   *
+   * @return the snapshot file, if any
+   * @throws IOException if the directory cannot be listed
+   */
+  Optional<Path> latest() throws IOException {
+    return list().stream().findFirst();
+  }
+
+  /**
+   * Deletes all but the newest snapshots.
+   *
+   * @param retain the number of snapshots to keep
+   * @throws IOException if the directory cannot be listed
+   */
+  void prune(int retain) throws IOException {
+    List<Path> snapshots = list();
+    for (Path old : snapshots.subList(Math.min(retain, snapshots.size()), snapshots.size())) {
+      try {
+        Files.deleteIfExists(old);
+      } catch (IOException e) {
+        logger.warn("Could not delete old snapshot {}: {}", old, e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Returns when a snapshot file was taken, from its name.
+   *
+   * @param file the snapshot file
+   * @return the time in epoch milliseconds, or -1 if the file is not a snapshot
+   */
+  static long takenAt(Path file) {
+    Matcher matcher = NAME.matcher(file.getFileName().toString());
+    return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+  }
+}
@@ -0,0 +1,160 @@
+package com.descope.units.snapshot;
+
+/**
+ * Point-in-time state of unit snapshots on this instance.
+ *
+ * <p>Times are epoch milliseconds, zero when nothing has been written or restored yet.
+ */
+public class SnapshotStats {
+
+  private final boolean enabled;
+  private final boolean writing;
+  private final long lastWrittenAt;
+  private final long lastWrittenUnits;
+  private final long lastWrittenBytes;
+  private final long lastWriteMillis;
+  private final long writeFailures;
+  private final long restoredTakenAt;
+  private final long restoredUnits;
+  private final long restores;
+  private final long restoreFailures;
+
+  /**
+   * Constructs a SnapshotStats snapshot.
+   *
+   * @param enabled whether a snapshot directory is configured
+   * @param writing whether this instance writes snapshots periodically
+   * @param lastWrittenAt when the snapshot last written by this instance was taken
+   * @param lastWrittenUnits the units in that snapshot
+   * @param lastWrittenBytes the size of that snapshot file
+   * @param lastWriteMillis how long scanning and writing that snapshot took
+   * @param writeFailures the number of snapshot writes that failed
+   * @param restoredTakenAt when the snapshot last restored was taken
+   * @param restoredUnits the units in that snapshot
+   * @param restores the number of warm loads served from a snapshot
+   * @param restoreFailures the number of snapshots that could not be restored
+   */
+  public SnapshotStats(
+      boolean enabled,
+      boolean writing,
+      long lastWrittenAt,
+      long lastWrittenUnits,
+      long lastWrittenBytes,
+      long lastWriteMillis,
+      long writeFailures,
+      long restoredTakenAt,
+      long restoredUnits,
+      long restores,
+      long restoreFailures) {
+    this.enabled = enabled;
+    this.writing = writing;
+    this.lastWrittenAt = lastWrittenAt;
+    this.lastWrittenUnits = lastWrittenUnits;
+    this.lastWrittenBytes = lastWrittenBytes;
+    this.lastWriteMillis = lastWriteMillis;
+    this.writeFailures = writeFailures;
+    this.restoredTakenAt = restoredTakenAt;
+    this.restoredUnits = restoredUnits;
+    this.restores = restores;
+    this.restoreFailures = restoreFailures;
+  }
+
+  /**
+   * Returns whether a snapshot directory is configured.
+   *
+   * @return true if enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns whether this instance writes snapshots periodically.
+   *
+   * @return true if writing
+   */
+  public boolean isWriting() {
+    return writing;
+  }
+
+  /**
+   * Returns when the snapshot last written by this instance was taken.
+   *
+   * @return the time in epoch milliseconds, or zero
+   */
+  public long getLastWrittenAt() {
+    return lastWrittenAt;
+  }
+
+  /**
+   * Returns the number of units in the snapshot last written.
+   *
+   * @return the unit count
+   */
+  public long getLastWrittenUnits() {
+    return lastWrittenUnits;
+  }
+
+  /**
+   * Returns the size of the snapshot file last written.
+   *
+   * @return the size in bytes
+   */
+  public long getLastWrittenBytes() {
+    return lastWrittenBytes;
+  }
+
+  /**
+   * Returns how long scanning and writing the last snapshot took.
+   *
+   * @return the duration in milliseconds
+   */
+  public long getLastWriteMillis() {
+    return lastWriteMillis;
+  }
+
+  /**
+   * Returns the number of snapshot writes that failed.
+   *
+   * @return the failure count
+   */
+  public long getWriteFailures() {
+    return writeFailures;
+  }
+
+  /**
+   * Returns when the snapshot last restored was taken.
+   *
+   * @return the time in epoch milliseconds, or zero
+   */
+  public long getRestoredTakenAt() {
+    return restoredTakenAt;
+  }
+
+  /**
+   * Returns the number of units in the snapshot last restored.
+   *
+   * @return the unit count
+   */
+  public long getRestoredUnits() {
+    return restoredUnits;
+  }
+
+  /**
+   * Returns the number of warm loads served from a snapshot.
+   *
+   * @return the restore count
+   */
+  public long getRestores() {
+    return restores;
+  }
+
+  /**
+   * Returns the number of snapshots that could not be restored.
+   *
+   * @return the failure count
+   */
+  public long getRestoreFailures() {
+    return restoreFailures;
+  }
+}
@@ -0,0 +1,172 @@
+package com.descope.units.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.descope.units.model.Unit;
+
+/**
+ * Reads a snapshot file written by {@link UnitSnapshotWriter}.
+ *
+ * <p>The file is memory-mapped rather than read into the heap: checksums are computed and blocks
+ * inflated straight from the mapped pages, and only one uncompressed block is held at a time.
+ * {@link #open} checks the header, every block checksum and the trailer before any unit is handed
+ * out, so a truncated or corrupt file is rejected as a whole instead of loading part of it.
+ */
+final class UnitSnapshotReader {
+
+  private final Path file;
+  private final MappedByteBuffer mapped;
+  private final long takenAtMillis;
+  private final long unitCount;
+
+  private UnitSnapshotReader(
+      Path file, MappedByteBuffer mapped, long takenAtMillis, long unitCount) {
+    this.file = file;
+    this.mapped = mapped;
+    this.takenAtMillis = takenAtMillis;
+    this.unitCount = unitCount;
+  }
+
+  /**
+   * Maps a snapshot file and verifies it.
+   *
+   * @param file the snapshot file
+   * @return the reader
+   * @throws IOException if the file cannot be read or is not a complete, intact snapshot
+   */
+  static UnitSnapshotReader open(Path file) throws IOException {
+    MappedByteBuffer mapped;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot " + file + " is larger than 2 GiB");
+      }
+      // The mapping stays valid after the channel is closed
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    ByteBuffer buffer = mapped.duplicate();
+    if (buffer.remaining() < UnitSnapshotWriter.HEADER_SIZE
+        || buffer.getInt() != UnitSnapshotWriter.MAGIC) {
+      throw new IOException(file + " is not a unit snapshot");
+    }
+    int version = buffer.getInt();
+    if (version != UnitSnapshotWriter.VERSION) {
+      throw new IOException("Unsupported snapshot version " + version + " in " + file);
+    }
+    long takenAtMillis = buffer.getLong();
+    CRC32 crc = new CRC32();
+    while (true) {
+      if (buffer.remaining() < 4) {
+        throw new IOException("Snapshot " + file + " is truncated");
+      }
+      int length = buffer.getInt();
+      if (length == 0) {
+        break;
+      }
+      if (length < 0
+          || length > UnitSnapshotWriter.BLOCK_SIZE
+          || buffer.remaining() < UnitSnapshotWriter.BLOCK_HEADER_SIZE - 4) {
+        throw new IOException(
+            "Snapshot " + file + " has a bad block at " + (buffer.position() - 4));
+      }
+      int compressedLength = buffer.getInt();
+      int checksum = buffer.getInt();
+      if (compressedLength <= 0 || compressedLength > buffer.remaining()) {
+        throw new IOException("Snapshot " + file + " is truncated");
+      }
+      crc.reset();
+      crc.update(buffer.slice(buffer.position(), compressedLength));
+      if ((int) crc.getValue() != checksum) {
+        throw new IOException("Snapshot " + file + " has a corrupt block at " + buffer.position());
+      }
+      buffer.position(buffer.position() + compressedLength);
+    }
+    if (buffer.remaining() != Long.BYTES) {
+      throw new IOException("Snapshot " + file + " has a bad trailer");
+    }
+    return new UnitSnapshotReader(file, mapped, takenAtMillis, buffer.getLong());
+  }
+
+  /**
+   * Returns when the scan the snapshot was read from started.
+   *
+   * @return the time in epoch milliseconds
+   */
+  long takenAtMillis() {
+    return takenAtMillis;
+  }
+
+  /**
+   * Returns the number of units in the snapshot.
+   *
+   * @return the unit count from the trailer
+   */
+  long unitCount() {
+    return unitCount;
+  }
+
+  /**
+   * Hands every unit in the snapshot to a consumer, in the order they were written.
+   *
+   * @param consumer receives each unit
+   * @throws IOException if a block cannot be inflated or holds other than the expected units
+   */
+  void forEach(Consumer<Unit> consumer) throws IOException {
+    ByteBuffer buffer = mapped.duplicate().position(UnitSnapshotWriter.HEADER_SIZE);
+    ByteBuffer block = ByteBuffer.allocate(UnitSnapshotWriter.BLOCK_SIZE);
+    Inflater inflater = new Inflater();
+    long read = 0;
+    try {
+      int length;
+      while ((length = buffer.getInt()) != 0) {
+        int compressedLength = buffer.getInt();
+        buffer.getInt();
+        inflater.reset();
+        inflater.setInput(buffer.slice(buffer.position(), compressedLength));
+        block.clear().limit(length);
+        while (block.hasRemaining() && !inflater.finished()) {
+          if (inflater.inflate(block) == 0 && inflater.needsInput()) {
+            break;
+          }
+        }
+        if (block.hasRemaining() || !inflater.finished()) {
+          throw new IOException("Snapshot " + file + " has a block of the wrong length");
+        }
+        buffer.position(buffer.position() + compressedLength);
+        block.flip();
+        while (block.hasRemaining()) {
+          String id = readField(block);
+          String name = readField(block);
+          consumer.accept(new Unit(id, name));
+          read++;
+        }
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Snapshot " + file + " has a block that cannot be inflated", e);
+    } finally {
+      inflater.end();
+    }
+    if (read != unitCount) {
+      throw new IOException(
+          "Snapshot " + file + " holds " + read + " units, its trailer says " + unitCount);
+    }
+  }
+
+  private static String readField(ByteBuffer block) {
+    int length = Short.toUnsignedInt(block.getShort());
+    String value =
+        new String(
+            block.array(), block.arrayOffset() + block.position(), length, StandardCharsets.UTF_8);
+    block.position(block.position() + length);
+    return value;
+  }
+}
@@ -0,0 +1,159 @@
+package com.descope.units.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.descope.units.model.Unit;
+
+/**
+ * Writes units to a snapshot file.
+ *
+ * <p>The file starts with a header: a magic number, the format version and the time the snapshot
+ * was taken. Units follow in blocks, each compressed on its own with DEFLATE and prefixed by its
+ * uncompressed length, compressed length and a CRC32 of the compressed bytes. Inside a block, a
+ * unit is its id and name as UTF-8, each prefixed by an unsigned 16-bit length; units never span
+ * blocks. A block with an uncompressed length of zero ends the file, followed by the unit count.
+ *
+ * <p>Safe to call {@link #add} from several scan threads.
+ */
+final class UnitSnapshotWriter implements Closeable {
+
+  static final int MAGIC = 0x554E5350;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 16;
+  static final int BLOCK_HEADER_SIZE = 12;
+  static final int MAX_FIELD_BYTES = 0xFFFF;
+
+  /** Uncompressed bytes per block; large enough for a unit with the longest id and name. */
+  static final int BLOCK_SIZE = 256 * 1024;
+
+  private final FileChannel channel;
+  private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+  private final ByteBuffer compressed = ByteBuffer.allocate(BLOCK_SIZE + BLOCK_SIZE / 8 + 64);
+  private final ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final CRC32 crc = new CRC32();
+  private long units;
+  private long bytes;
+
+  private UnitSnapshotWriter(FileChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Creates a snapshot file and writes its header.
+   *
+   * @param file the file to write, which must not exist
+   * @param takenAtMillis when the scan the snapshot is read from started, in epoch milliseconds
+   * @return the writer
+   * @throws IOException if the file cannot be created
+   */
+  static UnitSnapshotWriter create(Path file, long takenAtMillis) throws IOException {
+    FileChannel channel =
+        FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    UnitSnapshotWriter writer = new UnitSnapshotWriter(channel);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(MAGIC).putInt(VERSION).putLong(takenAtMillis).flip();
+      writer.writeFully(header);
+    } catch (IOException e) {
+      writer.close();
+      throw e;
+    }
+    return writer;
+  }
+
+  /**
+   * Appends a unit.
+   *
+   * @param unit the unit to append
+   * @throws UncheckedIOException if the file cannot be written
+   */
+  synchronized void add(Unit unit) {
+    byte[] id = unit.getId().getBytes(StandardCharsets.UTF_8);
+    byte[] name = unit.getName().getBytes(StandardCharsets.UTF_8);
+    if (id.length > MAX_FIELD_BYTES || name.length > MAX_FIELD_BYTES) {
+      throw new IllegalArgumentException(
+          "Unit id or name too long for a snapshot: " + unit.getId());
+    }
+    try {
+      if (block.remaining() < 4 + id.length + name.length) {
+        flushBlock();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    block.putShort((short) id.length).put(id).putShort((short) name.length).put(name);
+    units++;
+  }
+
+  /**
+   * Writes the last block and the trailer and forces the file to disk.
+   *
+   * @return the number of units written
+   * @throws IOException if the file cannot be written
+   */
+  synchronized long finish() throws IOException {
+    flushBlock();
+    ByteBuffer trailer = ByteBuffer.allocate(4 + Long.BYTES);
+    trailer.putInt(0).putLong(units).flip();
+    writeFully(trailer);
+    channel.force(true);
+    return units;
+  }
+
+  /**
+   * Returns the bytes written so far, header included.
+   *
+   * @return the file size so far
+   */
+  synchronized long bytes() {
+    return bytes;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    deflater.end();
+    channel.close();
+  }
+
+  private void flushBlock() throws IOException {
+    if (block.position() == 0) {
+      return;
+    }
+    block.flip();
+    int length = block.remaining();
+    deflater.reset();
+    deflater.setInput(block);
+    deflater.finish();
+    compressed.clear();
+    while (!deflater.finished()) {
+      if (!compressed.hasRemaining()) {
+        throw new IllegalStateException("Compressed snapshot block exceeds its buffer");
+      }
+      deflater.deflate(compressed);
+    }
+    compressed.flip();
+    crc.reset();
+    crc.update(compressed.duplicate());
+    blockHeader.clear();
+    blockHeader.putInt(length).putInt(compressed.remaining()).putInt((int) crc.getValue()).flip();
+    writeFully(blockHeader);
+    writeFully(compressed);
+    block.clear();
+  }
+
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      bytes += channel.write(buffer);
+    }
+  }
+}
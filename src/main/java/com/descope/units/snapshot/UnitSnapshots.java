@@ -0,0 +1,277 @@
+package com.descope.units.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import com.descope.units.model.Unit;
+import com.descope.units.repository.UnitRepository;
+
+import io.quarkus.runtime.StartupEvent;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes periodic snapshots of every unit and restores them to warm in-process state at startup.
+ *
+ * <p>An instance with {@code units.snapshot.write-interval-minutes} set scans the table into a
+ * compressed, checksummed snapshot file in {@code units.snapshot.directory} on that schedule. Every
+ * instance sharing the directory, such as a mounted volume or bucket, can then build its search
+ * index and existence filter from the newest snapshot instead of scanning the table, see {@link
+ * #restore}. Snapshots older than {@code units.snapshot.max-age-minutes} are not restored.
+ */
+@ApplicationScoped
+public class UnitSnapshots {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnitSnapshots.class);
+
+  private final SnapshotDirectory directory;
+  private final UnitRepository unitRepository;
+  private final long writeIntervalMillis;
+  private final long maxAgeMillis;
+  private final int retain;
+  private final int scanSegments;
+  private final LongSupplier clock;
+  private ScheduledExecutorService scheduler;
+
+  private volatile long lastWrittenAt;
+  private volatile long lastWrittenUnits;
+  private volatile long lastWrittenBytes;
+  private volatile long lastWriteMillis;
+  private volatile long restoredTakenAt;
+  private volatile long restoredUnits;
+  private final LongAdder writeFailures = new LongAdder();
+  private final LongAdder restores = new LongAdder();
+  private final LongAdder restoreFailures = new LongAdder();
+
+  /**
+   * Constructs UnitSnapshots from configuration.
+   *
+   * @param unitRepository the repository scanned to write snapshots
+   * @param directory the directory snapshots are kept in, or empty to disable snapshots
+   * @param writeIntervalMinutes the delay between snapshots written by this instance, or 0 to only
+   *     restore them
+   * @param maxAgeMinutes the age beyond which a snapshot is not restored
+   * @param retain the number of snapshots kept in the directory
+   * @param scanSegments the number of parallel scan segments used to write a snapshot
+   */
+  @Inject
+  public UnitSnapshots(
+      UnitRepository unitRepository,
+      @ConfigProperty(name = "units.snapshot.directory") Optional<String> directory,
+      @ConfigProperty(name = "units.snapshot.write-interval-minutes", defaultValue = "0")
+          long writeIntervalMinutes,
+      @ConfigProperty(name = "units.snapshot.max-age-minutes", defaultValue = "120")
+          long maxAgeMinutes,
+      @ConfigProperty(name = "units.snapshot.retain", defaultValue = "3") int retain,
+      @ConfigProperty(name = "units.snapshot.scan-segments", defaultValue = "4") int scanSegments) {
+    this(
+        unitRepository,
+        directory.map(Paths::get).orElse(null),
+        TimeUnit.MINUTES.toMillis(writeIntervalMinutes),
+        TimeUnit.MINUTES.toMillis(maxAgeMinutes),
+        retain,
+        scanSegments,
+        System::currentTimeMillis);
+  }
+
+  UnitSnapshots(
+      UnitRepository unitRepository,
+      Path directory,
+      long writeIntervalMillis,
+      long maxAgeMillis,
+      int retain,
+      int scanSegments,
+      LongSupplier clock) {
+    if (retain < 1) {
+      throw new IllegalArgumentException("At least one snapshot must be retained");
+    }
+    this.unitRepository = unitRepository;
+    this.directory = directory == null ? null : new SnapshotDirectory(directory);
+    this.writeIntervalMillis = writeIntervalMillis;
+    this.maxAgeMillis = maxAgeMillis;
+    this.retain = retain;
+    this.scanSegments = scanSegments;
+    this.clock = clock;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (directory == null || writeIntervalMillis <= 0) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "unit-snapshot-writer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    // Continue the schedule of whichever instance wrote the newest snapshot
+    long initialDelay = Math.max(0, writeIntervalMillis - latestAgeMillis());
+    scheduler.scheduleWithFixedDelay(
+        this::write, initialDelay, writeIntervalMillis, TimeUnit.MILLISECONDS);
+    logger.info(
+        "Writing unit snapshots to {} every {} minutes, first in {} seconds",
+        directory.path(),
+        TimeUnit.MILLISECONDS.toMinutes(writeIntervalMillis),
+        TimeUnit.MILLISECONDS.toSeconds(initialDelay));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns whether a snapshot directory is configured.
+   *
+   * @return true if snapshots are written or restored
+   */
+  public boolean isEnabled() {
+    return directory != null;
+  }
+
+  /**
+   * Hands every unit of the newest snapshot to a consumer.
+   *
+   * <p>The snapshot is verified before the first unit is handed out; a corrupt snapshot is skipped
+   * for the next newest one. Units written after the snapshot was taken are not in it, so callers
+   * must let live writes take precedence over restored units, as they do over scanned ones.
+   *
+   * @param beforeUnits receives the time the snapshot was taken, in epoch milliseconds, before the
+   *     first unit
+   * @param consumer receives each unit
+   * @return true if a snapshot was restored; false if there is none recent enough, in which case
+   *     the caller should scan the table
+   */
+  public boolean restore(LongConsumer beforeUnits, Consumer<Unit> consumer) {
+    if (directory == null) {
+      return false;
+    }
+    try {
+      for (Path file : directory.list()) {
+        long age = clock.getAsLong() - SnapshotDirectory.takenAt(file);
+        if (age > maxAgeMillis) {
+          logger.info("Newest unit snapshot {} is too old to restore", file.getFileName());
+          return false;
+        }
+        UnitSnapshotReader reader;
+        try {
+          reader = UnitSnapshotReader.open(file);
+        } catch (IOException e) {
+          restoreFailures.increment();
+          logger.warn("Skipping unit snapshot: {}", e.getMessage());
+          continue;
+        }
+        long started = System.nanoTime();
+        beforeUnits.accept(reader.takenAtMillis());
+        reader.forEach(consumer);
+        restoredTakenAt = reader.takenAtMillis();
+        restoredUnits = reader.unitCount();
+        restores.increment();
+        logger.info(
+            "Restored {} units from snapshot {} in {} ms",
+            reader.unitCount(),
+            file.getFileName(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return true;
+      }
+    } catch (IOException e) {
+      restoreFailures.increment();
+      logger.warn("Could not restore unit snapshot", e);
+    }
+    return false;
+  }
+
+  /** Scans the table into a new snapshot, blocking until it is written or fails. */
+  void write() {
+    long takenAt = clock.getAsLong();
+    Path temporary = null;
+    try {
+      temporary = directory.newTemporaryFile();
+      long units;
+      long bytes;
+      try (UnitSnapshotWriter writer = UnitSnapshotWriter.create(temporary, takenAt)) {
+        unitRepository.scanAll(scanSegments, writer::add);
+        units = writer.finish();
+        bytes = writer.bytes();
+      }
+      Path file = directory.publish(temporary, takenAt);
+      directory.prune(retain);
+      lastWrittenAt = takenAt;
+      lastWrittenUnits = units;
+      lastWrittenBytes = bytes;
+      lastWriteMillis = clock.getAsLong() - takenAt;
+      logger.info(
+          "Wrote unit snapshot {} with {} units in {} KiB",
+          file.getFileName(),
+          units,
+          bytes / 1024);
+    } catch (IOException | RuntimeException e) {
+      // Keep the schedule alive; restores fall back to older snapshots or a scan
+      writeFailures.increment();
+      logger.warn("Failed to write unit snapshot", e);
+      deleteQuietly(temporary);
+    }
+  }
+
+  /**
+   * Returns what this instance has written and restored.
+   *
+   * @return the snapshot statistics
+   */
+  public SnapshotStats stats() {
+    return new SnapshotStats(
+        directory != null,
+        directory != null && writeIntervalMillis > 0,
+        lastWrittenAt,
+        lastWrittenUnits,
+        lastWrittenBytes,
+        lastWriteMillis,
+        writeFailures.sum(),
+        restoredTakenAt,
+        restoredUnits,
+        restores.sum(),
+        restoreFailures.sum());
+  }
+
+  private long latestAgeMillis() {
+    try {
+      return directory
+          .latest()
+          .map(file -> clock.getAsLong() - SnapshotDirectory.takenAt(file))
+          .orElse(Long.MAX_VALUE);
+    } catch (IOException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      logger.debug("Could not delete {}", file, e);
+    }
+  }
+}
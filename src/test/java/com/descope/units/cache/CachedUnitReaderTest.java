@@ -0,0 +1,149 @@
+package com.descope.units.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.descope.units.exception.CapacityExceededException;
+import com.descope.units.exception.UnitNotFoundException;
+import com.descope.units.hotkeys.HotKeyTracker;
+import com.descope.units.model.Unit;
+import com.descope.units.service.UnitService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CachedUnitReaderTest {
+
+  private static final String TEST_ID = "01933b5e-7f00-7000-8000-000000000000";
+  private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(10);
+  private static final long STALE_NANOS = TimeUnit.SECONDS.toNanos(30);
+  private static final long STALE_IF_ERROR_NANOS = TimeUnit.SECONDS.toNanos(300);
+
+  private long now;
+  private UnitService unitService;
+  private ResponseCache responseCache;
+  private HotKeyTracker hotKeyTracker;
+  private CachedUnitReader reader;
+
+  @BeforeEach
+  void setUp() {
+    unitService = mock(UnitService.class);
+    responseCache =
+        new ResponseCache(
+            true, 1024 * 1024, TTL_NANOS, STALE_NANOS, STALE_IF_ERROR_NANOS, () -> now);
+    hotKeyTracker = mock(HotKeyTracker.class);
+    reader = new CachedUnitReader(unitService, responseCache, hotKeyTracker, new ObjectMapper(), 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reader.shutdown();
+  }
+
+  @Test
+  @DisplayName("read - cached fresh unit - should not read the service again")
+  void read_cachedFreshUnit_shouldNotReadServiceAgain() {
+    // Given
+    when(unitService.loadUnitById(TEST_ID)).thenReturn(new Unit(TEST_ID, "Test Unit"));
+    reader.read(TEST_ID);
+
+    // When
+    UnitRead read = reader.read(TEST_ID);
+
+    // Then
+    assertThat(read.getFreshness()).isEqualTo(Freshness.FRESH);
+    assertThat(new String(read.getResponse().getBody(), StandardCharsets.UTF_8))
+        .contains("\"name\":\"Test Unit\"");
+    verify(unitService, times(1)).loadUnitById(TEST_ID);
+  }
+
+  @Test
+  @DisplayName("read - unit served from the cache - should count every read as a hot key read")
+  void read_unitServedFromCache_shouldCountEveryRead() {
+    // Given
+    when(unitService.loadUnitById(TEST_ID)).thenReturn(new Unit(TEST_ID, "Test Unit"));
+    reader.read(TEST_ID);
+
+    // When
+    reader.read(TEST_ID);
+    reader.read(TEST_ID);
+
+    // Then
+    verify(hotKeyTracker, times(3)).recordRead(TEST_ID);
+    verify(unitService, times(1)).loadUnitById(TEST_ID);
+  }
+
+  @Test
+  @DisplayName("read - stale unit - should serve it at once and refresh in the background")
+  void read_staleUnit_shouldServeItAtOnceAndRefreshInBackground() {
+    // Given
+    when(unitService.loadUnitById(TEST_ID))
+        .thenReturn(new Unit(TEST_ID, "Old"))
+        .thenReturn(new Unit(TEST_ID, "New"));
+    reader.read(TEST_ID);
+    now += TTL_NANOS + TimeUnit.SECONDS.toNanos(5);
+
+    // When
+    UnitRead read = reader.read(TEST_ID);
+
+    // Then
+    assertThat(read.getFreshness()).isEqualTo(Freshness.STALE);
+    assertThat(read.getAgeSeconds()).isEqualTo(15);
+    assertThat(new String(read.getResponse().getBody(), StandardCharsets.UTF_8)).contains("Old");
+    verify(unitService, timeout(1000).times(2)).loadUnitById(TEST_ID);
+  }
+
+  @Test
+  @DisplayName("read - backend failing past the revalidate window - should serve stale if error")
+  void read_backendFailingPastRevalidateWindow_shouldServeStaleIfError() {
+    // Given
+    when(unitService.loadUnitById(TEST_ID))
+        .thenReturn(new Unit(TEST_ID, "Test Unit"))
+        .thenThrow(new CapacityExceededException("Throttled", 1));
+    reader.read(TEST_ID);
+    now += TTL_NANOS + STALE_NANOS;
+
+    // When
+    UnitRead read = reader.read(TEST_ID);
+
+    // Then
+    assertThat(read.getFreshness()).isEqualTo(Freshness.STALE_IF_ERROR);
+    assertThat(responseCache.stats().getStaleIfErrorServed()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("read - backend failing with nothing cached - should propagate the error")
+  void read_backendFailingWithNothingCached_shouldPropagateError() {
+    // Given
+    when(unitService.loadUnitById(TEST_ID)).thenThrow(new IllegalStateException("Timed out"));
+
+    // When/Then
+    assertThatThrownBy(() -> reader.read(TEST_ID)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  @DisplayName("read - unit deleted elsewhere - should throw not found and drop the entry")
+  void read_unitDeletedElsewhere_shouldThrowNotFoundAndDropEntry() {
+    // Given
+    when(unitService.loadUnitById(TEST_ID))
+        .thenReturn(new Unit(TEST_ID, "Test Unit"))
+        .thenThrow(new UnitNotFoundException(TEST_ID));
+    reader.read(TEST_ID);
+    now += TTL_NANOS + STALE_NANOS;
+
+    // When/Then
+    assertThatThrownBy(() -> reader.read(TEST_ID)).isInstanceOf(UnitNotFoundException.class);
+    assertThat(responseCache.stats().getEntries()).isZero();
+  }
+}
@@ -0,0 +1,142 @@
+package com.descope.units.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory stand-in for a Redis-protocol store, answering GET, SET (with NX) and DEL.
+ *
+ * <p>While {@link #setStalled} is on, commands are read but not answered, as by an overloaded
+ * server.
+ */
+final class FakeRespServer implements AutoCloseable {
+
+  private final ServerSocket serverSocket;
+  private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+  private final List<String> commands = new CopyOnWriteArrayList<>();
+  private final List<Socket> clients = new CopyOnWriteArrayList<>();
+  private volatile boolean stalled;
+
+  FakeRespServer() throws IOException {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    Thread acceptor = new Thread(this::acceptLoop, "fake-resp-server");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  int port() {
+    return serverSocket.getLocalPort();
+  }
+
+  byte[] value(String key) {
+    return values.get(key);
+  }
+
+  /** Returns the names of the commands received, in order. */
+  List<String> commands() {
+    return commands;
+  }
+
+  void setStalled(boolean stalled) {
+    this.stalled = stalled;
+  }
+
+  /** Drops every client connection, as a failover of the store would. */
+  void disconnectAll() throws IOException {
+    for (Socket client : clients) {
+      client.close();
+    }
+    clients.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    for (Socket client : clients) {
+      client.close();
+    }
+  }
+
+  private void acceptLoop() {
+    try {
+      while (true) {
+        Socket client = serverSocket.accept();
+        clients.add(client);
+        Thread handler = new Thread(() -> serve(client), "fake-resp-client");
+        handler.setDaemon(true);
+        handler.start();
+      }
+    } catch (IOException e) {
+      // Closed
+    }
+  }
+
+  private void serve(Socket client) {
+    try (InputStream in = new BufferedInputStream(client.getInputStream());
+        OutputStream out = new BufferedOutputStream(client.getOutputStream())) {
+      while (true) {
+        @SuppressWarnings("unchecked")
+        List<Object> command = (List<Object>) RespClient.read(in);
+        String name = text(command.get(0));
+        commands.add(name);
+        if (stalled) {
+          continue;
+        }
+        out.write(execute(name, command));
+        if (in.available() == 0) {
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      // Client disconnected
+    }
+  }
+
+  private byte[] execute(String name, List<Object> command) {
+    String key = command.size() > 1 ? text(command.get(1)) : null;
+    switch (name) {
+      case "GET":
+        byte[] value = values.get(key);
+        if (value == null) {
+          return ascii("$-1\r\n");
+        }
+        byte[] header = ascii("$" + value.length + "\r\n");
+        byte[] reply = new byte[header.length + value.length + 2];
+        System.arraycopy(header, 0, reply, 0, header.length);
+        System.arraycopy(value, 0, reply, header.length, value.length);
+        reply[reply.length - 2] = '\r';
+        reply[reply.length - 1] = '\n';
+        return reply;
+      case "SET":
+        boolean ifAbsent = command.stream().skip(3).anyMatch(arg -> text(arg).equals("NX"));
+        if (ifAbsent && values.putIfAbsent(key, (byte[]) command.get(2)) != null) {
+          return ascii("$-1\r\n");
+        }
+        values.put(key, (byte[]) command.get(2));
+        return ascii("+OK\r\n");
+      case "DEL":
+        return ascii(":" + (values.remove(key) == null ? 0 : 1) + "\r\n");
+      default:
+        return ascii("-ERR unknown command '" + name + "'\r\n");
+    }
+  }
+
+  private static String text(Object argument) {
+    return new String((byte[]) argument, StandardCharsets.UTF_8);
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,140 @@
+package com.descope.units.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+
+  private static final String JSON = "application/json";
+  private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(10);
+  private static final long STALE_NANOS = TimeUnit.SECONDS.toNanos(30);
+  private static final long STALE_IF_ERROR_NANOS = TimeUnit.SECONDS.toNanos(300);
+
+  private long now;
+  private ResponseCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache =
+        new ResponseCache(
+            true, 1024 * 1024, TTL_NANOS, STALE_NANOS, STALE_IF_ERROR_NANOS, () -> now);
+  }
+
+  @Test
+  @DisplayName("get - after put - should return the same bytes and entity tag")
+  void get_afterPut_shouldReturnSameBytesAndEntityTag() {
+    // Given
+    byte[] body = body("a");
+    CachedResponse put = cache.put("a", JSON, body, cache.loadToken("a"));
+
+    // When
+    CachedResponse hit = cache.get("a", JSON);
+
+    // Then
+    assertThat(hit).isSameAs(put);
+    assertThat(hit.getBody()).isSameAs(body);
+    assertThat(hit.getEntityTag().isWeak()).isFalse();
+    assertThat(cache.get("a", "application/xml")).isNull();
+    assertThat(cache.stats().getHits()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("put - invalidated after the token was taken - should not cache the body")
+  void put_invalidatedAfterTokenWasTaken_shouldNotCacheBody() {
+    // Given
+    long token = cache.loadToken("a");
+    cache.invalidate("a");
+
+    // When
+    CachedResponse response = cache.put("a", JSON, body("old"), token);
+
+    // Then
+    assertThat(response.getBody()).isEqualTo(body("old"));
+    assertThat(cache.get("a", JSON)).isNull();
+    assertThat(cache.stats().getRacedPuts()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("invalidate - cached id - should drop it and release its bytes")
+  void invalidate_cachedId_shouldDropItAndReleaseItsBytes() {
+    // Given
+    cache.put("a", JSON, body("a"), cache.loadToken("a"));
+
+    // When
+    cache.invalidate("a");
+
+    // Then
+    assertThat(cache.get("a", JSON)).isNull();
+    assertThat(cache.stats().getBytes()).isZero();
+  }
+
+  @Test
+  @DisplayName("freshness - aging entry - should move from fresh to stale to stale-if-error")
+  void freshness_agingEntry_shouldMoveFromFreshToStaleToStaleIfError() {
+    // Given
+    CachedResponse cached = cache.put("a", JSON, body("a"), cache.loadToken("a"));
+
+    // When/Then
+    assertThat(cache.freshness(cached)).isEqualTo(Freshness.FRESH);
+    now += TTL_NANOS;
+    assertThat(cache.freshness(cached)).isEqualTo(Freshness.STALE);
+    now += STALE_NANOS;
+    assertThat(cache.freshness(cached)).isEqualTo(Freshness.STALE_IF_ERROR);
+    assertThat(cache.ageSeconds(cached)).isEqualTo(40);
+    assertThat(cache.get("a", JSON)).isSameAs(cached);
+  }
+
+  @Test
+  @DisplayName("get - past every stale window - should miss and drop the entry")
+  void get_pastEveryStaleWindow_shouldMissAndDropEntry() {
+    // Given
+    cache.put("a", JSON, body("a"), cache.loadToken("a"));
+
+    // When
+    now += TTL_NANOS + STALE_IF_ERROR_NANOS;
+
+    // Then
+    assertThat(cache.get("a", JSON)).isNull();
+    assertThat(cache.stats().getEntries()).isZero();
+  }
+
+  @Test
+  @DisplayName("put - over the byte budget - should evict entries not recently read")
+  void put_overByteBudget_shouldEvictEntriesNotRecentlyRead() {
+    // Given - room for about four 1 KiB entries
+    long entrySize = 1024 + 2 + ResponseCache.ENTRY_OVERHEAD_BYTES;
+    cache = new ResponseCache(true, entrySize * 4, TTL_NANOS, 0, 0, () -> now);
+    for (String id : new String[] {"a", "b", "c", "d"}) {
+      cache.put(id, JSON, new byte[1024], cache.loadToken(id));
+    }
+
+    // When
+    cache.put("e", JSON, new byte[1024], cache.loadToken("e"));
+
+    // Then
+    ResponseCacheStats stats = cache.stats();
+    assertThat(stats.getBytes()).isLessThanOrEqualTo(stats.getMaxBytes());
+    assertThat(stats.getEntries()).isEqualTo(4);
+    assertThat(stats.getEvictions()).isEqualTo(1);
+    assertThat(cache.get("e", JSON)).isNotNull();
+  }
+
+  @Test
+  @DisplayName("entityTag - different bodies - should differ")
+  void entityTag_differentBodies_shouldDiffer() {
+    // When/Then
+    assertThat(ResponseCache.entityTag(body("a")))
+        .isEqualTo(ResponseCache.entityTag(body("a")))
+        .isNotEqualTo(ResponseCache.entityTag(body("b")));
+  }
+
+  private static byte[] body(String id) {
+    return ("{\"id\":\"" + id + "\",\"name\":\"n\"}").getBytes(StandardCharsets.UTF_8);
+  }
+}
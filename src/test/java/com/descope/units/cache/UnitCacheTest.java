@@ -0,0 +1,190 @@
+package com.descope.units.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.descope.units.model.Unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UnitCacheTest {
+
+  private static final String UNIT_ID = "01933b5e-7f00-7000-8000-000000000000";
+
+  private FakeRespServer server;
+  private UnitCache first;
+  private UnitCache second;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new FakeRespServer();
+    first = cache();
+    second = cache();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    first.shutdown();
+    second.shutdown();
+    server.close();
+  }
+
+  @Test
+  @DisplayName("read - unit loaded by another instance - should be served from the shared tier")
+  void read_unitLoadedByAnotherInstance_shouldBeServedFromSharedTier() throws Exception {
+    // Given
+    first.read(UNIT_ID, id -> new Unit(id, "Unit Name"));
+    awaitValue("units:" + UNIT_ID);
+    AtomicInteger loads = new AtomicInteger();
+
+    // When
+    Unit unit = second.read(UNIT_ID, countingLoader(loads));
+
+    // Then
+    assertThat(unit.getName()).isEqualTo("Unit Name");
+    assertThat(loads).hasValue(0);
+    assertThat(second.stats().getL2Hits()).isEqualTo(1);
+    assertThat(server.commands()).contains("GET", "SET");
+  }
+
+  @Test
+  @DisplayName("read - unit in the first tier - should not call the shared tier")
+  void read_unitInFirstTier_shouldNotCallSharedTier() throws Exception {
+    // Given
+    first.read(UNIT_ID, id -> new Unit(id, "Unit Name"));
+    awaitValue("units:" + UNIT_ID);
+    int commandsBefore = server.commands().size();
+
+    // When
+    Unit unit = first.read(UNIT_ID, id -> new Unit(id, "Other"));
+
+    // Then
+    assertThat(unit.getName()).isEqualTo("Unit Name");
+    assertThat(first.stats().getL1Hits()).isEqualTo(1);
+    assertThat(server.commands()).hasSize(commandsBefore);
+  }
+
+  @Test
+  @DisplayName("read - shared tier stalled - should load the unit and skip the tier after failures")
+  void read_sharedTierStalled_shouldLoadUnitAndSkipTierAfterFailures() {
+    // Given
+    server.setStalled(true);
+    AtomicInteger loads = new AtomicInteger();
+
+    // When
+    for (int i = 0; i < 4; i++) {
+      Unit unit = first.read("unit-" + i, countingLoader(loads));
+      assertThat(unit.getName()).isEqualTo("Name unit-" + i);
+    }
+
+    // Then
+    assertThat(loads).hasValue(4);
+    UnitCacheStats stats = first.stats();
+    assertThat(stats.getL2Errors()).isGreaterThanOrEqualTo(2);
+    assertThat(stats.isSharedTierSkipped()).isTrue();
+    assertThat(stats.getL2Skipped()).isPositive();
+  }
+
+  @Test
+  @DisplayName("invalidate - cached unit - should drop it from both tiers")
+  void invalidate_cachedUnit_shouldDropItFromBothTiers() throws Exception {
+    // Given
+    first.read(UNIT_ID, id -> new Unit(id, "Unit Name"));
+    awaitValue("units:" + UNIT_ID);
+    AtomicInteger loads = new AtomicInteger();
+
+    // When
+    first.invalidate(UNIT_ID);
+    awaitNoValue("units:" + UNIT_ID);
+    Unit unit = first.read(UNIT_ID, countingLoader(loads));
+
+    // Then
+    assertThat(unit.getName()).isEqualTo("Name " + UNIT_ID);
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  @DisplayName(
+      "written - shared tier skipped - should delete the stale entry before reading it again")
+  void written_sharedTierSkipped_shouldDeleteStaleEntryBeforeReadingItAgain() throws Exception {
+    // Given
+    UnitCache writer = cache(300);
+    writer.read(UNIT_ID, id -> new Unit(id, "Unit Name"));
+    awaitValue("units:" + UNIT_ID);
+    server.setStalled(true);
+    for (int i = 0; i < 3 && !writer.stats().isSharedTierSkipped(); i++) {
+      writer.read("unit-" + i, id -> new Unit(id, "Other"));
+    }
+
+    // When
+    boolean skippedWhenWritten = writer.stats().isSharedTierSkipped();
+    writer.written(new Unit(UNIT_ID, "Renamed"));
+    server.disconnectAll();
+    server.setStalled(false);
+    awaitSharedTierBack(writer);
+    writer.read("unit-other", id -> new Unit(id, "Other"));
+    awaitNoValue("units:" + UNIT_ID);
+    AtomicInteger loads = new AtomicInteger();
+    Unit unit = second.read(UNIT_ID, countingLoader(loads));
+
+    // Then
+    assertThat(skippedWhenWritten).isTrue();
+    assertThat(loads).hasValue(1);
+    assertThat(unit.getName()).isEqualTo("Name " + UNIT_ID);
+    assertThat(writer.read(UNIT_ID, countingLoader(loads)).getName()).isEqualTo("Renamed");
+    writer.shutdown();
+  }
+
+  private UnitCache cache() {
+    return cache(60000);
+  }
+
+  private UnitCache cache(long l2OpenMillis) {
+    return new UnitCache(
+        true,
+        60000,
+        1000,
+        Optional.of("localhost"),
+        server.port(),
+        300,
+        200,
+        2,
+        l2OpenMillis,
+        "units:");
+  }
+
+  private static Function<String, Unit> countingLoader(AtomicInteger loads) {
+    return id -> {
+      loads.incrementAndGet();
+      return new Unit(id, "Name " + id);
+    };
+  }
+
+  private void awaitValue(String key) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (server.value(key) == null && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private static void awaitSharedTierBack(UnitCache cache) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (cache.stats().isSharedTierSkipped() && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private void awaitNoValue(String key) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (server.value(key) != null && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package com.descope.units.changes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChangeFeedTest {
+
+  private static final String EPOCH = "e1";
+  private static final long DEDUP_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+  private long now;
+  private ChangeFeed feed;
+
+  @BeforeEach
+  void setUp() {
+    feed = new ChangeFeed(true, 4, 2, 10, DEDUP_WINDOW_NANOS, () -> now, EPOCH);
+  }
+
+  @AfterEach
+  void tearDown() {
+    feed.shutdown();
+  }
+
+  @Test
+  @DisplayName("subscribe - no last event id - should receive only changes published afterwards")
+  void subscribe_noLastEventId_shouldReceiveOnlyChangesPublishedAfterwards() throws Exception {
+    // Given
+    feed.publish(ChangeType.CREATED, "a", "A");
+    RecordingSink sink = new RecordingSink();
+
+    // When
+    feed.subscribe(Set.of(), null, sink);
+    feed.publish(ChangeType.UPDATED, "a", "A2");
+
+    // Then
+    assertThat(sink.next()).isEqualTo("updated a A2 e1-2");
+    assertThat(sink.events).isEmpty();
+  }
+
+  @Test
+  @DisplayName("subscribe - last event id still buffered - should replay missed changes in order")
+  void subscribe_lastEventIdStillBuffered_shouldReplayMissedChangesInOrder() throws Exception {
+    // Given
+    feed.publish(ChangeType.CREATED, "a", "A");
+    feed.publish(ChangeType.CREATED, "b", "B");
+    feed.publish(ChangeType.DELETED, "a", null);
+    RecordingSink sink = new RecordingSink();
+
+    // When
+    feed.subscribe(Set.of(), "e1-1", sink);
+    feed.publish(ChangeType.UPDATED, "b", "B2");
+
+    // Then
+    assertThat(List.of(sink.next(), sink.next(), sink.next()))
+        .containsExactly("created b B e1-2", "deleted a null e1-3", "updated b B2 e1-4");
+  }
+
+  @Test
+  @DisplayName("subscribe - last event id evicted or from another epoch - should send reset")
+  void subscribe_lastEventIdEvictedOrFromAnotherEpoch_shouldSendReset() throws Exception {
+    // Given
+    for (int i = 0; i < 6; i++) {
+      feed.publish(ChangeType.CREATED, "u" + i, "U");
+    }
+    RecordingSink evicted = new RecordingSink();
+    RecordingSink otherEpoch = new RecordingSink();
+
+    // When
+    feed.subscribe(Set.of(), "e1-1", evicted);
+    feed.subscribe(Set.of(), "e0-6", otherEpoch);
+
+    // Then
+    assertThat(evicted.next()).isEqualTo("reset");
+    assertThat(otherEpoch.next()).isEqualTo("reset");
+    assertThat(feed.stats().getResets()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("publish - subscriber follows some ids - should send only their changes")
+  void publish_subscriberFollowsSomeIds_shouldSendOnlyTheirChanges() throws Exception {
+    // Given
+    RecordingSink sink = new RecordingSink();
+    feed.subscribe(Set.of("b"), null, sink);
+
+    // When
+    feed.publish(ChangeType.CREATED, "a", "A");
+    feed.publish(ChangeType.CREATED, "b", "B");
+
+    // Then
+    assertThat(sink.next()).isEqualTo("created b B e1-2");
+  }
+
+  @Test
+  @DisplayName("publish - subscriber not keeping up - should disconnect it")
+  void publish_subscriberNotKeepingUp_shouldDisconnectIt() throws Exception {
+    // Given
+    RecordingSink stalled = new RecordingSink();
+    stalled.complete = false;
+    feed.subscribe(Set.of(), null, stalled);
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      feed.publish(ChangeType.CREATED, "u" + i, "U");
+    }
+
+    // Then
+    assertThat(stalled.closed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(feed.stats().getSubscribersDropped()).isEqualTo(1);
+    assertThat(feed.stats().getSubscribers()).isZero();
+  }
+
+  @Test
+  @DisplayName("publishReplicated - change published locally - should skip the duplicate")
+  void publishReplicated_changePublishedLocally_shouldSkipDuplicate() throws Exception {
+    // Given
+    RecordingSink sink = new RecordingSink();
+    feed.subscribe(Set.of(), null, sink);
+    feed.publish(ChangeType.UPDATED, "a", "A2");
+
+    // When
+    feed.publishReplicated(ChangeType.UPDATED, "a", "A2");
+    feed.publishReplicated(ChangeType.UPDATED, "b", "B2");
+
+    // Then
+    assertThat(List.of(sink.next(), sink.next()))
+        .containsExactly("updated a A2 e1-1", "updated b B2 e1-2");
+    assertThat(feed.stats().getDuplicatesSkipped()).isEqualTo(1);
+    assertThat(feed.stats().getReplicated()).isEqualTo(1);
+  }
+
+  /** Records events as text; sends complete at once unless told otherwise. */
+  private static final class RecordingSink implements ChangeSink {
+
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private volatile boolean complete = true;
+
+    @Override
+    public CompletionStage<?> send(UnitChange change) {
+      return record(
+          String.join(
+              " ",
+              change.getType().eventName(),
+              change.getId(),
+              String.valueOf(change.getName()),
+              change.getEventId()));
+    }
+
+    @Override
+    public CompletionStage<?> sendReset() {
+      return record("reset");
+    }
+
+    @Override
+    public CompletionStage<?> sendHeartbeat() {
+      return record("heartbeat");
+    }
+
+    @Override
+    public boolean isClosed() {
+      return closed.getCount() == 0;
+    }
+
+    @Override
+    public void close() {
+      closed.countDown();
+    }
+
+    private String next() throws InterruptedException {
+      return events.poll(5, TimeUnit.SECONDS);
+    }
+
+    private CompletionStage<?> record(String event) {
+      events.add(event);
+      if (complete) {
+        return CompletableFuture.completedFuture(null);
+      }
+      return new CompletableFuture<Void>();
+    }
+  }
+}
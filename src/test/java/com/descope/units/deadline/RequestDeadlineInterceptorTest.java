@@ -0,0 +1,92 @@
+package com.descope.units.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import jakarta.interceptor.InvocationContext;
+
+import com.descope.units.exception.DeadlineExceededException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RequestDeadlineInterceptorTest {
+
+  private static final long BUDGET_NANOS = TimeUnit.SECONDS.toNanos(3);
+  private static final long RESERVE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+  private static final long MIN_REMAINING_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+  @Mock private InvocationContext invocation;
+
+  @Test
+  @DisplayName("withDeadline - not on Lambda - should run under the configured budget")
+  void withDeadline_notOnLambda_shouldRunUnderConfiguredBudget() throws Exception {
+    // Given
+    RequestDeadlineInterceptor interceptor = interceptor(() -> -1);
+    AtomicReference<Deadline> seen = new AtomicReference<>();
+    when(invocation.proceed())
+        .thenAnswer(
+            call -> {
+              seen.set(DeadlineContext.current());
+              return "ok";
+            });
+
+    // When
+    Object result = interceptor.withDeadline(invocation);
+
+    // Then
+    assertThat(result).isEqualTo("ok");
+    assertThat(seen.get().remainingNanos()).isBetween(BUDGET_NANOS / 2, BUDGET_NANOS);
+    assertThat(DeadlineContext.current()).isNull();
+  }
+
+  @Test
+  @DisplayName("withDeadline - on Lambda - should keep the reserve out of the remaining time")
+  void withDeadline_onLambda_shouldKeepReserveOutOfRemainingTime() throws Exception {
+    // Given
+    RequestDeadlineInterceptor interceptor = interceptor(() -> 1000);
+    AtomicReference<Deadline> seen = new AtomicReference<>();
+    when(invocation.proceed())
+        .thenAnswer(
+            call -> {
+              seen.set(DeadlineContext.current());
+              return "ok";
+            });
+
+    // When
+    interceptor.withDeadline(invocation);
+
+    // Then
+    assertThat(seen.get().remainingNanos())
+        .isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(1000) - RESERVE_NANOS)
+        .isPositive();
+  }
+
+  @Test
+  @DisplayName("withDeadline - Lambda almost out of time - should reject without proceeding")
+  void withDeadline_lambdaAlmostOutOfTime_shouldRejectWithoutProceeding() throws Exception {
+    // Given
+    RequestDeadlineInterceptor interceptor = interceptor(() -> 260);
+
+    // When/Then
+    assertThatThrownBy(() -> interceptor.withDeadline(invocation))
+        .isInstanceOf(DeadlineExceededException.class);
+    verify(invocation, never()).proceed();
+  }
+
+  private static RequestDeadlineInterceptor interceptor(LongSupplier lambdaRemainingMillis) {
+    return new RequestDeadlineInterceptor(
+        true, BUDGET_NANOS, RESERVE_NANOS, MIN_REMAINING_NANOS, lambdaRemainingMillis);
+  }
+}
@@ -0,0 +1,122 @@
+package com.descope.units.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import com.descope.units.dto.ErrorResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class GlobalExceptionHandlerTest {
+
+  private GlobalExceptionHandler handler;
+
+  @BeforeEach
+  void setUp() {
+    handler = new GlobalExceptionHandler(10);
+  }
+
+  @Test
+  @DisplayName("toResponse - unit not found - should return pre-serialized 404 body")
+  void toResponse_unitNotFound_shouldReturnPreSerialized404Body() {
+    // When
+    Response response = handler.toResponse(new UnitNotFoundException("abc"));
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(404);
+    assertThat(response.getMediaType()).isEqualTo(MediaType.APPLICATION_JSON_TYPE);
+    assertThat((String) response.getEntity())
+        .matches(
+            "\\{\"message\":\"Unit with id 'abc' not found\",\"status\":404,"
+                + "\"timestamp\":\"\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z\"}");
+  }
+
+  @Test
+  @DisplayName("toResponse - id with JSON metacharacters - should escape them in the body")
+  void toResponse_idWithJsonMetacharacters_shouldEscapeThemInBody() {
+    // When
+    Response response = handler.toResponse(new UnitNotFoundException("a\"b\\c\u0001"));
+
+    // Then
+    assertThat((String) response.getEntity())
+        .startsWith("{\"message\":\"Unit with id 'a\\\"b\\\\c\\u0001' not found\"");
+  }
+
+  @Test
+  @DisplayName("toResponse - capacity exceeded - should reuse the cached body and set Retry-After")
+  void toResponse_capacityExceeded_shouldReuseCachedBodyAndSetRetryAfter() {
+    // When
+    Response first = handler.toResponse(new CapacityExceededException("Busy", 2));
+    Response second = handler.toResponse(new CapacityExceededException("Busy", 2));
+
+    // Then
+    assertThat(first.getStatus()).isEqualTo(503);
+    assertThat(first.getHeaderString("Retry-After")).isEqualTo("2");
+    assertThat((String) first.getEntity()).startsWith("{\"message\":\"Busy\",\"status\":503,");
+    assertThat((String) second.getEntity()).isEqualTo(first.getEntity());
+  }
+
+  @Test
+  @DisplayName("toResponse - quota exceeded - should return 429 with Retry-After")
+  void toResponse_quotaExceeded_shouldReturn429WithRetryAfter() {
+    // When
+    Response response = handler.toResponse(new QuotaExceededException("Busy", 3));
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(429);
+    assertThat(response.getHeaderString("Retry-After")).isEqualTo("3");
+    assertThat((String) response.getEntity()).startsWith("{\"message\":\"Busy\",\"status\":429,");
+  }
+
+  @Test
+  @DisplayName("toResponse - unexpected error - should hide the cause behind a generic body")
+  void toResponse_unexpectedError_shouldHideCauseBehindGenericBody() {
+    // When
+    Response response = handler.toResponse(new IllegalStateException("secret detail"));
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(500);
+    assertThat((String) response.getEntity())
+        .contains("An unexpected error occurred. Please try again later.")
+        .doesNotContain("secret detail");
+  }
+
+  @Test
+  @DisplayName("toResponse - illegal argument - should return 400 with the message")
+  void toResponse_illegalArgument_shouldReturn400WithMessage() {
+    // When
+    Response response = handler.toResponse(new IllegalArgumentException("Name is required"));
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(400);
+    assertThat(((ErrorResponse) response.getEntity()).getMessage()).isEqualTo("Name is required");
+  }
+
+  @Test
+  @DisplayName("toResponse - conflict - should return 409 with the message")
+  void toResponse_conflict_shouldReturn409WithMessage() {
+    // When
+    Response response =
+        handler.toResponse(new ConflictException("Migration normalize-names is already running"));
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(409);
+    assertThat(((ErrorResponse) response.getEntity()).getMessage())
+        .isEqualTo("Migration normalize-names is already running");
+  }
+
+  @Test
+  @DisplayName("UnitNotFoundException - constructed - should carry no stack trace")
+  void unitNotFoundException_constructed_shouldCarryNoStackTrace() {
+    // When
+    UnitNotFoundException exception = new UnitNotFoundException("abc");
+
+    // Then
+    assertThat(exception.getStackTrace()).isEmpty();
+    assertThat(exception.getMessage()).isEqualTo("Unit with id 'abc' not found");
+  }
+}
@@ -0,0 +1,42 @@
+package com.descope.units.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LogRateLimiterTest {
+
+  private long now;
+
+  @Test
+  @DisplayName("tryAcquire - over the limit - should suppress until the window rolls over")
+  void tryAcquire_overLimit_shouldSuppressUntilWindowRollsOver() {
+    // Given
+    LogRateLimiter limiter = new LogRateLimiter(2, () -> now);
+
+    // When/Then
+    assertThat(limiter.tryAcquire()).isZero();
+    assertThat(limiter.tryAcquire()).isZero();
+    assertThat(limiter.tryAcquire()).isEqualTo(-1);
+    assertThat(limiter.tryAcquire()).isEqualTo(-1);
+
+    now += TimeUnit.SECONDS.toNanos(1);
+    assertThat(limiter.tryAcquire()).isEqualTo(2);
+    assertThat(limiter.tryAcquire()).isZero();
+  }
+
+  @Test
+  @DisplayName("tryAcquire - zero limit - should suppress every line")
+  void tryAcquire_zeroLimit_shouldSuppressEveryLine() {
+    // Given
+    LogRateLimiter limiter = new LogRateLimiter(0, () -> now);
+
+    // When/Then
+    assertThat(limiter.tryAcquire()).isEqualTo(-1);
+    now += TimeUnit.SECONDS.toNanos(5);
+    assertThat(limiter.tryAcquire()).isEqualTo(-1);
+  }
+}
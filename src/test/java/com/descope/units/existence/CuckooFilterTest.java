@@ -0,0 +1,117 @@
+package com.descope.units.existence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CuckooFilterTest {
+
+  @Test
+  @DisplayName("mightContain - added keys - should never report a false negative")
+  void mightContain_addedKeys_shouldNeverReportFalseNegative() {
+    // Given
+    CuckooFilter filter = new CuckooFilter(10_000, 12);
+    String[] keys = new String[10_000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = UUID.randomUUID().toString();
+      filter.add(keys[i]);
+    }
+
+    // When/Then
+    for (String key : keys) {
+      assertThat(filter.mightContain(key)).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName(
+      "mightContain - unknown keys - should stay within the configured false-positive rate")
+  void mightContain_unknownKeys_shouldStayWithinFalsePositiveRate() {
+    // Given
+    int bits = CuckooFilter.fingerprintBitsFor(0.01);
+    CuckooFilter filter = new CuckooFilter(10_000, bits);
+    for (int i = 0; i < 10_000; i++) {
+      filter.add("known-" + i);
+    }
+
+    // When
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("unknown-" + i)) {
+        falsePositives++;
+      }
+    }
+
+    // Then
+    assertThat(falsePositives / 100_000.0).isLessThan(0.01);
+  }
+
+  @Test
+  @DisplayName("remove - added key - should no longer be contained")
+  void remove_addedKey_shouldNoLongerBeContained() {
+    // Given
+    CuckooFilter filter = new CuckooFilter(100, 16);
+    filter.add("a");
+    filter.add("b");
+
+    // When
+    boolean removed = filter.remove("a");
+
+    // Then
+    assertThat(removed).isTrue();
+    assertThat(filter.mightContain("a")).isFalse();
+    assertThat(filter.mightContain("b")).isTrue();
+    assertThat(filter.size()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("add - beyond capacity - should grow a new layer without losing keys")
+  void add_beyondCapacity_shouldGrowNewLayerWithoutLosingKeys() {
+    // Given
+    ScalableCuckooFilter filter = new ScalableCuckooFilter(1_000, 16);
+
+    // When
+    for (int i = 0; i < 5_000; i++) {
+      filter.add("key-" + i);
+    }
+
+    // Then
+    assertThat(filter.layers()).isGreaterThan(1);
+    assertThat(filter.size()).isEqualTo(5_000);
+    for (int i = 0; i < 5_000; i++) {
+      assertThat(filter.mightContain("key-" + i)).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName("remove - grown filter - should keep every key")
+  void remove_grownFilter_shouldKeepEveryKey() {
+    // Given
+    ScalableCuckooFilter filter = new ScalableCuckooFilter(1_000, 16);
+    for (int i = 0; i < 5_000; i++) {
+      filter.add("key-" + i);
+    }
+
+    // When
+    boolean removed = filter.remove("key-0");
+
+    // Then
+    assertThat(removed).isFalse();
+    assertThat(filter.size()).isEqualTo(5_000);
+    for (int i = 0; i < 5_000; i++) {
+      assertThat(filter.mightContain("key-" + i)).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName("fingerprintBitsFor - lower rates - should use longer fingerprints")
+  void fingerprintBitsFor_lowerRates_shouldUseLongerFingerprints() {
+    // When/Then
+    assertThat(CuckooFilter.fingerprintBitsFor(0.03)).isEqualTo(9);
+    assertThat(CuckooFilter.fingerprintBitsFor(0.001)).isEqualTo(13);
+    assertThat(CuckooFilter.fingerprintBitsFor(1e-9)).isEqualTo(16);
+  }
+}
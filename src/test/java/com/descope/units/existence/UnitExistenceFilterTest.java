@@ -0,0 +1,139 @@
+package com.descope.units.existence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UnitExistenceFilterTest {
+
+  // UUIDv7 ids created at 1_000_000 ms and 9_000_000 ms since the epoch
+  private static final String OLD_ID = "0000000f-4240-7000-8000-000000000001";
+  private static final String RECENT_ID = "00000089-5440-7000-8000-000000000001";
+
+  private long now;
+  private UnitExistenceFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    now = 5_000_000;
+    filter = new UnitExistenceFilter(true, 1_000, 0.001, 60_000, () -> now);
+  }
+
+  @Test
+  @DisplayName("definitelyAbsent - before first build - should defer to the data store")
+  void definitelyAbsent_beforeFirstBuild_shouldDeferToDataStore() {
+    // When/Then
+    assertThat(filter.definitelyAbsent(OLD_ID)).isFalse();
+  }
+
+  @Test
+  @DisplayName("definitelyAbsent - old id missing from scan - should be absent")
+  void definitelyAbsent_oldIdMissingFromScan_shouldBeAbsent() {
+    // Given
+    build("some-other-id");
+
+    // When/Then
+    assertThat(filter.definitelyAbsent(OLD_ID)).isTrue();
+    assertThat(filter.definitelyAbsent(UUID.randomUUID().toString())).isTrue();
+    assertThat(filter.stats().getDefiniteMisses()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("definitelyAbsent - scanned id - should defer to the data store")
+  void definitelyAbsent_scannedId_shouldDeferToDataStore() {
+    // Given
+    build(OLD_ID);
+
+    // When/Then
+    assertThat(filter.definitelyAbsent(OLD_ID)).isFalse();
+  }
+
+  @Test
+  @DisplayName("definitelyAbsent - id created after scan cutoff - should defer to the data store")
+  void definitelyAbsent_idCreatedAfterScanCutoff_shouldDeferToDataStore() {
+    // Given - another instance may have created it after this instance's scan
+    build();
+
+    // When/Then
+    assertThat(filter.definitelyAbsent(RECENT_ID)).isFalse();
+    assertThat(filter.stats().getRecentIds()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("beginRebuild - older snapshot - should treat ids created since it as present")
+  void beginRebuild_olderSnapshot_shouldTreatIdsCreatedSinceItAsPresent() {
+    // Given - a snapshot taken at 1_030_000 ms, before OLD_ID's creation plus the grace period
+    filter.beginRebuild(1_030_000);
+    filter.addScanned("some-other-id");
+    filter.completeRebuild(true);
+
+    // When/Then
+    assertThat(filter.definitelyAbsent(OLD_ID)).isFalse();
+    assertThat(filter.stats().getRecentIds()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("remove - deleted scanned id - should become absent")
+  void remove_deletedScannedId_shouldBecomeAbsent() {
+    // Given
+    build(OLD_ID);
+
+    // When
+    filter.remove(OLD_ID);
+
+    // Then
+    assertThat(filter.definitelyAbsent(OLD_ID)).isTrue();
+  }
+
+  @Test
+  @DisplayName("add - old id created after the scans - should defer to the data store")
+  void add_oldIdCreatedAfterScans_shouldDeferToDataStore() {
+    // Given - a journaled create applied after both scans read the table
+    build();
+    filter.beginRebuild();
+
+    // When
+    filter.add(OLD_ID);
+    filter.completeRebuild(true);
+
+    // Then
+    assertThat(filter.definitelyAbsent(OLD_ID)).isFalse();
+  }
+
+  @Test
+  @DisplayName("completeRebuild - failed scan - should keep the previous generation")
+  void completeRebuild_failedScan_shouldKeepPreviousGeneration() {
+    // Given
+    build(OLD_ID);
+    filter.beginRebuild();
+
+    // When
+    filter.completeRebuild(false);
+
+    // Then
+    assertThat(filter.definitelyAbsent(OLD_ID)).isFalse();
+    assertThat(filter.stats().getIds()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("definitelyAbsent - filter disabled - should always defer to the data store")
+  void definitelyAbsent_filterDisabled_shouldAlwaysDeferToDataStore() {
+    // Given
+    filter = new UnitExistenceFilter(false, 1_000, 0.001, 60_000, () -> now);
+
+    // When/Then
+    assertThat(filter.definitelyAbsent("missing")).isFalse();
+  }
+
+  private void build(String... ids) {
+    filter.beginRebuild();
+    for (String id : ids) {
+      filter.addScanned(id);
+    }
+    filter.completeRebuild(true);
+  }
+}
@@ -0,0 +1,136 @@
+package com.descope.units.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
+
+@ExtendWith(MockitoExtension.class)
+class DynamoDbReadinessCheckTest {
+
+  private static final String TABLE = "units-table";
+
+  @Mock private DynamoDbClient dynamoDbClient;
+
+  private DynamoDbReadinessCheck check;
+
+  @BeforeEach
+  void setUp() {
+    check =
+        new DynamoDbReadinessCheck(
+            dynamoDbClient, TABLE, Optional.empty(), true, 10000, 0.2, 3, 2000);
+  }
+
+  @Test
+  @DisplayName(
+      "call - before the first probe - should be down and pending without calling DynamoDB")
+  void call_beforeFirstProbe_shouldBeDownAndPendingWithoutCallingDynamoDb() {
+    // When
+    HealthCheckResponse response = check.call();
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.DOWN);
+    assertThat(response.getData())
+        .get()
+        .satisfies(data -> assertThat(data).containsEntry("pending", true));
+  }
+
+  @Test
+  @DisplayName("refresh - active table - should be up with the table status and latency")
+  void refresh_activeTable_shouldBeUpWithTableStatusAndLatency() {
+    // Given
+    describeReturns(TableStatus.ACTIVE);
+
+    // When
+    check.refresh();
+    HealthCheckResponse response = check.call();
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+    assertThat(response.getData().orElseThrow())
+        .containsEntry(TABLE, "ACTIVE")
+        .containsEntry("consecutiveFailures", 0L)
+        .containsKeys("latencyMs", "checkedAt");
+  }
+
+  @Test
+  @DisplayName("refresh - failures below the threshold - should stay up until the threshold")
+  void refresh_failuresBelowThreshold_shouldStayUpUntilThreshold() {
+    // Given
+    describeReturns(TableStatus.ACTIVE);
+    check.refresh();
+    when(dynamoDbClient.describeTable(any(DescribeTableRequest.class)))
+        .thenThrow(SdkClientException.create("connection refused"));
+
+    // When / Then
+    check.refresh();
+    check.refresh();
+    assertThat(check.call().getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+    check.refresh();
+    HealthCheckResponse response = check.call();
+    assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.DOWN);
+    assertThat(response.getData().orElseThrow())
+        .containsEntry(TABLE, "UNREACHABLE")
+        .containsEntry("consecutiveFailures", 3L);
+  }
+
+  @Test
+  @DisplayName("refresh - first probe failing - should stay down without waiting for the threshold")
+  void refresh_firstProbeFailing_shouldStayDownWithoutWaitingForThreshold() {
+    // Given
+    when(dynamoDbClient.describeTable(any(DescribeTableRequest.class)))
+        .thenThrow(SdkClientException.create("connection refused"));
+
+    // When
+    check.refresh();
+    HealthCheckResponse response = check.call();
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.DOWN);
+    assertThat(response.getData().orElseThrow())
+        .containsEntry(TABLE, "UNREACHABLE")
+        .containsEntry("consecutiveFailures", 1L);
+  }
+
+  @Test
+  @DisplayName("refresh - table not serving then recovered - should go down and back up")
+  void refresh_tableNotServingThenRecovered_shouldGoDownAndBackUp() {
+    // Given
+    describeReturns(TableStatus.DELETING);
+    check.refresh();
+    check.refresh();
+    check.refresh();
+    assertThat(check.call().getStatus()).isEqualTo(HealthCheckResponse.Status.DOWN);
+    describeReturns(TableStatus.ACTIVE);
+
+    // When
+    check.refresh();
+
+    // Then
+    assertThat(check.call().getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+  }
+
+  private void describeReturns(TableStatus status) {
+    when(dynamoDbClient.describeTable(any(DescribeTableRequest.class)))
+        .thenReturn(
+            DescribeTableResponse.builder()
+                .table(TableDescription.builder().tableName(TABLE).tableStatus(status).build())
+                .build());
+  }
+}
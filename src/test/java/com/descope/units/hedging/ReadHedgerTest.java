@@ -0,0 +1,257 @@
+package com.descope.units.hedging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.descope.units.ratelimit.RetryBudget;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ReadHedgerTest {
+
+  private static final long ONE_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final AtomicInteger calls = new AtomicInteger();
+  private ReadHedger hedger;
+
+  @AfterEach
+  void tearDown() {
+    if (hedger != null) {
+      hedger.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("read - hedging disabled - should call once on the caller thread")
+  void read_hedgingDisabled_shouldCallOnceOnCallerThread() {
+    // Given
+    hedger = new ReadHedger(false, 0, warmTracker(), new RetryBudget(1, 10), 4);
+    Thread caller = Thread.currentThread();
+
+    // When
+    boolean onCaller = hedger.read(() -> Thread.currentThread() == caller);
+
+    // Then
+    assertThat(onCaller).isTrue();
+    assertThat(hedger.stats().getReads()).isZero();
+  }
+
+  @Test
+  @DisplayName("read - first attempt slow - should return the hedged result")
+  void read_firstAttemptSlow_shouldReturnHedgedResult() throws InterruptedException {
+    // Given
+    hedger = new ReadHedger(true, 0, warmTracker(), new RetryBudget(1, 10), 4);
+    CountDownLatch release = new CountDownLatch(1);
+
+    // When
+    String result =
+        hedger.read(
+            () -> {
+              if (calls.incrementAndGet() == 1) {
+                await(release);
+                return "primary";
+              }
+              return "hedge";
+            });
+    release.countDown();
+
+    // Then
+    assertThat(result).isEqualTo("hedge");
+    assertThat(hedger.stats().getHedges()).isEqualTo(1);
+    assertThat(hedger.stats().getHedgeWins()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("read - hedge wins - should still time the first attempt")
+  void read_hedgeWins_shouldStillTimeFirstAttempt() {
+    // Given
+    LatencyTracker tracker = warmTracker();
+    hedger = new ReadHedger(true, 0, tracker, new RetryBudget(1, 10), 4);
+    CountDownLatch release = new CountDownLatch(1);
+
+    // When
+    hedger.read(
+        () -> {
+          if (calls.incrementAndGet() == 1) {
+            await(release);
+          }
+          return "result";
+        });
+    release.countDown();
+
+    // Then
+    assertThat(hedger.stats().getHedgeWins()).isEqualTo(1);
+    assertThat(tracker.totalSamples()).isEqualTo(11);
+  }
+
+  @Test
+  @DisplayName("read - pool full - should skip the hedge and wait for the first attempt")
+  void read_poolFull_shouldSkipHedgeAndWaitForFirstAttempt() {
+    // Given
+    hedger = new ReadHedger(true, 0, warmTracker(), new RetryBudget(1, 10), 1);
+
+    // When
+    String result =
+        hedger.read(
+            () -> {
+              calls.incrementAndGet();
+              sleep(20);
+              return "primary";
+            });
+
+    // Then
+    assertThat(result).isEqualTo("primary");
+    assertThat(calls).hasValue(1);
+    assertThat(hedger.stats().getHedges()).isZero();
+    assertThat(hedger.stats().getHedgesDenied()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("read - first attempt fast - should not send a hedge")
+  void read_firstAttemptFast_shouldNotSendHedge() {
+    // Given
+    hedger =
+        new ReadHedger(true, TimeUnit.SECONDS.toNanos(1), warmTracker(), new RetryBudget(1, 10), 4);
+
+    // When
+    String result =
+        hedger.read(
+            () -> {
+              calls.incrementAndGet();
+              return "primary";
+            });
+
+    // Then
+    assertThat(result).isEqualTo("primary");
+    assertThat(calls).hasValue(1);
+    assertThat(hedger.stats().getHedges()).isZero();
+  }
+
+  @Test
+  @DisplayName("read - hedge budget exhausted - should wait for the first attempt")
+  void read_hedgeBudgetExhausted_shouldWaitForFirstAttempt() {
+    // Given
+    hedger = new ReadHedger(true, 0, warmTracker(), new RetryBudget(0, 0), 4);
+
+    // When
+    String result =
+        hedger.read(
+            () -> {
+              calls.incrementAndGet();
+              sleep(20);
+              return "primary";
+            });
+
+    // Then
+    assertThat(result).isEqualTo("primary");
+    assertThat(calls).hasValue(1);
+    assertThat(hedger.stats().getHedgesDenied()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("read - first attempt fails after hedge sent - should return the hedged result")
+  void read_firstAttemptFailsAfterHedgeSent_shouldReturnHedgedResult() {
+    // Given
+    hedger = new ReadHedger(true, 0, warmTracker(), new RetryBudget(1, 10), 4);
+
+    // When
+    String result =
+        hedger.read(
+            () -> {
+              if (calls.incrementAndGet() == 1) {
+                sleep(50);
+                throw new IllegalStateException("primary failed");
+              }
+              return "hedge";
+            });
+
+    // Then
+    assertThat(result).isEqualTo("hedge");
+  }
+
+  @Test
+  @DisplayName("read - every attempt fails - should rethrow the failure")
+  void read_everyAttemptFails_shouldRethrowFailure() {
+    // Given
+    hedger = new ReadHedger(true, 0, warmTracker(), new RetryBudget(1, 10), 4);
+
+    // When/Then
+    assertThatThrownBy(
+            () ->
+                hedger.read(
+                    () -> {
+                      sleep(20);
+                      throw new IllegalStateException("read failed");
+                    }))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("read failed");
+  }
+
+  @Test
+  @DisplayName("read - tracker not warmed up - should not send a hedge")
+  void read_trackerNotWarmedUp_shouldNotSendHedge() {
+    // Given
+    hedger = new ReadHedger(true, 0, new LatencyTracker(0.5, 10), new RetryBudget(1, 10), 4);
+
+    // When
+    hedger.read(
+        () -> {
+          calls.incrementAndGet();
+          sleep(20);
+          return "primary";
+        });
+
+    // Then
+    assertThat(calls).hasValue(1);
+    assertThat(hedger.stats().getHedges()).isZero();
+  }
+
+  @Test
+  @DisplayName("percentileNanos - samples recorded - should estimate within one bucket")
+  void percentileNanos_samplesRecorded_shouldEstimateWithinOneBucket() {
+    // Given
+    LatencyTracker tracker = new LatencyTracker(0.9, 100);
+
+    // When - 90 fast reads and 10 slow ones
+    for (int i = 0; i < 90; i++) {
+      tracker.record(ONE_MILLI);
+    }
+    for (int i = 0; i < 10; i++) {
+      tracker.record(100 * ONE_MILLI);
+    }
+
+    // Then - the p90 falls in the fast bucket, whose upper bound is at most 19% above 1ms
+    assertThat(tracker.percentileNanos()).isBetween(ONE_MILLI, ONE_MILLI * 119 / 100);
+  }
+
+  /** Returns a tracker whose p50 is about one millisecond. */
+  private static LatencyTracker warmTracker() {
+    LatencyTracker tracker = new LatencyTracker(0.5, 10);
+    for (int i = 0; i < 10; i++) {
+      tracker.record(ONE_MILLI);
+    }
+    return tracker;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.descope.units.hotkeys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+  @Test
+  @DisplayName("estimate - many keys - should never undercount")
+  void estimate_manyKeys_shouldNeverUndercount() {
+    // Given
+    CountMinSketch sketch = new CountMinSketch(256);
+    for (long key = 0; key < 2000; key++) {
+      for (int i = 0; i <= key % 5; i++) {
+        sketch.add(key * 0x9e3779b97f4a7c15L);
+      }
+    }
+
+    // When/Then
+    for (long key = 0; key < 2000; key++) {
+      assertThat(sketch.estimate(key * 0x9e3779b97f4a7c15L)).isGreaterThanOrEqualTo(key % 5 + 1);
+    }
+  }
+
+  @Test
+  @DisplayName("clear - counted keys - should reset estimates to zero")
+  void clear_countedKeys_shouldResetEstimatesToZero() {
+    // Given
+    CountMinSketch sketch = new CountMinSketch(64);
+    sketch.add(42);
+    sketch.add(42);
+
+    // When
+    sketch.clear();
+
+    // Then
+    assertThat(sketch.estimate(42)).isZero();
+  }
+}
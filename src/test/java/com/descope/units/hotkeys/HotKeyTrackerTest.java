@@ -0,0 +1,103 @@
+package com.descope.units.hotkeys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HotKeyTrackerTest {
+
+  private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  private long now;
+  private HotKeyTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new HotKeyTracker(true, 3, 1024, WINDOW_NANOS, () -> now);
+  }
+
+  @Test
+  @DisplayName("stats - skewed reads - should report the hottest ids with their rates")
+  void stats_skewedReads_shouldReportHottestIdsWithRates() {
+    // Given - "hot" 500 times, "warm" 200 times, a long tail once each
+    for (int i = 0; i < 5000; i++) {
+      tracker.recordRead("cold-" + i);
+      if (i % 10 == 0) {
+        tracker.recordRead("hot");
+        tracker.recordRead("hot");
+        tracker.recordRead("hot");
+        tracker.recordRead("hot");
+        tracker.recordRead("hot");
+        tracker.recordRead("warm");
+        tracker.recordRead("warm");
+      }
+    }
+
+    // When
+    now += WINDOW_NANOS;
+    HotKeyStats stats = tracker.stats();
+
+    // Then
+    List<HotKey> reads = stats.getReads();
+    assertThat(reads).hasSizeLessThanOrEqualTo(3);
+    assertThat(reads.get(0).getId()).isEqualTo("hot");
+    assertThat(reads.get(0).getCount()).isGreaterThanOrEqualTo(2500);
+    assertThat(reads.get(0).getRatePerSecond()).isGreaterThanOrEqualTo(250.0);
+    assertThat(reads.get(1).getId()).isEqualTo("warm");
+    assertThat(stats.getWrites()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("stats - window not finished - should report the previous window")
+  void stats_windowNotFinished_shouldReportPreviousWindow() {
+    // Given
+    tracker.recordWrite("a");
+    now += WINDOW_NANOS;
+    tracker.recordWrite("b");
+
+    // When
+    HotKeyStats stats = tracker.stats();
+
+    // Then
+    assertThat(stats.getWrites()).extracting(HotKey::getId).containsExactly("a");
+  }
+
+  @Test
+  @DisplayName("stats - next window - should start counting from zero")
+  void stats_nextWindow_shouldStartCountingFromZero() {
+    // Given
+    tracker.recordRead("a");
+    now += WINDOW_NANOS;
+    tracker.stats();
+    tracker.recordRead("b");
+
+    // When
+    now += WINDOW_NANOS;
+    HotKeyStats stats = tracker.stats();
+
+    // Then
+    assertThat(stats.getReads()).extracting(HotKey::getId).containsExactly("b");
+    assertThat(stats.getReads().get(0).getCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("stats - tracking disabled - should report nothing")
+  void stats_trackingDisabled_shouldReportNothing() {
+    // Given
+    tracker = new HotKeyTracker(false, 3, 1024, WINDOW_NANOS, () -> now);
+    tracker.recordRead("a");
+    now += WINDOW_NANOS;
+
+    // When
+    HotKeyStats stats = tracker.stats();
+
+    // Then
+    assertThat(stats.isEnabled()).isFalse();
+    assertThat(stats.getReads()).isEmpty();
+  }
+}
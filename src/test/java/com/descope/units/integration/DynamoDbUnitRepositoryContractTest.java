@@ -0,0 +1,23 @@
+package com.descope.units.integration;
+
+import jakarta.inject.Inject;
+
+import com.descope.units.repository.DynamoDbUnitRepository;
+import com.descope.units.repository.UnitRepository;
+import com.descope.units.repository.UnitRepositoryContractTest;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+
+/** Runs the repository contract against DynamoDB in LocalStack. */
+@QuarkusTest
+@QuarkusTestResource(LocalStackDynamoDbResource.class)
+class DynamoDbUnitRepositoryContractTest extends UnitRepositoryContractTest {
+
+  @Inject DynamoDbUnitRepository repository;
+
+  @Override
+  protected UnitRepository repository() {
+    return repository;
+  }
+}
@@ -2,6 +2,8 @@ package com.descope.units.integration;
 
 import java.util.Map;
 
+import com.descope.units.model.UnitDao;
+
 import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
 
 import org.testcontainers.containers.localstack.LocalStackContainer;
@@ -14,19 +16,23 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
 import software.amazon.awssdk.services.dynamodb.model.BillingMode;
 import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndex;
 import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
 import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.Projection;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
 import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
 
 /**
  * Quarkus test resource for LocalStack DynamoDB integration testing.
  *
- * <p>This resource starts a LocalStack container with DynamoDB and creates the necessary table for
+ * <p>This resource starts a LocalStack container with DynamoDB and creates the necessary tables for
  * testing.
  */
 public class LocalStackDynamoDbResource implements QuarkusTestResourceLifecycleManager {
 
   private static final String TABLE_NAME = "units-table-test";
+  private static final String BINARY_TABLE_NAME = "units-binary-table-test";
   private LocalStackContainer localstack;
 
   @Override
@@ -48,8 +54,9 @@ public class LocalStackDynamoDbResource implements QuarkusTestResourceLifecycleM
             .region(Region.of(localstack.getRegion()))
             .build();
 
-    // Create the units table
-    createUnitsTable(dynamoDbClient);
+    // Create the units tables, keyed by string and by binary ids
+    createUnitsTable(dynamoDbClient, TABLE_NAME, ScalarAttributeType.S);
+    createUnitsTable(dynamoDbClient, BINARY_TABLE_NAME, ScalarAttributeType.B);
 
     // Return configuration properties for Quarkus
     return Map.of(
@@ -64,7 +71,9 @@ public class LocalStackDynamoDbResource implements QuarkusTestResourceLifecycleM
         "quarkus.dynamodb.aws.credentials.static-provider.secret-access-key",
         localstack.getSecretKey(),
         "dynamodb.table.units",
-        TABLE_NAME);
+        TABLE_NAME,
+        "dynamodb.table.units-binary",
+        BINARY_TABLE_NAME);
   }
 
   @Override
@@ -74,16 +83,29 @@ public class LocalStackDynamoDbResource implements QuarkusTestResourceLifecycleM
     }
   }
 
-  private void createUnitsTable(DynamoDbClient dynamoDbClient) {
+  private void createUnitsTable(
+      DynamoDbClient dynamoDbClient, String tableName, ScalarAttributeType idType) {
     CreateTableRequest createTableRequest =
         CreateTableRequest.builder()
-            .tableName(TABLE_NAME)
+            .tableName(tableName)
             .keySchema(KeySchemaElement.builder().attributeName("id").keyType(KeyType.HASH).build())
             .attributeDefinitions(
+                AttributeDefinition.builder().attributeName("id").attributeType(idType).build(),
                 AttributeDefinition.builder()
-                    .attributeName("id")
+                    .attributeName("name")
                     .attributeType(ScalarAttributeType.S)
                     .build())
+            .globalSecondaryIndexes(
+                GlobalSecondaryIndex.builder()
+                    .indexName(UnitDao.NAME_INDEX)
+                    .keySchema(
+                        KeySchemaElement.builder()
+                            .attributeName("name")
+                            .keyType(KeyType.HASH)
+                            .build())
+                    .projection(
+                        Projection.builder().projectionType(ProjectionType.KEYS_ONLY).build())
+                    .build())
             .billingMode(BillingMode.PAY_PER_REQUEST)
             .build();
 
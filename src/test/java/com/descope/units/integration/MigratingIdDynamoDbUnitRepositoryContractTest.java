@@ -0,0 +1,122 @@
+package com.descope.units.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import jakarta.inject.Inject;
+
+import com.descope.units.cache.UnitCache;
+import com.descope.units.hedging.ReadHedger;
+import com.descope.units.model.Unit;
+import com.descope.units.ratelimit.DynamoDbThrottler;
+import com.descope.units.replica.UnitReplica;
+import com.descope.units.repository.DynamoDbUnitRepository;
+import com.descope.units.repository.UnitRepository;
+import com.descope.units.repository.UnitRepositoryContractTest;
+import com.descope.units.routing.DynamoDbReplicas;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+/**
+ * Runs the repository contract against DynamoDB in LocalStack while ids migrate from string to
+ * binary keys, and checks the backfill between the two tables.
+ */
+@QuarkusTest
+@QuarkusTestResource(LocalStackDynamoDbResource.class)
+class MigratingIdDynamoDbUnitRepositoryContractTest extends UnitRepositoryContractTest {
+
+  @Inject DynamoDbClient dynamoDbClient;
+
+  @Inject DynamoDbThrottler throttler;
+
+  @Inject ReadHedger readHedger;
+
+  @Inject DynamoDbReplicas replicas;
+
+  @Inject UnitCache unitCache;
+
+  @Inject UnitReplica unitReplica;
+
+  @ConfigProperty(name = "dynamodb.table.units")
+  String tableName;
+
+  @ConfigProperty(name = "dynamodb.table.units-binary")
+  String binaryTableName;
+
+  private DynamoDbUnitRepository migrating;
+
+  @BeforeEach
+  void setUp() {
+    migrating = repository("migrating");
+  }
+
+  @Override
+  protected UnitRepository repository() {
+    return migrating;
+  }
+
+  @Test
+  @DisplayName("findById - unit only in string table - should fall back to string table")
+  void findById_unitOnlyInStringTable_shouldFallBackToStringTable() {
+    // Given
+    Unit unit = new Unit(UUID.randomUUID().toString(), "Legacy Unit");
+    repository("string").save(unit);
+
+    // When/Then
+    assertThat(migrating.findById(unit.getId())).contains(unit);
+    assertThat(repository("binary").findById(unit.getId())).isEmpty();
+  }
+
+  @Test
+  @DisplayName("backfillBinaryIds - unit only in string table - should copy it to binary table")
+  void backfillBinaryIds_unitOnlyInStringTable_shouldCopyItToBinaryTable() {
+    // Given
+    Unit unit = new Unit(UUID.randomUUID().toString(), "Backfilled Unit");
+    repository("string").save(unit);
+
+    // When
+    long copied = migrating.backfillBinaryIds(2);
+
+    // Then
+    assertThat(copied).isPositive();
+    assertThat(repository("binary").findById(unit.getId())).contains(unit);
+  }
+
+  @Test
+  @DisplayName("backfillBinaryIds - unit already dual written - should keep the binary copy")
+  void backfillBinaryIds_unitAlreadyDualWritten_shouldKeepBinaryCopy() {
+    // Given
+    Unit unit = new Unit(UUID.randomUUID().toString(), "Dual Written Unit");
+    migrating.save(unit);
+
+    // When
+    migrating.backfillBinaryIds(1);
+
+    // Then
+    Optional<Unit> binary = repository("binary").findById(unit.getId());
+    assertThat(binary).contains(unit);
+  }
+
+  private DynamoDbUnitRepository repository(String idEncoding) {
+    return new DynamoDbUnitRepository(
+        dynamoDbClient,
+        throttler,
+        readHedger,
+        tableName,
+        idEncoding,
+        Optional.of(binaryTableName),
+        replicas,
+        unitCache,
+        unitReplica);
+  }
+}
@@ -2,8 +2,11 @@ package com.descope.units.integration;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
 
+import java.util.UUID;
+
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 
@@ -99,6 +102,49 @@ class UnitResourceIntegrationTest {
         .body("status", equalTo(404));
   }
 
+  @Test
+  @DisplayName("findUnits - units share a name - should page through name index")
+  void findUnits_unitsShareName_shouldPageThroughNameIndex() {
+    // Given - Create two units with a name unique to this test
+    String sharedName = "Name Lookup " + UUID.randomUUID();
+    for (int i = 0; i < 2; i++) {
+      given()
+          .contentType("application/json")
+          .body("{\"name\":\"" + sharedName + "\"}")
+          .when()
+          .post(BASE_PATH)
+          .then()
+          .statusCode(201);
+    }
+
+    // When - Fetch the first page
+    String cursor =
+        given()
+            .queryParam("name", sharedName)
+            .queryParam("limit", 1)
+            .when()
+            .get(BASE_PATH)
+            .then()
+            .statusCode(200)
+            .body("items", hasSize(1))
+            .body("items[0].name", equalTo(sharedName))
+            .body("nextCursor", notNullValue())
+            .extract()
+            .path("nextCursor");
+
+    // Then - The second page holds the other unit
+    given()
+        .queryParam("name", sharedName)
+        .queryParam("limit", 1)
+        .queryParam("cursor", cursor)
+        .when()
+        .get(BASE_PATH)
+        .then()
+        .statusCode(200)
+        .body("items", hasSize(1))
+        .body("items[0].name", equalTo(sharedName));
+  }
+
   @Test
   @DisplayName("updateUnit - existing unit - should update unit in DynamoDB")
   void updateUnit_existingUnit_shouldUpdateInDynamoDB() {
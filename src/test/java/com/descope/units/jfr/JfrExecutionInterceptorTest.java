@@ -0,0 +1,75 @@
+package com.descope.units.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+
+@ExtendWith(MockitoExtension.class)
+class JfrExecutionInterceptorTest {
+
+  @Mock private Context.ModifyRequest context;
+
+  private final JfrExecutionInterceptor interceptor = new JfrExecutionInterceptor();
+
+  @Test
+  @DisplayName("modifyRequest - no tally - should leave the request unchanged")
+  void modifyRequest_noTally_shouldLeaveRequestUnchanged() {
+    // Given
+    GetItemRequest request = GetItemRequest.builder().tableName("units").build();
+    when(context.request()).thenReturn(request);
+
+    // When
+    Object modified = interceptor.modifyRequest(context, new ExecutionAttributes());
+
+    // Then
+    assertThat(modified).isSameAs(request);
+  }
+
+  @Test
+  @DisplayName("modifyRequest - tally active - should ask for the consumed capacity")
+  void modifyRequest_tallyActive_shouldAskForConsumedCapacity() {
+    // Given
+    GetItemRequest request = GetItemRequest.builder().tableName("units").build();
+    when(context.request()).thenReturn(request);
+
+    // When
+    Object modified;
+    try (DynamoDbCallTally.Scope scope = DynamoDbCallTally.start()) {
+      modified = interceptor.modifyRequest(context, new ExecutionAttributes());
+    }
+
+    // Then
+    assertThat(((GetItemRequest) modified).returnConsumedCapacity())
+        .isEqualTo(ReturnConsumedCapacity.TOTAL);
+  }
+
+  @Test
+  @DisplayName("consumedCapacity - batch response - should sum every table")
+  void consumedCapacity_batchResponse_shouldSumEveryTable() {
+    // Given
+    BatchWriteItemResponse response =
+        BatchWriteItemResponse.builder()
+            .consumedCapacity(
+                ConsumedCapacity.builder().tableName("units").capacityUnits(2.0).build(),
+                ConsumedCapacity.builder().tableName("units-binary").capacityUnits(1.5).build())
+            .build();
+
+    // When
+    double consumed = JfrExecutionInterceptor.consumedCapacity(response);
+
+    // Then
+    assertThat(consumed).isEqualTo(3.5);
+  }
+}
@@ -0,0 +1,115 @@
+package com.descope.units.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import jakarta.interceptor.InvocationContext;
+
+import com.descope.units.repository.UnitRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@ExtendWith(MockitoExtension.class)
+class RecordedInterceptorTest {
+
+  private static final String REPOSITORY_CALL = "com.descope.units.RepositoryCall";
+
+  @Mock private InvocationContext invocation;
+
+  private final RecordedInterceptor interceptor = new RecordedInterceptor();
+  private Recording recording;
+
+  @BeforeEach
+  void setUp() {
+    recording = new Recording();
+    recording.enable(REPOSITORY_CALL).withThreshold(Duration.ZERO);
+    recording.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    recording.close();
+  }
+
+  @Test
+  @DisplayName("record - repository call - should commit an event with its DynamoDB attempts")
+  void record_repositoryCall_shouldCommitEventWithAttempts() throws Exception {
+    // Given
+    when(invocation.getTarget()).thenReturn(mock(UnitRepository.class));
+    when(invocation.getMethod())
+        .thenReturn(UnitRepository.class.getMethod("findById", String.class));
+    when(invocation.getParameters()).thenReturn(new Object[] {"unit-1"});
+    when(invocation.proceed())
+        .thenAnswer(
+            call -> {
+              DynamoDbCallTally.current().recordAttempt();
+              DynamoDbCallTally.current().recordAttempt();
+              DynamoDbCallTally.current().recordConsumedCapacity(0.5);
+              return "ok";
+            });
+
+    // When
+    Object result = interceptor.record(invocation);
+
+    // Then
+    assertThat(result).isEqualTo("ok");
+    assertThat(DynamoDbCallTally.current()).isNull();
+    List<RecordedEvent> events = recordedEvents();
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.get(0);
+    assertThat(event.getString("operation")).isEqualTo("findById");
+    assertThat(event.getInt("keyHash")).isEqualTo("unit-1".hashCode());
+    assertThat(event.getInt("attempts")).isEqualTo(2);
+    assertThat(event.getDouble("consumedCapacity")).isEqualTo(0.5);
+    assertThat(event.getBoolean("failed")).isFalse();
+  }
+
+  @Test
+  @DisplayName("record - repository call throws - should commit a failed event and rethrow")
+  void record_repositoryCallThrows_shouldCommitFailedEventAndRethrow() throws Exception {
+    // Given
+    when(invocation.getTarget()).thenReturn(mock(UnitRepository.class));
+    when(invocation.getMethod())
+        .thenReturn(UnitRepository.class.getMethod("deleteById", String.class));
+    when(invocation.getParameters()).thenReturn(new Object[] {"unit-1"});
+    when(invocation.proceed()).thenThrow(new IllegalStateException("boom"));
+
+    // When / Then
+    assertThatThrownBy(() -> interceptor.record(invocation))
+        .isInstanceOf(IllegalStateException.class);
+    List<RecordedEvent> events = recordedEvents();
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("operation")).isEqualTo("deleteById");
+    assertThat(events.get(0).getBoolean("failed")).isTrue();
+  }
+
+  private List<RecordedEvent> recordedEvents() throws Exception {
+    recording.stop();
+    Path file = Files.createTempFile("recorded-interceptor-", ".jfr");
+    try {
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file).stream()
+          .filter(event -> event.getEventType().getName().equals(REPOSITORY_CALL))
+          .toList();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package com.descope.units.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+
+import com.descope.units.dto.OperationResponse;
+import com.descope.units.exception.CapacityExceededException;
+import com.descope.units.exception.DeadlineExceededException;
+import com.descope.units.exception.UnitNotFoundException;
+import com.descope.units.model.Unit;
+import com.descope.units.service.UnitService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncMutationsTest {
+
+  private static final String UNIT_ID = "01933b5e-7f00-7000-8000-000000000000";
+
+  @TempDir Path directory;
+
+  @Mock private UnitService unitService;
+
+  private AsyncMutations asyncMutations;
+
+  @AfterEach
+  void tearDown() {
+    if (asyncMutations != null) {
+      asyncMutations.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("accept - then drained - should update the unit and report the operation applied")
+  void accept_thenDrained_shouldUpdateUnitAndReportApplied() throws Exception {
+    // Given
+    asyncMutations = open(100);
+    when(unitService.updateUnit(UNIT_ID, "Renamed")).thenReturn(new Unit(UNIT_ID, "Renamed"));
+
+    // When
+    OperationResponse accepted = asyncMutations.accept(MutationType.UPDATE, UNIT_ID, "Renamed");
+    int drained = asyncMutations.drainOnce();
+
+    // Then
+    assertThat(accepted.getStatus()).isEqualTo("PENDING");
+    assertThat(drained).isEqualTo(1);
+    verify(unitService).updateUnit(UNIT_ID, "Renamed");
+    OperationResponse status = asyncMutations.status(accepted.getOperationId()).orElseThrow();
+    assertThat(status.getStatus()).isEqualTo("APPLIED");
+    assertThat(status.getCompletedAt()).isNotNull();
+    assertThat(asyncMutations.stats().getPending()).isZero();
+  }
+
+  @Test
+  @DisplayName("drainOnce - create, rename and delete of one unit - should write nothing")
+  void drainOnce_createRenameAndDelete_shouldWriteNothing() throws Exception {
+    // Given
+    asyncMutations = open(100);
+    OperationResponse create = asyncMutations.accept(MutationType.CREATE, UNIT_ID, "New");
+    OperationResponse rename = asyncMutations.accept(MutationType.UPDATE, UNIT_ID, "Renamed");
+    OperationResponse delete = asyncMutations.accept(MutationType.DELETE, UNIT_ID, null);
+    OperationResponse late = asyncMutations.accept(MutationType.UPDATE, UNIT_ID, "Too late");
+
+    // When
+    asyncMutations.drainOnce();
+
+    // Then
+    verify(unitService, never()).createUnit(anyString(), anyString());
+    verify(unitService, never()).updateUnit(anyString(), anyString());
+    verify(unitService, never()).deleteUnit(anyString());
+    assertThat(asyncMutations.status(create.getOperationId()).orElseThrow().getStatus())
+        .isEqualTo("APPLIED");
+    assertThat(asyncMutations.status(rename.getOperationId()).orElseThrow().getStatus())
+        .isEqualTo("APPLIED");
+    assertThat(asyncMutations.status(delete.getOperationId()).orElseThrow().getStatus())
+        .isEqualTo("APPLIED");
+    OperationResponse failed = asyncMutations.status(late.getOperationId()).orElseThrow();
+    assertThat(failed.getStatus()).isEqualTo("FAILED");
+    assertThat(failed.getError()).contains(UNIT_ID);
+    assertThat(asyncMutations.stats().getCoalesced()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("open - writes pending at shutdown - should replay them once")
+  void open_writesPendingAtShutdown_shouldReplayThemOnce() throws Exception {
+    // Given
+    asyncMutations = open(100);
+    OperationResponse create = asyncMutations.accept(MutationType.CREATE, UNIT_ID, "New");
+    asyncMutations.accept(MutationType.UPDATE, UNIT_ID, "Renamed");
+    asyncMutations.shutdown();
+    when(unitService.createUnit(UNIT_ID, "Renamed")).thenReturn(new Unit(UNIT_ID, "Renamed"));
+
+    // When
+    asyncMutations = open(100);
+    asyncMutations.drainOnce();
+    asyncMutations.shutdown();
+    asyncMutations = open(100);
+
+    // Then
+    verify(unitService, times(1)).createUnit(UNIT_ID, "Renamed");
+    assertThat(asyncMutations.drainOnce()).isZero();
+    assertThat(asyncMutations.stats().getPending()).isZero();
+    assertThat(asyncMutations.stats().getJournalSegments()).isEqualTo(1);
+    assertThat(asyncMutations.status(create.getOperationId())).isEmpty();
+  }
+
+  @Test
+  @DisplayName("drainOnce - transient failure - should keep the write pending and retry it")
+  void drainOnce_transientFailure_shouldKeepWritePendingAndRetry() throws Exception {
+    // Given
+    asyncMutations = open(100);
+    when(unitService.updateUnit(UNIT_ID, "Renamed"))
+        .thenThrow(new CapacityExceededException("Throttled", 1))
+        .thenReturn(new Unit(UNIT_ID, "Renamed"));
+    OperationResponse accepted = asyncMutations.accept(MutationType.UPDATE, UNIT_ID, "Renamed");
+
+    // When
+    asyncMutations.drainOnce();
+    String afterFailure =
+        asyncMutations.status(accepted.getOperationId()).orElseThrow().getStatus();
+    asyncMutations.drainOnce();
+
+    // Then
+    assertThat(afterFailure).isEqualTo("PENDING");
+    assertThat(asyncMutations.status(accepted.getOperationId()).orElseThrow().getStatus())
+        .isEqualTo("APPLIED");
+    assertThat(asyncMutations.stats().getRetries()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("drainOnce - write failing on every attempt - should fail it and move on")
+  void drainOnce_writeFailingOnEveryAttempt_shouldFailItAndMoveOn() throws Exception {
+    // Given
+    asyncMutations = open(100);
+    when(unitService.updateUnit(UNIT_ID, "Poison"))
+        .thenThrow(new CapacityExceededException("Throttled", 1));
+    when(unitService.updateUnit(UNIT_ID, "Renamed")).thenReturn(new Unit(UNIT_ID, "Renamed"));
+    OperationResponse poison = asyncMutations.accept(MutationType.UPDATE, UNIT_ID, "Poison");
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      asyncMutations.drainOnce();
+    }
+    OperationResponse next = asyncMutations.accept(MutationType.UPDATE, UNIT_ID, "Renamed");
+    asyncMutations.drainOnce();
+
+    // Then
+    verify(unitService, times(3)).updateUnit(UNIT_ID, "Poison");
+    OperationResponse failed = asyncMutations.status(poison.getOperationId()).orElseThrow();
+    assertThat(failed.getStatus()).isEqualTo("FAILED");
+    assertThat(failed.getError()).contains("3 attempts");
+    assertThat(asyncMutations.status(next.getOperationId()).orElseThrow().getStatus())
+        .isEqualTo("APPLIED");
+    assertThat(asyncMutations.stats().getPending()).isZero();
+  }
+
+  @Test
+  @DisplayName("open - write in doubt whose unit was deleted since - should fail without writing")
+  void open_writeInDoubtWhoseUnitWasDeleted_shouldFailWithoutWriting() throws Exception {
+    // Given
+    asyncMutations = open(100);
+    when(unitService.createUnit(UNIT_ID, "New")).thenThrow(new DeadlineExceededException());
+    OperationResponse create = asyncMutations.accept(MutationType.CREATE, UNIT_ID, "New");
+    asyncMutations.drainOnce();
+    asyncMutations.shutdown();
+    when(unitService.getUnitById(UNIT_ID)).thenThrow(new UnitNotFoundException(UNIT_ID));
+
+    // When
+    asyncMutations = open(100);
+    asyncMutations.drainOnce();
+
+    // Then
+    verify(unitService, times(1)).createUnit(UNIT_ID, "New");
+    OperationResponse failed = asyncMutations.status(create.getOperationId()).orElseThrow();
+    assertThat(failed.getStatus()).isEqualTo("FAILED");
+    assertThat(failed.getError()).contains("restart");
+  }
+
+  @Test
+  @DisplayName("open - write in doubt the unit already reflects - should report it applied")
+  void open_writeInDoubtUnitAlreadyReflects_shouldReportApplied() throws Exception {
+    // Given
+    asyncMutations = open(100);
+    when(unitService.updateUnit(UNIT_ID, "Renamed")).thenThrow(new DeadlineExceededException());
+    OperationResponse update = asyncMutations.accept(MutationType.UPDATE, UNIT_ID, "Renamed");
+    asyncMutations.drainOnce();
+    asyncMutations.shutdown();
+    when(unitService.getUnitById(UNIT_ID)).thenReturn(new Unit(UNIT_ID, "Renamed"));
+
+    // When
+    asyncMutations = open(100);
+    asyncMutations.drainOnce();
+
+    // Then
+    verify(unitService, times(1)).updateUnit(UNIT_ID, "Renamed");
+    assertThat(asyncMutations.status(update.getOperationId()).orElseThrow().getStatus())
+        .isEqualTo("APPLIED");
+  }
+
+  @Test
+  @DisplayName("accept - pending limit reached - should throw CapacityExceededException")
+  void accept_pendingLimitReached_shouldThrowCapacityExceededException() {
+    // Given
+    asyncMutations = open(1);
+    asyncMutations.accept(MutationType.DELETE, UNIT_ID, null);
+
+    // When / Then
+    assertThatThrownBy(() -> asyncMutations.accept(MutationType.DELETE, "other", null))
+        .isInstanceOf(CapacityExceededException.class);
+    assertThat(asyncMutations.stats().getRejected()).isEqualTo(1);
+  }
+
+  private AsyncMutations open(int maxPending) {
+    AsyncMutations opened =
+        new AsyncMutations(
+            unitService, true, directory.toString(), 1, maxPending, 25, 1, 0, 10000, 3);
+    opened.open();
+    return opened;
+  }
+}
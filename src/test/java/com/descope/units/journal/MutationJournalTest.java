@@ -0,0 +1,108 @@
+package com.descope.units.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MutationJournalTest {
+
+  @TempDir Path directory;
+
+  @Test
+  @DisplayName("open - torn record at the end of a segment - should recover the records before it")
+  void open_tornRecordAtEnd_shouldRecoverRecordsBeforeIt() throws Exception {
+    // Given
+    try (MutationJournal journal = MutationJournal.open(directory, 1024 * 1024)) {
+      journal.append(mutation("op-1", "unit-1")).join();
+      journal.append(mutation("op-2", "unit-2")).join();
+    }
+    Path segment = onlySegment();
+    long size = Files.size(segment);
+    try (var channel = Files.newByteChannel(segment, StandardOpenOption.WRITE)) {
+      channel.truncate(size - 3);
+    }
+
+    // When
+    List<Mutation> recovered;
+    try (MutationJournal journal = MutationJournal.open(directory, 1024 * 1024)) {
+      recovered = journal.recovered();
+    }
+
+    // Then
+    assertThat(recovered).extracting(Mutation::operationId).containsExactly("op-1");
+    assertThat(recovered.get(0).replayed()).isTrue();
+    assertThat(recovered.get(0).name()).isEqualTo("Name unit-1");
+  }
+
+  @Test
+  @DisplayName("complete - every mutation of a sealed segment - should delete the segment")
+  void complete_everyMutationOfSealedSegment_shouldDeleteSegment() throws Exception {
+    // Given
+    MutationJournal journal = MutationJournal.open(directory, 1024);
+    Mutation[] mutations = new Mutation[30];
+    for (int i = 0; i < mutations.length; i++) {
+      mutations[i] = mutation("op-" + i, "unit-" + i);
+      journal.append(mutations[i]).join();
+    }
+    int segmentsBefore = journal.segmentCount();
+
+    // When
+    for (Mutation mutation : mutations) {
+      mutation.complete(OperationStatus.APPLIED, null, System.currentTimeMillis());
+      journal.complete(mutation);
+    }
+    journal.close();
+
+    // Then
+    assertThat(segmentsBefore).isGreaterThan(1);
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files).hasSize(1);
+    }
+  }
+
+  @Test
+  @DisplayName("open - mutation applying at shutdown - should recover it in doubt")
+  void open_mutationApplyingAtShutdown_shouldRecoverItInDoubt() throws Exception {
+    // Given
+    try (MutationJournal journal = MutationJournal.open(directory, 1024 * 1024)) {
+      Mutation applying = mutation("op-1", "unit-1");
+      journal.append(applying).join();
+      journal.append(mutation("op-2", "unit-2")).join();
+      journal.applying(List.of(applying)).join();
+    }
+
+    // When
+    List<Mutation> recovered;
+    try (MutationJournal journal = MutationJournal.open(directory, 1024 * 1024)) {
+      recovered = journal.recovered();
+    }
+
+    // Then
+    assertThat(recovered).extracting(Mutation::operationId).containsExactly("op-1", "op-2");
+    assertThat(recovered).extracting(Mutation::inDoubt).containsExactly(true, false);
+  }
+
+  private Path onlySegment() throws Exception {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.reduce((first, second) -> second).orElseThrow();
+    }
+  }
+
+  private static Mutation mutation(String operationId, String unitId) {
+    return new Mutation(
+        operationId,
+        MutationType.UPDATE,
+        unitId,
+        "Name " + unitId,
+        System.currentTimeMillis(),
+        false);
+  }
+}
@@ -0,0 +1,177 @@
+package com.descope.units.lambda;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import jakarta.validation.Validator;
+
+import com.descope.units.cache.CachedUnitReader;
+import com.descope.units.cache.ResponseCache;
+import com.descope.units.dto.CreateUnitRequest;
+import com.descope.units.exception.GlobalExceptionHandler;
+import com.descope.units.exception.UnitNotFoundException;
+import com.descope.units.hotkeys.HotKeyTracker;
+import com.descope.units.model.Unit;
+import com.descope.units.overload.ClientQuotas;
+import com.descope.units.overload.LoadShedder;
+import com.descope.units.overload.RequestPriority;
+import com.descope.units.service.UnitService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AlbUnitRouterTest {
+
+  private static final String TEST_ID = "01933b5e-7f00-7000-8000-000000000000";
+  private static final String TEST_NAME = "Test Unit";
+
+  @Mock private UnitService unitService;
+  @Mock private LoadShedder loadShedder;
+  @Mock private ClientQuotas clientQuotas;
+  @Mock private Validator validator;
+  @Mock private HotKeyTracker hotKeyTracker;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private AlbUnitRouter router;
+
+  @BeforeEach
+  void setUp() {
+    ResponseCache responseCache = new ResponseCache(true, 1, 10, 30, 300);
+    CachedUnitReader cachedUnitReader =
+        new CachedUnitReader(unitService, responseCache, hotKeyTracker, objectMapper, 1);
+    router =
+        new AlbUnitRouter(
+            unitService,
+            responseCache,
+            cachedUnitReader,
+            loadShedder,
+            clientQuotas,
+            validator,
+            new GlobalExceptionHandler(10),
+            objectMapper,
+            true,
+            3000,
+            250,
+            20);
+  }
+
+  @Test
+  @DisplayName("handle - create request - should return 201 with the created unit")
+  void handle_createRequest_shouldReturn201WithCreatedUnit() throws Exception {
+    // Given
+    when(validator.validate(any(CreateUnitRequest.class))).thenReturn(Set.of());
+    when(unitService.createUnit(TEST_NAME)).thenReturn(new Unit(TEST_ID, TEST_NAME));
+    String event =
+        "{\"requestContext\":{\"elb\":{}},\"httpMethod\":\"POST\",\"path\":\"/api/units\","
+            + "\"headers\":{\"content-type\":\"application/json\"},"
+            + "\"body\":\"{\\\"name\\\":\\\"Test Unit\\\"}\",\"isBase64Encoded\":false}";
+
+    // When
+    JsonNode response = handle(event);
+
+    // Then
+    assertThat(response.get("statusCode").asInt()).isEqualTo(201);
+    assertThat(response.get("statusDescription").asText()).isEqualTo("201 Created");
+    assertThat(response.at("/headers/Content-Type").asText()).isEqualTo("application/json");
+    JsonNode body = objectMapper.readTree(response.get("body").asText());
+    assertThat(body.get("id").asText()).isEqualTo(TEST_ID);
+    assertThat(body.get("name").asText()).isEqualTo(TEST_NAME);
+    verify(loadShedder).acquire("UnitResource.createUnit", RequestPriority.WRITE);
+  }
+
+  @Test
+  @DisplayName("handle - unknown id - should return the global handler's 404 body")
+  void handle_unknownId_shouldReturnGlobalHandlers404Body() throws Exception {
+    // Given
+    when(unitService.loadUnitById("missing id")).thenThrow(new UnitNotFoundException("missing id"));
+
+    // When
+    JsonNode response = handle(getEvent("/api/units/missing%20id", ""));
+
+    // Then
+    assertThat(response.get("statusCode").asInt()).isEqualTo(404);
+    JsonNode body = objectMapper.readTree(response.get("body").asText());
+    assertThat(body.get("status").asInt()).isEqualTo(404);
+    assertThat(body.get("message").asText()).contains("missing id");
+    assertThat(body.has("timestamp")).isTrue();
+  }
+
+  @Test
+  @DisplayName("handle - cached unit with matching If-None-Match - should return 304 with ETag")
+  void handle_cachedUnitWithMatchingIfNoneMatch_shouldReturn304WithEtag() throws Exception {
+    // Given
+    when(unitService.loadUnitById(TEST_ID)).thenReturn(new Unit(TEST_ID, TEST_NAME));
+    String entityTag = handle(getEvent("/api/units/" + TEST_ID, "")).at("/headers/ETag").asText();
+    String event =
+        "{\"requestContext\":{\"elb\":{}},\"httpMethod\":\"GET\",\"path\":\"/api/units/"
+            + TEST_ID
+            + "\",\"multiValueHeaders\":{\"if-none-match\":[\"W/"
+            + entityTag.replace("\"", "\\\"")
+            + "\"]},\"body\":\"\"}";
+
+    // When
+    JsonNode response = handle(event);
+
+    // Then
+    assertThat(entityTag).startsWith("\"").endsWith("\"");
+    assertThat(response.get("statusCode").asInt()).isEqualTo(304);
+    assertThat(response.at("/multiValueHeaders/ETag/0").asText()).isEqualTo(entityTag);
+    assertThat(response.get("body").asText()).isEmpty();
+    verify(unitService, times(1)).loadUnitById(TEST_ID);
+    verify(hotKeyTracker, times(2)).recordRead(TEST_ID);
+  }
+
+  @Test
+  @DisplayName("handle - requests the full stack serves differently - should not be handled")
+  void handle_requestsFullStackServesDifferently_shouldNotBeHandled() throws Exception {
+    // Given
+    String apiGateway = "{\"requestContext\":{\"stage\":\"prod\"},\"httpMethod\":\"GET\"}";
+    String search = getEvent("/api/units:search", "");
+    String cors = getEvent("/api/units/" + TEST_ID, ",\"origin\":\"https://example.com\"");
+    String badLimit =
+        "{\"requestContext\":{\"elb\":{}},\"httpMethod\":\"GET\",\"path\":\"/api/units\","
+            + "\"queryStringParameters\":{\"name\":\"a\",\"limit\":\"ten\"}}";
+    String malformed =
+        "{\"requestContext\":{\"elb\":{}},\"httpMethod\":\"POST\",\"path\":\"/api/units\","
+            + "\"headers\":{\"content-type\":\"application/json\"},\"body\":\"{\"}";
+
+    // When / Then
+    for (String event : new String[] {apiGateway, search, cors, badLimit, malformed}) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      assertThat(router.handle(event.getBytes(StandardCharsets.UTF_8), output, null))
+          .as(event)
+          .isFalse();
+      assertThat(output.size()).isZero();
+    }
+    verifyNoInteractions(unitService, loadShedder);
+  }
+
+  private JsonNode handle(String event) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    assertThat(router.handle(event.getBytes(StandardCharsets.UTF_8), output, null)).isTrue();
+    return objectMapper.readTree(output.toByteArray());
+  }
+
+  private static String getEvent(String path, String extraHeaders) {
+    return "{\"requestContext\":{\"elb\":{}},\"httpMethod\":\"GET\",\"path\":\""
+        + path
+        + "\",\"headers\":{\"accept\":\"application/json\""
+        + extraHeaders
+        + "},\"body\":\"\"}";
+  }
+}
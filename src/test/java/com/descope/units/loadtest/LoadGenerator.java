@@ -0,0 +1,223 @@
+package com.descope.units.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model load generator for the units API.
+ *
+ * <p>Requests are scheduled at a fixed average rate, with exponential (Poisson) or constant gaps,
+ * whether or not earlier requests have completed, as real clients do. Each request's latency is
+ * measured from its scheduled time, so when the service stalls the requests that should have been
+ * sent meanwhile are charged for the wait. A closed-loop generator would silently stop sending
+ * instead and under-report the tail.
+ *
+ * <p>Before the run, {@code keyspace} units are created. Gets and updates pick among them with
+ * Zipfian popularity. Creates add new units, and deletes only remove units created during the run,
+ * so the hot keyspace never shrinks; when there is nothing to delete yet, a create is sent instead.
+ *
+ * <p>Run against a deployed service with {@code ./gradlew loadRun -Pload.base-url=...}, or against
+ * the service on LocalStack with {@code ./gradlew loadTest} (see {@code UnitLoadTest}).
+ */
+public final class LoadGenerator {
+
+  private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+  private static final int SEED_CONCURRENCY = 32;
+
+  private final LoadTestConfig config;
+  private final HttpClient client;
+  private final SplittableRandom random;
+  private final ZipfDistribution popularity;
+  private final Operation[] mixTable;
+  private final Semaphore inFlight;
+  private final Queue<String> created = new ConcurrentLinkedQueue<>();
+  private final AtomicLong nameCounter = new AtomicLong();
+  private String[] keyspace;
+
+  LoadGenerator(LoadTestConfig config) {
+    this.config = config;
+    this.client = HttpClient.newBuilder().connectTimeout(config.timeout).build();
+    this.random = new SplittableRandom(config.seed);
+    this.popularity = new ZipfDistribution(config.keyspace, config.zipfExponent);
+    this.mixTable = mixTable(config.mix);
+    this.inFlight = new Semaphore(config.maxInFlight);
+  }
+
+  /**
+   * Runs a load test configured by {@code load.*} system properties and prints the report.
+   *
+   * @param args ignored
+   * @throws Exception if the run cannot complete
+   */
+  public static void main(String[] args) throws Exception {
+    LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+    LoadReport report = new LoadGenerator(config).run();
+    report.print(System.out);
+    report.writeHistograms(config.reportDirectory);
+  }
+
+  /** Seeds the keyspace, warms up, then runs the measured phase. */
+  LoadReport run() throws InterruptedException {
+    seed();
+    if (!config.warmup.isZero()) {
+      drive(config.warmup, new LoadReport());
+    }
+    LoadReport report = new LoadReport();
+    long start = System.nanoTime();
+    drive(config.duration, report);
+    report.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+    return report;
+  }
+
+  private void seed() throws InterruptedException {
+    List<String> ids = new ArrayList<>(config.keyspace);
+    Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+    List<CompletableFuture<Void>> pending = new ArrayList<>();
+    for (int i = 0; i < config.keyspace; i++) {
+      permits.acquire();
+      pending.add(
+          client
+              .sendAsync(create(), HttpResponse.BodyHandlers.ofString())
+              .thenAccept(
+                  response -> {
+                    String id = idOf(response);
+                    if (id == null) {
+                      throw new IllegalStateException(
+                          "Seeding failed with status " + response.statusCode());
+                    }
+                    synchronized (ids) {
+                      ids.add(id);
+                    }
+                  })
+              .whenComplete((ignored, error) -> permits.release()));
+    }
+    CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+    keyspace = ids.toArray(new String[0]);
+  }
+
+  private void drive(Duration length, LoadReport report) throws InterruptedException {
+    double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / config.rate;
+    long start = System.nanoTime();
+    long end = start + length.toNanos();
+    long scheduled = start;
+    while (scheduled < end) {
+      long wait = scheduled - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      Operation operation = mixTable[random.nextInt(mixTable.length)];
+      if (inFlight.tryAcquire()) {
+        send(operation, scheduled, report);
+      } else {
+        report.recordSaturated(operation);
+      }
+      double gap =
+          config.poissonArrivals ? -Math.log(1 - random.nextDouble()) * meanGapNanos : meanGapNanos;
+      scheduled += (long) gap;
+    }
+    // Drain what is still in flight so it lands in this phase's report
+    if (inFlight.tryAcquire(
+        config.maxInFlight, config.timeout.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+      inFlight.release(config.maxInFlight);
+    }
+  }
+
+  private void send(Operation operation, long scheduledNanos, LoadReport report) {
+    String deletable = operation == Operation.DELETE ? created.poll() : null;
+    Operation actual =
+        operation == Operation.DELETE && deletable == null ? Operation.CREATE : operation;
+    HttpRequest request;
+    switch (actual) {
+      case CREATE -> request = create();
+      case GET -> request = builder("/" + hotId()).GET().build();
+      case MISS ->
+          request = builder("/" + new UUID(random.nextLong(), random.nextLong())).GET().build();
+      case UPDATE ->
+          request =
+              builder("/" + hotId())
+                  .header("Content-Type", "application/json")
+                  .PUT(HttpRequest.BodyPublishers.ofString(nameBody()))
+                  .build();
+      default -> request = builder("/" + deletable).DELETE().build();
+    }
+
+    client
+        .sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        .whenComplete(
+            (response, error) -> {
+              long latency = System.nanoTime() - scheduledNanos;
+              if (error != null) {
+                report.recordFailure(actual, latency);
+              } else {
+                report.record(actual, latency, response.statusCode());
+                if (actual == Operation.CREATE) {
+                  String id = idOf(response);
+                  if (id != null) {
+                    created.add(id);
+                  }
+                }
+              }
+              inFlight.release();
+            });
+  }
+
+  private HttpRequest create() {
+    return builder("")
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(nameBody()))
+        .build();
+  }
+
+  private HttpRequest.Builder builder(String path) {
+    return HttpRequest.newBuilder(URI.create(config.baseUrl + "/api/units" + path))
+        .timeout(config.timeout);
+  }
+
+  private String hotId() {
+    return keyspace[popularity.sample(random) % keyspace.length];
+  }
+
+  private String nameBody() {
+    return "{\"name\":\"load-" + nameCounter.incrementAndGet() + "\"}";
+  }
+
+  private static String idOf(HttpResponse<String> response) {
+    if (response.statusCode() != 201) {
+      return null;
+    }
+    Matcher matcher = ID.matcher(response.body());
+    return matcher.find() ? matcher.group(1) : null;
+  }
+
+  /** Expands percentage weights into a lookup table so choosing an operation is one array read. */
+  private static Operation[] mixTable(Map<Operation, Integer> mix) {
+    List<Operation> table = new ArrayList<>();
+    mix.forEach(
+        (operation, weight) -> {
+          for (int i = 0; i < weight; i++) {
+            table.add(operation);
+          }
+        });
+    if (table.isEmpty()) {
+      throw new IllegalArgumentException("load.mix must give at least one operation a weight");
+    }
+    return table.toArray(new Operation[0]);
+  }
+}
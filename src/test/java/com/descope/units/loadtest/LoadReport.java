@@ -0,0 +1,135 @@
+package com.descope.units.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms and outcome counts of a load run, per operation.
+ *
+ * <p>Latencies are recorded in microseconds from the time a request was scheduled to be sent, not
+ * from when it was sent, so a stalled service is charged for the requests that queued behind the
+ * stall (no coordinated omission).
+ */
+final class LoadReport {
+
+  private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+  private final Map<Operation, Outcomes> outcomes = new EnumMap<>(Operation.class);
+  private Duration elapsed = Duration.ZERO;
+
+  LoadReport() {
+    for (Operation operation : Operation.values()) {
+      outcomes.put(operation, new Outcomes());
+    }
+  }
+
+  void record(Operation operation, long latencyNanos, int status) {
+    Outcomes outcome = outcomes.get(operation);
+    outcome.latencies.recordValue(
+        Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    if (operation.succeeded(status)) {
+      outcome.succeeded.increment();
+    } else if (status == 429 || status == 503) {
+      outcome.rejected.increment();
+    } else {
+      outcome.failed.increment();
+    }
+  }
+
+  /** Records a request that failed without a response, such as a timeout. */
+  void recordFailure(Operation operation, long latencyNanos) {
+    record(operation, latencyNanos, -1);
+  }
+
+  /** Records a request that was never sent because too many were already in flight. */
+  void recordSaturated(Operation operation) {
+    outcomes.get(operation).saturated.increment();
+  }
+
+  void setElapsed(Duration elapsed) {
+    this.elapsed = elapsed;
+  }
+
+  long totalRequests() {
+    return outcomes.values().stream().mapToLong(Outcomes::total).sum();
+  }
+
+  Histogram latencies(Operation operation) {
+    return outcomes.get(operation).latencies;
+  }
+
+  void print(PrintStream out) {
+    double seconds = Math.max(1, elapsed.toMillis()) / 1000.0;
+    out.printf(
+        "%nLoad run: %d requests in %.1f s (%.1f/s)%n",
+        totalRequests(), seconds, totalRequests() / seconds);
+    out.printf(
+        "%-8s %9s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n",
+        "op",
+        "count",
+        "ok",
+        "rejected",
+        "failed",
+        "skipped",
+        "p50 ms",
+        "p90 ms",
+        "p99 ms",
+        "p99.9 ms",
+        "max ms");
+    outcomes.forEach(
+        (operation, outcome) -> {
+          Histogram h = outcome.latencies;
+          out.printf(
+              "%-8s %9d %9d %9d %9d %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+              operation.key(),
+              outcome.total(),
+              outcome.succeeded.sum(),
+              outcome.rejected.sum(),
+              outcome.failed.sum(),
+              outcome.saturated.sum(),
+              millis(h, 50),
+              millis(h, 90),
+              millis(h, 99),
+              millis(h, 99.9),
+              h.getMaxValue() / 1000.0);
+        });
+  }
+
+  /** Writes each operation's percentile distribution in HdrHistogram's text format. */
+  void writeHistograms(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    for (Map.Entry<Operation, Outcomes> entry : outcomes.entrySet()) {
+      Path file = directory.resolve(entry.getKey().key() + ".hgrm");
+      try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+        entry.getValue().latencies.outputPercentileDistribution(out, 1000.0);
+      }
+    }
+  }
+
+  private static double millis(Histogram histogram, double percentile) {
+    return histogram.getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  private static final class Outcomes {
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder saturated = new LongAdder();
+
+    private long total() {
+      return succeeded.sum() + rejected.sum() + failed.sum() + saturated.sum();
+    }
+  }
+}
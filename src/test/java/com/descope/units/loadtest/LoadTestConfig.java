@@ -0,0 +1,77 @@
+package com.descope.units.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of a load run, read from {@code load.*} system properties.
+ *
+ * <p>Gradle passes {@code -Pload.*} project properties through as system properties, for example
+ * {@code ./gradlew loadTest -Pload.rate=500 -Pload.mix=get=90,update=10}.
+ */
+final class LoadTestConfig {
+
+  final String baseUrl;
+  final double rate;
+  final boolean poissonArrivals;
+  final Duration warmup;
+  final Duration duration;
+  final Map<Operation, Integer> mix;
+  final int keyspace;
+  final double zipfExponent;
+  final int maxInFlight;
+  final Duration timeout;
+  final Path reportDirectory;
+  final long seed;
+
+  private LoadTestConfig(String baseUrl) {
+    this.baseUrl = stripTrailingSlash(baseUrl);
+    this.rate = Double.parseDouble(property("rate", "100"));
+    this.poissonArrivals = !"constant".equals(property("arrival", "poisson"));
+    this.warmup = Duration.ofSeconds(Long.parseLong(property("warmup-seconds", "10")));
+    this.duration = Duration.ofSeconds(Long.parseLong(property("duration-seconds", "60")));
+    this.mix = parseMix(property("mix", "get=70,create=10,update=15,delete=5"));
+    this.keyspace = Integer.parseInt(property("keyspace", "1000"));
+    this.zipfExponent = Double.parseDouble(property("zipf-exponent", "0.99"));
+    this.maxInFlight = Integer.parseInt(property("max-in-flight", "2000"));
+    this.timeout = Duration.ofMillis(Long.parseLong(property("timeout-ms", "5000")));
+    this.reportDirectory = Path.of(property("report-dir", "build/reports/load"));
+    this.seed = Long.parseLong(property("seed", "42"));
+    if (rate <= 0 || keyspace < 1 || maxInFlight < 1) {
+      throw new IllegalArgumentException(
+          "load.rate, load.keyspace and load.max-in-flight must be positive");
+    }
+  }
+
+  /** Reads the configuration, targeting {@code load.base-url} or a local service by default. */
+  static LoadTestConfig fromSystemProperties() {
+    return new LoadTestConfig(property("base-url", "http://localhost:8080"));
+  }
+
+  /** Reads the configuration but targets the given service, for in-process runs. */
+  static LoadTestConfig forBaseUrl(String baseUrl) {
+    return new LoadTestConfig(baseUrl);
+  }
+
+  private static String property(String name, String defaultValue) {
+    return System.getProperty("load." + name, defaultValue);
+  }
+
+  private static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.split("=");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("load.mix entries must look like get=70: " + entry);
+      }
+      weights.put(Operation.fromKey(parts[0]), Integer.parseInt(parts[1].trim()));
+    }
+    return weights;
+  }
+
+  private static String stripTrailingSlash(String url) {
+    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+  }
+}
@@ -0,0 +1,25 @@
+package com.descope.units.loadtest;
+
+import java.util.Locale;
+
+/** Kinds of request the load generator issues. */
+enum Operation {
+  CREATE,
+  GET,
+  /** A get of a random id that does not exist; succeeds with a 404. */
+  MISS,
+  UPDATE,
+  DELETE;
+
+  String key() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  boolean succeeded(int status) {
+    return this == MISS ? status == 404 : status >= 200 && status < 300;
+  }
+
+  static Operation fromKey(String key) {
+    return valueOf(key.trim().toUpperCase(Locale.ROOT));
+  }
+}
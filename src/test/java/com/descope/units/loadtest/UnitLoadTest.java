@@ -0,0 +1,45 @@
+package com.descope.units.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+
+import com.descope.units.integration.LocalStackDynamoDbResource;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives the service, backed by DynamoDB in LocalStack, with the {@link LoadGenerator}.
+ *
+ * <p>Excluded from {@code ./gradlew test}; run it with {@code ./gradlew loadTest}. The client
+ * shares the JVM with the service, so absolute numbers are pessimistic, but runs are repeatable and
+ * comparable with each other.
+ */
+@QuarkusTest
+@QuarkusTestResource(LocalStackDynamoDbResource.class)
+@Tag("load")
+class UnitLoadTest {
+
+  @TestHTTPResource URL baseUrl;
+
+  @Test
+  @DisplayName("load - configured mix - should report latency percentiles per operation")
+  void load_configuredMix_shouldReportLatencyPercentilesPerOperation() throws Exception {
+    // Given
+    LoadTestConfig config = LoadTestConfig.forBaseUrl(baseUrl.toString());
+
+    // When
+    LoadReport report = new LoadGenerator(config).run();
+
+    // Then
+    report.print(System.out);
+    report.writeHistograms(config.reportDirectory);
+    assertThat(report.totalRequests()).isPositive();
+  }
+}
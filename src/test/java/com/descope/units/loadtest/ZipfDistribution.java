@@ -0,0 +1,37 @@
+package com.descope.units.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks in {@code [0, n)} with probability proportional to {@code 1 / (rank + 1)^s}.
+ *
+ * <p>Rank 0 is the most popular. An exponent of 0 gives a uniform distribution; around 1 matches
+ * the skew usually seen in key popularity, where a few keys take most of the traffic. The
+ * cumulative distribution is precomputed, so sampling is a binary search.
+ */
+final class ZipfDistribution {
+
+  private final double[] cumulative;
+
+  ZipfDistribution(int n, double exponent) {
+    if (n < 1 || exponent < 0) {
+      throw new IllegalArgumentException("Zipf needs n >= 1 and a non-negative exponent");
+    }
+    cumulative = new double[n];
+    double sum = 0;
+    for (int rank = 0; rank < n; rank++) {
+      sum += 1 / Math.pow(rank + 1, exponent);
+      cumulative[rank] = sum;
+    }
+    for (int rank = 0; rank < n; rank++) {
+      cumulative[rank] /= sum;
+    }
+  }
+
+  int sample(SplittableRandom random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    int rank = index >= 0 ? index : -index - 1;
+    return Math.min(rank, cumulative.length - 1);
+  }
+}
@@ -0,0 +1,55 @@
+package com.descope.units.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ZipfDistributionTest {
+
+  private static final int SAMPLES = 200_000;
+
+  @Test
+  @DisplayName("sample - exponent one - should follow harmonic weights")
+  void sample_exponentOne_shouldFollowHarmonicWeights() {
+    // Given
+    ZipfDistribution zipf = new ZipfDistribution(100, 1.0);
+    SplittableRandom random = new SplittableRandom(7);
+    double harmonic = 0;
+    for (int rank = 1; rank <= 100; rank++) {
+      harmonic += 1.0 / rank;
+    }
+
+    // When
+    int[] counts = new int[100];
+    for (int i = 0; i < SAMPLES; i++) {
+      counts[zipf.sample(random)]++;
+    }
+
+    // Then - rank 0 gets 1/H(100) of the traffic and rank 1 half as much
+    assertThat((double) counts[0] / SAMPLES).isCloseTo(1 / harmonic, within(0.01));
+    assertThat((double) counts[1] / counts[0]).isCloseTo(0.5, within(0.03));
+  }
+
+  @Test
+  @DisplayName("sample - exponent zero - should be uniform")
+  void sample_exponentZero_shouldBeUniform() {
+    // Given
+    ZipfDistribution zipf = new ZipfDistribution(10, 0);
+    SplittableRandom random = new SplittableRandom(7);
+
+    // When
+    int[] counts = new int[10];
+    for (int i = 0; i < SAMPLES; i++) {
+      counts[zipf.sample(random)]++;
+    }
+
+    // Then
+    for (int count : counts) {
+      assertThat((double) count / SAMPLES).isCloseTo(0.1, within(0.01));
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.descope.units.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CapacityBudgetTest {
+
+  private long now;
+
+  @Test
+  @DisplayName("consume - beyond the bucket - should wait until the debt is repaid")
+  void consume_beyondBucket_shouldWaitUntilDebtIsRepaid() {
+    // Given
+    CapacityBudget budget = new CapacityBudget(10, () -> now);
+
+    // When
+    budget.consume(15);
+
+    // Then
+    assertThat(budget.nanosUntilAvailable()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+    now += TimeUnit.MILLISECONDS.toNanos(500);
+    assertThat(budget.nanosUntilAvailable()).isZero();
+  }
+
+  @Test
+  @DisplayName("nanosUntilAvailable - long idle period - should refill at most one second")
+  void nanosUntilAvailable_longIdlePeriod_shouldRefillAtMostOneSecond() {
+    // Given
+    CapacityBudget budget = new CapacityBudget(10, () -> now);
+    now += TimeUnit.MINUTES.toNanos(1);
+
+    // When
+    budget.consume(20);
+
+    // Then
+    assertThat(budget.nanosUntilAvailable()).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+  }
+}
@@ -0,0 +1,178 @@
+package com.descope.units.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+@ExtendWith(MockitoExtension.class)
+class MigrationJobTest {
+
+  private static final String TABLE = "units-table-test";
+  private static final String MIGRATION = "normalize-names";
+
+  @Mock private DynamoDbClient client;
+
+  private InMemoryCheckpointStore checkpoints;
+  private final List<Map<String, AttributeValue>> rewritten = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    checkpoints = new InMemoryCheckpointStore();
+  }
+
+  @Test
+  @DisplayName("start - some items changed - should rewrite them conditionally and checkpoint")
+  void start_someItemsChanged_shouldRewriteThemConditionallyAndCheckpoint() {
+    // Given
+    when(client.scan(any(ScanRequest.class)))
+        .thenReturn(
+            page(Map.of("id", AttributeValue.fromS("b")), item("a", " A "), item("b", "B")),
+            page(null, item("c", "C  c")));
+    when(client.transactWriteItems(any(TransactWriteItemsRequest.class)))
+        .thenReturn(TransactWriteItemsResponse.builder().build());
+
+    // When
+    MigrationStatus status = run(job(1));
+
+    // Then
+    ArgumentCaptor<TransactWriteItemsRequest> writes =
+        ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+    verify(client, times(2)).transactWriteItems(writes.capture());
+    Put first = writes.getAllValues().get(0).transactItems().get(0).put();
+    assertThat(first.item().get("name").s()).isEqualTo("A");
+    assertThat(first.conditionExpression()).contains("#a0 = :v0").contains(" AND ");
+    assertThat(first.expressionAttributeValues()).containsValue(AttributeValue.fromS(" A "));
+    assertThat(writes.getAllValues().get(1).transactItems().get(0).put().item().get("name").s())
+        .isEqualTo("C c");
+    assertThat(status.getState()).isEqualTo(MigrationState.COMPLETED);
+    assertThat(status.getCounts().getScanned()).isEqualTo(3);
+    assertThat(status.getCounts().getUpdated()).isEqualTo(2);
+    assertThat(status.getCounts().getUnchanged()).isEqualTo(1);
+    assertThat(checkpoints.load(MIGRATION)).singleElement().matches(SegmentCheckpoint::isDone);
+    assertThat(rewritten).extracting(item -> item.get("name").s()).containsExactly("A", "C c");
+  }
+
+  @Test
+  @DisplayName(
+      "start - saved checkpoints - should resume after the saved key and skip done segments")
+  void start_savedCheckpoints_shouldResumeAfterSavedKeyAndSkipDoneSegments() {
+    // Given
+    Map<String, AttributeValue> lastKey = Map.of("id", AttributeValue.fromS("x"));
+    MigrationCounts earlier = new MigrationCounts(10, 4, 6, 0, 0);
+    checkpoints.save(MIGRATION, new SegmentCheckpoint(0, 2, null, true, earlier));
+    checkpoints.save(MIGRATION, new SegmentCheckpoint(1, 2, lastKey, false, earlier));
+    when(client.scan(any(ScanRequest.class))).thenReturn(page(null));
+
+    // When
+    MigrationStatus status = run(job(2));
+
+    // Then
+    ArgumentCaptor<ScanRequest> scans = ArgumentCaptor.forClass(ScanRequest.class);
+    verify(client).scan(scans.capture());
+    assertThat(scans.getValue().segment()).isEqualTo(1);
+    assertThat(scans.getValue().exclusiveStartKey()).isEqualTo(lastKey);
+    assertThat(status.getSegmentsDone()).isEqualTo(2);
+    assertThat(status.getCounts().getScanned()).isEqualTo(20);
+  }
+
+  @Test
+  @DisplayName("start - item changed after the scan - should read it again and rewrite it")
+  void start_itemChangedAfterScan_shouldReadItAgainAndRewriteIt() {
+    // Given
+    when(client.scan(any(ScanRequest.class))).thenReturn(page(null, item("a", " A ")));
+    when(client.transactWriteItems(any(TransactWriteItemsRequest.class)))
+        .thenThrow(
+            TransactionCanceledException.builder()
+                .cancellationReasons(
+                    CancellationReason.builder().code("ConditionalCheckFailed").build())
+                .build())
+        .thenReturn(TransactWriteItemsResponse.builder().build());
+    when(client.getItem(any(GetItemRequest.class)))
+        .thenReturn(GetItemResponse.builder().item(item("a", " A  b ")).build());
+
+    // When
+    MigrationStatus status = run(job(1));
+
+    // Then
+    ArgumentCaptor<TransactWriteItemsRequest> writes =
+        ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+    verify(client, times(2)).transactWriteItems(writes.capture());
+    Put retried = writes.getAllValues().get(1).transactItems().get(0).put();
+    assertThat(retried.item().get("name").s()).isEqualTo("A b");
+    assertThat(retried.expressionAttributeValues()).containsValue(AttributeValue.fromS(" A  b "));
+    assertThat(status.getCounts().getConflicts()).isEqualTo(1);
+    assertThat(status.getCounts().getUpdated()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("constructor - checkpoints saved with other segment count - should throw")
+  void constructor_checkpointsSavedWithOtherSegmentCount_shouldThrow() {
+    // Given
+    checkpoints.save(MIGRATION, SegmentCheckpoint.start(0, 8));
+
+    // When/Then
+    assertThatThrownBy(() -> job(4))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("8 segments");
+  }
+
+  private MigrationJob job(int segments) {
+    return new MigrationJob(
+        new NormalizeNamesMigration(),
+        client,
+        TABLE,
+        segments,
+        100,
+        25,
+        new CapacityBudget(1_000_000, System::nanoTime),
+        new CapacityBudget(1_000_000, System::nanoTime),
+        checkpoints,
+        rewritten::add);
+  }
+
+  private static MigrationStatus run(MigrationJob job) {
+    job.start(Runnable::run).join();
+    return job.status();
+  }
+
+  @SafeVarargs
+  private static ScanResponse page(
+      Map<String, AttributeValue> lastKey, Map<String, AttributeValue>... items) {
+    ScanResponse.Builder page = ScanResponse.builder().items(List.of(items)).count(items.length);
+    if (lastKey != null) {
+      page.lastEvaluatedKey(lastKey);
+    }
+    return page.build();
+  }
+
+  private static Map<String, AttributeValue> item(String id, String name) {
+    return Map.of("id", AttributeValue.fromS(id), "name", AttributeValue.fromS(name));
+  }
+}
@@ -0,0 +1,122 @@
+package com.descope.units.overload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long TEN_MILLIS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private AdaptiveConcurrencyLimiter limiter;
+
+  @BeforeEach
+  void setUp() {
+    limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 0.8, 0.5, 1000);
+  }
+
+  @Test
+  @DisplayName("tryAcquire - limit reached - should reject further requests")
+  void tryAcquire_limitReached_shouldRejectFurtherRequests() {
+    // When
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire(RequestPriority.READ)).isTrue();
+    }
+
+    // Then
+    assertThat(limiter.tryAcquire(RequestPriority.READ)).isFalse();
+    assertThat(limiter.getInFlight()).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("tryAcquire - bulk share used - should reject bulk but admit reads and writes")
+  void tryAcquire_bulkShareUsed_shouldRejectBulkButAdmitReadsAndWrites() {
+    // Given
+    for (int i = 0; i < 5; i++) {
+      limiter.tryAcquire(RequestPriority.BULK);
+    }
+
+    // When/Then
+    assertThat(limiter.tryAcquire(RequestPriority.BULK)).isFalse();
+    assertThat(limiter.tryAcquire(RequestPriority.WRITE)).isTrue();
+    assertThat(limiter.tryAcquire(RequestPriority.WRITE)).isTrue();
+    assertThat(limiter.tryAcquire(RequestPriority.WRITE)).isTrue();
+    assertThat(limiter.tryAcquire(RequestPriority.WRITE)).isFalse();
+    assertThat(limiter.tryAcquire(RequestPriority.READ)).isTrue();
+    assertThat(limiter.tryAcquire(RequestPriority.READ)).isTrue();
+    assertThat(limiter.tryAcquire(RequestPriority.READ)).isFalse();
+  }
+
+  @Test
+  @DisplayName("onComplete - saturated at steady latency - should raise the limit")
+  void onComplete_saturatedAtSteadyLatency_shouldRaiseLimit() {
+    // When
+    for (int i = 0; i < 5; i++) {
+      fill();
+      drain(TEN_MILLIS);
+    }
+
+    // Then
+    assertThat(limiter.getLimit()).isGreaterThan(10);
+  }
+
+  @Test
+  @DisplayName("onComplete - latency grows under load - should lower the limit")
+  void onComplete_latencyGrowsUnderLoad_shouldLowerLimit() {
+    // Given
+    limiter = new AdaptiveConcurrencyLimiter(50, 2, 100, 0.8, 0.5, 1000);
+    fill();
+    drain(TEN_MILLIS);
+    int before = limiter.getLimit();
+
+    // When - requests now take three times as long, so most of them are queueing
+    fill();
+    drain(3 * TEN_MILLIS);
+
+    // Then
+    assertThat(limiter.getLimit()).isLessThan(before);
+  }
+
+  @Test
+  @DisplayName("onComplete - lightly loaded - should keep the limit")
+  void onComplete_lightlyLoaded_shouldKeepLimit() {
+    // When
+    for (int i = 0; i < 20; i++) {
+      limiter.tryAcquire(RequestPriority.READ);
+      limiter.onComplete(TEN_MILLIS * (i + 1), false);
+    }
+
+    // Then
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("onComplete - downstream overloaded - should cut the limit down to the floor")
+  void onComplete_downstreamOverloaded_shouldCutLimitDownToFloor() {
+    // When
+    for (int i = 0; i < 50; i++) {
+      limiter.tryAcquire(RequestPriority.READ);
+      limiter.onComplete(TEN_MILLIS, true);
+    }
+
+    // Then
+    assertThat(limiter.getLimit()).isEqualTo(2);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  private void fill() {
+    while (limiter.tryAcquire(RequestPriority.READ)) {
+      // admit up to the limit
+    }
+  }
+
+  private void drain(long rttNanos) {
+    while (limiter.getInFlight() > 0) {
+      limiter.onComplete(rttNanos, false);
+    }
+  }
+}
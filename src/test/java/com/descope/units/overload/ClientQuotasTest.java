@@ -0,0 +1,135 @@
+package com.descope.units.overload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.descope.units.exception.QuotaExceededException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ClientQuotasTest {
+
+  private final AtomicLong nanos = new AtomicLong();
+  private LoadShedder loadShedder;
+
+  @BeforeEach
+  void setUp() {
+    loadShedder = new LoadShedder(true, new AdaptiveConcurrencyLimiter(8, 8, 8, 1, 1, 1000), 1);
+  }
+
+  @Test
+  @DisplayName("acquire - bucket empty - should reject with the time until the bucket refills")
+  void acquire_bucketEmpty_shouldRejectWithTimeUntilRefill() {
+    // Given
+    ClientQuotas quotas = quotas(0.5, 1, Map.of());
+    quotas.acquire("client", RequestPriority.READ).release();
+
+    // When / Then
+    assertThatThrownBy(() -> quotas.acquire("client", RequestPriority.READ))
+        .isInstanceOf(QuotaExceededException.class)
+        .extracting(e -> ((QuotaExceededException) e).getRetryAfterSeconds())
+        .isEqualTo(2L);
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertThat(quotas.acquire("client", RequestPriority.READ)).isNotNull();
+    assertThat(quotas.acquire("other-client", RequestPriority.READ)).isNotNull();
+  }
+
+  @Test
+  @DisplayName("acquire - bulk request - should take the bulk cost from the bucket")
+  void acquire_bulkRequest_shouldTakeBulkCost() {
+    // Given
+    ClientQuotas quotas = quotas(1, 6, Map.of());
+
+    // When
+    quotas.acquire("client", RequestPriority.BULK).release();
+
+    // Then
+    assertThat(quotas.acquire("client", RequestPriority.READ)).isNotNull();
+    assertThatThrownBy(() -> quotas.acquire("client", RequestPriority.READ))
+        .isInstanceOf(QuotaExceededException.class);
+  }
+
+  @Test
+  @DisplayName("acquire - client over its fair share under contention - should admit the others")
+  void acquire_clientOverFairShareUnderContention_shouldAdmitOthers() {
+    // Given
+    ClientQuotas quotas = quotas(1000, 1000, Map.of());
+    quotas.acquire("interactive", RequestPriority.READ);
+    loadShedder.acquire("test", RequestPriority.READ);
+    int batchAdmitted = 0;
+
+    // When
+    try {
+      while (true) {
+        quotas.acquire("batch", RequestPriority.READ);
+        loadShedder.acquire("test", RequestPriority.READ);
+        batchAdmitted++;
+      }
+    } catch (QuotaExceededException e) {
+      // Batch reached its share
+    }
+
+    // Then
+    assertThat(batchAdmitted).isEqualTo(5);
+    assertThat(quotas.acquire("interactive", RequestPriority.READ)).isNotNull();
+    ClientQuotaStats stats = quotas.stats();
+    assertThat(stats.getActiveWeight()).isEqualTo(2);
+    ClientUsageStats batch = stats.getClients().get(ClientQuotas.fingerprint("batch"));
+    assertThat(batch.getInFlight()).isEqualTo(5);
+    assertThat(batch.getFairShareRejections()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("acquire - configured client - should use its own limits and be named in stats")
+  void acquire_configuredClient_shouldUseItsOwnLimitsAndBeNamed() {
+    // Given
+    ClientQuotas quotas =
+        quotas(1, 1, ClientQuotas.parseClients("frontend=10:3:4, nightly-export=1:1:1"));
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      quotas.acquire("frontend", RequestPriority.READ).release();
+    }
+    quotas.acquire(null, RequestPriority.READ).release();
+
+    // Then
+    Map<String, ClientUsageStats> clients = quotas.stats().getClients();
+    assertThat(clients).containsOnlyKeys("frontend", ClientQuotas.ANONYMOUS);
+    assertThat(clients.get("frontend").getWeight()).isEqualTo(4);
+    assertThat(clients.get("frontend").getAdmitted()).isEqualTo(3);
+    assertThatThrownBy(() -> ClientQuotas.parseClients("frontend=10:3"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("acquire - client table full - should evict idle refilled clients before sharing")
+  void acquire_clientTableFull_shouldEvictIdleRefilledClients() {
+    // Given
+    ClientQuotas quotas =
+        new ClientQuotas(
+            true, "X-Client-Id", 1, 1, 1, Map.of(), 1, 5, 0.75, 2, loadShedder, nanos::get);
+    quotas.acquire("busy", RequestPriority.READ);
+    quotas.acquire("idle", RequestPriority.READ).release();
+    quotas.acquire("rotated", RequestPriority.READ).release();
+    assertThat(quotas.stats().getClients()).containsKey(ClientQuotas.OVERFLOW);
+
+    // When
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    quotas.acquire("new", RequestPriority.READ).release();
+
+    // Then
+    assertThat(quotas.stats().getClients())
+        .containsOnlyKeys(ClientQuotas.fingerprint("busy"), ClientQuotas.fingerprint("new"));
+  }
+
+  private ClientQuotas quotas(double rate, double burst, Map<String, ClientQuotas.Limits> clients) {
+    return new ClientQuotas(
+        true, "X-Client-Id", rate, burst, 1, clients, 1, 5, 0.75, 100, loadShedder, nanos::get);
+  }
+}
@@ -0,0 +1,100 @@
+package com.descope.units.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveRateLimiterTest {
+
+  private long now;
+  private AdaptiveRateLimiter limiter;
+
+  @BeforeEach
+  void setUp() {
+    now = 0;
+    limiter = new AdaptiveRateLimiter(10, 1, 100, 5, 0.5, () -> now);
+  }
+
+  @Test
+  @DisplayName("reserve - bucket full - should admit a burst of one second without waiting")
+  void reserve_bucketFull_shouldAdmitBurstWithoutWaiting() {
+    // When/Then
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.reserve(0)).isZero();
+    }
+    assertThat(limiter.reserve(0)).isEqualTo(-1);
+    assertThat(limiter.stats().getRejections()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("reserve - bucket empty - should queue callers at the current rate")
+  void reserve_bucketEmpty_shouldQueueCallersAtCurrentRate() {
+    // Given
+    for (int i = 0; i < 10; i++) {
+      limiter.reserve(0);
+    }
+
+    // When
+    long firstWait = limiter.reserve(TimeUnit.SECONDS.toNanos(1));
+    long secondWait = limiter.reserve(TimeUnit.SECONDS.toNanos(1));
+
+    // Then
+    assertThat(firstWait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    assertThat(secondWait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+  }
+
+  @Test
+  @DisplayName("onThrottle - repeated within cooldown - should halve rate only once")
+  void onThrottle_repeatedWithinCooldown_shouldHalveRateOnlyOnce() {
+    // When
+    limiter.onThrottle();
+    limiter.onThrottle();
+    limiter.onThrottle();
+
+    // Then
+    assertThat(limiter.getRate()).isEqualTo(5);
+    assertThat(limiter.stats().getThrottles()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("onThrottle - after cooldown - should decrease again down to the floor")
+  void onThrottle_afterCooldown_shouldDecreaseAgainDownToFloor() {
+    // When
+    for (int i = 0; i < 10; i++) {
+      limiter.onThrottle();
+      now += TimeUnit.SECONDS.toNanos(1);
+    }
+
+    // Then
+    assertThat(limiter.getRate()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("onSuccess - one second of successes - should grow rate by additive increase")
+  void onSuccess_oneSecondOfSuccesses_shouldGrowRateByAdditiveIncrease() {
+    // When - ten successes at ten per second
+    for (int i = 0; i < 10; i++) {
+      limiter.onSuccess();
+    }
+
+    // Then - growth slows slightly as the rate rises within the second
+    assertThat(limiter.getRate()).isBetween(14.0, 15.0);
+  }
+
+  @Test
+  @DisplayName("secondsUntilAvailable - queued reservations - should report drain time")
+  void secondsUntilAvailable_queuedReservations_shouldReportDrainTime() {
+    // Given
+    for (int i = 0; i < 15; i++) {
+      limiter.reserve(TimeUnit.SECONDS.toNanos(10));
+    }
+
+    // When/Then
+    assertThat(limiter.secondsUntilAvailable()).isCloseTo(0.6, within(0.001));
+  }
+}
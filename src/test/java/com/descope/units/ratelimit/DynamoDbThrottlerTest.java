@@ -0,0 +1,194 @@
+package com.descope.units.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.descope.units.deadline.Deadline;
+import com.descope.units.deadline.DeadlineContext;
+import com.descope.units.exception.CapacityExceededException;
+import com.descope.units.exception.DeadlineExceededException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+
+class DynamoDbThrottlerTest {
+
+  private Map<OperationType, AdaptiveRateLimiter> limiters;
+  private Map<OperationType, RetryBudget> budgets;
+  private DynamoDbThrottler throttler;
+
+  @BeforeEach
+  void setUp() {
+    limiters = new EnumMap<>(OperationType.class);
+    budgets = new EnumMap<>(OperationType.class);
+    for (OperationType type : OperationType.values()) {
+      limiters.put(type, new AdaptiveRateLimiter(1000, 1, 10000, 10, 0.5));
+      budgets.put(type, new RetryBudget(0.1, 2));
+    }
+    throttler =
+        new DynamoDbThrottler(true, limiters, budgets, TimeUnit.SECONDS.toNanos(1), 3, 1, 2);
+  }
+
+  @Test
+  @DisplayName("execute - throttled then successful - should retry and cut the rate")
+  void execute_throttledThenSuccessful_shouldRetryAndCutRate() {
+    // Given
+    AtomicInteger calls = new AtomicInteger();
+
+    // When
+    String result =
+        throttler.execute(
+            OperationType.READ,
+            () -> {
+              if (calls.incrementAndGet() == 1) {
+                throw throttled();
+              }
+              return "ok";
+            });
+
+    // Then
+    assertThat(result).isEqualTo("ok");
+    assertThat(calls).hasValue(2);
+    assertThat(limiters.get(OperationType.READ).getRate()).isLessThan(1000);
+    assertThat(throttler.stats().get("read").getRetries()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("execute - retry budget exhausted - should stop retrying and report capacity")
+  void execute_retryBudgetExhausted_shouldStopRetryingAndReportCapacity() {
+    // Given
+    AtomicInteger calls = new AtomicInteger();
+    budgets.put(OperationType.WRITE, new RetryBudget(0, 0));
+
+    // When/Then
+    assertThatThrownBy(
+            () ->
+                throttler.execute(
+                    OperationType.WRITE,
+                    () -> {
+                      calls.incrementAndGet();
+                      throw throttled();
+                    }))
+        .isInstanceOf(CapacityExceededException.class)
+        .hasCauseInstanceOf(ProvisionedThroughputExceededException.class);
+    assertThat(calls).hasValue(1);
+    assertThat(throttler.stats().get("write").getRetriesDenied()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("execute - always throttled - should give up after max attempts")
+  void execute_alwaysThrottled_shouldGiveUpAfterMaxAttempts() {
+    // Given
+    AtomicInteger calls = new AtomicInteger();
+
+    // When/Then
+    assertThatThrownBy(
+            () ->
+                throttler.execute(
+                    OperationType.BATCH,
+                    () -> {
+                      calls.incrementAndGet();
+                      throw throttled();
+                    }))
+        .isInstanceOf(CapacityExceededException.class);
+    assertThat(calls).hasValue(3);
+  }
+
+  @Test
+  @DisplayName("execute - non-retryable error - should rethrow without retrying")
+  void execute_nonRetryableError_shouldRethrowWithoutRetrying() {
+    // Given
+    AtomicInteger calls = new AtomicInteger();
+
+    // When/Then
+    assertThatThrownBy(
+            () ->
+                throttler.execute(
+                    OperationType.WRITE,
+                    () -> {
+                      calls.incrementAndGet();
+                      throw ConditionalCheckFailedException.builder()
+                          .message("condition failed")
+                          .statusCode(400)
+                          .build();
+                    }))
+        .isInstanceOf(ConditionalCheckFailedException.class);
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("execute - limiter cannot admit in time - should reject with capacity exceeded")
+  void execute_limiterCannotAdmitInTime_shouldRejectWithCapacityExceeded() {
+    // Given
+    limiters.put(OperationType.READ, new AdaptiveRateLimiter(1, 1, 1, 0, 0.5));
+    throttler = new DynamoDbThrottler(true, limiters, budgets, 0, 3, 1, 2);
+    throttler.execute(OperationType.READ, () -> "first");
+
+    // When/Then
+    assertThatThrownBy(() -> throttler.execute(OperationType.READ, () -> "second"))
+        .isInstanceOf(CapacityExceededException.class)
+        .satisfies(
+            e -> assertThat(((CapacityExceededException) e).getRetryAfterSeconds()).isPositive());
+  }
+
+  @Test
+  @DisplayName("execute - request deadline passed - should fail fast without calling DynamoDB")
+  void execute_requestDeadlinePassed_shouldFailFastWithoutCallingDynamoDb() {
+    // Given
+    AtomicInteger calls = new AtomicInteger();
+
+    // When/Then
+    try (DeadlineContext.Scope scope = DeadlineContext.attach(Deadline.after(Duration.ZERO))) {
+      assertThatThrownBy(() -> throttler.execute(OperationType.READ, calls::incrementAndGet))
+          .isInstanceOf(DeadlineExceededException.class);
+    }
+    assertThat(calls).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("execute - call times out under a deadline - should not retry")
+  void execute_callTimesOutUnderDeadline_shouldNotRetry() {
+    // Given
+    AtomicInteger calls = new AtomicInteger();
+
+    // When/Then
+    try (DeadlineContext.Scope scope =
+        DeadlineContext.attach(Deadline.after(Duration.ofSeconds(5)))) {
+      assertThatThrownBy(
+              () ->
+                  throttler.execute(
+                      OperationType.READ,
+                      () -> {
+                        calls.incrementAndGet();
+                        throw ApiCallTimeoutException.create(5000);
+                      }))
+          .isInstanceOf(DeadlineExceededException.class)
+          .hasCauseInstanceOf(ApiCallTimeoutException.class);
+    }
+    assertThat(calls).hasValue(1);
+  }
+
+  private static ProvisionedThroughputExceededException throttled() {
+    return (ProvisionedThroughputExceededException)
+        ProvisionedThroughputExceededException.builder()
+            .message("throughput exceeded")
+            .statusCode(400)
+            .awsErrorDetails(
+                AwsErrorDetails.builder()
+                    .errorCode("ProvisionedThroughputExceededException")
+                    .build())
+            .build();
+  }
+}
@@ -0,0 +1,157 @@
+package com.descope.units.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.descope.units.changes.ChangeType;
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
+import com.descope.units.search.NameSearchIndex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UnitReplicaTest {
+
+  private static final long MAX_LAG_MILLIS = 5000;
+
+  private final AtomicLong clock = new AtomicLong(1_000_000);
+  private NameSearchIndex nameSearchIndex;
+  private UnitReplica replica;
+
+  @BeforeEach
+  void setUp() {
+    nameSearchIndex = new NameSearchIndex();
+    replica = new UnitReplica(nameSearchIndex, true, MAX_LAG_MILLIS, clock::get);
+  }
+
+  @Test
+  @DisplayName("find - loaded and caught up - should serve units by id and by name")
+  void find_loadedAndCaughtUp_shouldServeUnitsByIdAndName() {
+    // Given
+    load(
+        new Unit("id-3", "Shared"),
+        new Unit("id-1", "Shared"),
+        new Unit("id-5", "Shared"),
+        new Unit("id-2", "Alone"));
+    replica.loadScanned(new Unit("id-4", "Shared"));
+
+    // When
+    UnitPage first = replica.findByName("Shared", 2, null);
+    UnitPage second = replica.findByName("Shared", 2, first.getNextCursor());
+
+    // Then
+    assertThat(replica.isServing()).isTrue();
+    assertThat(replica.find("id-2")).isEqualTo(new Unit("id-2", "Alone"));
+    assertThat(replica.find("missing")).isNull();
+    assertThat(first.getItems()).extracting(Unit::getId).containsExactly("id-1", "id-3");
+    assertThat(second.getItems()).extracting(Unit::getId).containsExactly("id-5");
+    assertThat(second.hasMore()).isFalse();
+    assertThat(replica.stats().getUnits()).isEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("loadScanned - unit changed during the load - should keep the live change")
+  void loadScanned_unitChangedDuringLoad_shouldKeepLiveChange() throws Exception {
+    // Given
+    replica.beginLoad();
+    replica.streamCaughtUp(clock.get());
+    replica.awaitStream(0);
+    replica.applyReplicated(ChangeType.DELETED, "id-1", null);
+    replica.put(new Unit("id-2", "Renamed"));
+
+    // When
+    replica.loadScanned(new Unit("id-1", "Deleted"));
+    replica.loadScanned(new Unit("id-2", "Old Name"));
+    replica.completeLoad(true);
+
+    // Then
+    assertThat(replica.find("id-1")).isNull();
+    assertThat(replica.find("id-2").getName()).isEqualTo("Renamed");
+    assertThat(replica.findByName("Old Name", 10, null).getItems()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("isServing - lag beyond the maximum - should stop serving until the stream is read")
+  void isServing_lagBeyondMaximum_shouldStopServingUntilStreamIsRead() {
+    // Given
+    load(new Unit("id-1", "Unit"));
+
+    // When
+    clock.addAndGet(MAX_LAG_MILLIS + 1);
+    boolean servingWhenBehind = replica.isServing();
+    replica.streamCaughtUp(clock.get());
+
+    // Then
+    assertThat(servingWhenBehind).isFalse();
+    assertThat(replica.isServing()).isTrue();
+    assertThat(replica.stats().getLagMillis()).isZero();
+  }
+
+  @Test
+  @DisplayName("isServing - loaded but the stream was never read - should not serve")
+  void isServing_loadedButStreamNeverRead_shouldNotServe() {
+    // Given
+    replica.beginLoad();
+    replica.loadScanned(new Unit("id-1", "Unit"));
+
+    // When
+    replica.completeLoad(true);
+    boolean servingBeforeStream = replica.isServing();
+    replica.streamCaughtUp(clock.get());
+
+    // Then
+    assertThat(servingBeforeStream).isFalse();
+    assertThat(replica.isServing()).isTrue();
+  }
+
+  @Test
+  @DisplayName("streamPositionLost - loaded replica - should stop serving until loaded again")
+  void streamPositionLost_loadedReplica_shouldStopServingUntilLoadedAgain() {
+    // Given
+    load(new Unit("id-1", "Unit"));
+
+    // When
+    replica.streamPositionLost();
+    boolean servingAfterLoss = replica.isServing();
+    boolean loadNeeded = replica.isLoadNeeded();
+    load(new Unit("id-2", "Other"));
+
+    // Then
+    assertThat(servingAfterLoss).isFalse();
+    assertThat(loadNeeded).isTrue();
+    assertThat(replica.isServing()).isTrue();
+    assertThat(replica.find("id-1")).isNull();
+    assertThat(replica.stats().getPositionLosses()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("applyReplicated - change from another instance - should update replica and search")
+  void applyReplicated_changeFromAnotherInstance_shouldUpdateReplicaAndSearch() {
+    // Given
+    load(new Unit("id-1", "Alpha"));
+
+    // When
+    replica.applyReplicated(ChangeType.UPDATED, "id-1", "Bravo");
+    replica.applyReplicated(ChangeType.CREATED, "id-2", "Bravo");
+
+    // Then
+    assertThat(replica.findByName("Alpha", 10, null).getItems()).isEmpty();
+    assertThat(replica.findByName("Bravo", 10, null).getItems())
+        .extracting(Unit::getId)
+        .containsExactly("id-1", "id-2");
+    assertThat(nameSearchIndex.search("bravo", 10)).hasSize(2);
+    assertThat(replica.stats().getReplicatedChanges()).isEqualTo(2);
+  }
+
+  private void load(Unit... units) {
+    replica.beginLoad();
+    replica.streamCaughtUp(clock.get());
+    for (Unit unit : units) {
+      replica.loadScanned(unit);
+    }
+    replica.completeLoad(true);
+  }
+}
@@ -0,0 +1,29 @@
+package com.descope.units.repository;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogStructuredUnitRepositoryTest extends UnitRepositoryContractTest {
+
+  @TempDir Path directory;
+
+  private LogStructuredUnitRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = new LogStructuredUnitRepository(directory.toString(), 1, false, 0, 0.5);
+  }
+
+  @AfterEach
+  void tearDown() {
+    repository.close();
+  }
+
+  @Override
+  protected UnitRepository repository() {
+    return repository;
+  }
+}
@@ -0,0 +1,160 @@
+package com.descope.units.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Behaviour every UnitRepository implementation must provide.
+ *
+ * <p>Subclasses supply the repository under test. Tests use fresh ids and names so that they can
+ * share a store that is not emptied between tests.
+ */
+public abstract class UnitRepositoryContractTest {
+
+  /**
+   * Returns the repository under test.
+   *
+   * @return the repository
+   */
+  protected abstract UnitRepository repository();
+
+  @Test
+  @DisplayName("save - new unit - should be found by id")
+  void save_newUnit_shouldBeFoundById() {
+    // Given
+    Unit unit = new Unit(newId(), "Saved Unit");
+
+    // When
+    repository().save(unit);
+
+    // Then
+    assertThat(repository().findById(unit.getId())).contains(unit);
+    assertThat(repository().existsById(unit.getId())).isTrue();
+  }
+
+  @Test
+  @DisplayName("findById - unknown id - should return empty Optional")
+  void findById_unknownId_shouldReturnEmptyOptional() {
+    // When/Then
+    assertThat(repository().findById(newId())).isEmpty();
+    assertThat(repository().existsById(newId())).isFalse();
+  }
+
+  @Test
+  @DisplayName("update - existing unit - should replace the stored unit")
+  void update_existingUnit_shouldReplaceStoredUnit() {
+    // Given
+    String id = newId();
+    String oldName = uniqueName();
+    String newName = uniqueName();
+    repository().save(new Unit(id, oldName));
+
+    // When
+    repository().update(new Unit(id, newName));
+
+    // Then
+    assertThat(repository().findById(id)).contains(new Unit(id, newName));
+    assertThat(repository().findByName(oldName, 10, null).getItems()).isEmpty();
+    assertThat(repository().findByName(newName, 10, null).getItems()).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("deleteById - existing unit - should no longer be found")
+  void deleteById_existingUnit_shouldNoLongerBeFound() {
+    // Given
+    String name = uniqueName();
+    Unit unit = new Unit(newId(), name);
+    repository().save(unit);
+
+    // When
+    repository().deleteById(unit.getId());
+
+    // Then
+    assertThat(repository().findById(unit.getId())).isEmpty();
+    assertThat(repository().existsById(unit.getId())).isFalse();
+    assertThat(repository().findByName(name, 10, null).getItems()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("deleteById - unknown id - should do nothing")
+  void deleteById_unknownId_shouldDoNothing() {
+    // When
+    repository().deleteById(newId());
+  }
+
+  @Test
+  @DisplayName("findByName - more matches than limit - should page through all of them")
+  void findByName_moreMatchesThanLimit_shouldPageThroughAllOfThem() {
+    // Given
+    String name = uniqueName();
+    Set<String> expected = ConcurrentHashMap.newKeySet();
+    for (int i = 0; i < 5; i++) {
+      Unit unit = new Unit(newId(), name);
+      repository().save(unit);
+      expected.add(unit.getId());
+    }
+    repository().save(new Unit(newId(), uniqueName()));
+
+    // When
+    List<String> found = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      UnitPage page = repository().findByName(name, 2, cursor);
+      assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+      page.getItems().forEach(unit -> found.add(unit.getId()));
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null && pages < 10);
+
+    // Then
+    assertThat(found).containsExactlyInAnyOrderElementsOf(expected);
+  }
+
+  @Test
+  @DisplayName("scanAll - several segments - should visit every saved unit")
+  void scanAll_severalSegments_shouldVisitEverySavedUnit() {
+    // Given
+    List<Unit> saved = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Unit unit = new Unit(newId(), uniqueName());
+      repository().save(unit);
+      saved.add(unit);
+    }
+
+    // When
+    Set<Unit> visited = ConcurrentHashMap.newKeySet();
+    repository().scanAll(3, visited::add);
+
+    // Then
+    assertThat(visited).containsAll(saved);
+  }
+
+  @Test
+  @DisplayName("scanAll - zero segments - should throw IllegalArgumentException")
+  void scanAll_zeroSegments_shouldThrowIllegalArgumentException() {
+    // When/Then
+    assertThatThrownBy(() -> repository().scanAll(0, unit -> {}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static String newId() {
+    return UUID.randomUUID().toString();
+  }
+
+  private static String uniqueName() {
+    return "Unit " + UUID.randomUUID();
+  }
+}
@@ -0,0 +1,56 @@
+package com.descope.units.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UuidCodecTest {
+
+  @Test
+  @DisplayName("encode - canonical UUID - should round trip through decode")
+  void encode_canonicalUuid_shouldRoundTripThroughDecode() {
+    // Given
+    String id = UUID.randomUUID().toString();
+
+    // When
+    byte[] bytes = UuidCodec.encode(id);
+
+    // Then
+    assertThat(bytes).hasSize(UuidCodec.BYTES);
+    assertThat(UuidCodec.decode(bytes)).isEqualTo(id);
+  }
+
+  @Test
+  @DisplayName("encode - UUIDv7 - should keep the timestamp in the leading bytes")
+  void encode_uuidV7_shouldKeepTimestampInLeadingBytes() {
+    // When
+    byte[] bytes = UuidCodec.encode("01933B5E-7F00-7000-8000-000000000000");
+
+    // Then
+    assertThat(bytes).startsWith((byte) 0x01, (byte) 0x93, (byte) 0x3b, (byte) 0x5e);
+    assertThat(UuidCodec.decode(bytes)).isEqualTo("01933b5e-7f00-7000-8000-000000000000");
+  }
+
+  @Test
+  @DisplayName("encode - not a canonical UUID - should return null")
+  void encode_notCanonicalUuid_shouldReturnNull() {
+    // When/Then
+    assertThat(UuidCodec.encode(null)).isNull();
+    assertThat(UuidCodec.encode("unit-1")).isNull();
+    assertThat(UuidCodec.encode("01933b5e7f0070008000000000000000")).isNull();
+    assertThat(UuidCodec.encode("01933b5e-7f00-7000-8000-00000000000g")).isNull();
+    assertThat(UuidCodec.encode("01933b5e+7f00-7000-8000-000000000000")).isNull();
+  }
+
+  @Test
+  @DisplayName("decode - wrong length - should throw IllegalArgumentException")
+  void decode_wrongLength_shouldThrowIllegalArgumentException() {
+    // When/Then
+    assertThatThrownBy(() -> UuidCodec.decode(new byte[15]))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
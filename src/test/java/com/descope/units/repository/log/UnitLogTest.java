@@ -0,0 +1,224 @@
+package com.descope.units.repository.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import com.descope.units.model.Unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UnitLogTest {
+
+  private static final int SEGMENT_SIZE = 4096;
+
+  @TempDir Path directory;
+
+  private UnitLog log;
+
+  @AfterEach
+  void tearDown() throws IOException {
+    log.close();
+  }
+
+  @Test
+  @DisplayName("open - existing log - should replay puts, updates and deletes")
+  void open_existingLog_shouldReplayPutsUpdatesAndDeletes() throws IOException {
+    // Given
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+    log.put(new Unit("a", "Alpha"));
+    log.put(new Unit("b", "Beta"));
+    log.put(new Unit("a", "Alpha Two"));
+    log.delete("b");
+    log.close();
+
+    // When
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+
+    // Then
+    assertThat(log.get("a")).contains(new Unit("a", "Alpha Two"));
+    assertThat(log.get("b")).isEmpty();
+    assertThat(log.idsByName("Alpha", null, 10)).isEmpty();
+    assertThat(log.idsByName("Alpha Two", null, 10)).containsExactly("a");
+  }
+
+  @Test
+  @DisplayName("open - torn record at the tail - should keep earlier records and resume there")
+  void open_tornRecordAtTail_shouldKeepEarlierRecordsAndResumeThere() throws IOException {
+    // Given
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+    log.put(new Unit("a", "Alpha"));
+    long tail = log.stats().getWrittenBytes();
+    log.close();
+    writeGarbage(onlySegment(), tail);
+
+    // When
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+    log.put(new Unit("b", "Beta"));
+    log.close();
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+
+    // Then
+    assertThat(log.get("a")).contains(new Unit("a", "Alpha"));
+    assertThat(log.get("b")).contains(new Unit("b", "Beta"));
+    assertThat(log.stats().getCorruptRecords()).isZero();
+  }
+
+  @Test
+  @DisplayName("open - checksum mismatch - should drop the corrupt record")
+  void open_checksumMismatch_shouldDropCorruptRecord() throws IOException {
+    // Given
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+    log.put(new Unit("a", "Alpha"));
+    long secondRecord = log.stats().getWrittenBytes();
+    log.put(new Unit("b", "Beta"));
+    log.close();
+    flipByte(onlySegment(), secondRecord + 12);
+
+    // When
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+
+    // Then
+    assertThat(log.get("a")).isPresent();
+    assertThat(log.get("b")).isEmpty();
+    assertThat(log.stats().getCorruptRecords()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("put - segment full - should roll over to a new segment")
+  void put_segmentFull_shouldRollOverToNewSegment() throws IOException {
+    // Given
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+
+    // When
+    for (int i = 0; i < 200; i++) {
+      log.put(new Unit("unit-" + i, "Name " + i));
+    }
+
+    // Then
+    assertThat(log.stats().getSegments()).isGreaterThan(1);
+    assertThat(log.get("unit-0")).contains(new Unit("unit-0", "Name 0"));
+    assertThat(log.get("unit-199")).contains(new Unit("unit-199", "Name 199"));
+  }
+
+  @Test
+  @DisplayName("compact - overwritten units - should reclaim segments and keep latest versions")
+  void compact_overwrittenUnits_shouldReclaimSegmentsAndKeepLatestVersions() throws IOException {
+    // Given
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 20; i++) {
+        log.put(new Unit("unit-" + i, "Round " + round));
+      }
+    }
+    int segmentsBefore = log.stats().getSegments();
+
+    // When
+    int compacted = log.compact(0.5);
+
+    // Then
+    assertThat(compacted).isPositive();
+    assertThat(log.stats().getSegments()).isLessThan(segmentsBefore);
+    log.close();
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+    for (int i = 0; i < 20; i++) {
+      assertThat(log.get("unit-" + i)).contains(new Unit("unit-" + i, "Round 9"));
+    }
+    assertThat(log.idsByName("Round 9", null, 100)).hasSize(20);
+  }
+
+  @Test
+  @DisplayName("compact - deleted unit with older put - should stay deleted after reopen")
+  void compact_deletedUnitWithOlderPut_shouldStayDeletedAfterReopen() throws IOException {
+    // Given - "doomed" is written into the first segment, then its tombstone into a later one
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+    log.put(new Unit("doomed", "Doomed"));
+    for (int i = 0; i < 100; i++) {
+      log.put(new Unit("keeper-" + i, "Keeper"));
+    }
+    log.delete("doomed");
+    for (int i = 0; i < 100; i++) {
+      log.put(new Unit("filler-" + i, "Filler"));
+      log.delete("filler-" + i);
+    }
+
+    // When - only the mostly-garbage segments qualify, which may include the tombstone's
+    log.compact(0.9);
+    log.close();
+    log = UnitLog.open(directory, SEGMENT_SIZE, false);
+
+    // Then
+    assertThat(log.get("doomed")).isEmpty();
+    assertThat(log.get("keeper-99")).isPresent();
+  }
+
+  @Test
+  @DisplayName("compact - tombstones guarding live segments - should not rewrite them each round")
+  void compact_tombstonesGuardingLiveSegments_shouldNotRewriteThemEachRound() throws IOException {
+    // Given - the doomed puts share mostly-live segments, their tombstones fill later ones
+    log = UnitLog.open(directory, 1024, false);
+    for (int i = 0; i < 200; i++) {
+      log.put(new Unit("keeper-" + i, "K"));
+      if (i % 2 == 0) {
+        log.put(new Unit("doomed-" + i, "D"));
+      }
+    }
+    for (int i = 0; i < 200; i += 2) {
+      log.delete("doomed-" + i);
+    }
+    log.compact(0.5);
+    long writtenAfterFirstRound = log.stats().getWrittenBytes();
+
+    // When
+    int compacted = log.compact(0.5);
+
+    // Then
+    assertThat(compacted).isZero();
+    assertThat(log.stats().getWrittenBytes()).isEqualTo(writtenAfterFirstRound);
+    for (int i = 0; i < 200; i++) {
+      log.delete("keeper-" + i);
+    }
+    log.compact(0.5);
+    log.compact(0.5);
+    log.put(new Unit("keeper-0", "K"));
+    log.close();
+    log = UnitLog.open(directory, 1024, false);
+    assertThat(log.stats().getSegments()).isEqualTo(1);
+    assertThat(log.get("doomed-0")).isEmpty();
+    assertThat(log.get("keeper-0")).isPresent();
+    assertThat(log.get("keeper-1")).isEmpty();
+  }
+
+  private Path onlySegment() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.findFirst().orElseThrow();
+    }
+  }
+
+  private static void writeGarbage(Path segment, long position) throws IOException {
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      // A length with no matching checksum, as left by a crash between the two writes
+      ByteBuffer header = ByteBuffer.allocate(8).putInt(0).putInt(32).flip();
+      channel.write(header, position);
+    }
+  }
+
+  private static void flipByte(Path segment, long position) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer value = ByteBuffer.allocate(1);
+      channel.read(value, position);
+      value.put(0, (byte) (value.get(0) ^ 0xFF)).rewind();
+      channel.write(value, position);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.descope.units.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class OperatorTokenFilterTest {
+
+  @Test
+  @DisplayName("filter - no token configured - should answer 404")
+  void filter_noTokenConfigured_shouldAnswer404() throws Exception {
+    // Given
+    OperatorTokenFilter filter = filter(Optional.empty(), "getFlightRecording");
+    ContainerRequestContext request = request("Bearer secret");
+
+    // When
+    filter.filter(request);
+
+    // Then
+    assertThat(aborted(request).getStatus()).isEqualTo(404);
+  }
+
+  @Test
+  @DisplayName("filter - wrong or missing token - should answer 401")
+  void filter_wrongOrMissingToken_shouldAnswer401() throws Exception {
+    // Given
+    OperatorTokenFilter filter = filter(Optional.of("secret"), "getFlightRecording");
+    ContainerRequestContext wrong = request("Bearer guess");
+    ContainerRequestContext missing = request(null);
+
+    // When
+    filter.filter(wrong);
+    filter.filter(missing);
+
+    // Then
+    assertThat(aborted(wrong).getStatus()).isEqualTo(401);
+    assertThat(aborted(missing).getHeaderString(HttpHeaders.WWW_AUTHENTICATE)).isEqualTo("Bearer");
+  }
+
+  @Test
+  @DisplayName("filter - valid token or unannotated method - should let the request through")
+  void filter_validTokenOrUnannotatedMethod_shouldPass() throws Exception {
+    // Given
+    OperatorTokenFilter operatorOnly = filter(Optional.of("secret"), "getFlightRecording");
+    OperatorTokenFilter statistics = filter(Optional.empty(), "getClientQuotaStats");
+    ContainerRequestContext valid = request("Bearer secret");
+    ContainerRequestContext anonymous = request(null);
+
+    // When
+    operatorOnly.filter(valid);
+    statistics.filter(anonymous);
+
+    // Then
+    verify(valid, never()).abortWith(any());
+    verify(anonymous, never()).abortWith(any());
+  }
+
+  private static OperatorTokenFilter filter(Optional<String> token, String methodName)
+      throws NoSuchMethodException {
+    Method method = ManagementResource.class.getMethod(methodName);
+    ResourceInfo resourceInfo = mock(ResourceInfo.class);
+    when(resourceInfo.getResourceMethod()).thenReturn(method);
+    OperatorTokenFilter filter = new OperatorTokenFilter(token);
+    filter.resourceInfo = resourceInfo;
+    return filter;
+  }
+
+  private static ContainerRequestContext request(String authorization) {
+    ContainerRequestContext request = mock(ContainerRequestContext.class);
+    when(request.getHeaderString(HttpHeaders.AUTHORIZATION)).thenReturn(authorization);
+    return request;
+  }
+
+  private static Response aborted(ContainerRequestContext request) {
+    ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+    verify(request).abortWith(response.capture());
+    return response.getValue();
+  }
+}
@@ -1,14 +1,29 @@
 package com.descope.units.resource;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
+import com.descope.units.dto.OperationResponse;
+import com.descope.units.exception.CapacityExceededException;
 import com.descope.units.exception.UnitNotFoundException;
+import com.descope.units.journal.AsyncMutations;
+import com.descope.units.journal.MutationType;
 import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
+import com.descope.units.overload.LoadShedder;
+import com.descope.units.overload.RequestPriority;
 import com.descope.units.service.UnitService;
 
 import io.quarkus.test.InjectMock;
@@ -22,6 +37,10 @@ class UnitResourceTest {
 
   @InjectMock UnitService unitService;
 
+  @InjectMock LoadShedder loadShedder;
+
+  @InjectMock AsyncMutations asyncMutations;
+
   private static final String TEST_ID = "01933b5e-7f00-7000-8000-000000000000";
   private static final String TEST_NAME = "Test Unit";
   private static final String BASE_PATH = "/api/units";
@@ -112,6 +131,97 @@ class UnitResourceTest {
     verify(unitService).getUnitById(TEST_ID);
   }
 
+  @Test
+  @DisplayName("getUnit - existing unit - should be admitted as a read")
+  void getUnit_existingUnit_shouldBeAdmittedAsRead() {
+    // Given
+    when(unitService.getUnitById(TEST_ID)).thenReturn(new Unit(TEST_ID, TEST_NAME));
+
+    // When
+    given().pathParam("id", TEST_ID).when().get(BASE_PATH + "/{id}").then().statusCode(200);
+
+    // Then
+    verify(loadShedder).acquire("UnitResource.getUnit", RequestPriority.READ);
+  }
+
+  @Test
+  @DisplayName("findUnits - service overloaded - should shed with 503 and Retry-After")
+  void findUnits_serviceOverloaded_shouldShedWith503AndRetryAfter() {
+    // Given
+    when(loadShedder.acquire(any(), eq(RequestPriority.BULK)))
+        .thenThrow(new CapacityExceededException("The service is overloaded.", 1));
+
+    // When/Then
+    given()
+        .queryParam("name", TEST_NAME)
+        .when()
+        .get(BASE_PATH)
+        .then()
+        .statusCode(503)
+        .header("Retry-After", equalTo("1"))
+        .body("status", equalTo(503));
+
+    verify(unitService, never()).findUnitsByName(any(), anyInt(), any());
+  }
+
+  @Test
+  @DisplayName("getUnit - data store throttling - should return 503 with Retry-After")
+  void getUnit_dataStoreThrottling_shouldReturn503WithRetryAfter() {
+    // Given
+    when(unitService.getUnitById(TEST_ID))
+        .thenThrow(new CapacityExceededException("The data store is throttling requests.", 2));
+
+    // When/Then
+    given()
+        .pathParam("id", TEST_ID)
+        .when()
+        .get(BASE_PATH + "/{id}")
+        .then()
+        .statusCode(503)
+        .header("Retry-After", equalTo("2"))
+        .body("status", equalTo(503));
+  }
+
+  @Test
+  @DisplayName("findUnits - name provided - should return 200 with matching units")
+  void findUnits_nameProvided_shouldReturn200WithMatchingUnits() {
+    // Given
+    UnitPage page = new UnitPage(List.of(new Unit(TEST_ID, TEST_NAME)), TEST_ID);
+    when(unitService.findUnitsByName(TEST_NAME, 10, null)).thenReturn(page);
+
+    // When/Then
+    given()
+        .queryParam("name", TEST_NAME)
+        .queryParam("limit", 10)
+        .when()
+        .get(BASE_PATH)
+        .then()
+        .statusCode(200)
+        .body("items", hasSize(1))
+        .body("items[0].id", equalTo(TEST_ID))
+        .body("items[0].name", equalTo(TEST_NAME))
+        .body("nextCursor", equalTo(TEST_ID));
+
+    verify(unitService).findUnitsByName(TEST_NAME, 10, null);
+  }
+
+  @Test
+  @DisplayName("findUnits - missing name - should return 400 with error")
+  void findUnits_missingName_shouldReturn400WithError() {
+    // Given
+    when(unitService.findUnitsByName(null, UnitService.DEFAULT_PAGE_SIZE, null))
+        .thenThrow(new IllegalArgumentException("Unit name cannot be null or empty"));
+
+    // When/Then
+    given()
+        .when()
+        .get(BASE_PATH)
+        .then()
+        .statusCode(400)
+        .body("message", notNullValue())
+        .body("status", equalTo(400));
+  }
+
   @Test
   @DisplayName("updateUnit - existing unit with valid name - should return 200 with updated unit")
   void updateUnit_existingUnitValidName_shouldReturn200WithUpdatedUnit() {
@@ -158,6 +268,35 @@ class UnitResourceTest {
     verify(unitService).updateUnit(TEST_ID, updatedName);
   }
 
+  @Test
+  @DisplayName("updateUnit - prefer respond-async - should return 202 with the operation location")
+  void updateUnit_preferRespondAsync_shouldReturn202WithOperationLocation() {
+    // Given
+    String updatedName = "Updated Unit";
+    when(asyncMutations.acceptsAsync("respond-async")).thenReturn(true);
+    when(asyncMutations.accept(MutationType.UPDATE, TEST_ID, updatedName))
+        .thenReturn(
+            new OperationResponse(
+                "op-1", "UPDATE", TEST_ID, "PENDING", null, "2026-01-21T10:00:00Z", null));
+
+    // When/Then
+    given()
+        .contentType("application/json")
+        .header("Prefer", "respond-async")
+        .pathParam("id", TEST_ID)
+        .body("{\"name\":\"" + updatedName + "\"}")
+        .when()
+        .put(BASE_PATH + "/{id}")
+        .then()
+        .statusCode(202)
+        .header("Location", endsWith("/api/units:operations/op-1"))
+        .header("Preference-Applied", equalTo("respond-async"))
+        .body("operationId", equalTo("op-1"))
+        .body("status", equalTo("PENDING"));
+
+    verify(unitService, never()).updateUnit(any(), any());
+  }
+
   @Test
   @DisplayName("updateUnit - empty name - should return 400 with validation error")
   void updateUnit_emptyName_shouldReturn400WithValidationError() {
@@ -0,0 +1,70 @@
+package com.descope.units.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import com.descope.units.model.Unit;
+import com.descope.units.service.UnitService;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class UnitSearchResourceTest {
+
+  @InjectMock UnitService unitService;
+
+  private static final String TEST_ID = "01933b5e-7f00-7000-8000-000000000000";
+  private static final String TEST_NAME = "Test Unit";
+  // RestAssured would otherwise percent-encode the colon in the custom method suffix
+  private static final String SEARCH_PATH = "/api/units:search";
+
+  @Test
+  @DisplayName("searchUnits - query provided - should return 200 with ranked matches")
+  void searchUnits_queryProvided_shouldReturn200WithRankedMatches() {
+    // Given
+    when(unitService.searchUnits("tes", 5)).thenReturn(List.of(new Unit(TEST_ID, TEST_NAME)));
+
+    // When/Then
+    given()
+        .urlEncodingEnabled(false)
+        .queryParam("q", "tes")
+        .queryParam("limit", 5)
+        .when()
+        .get(SEARCH_PATH)
+        .then()
+        .statusCode(200)
+        .body("items", hasSize(1))
+        .body("items[0].id", equalTo(TEST_ID))
+        .body("items[0].name", equalTo(TEST_NAME));
+
+    verify(unitService).searchUnits("tes", 5);
+  }
+
+  @Test
+  @DisplayName("searchUnits - missing query - should return 400 with error")
+  void searchUnits_missingQuery_shouldReturn400WithError() {
+    // Given
+    when(unitService.searchUnits(null, UnitService.DEFAULT_SEARCH_LIMIT))
+        .thenThrow(new IllegalArgumentException("Search query cannot be null or empty"));
+
+    // When/Then
+    given()
+        .urlEncodingEnabled(false)
+        .when()
+        .get(SEARCH_PATH)
+        .then()
+        .statusCode(400)
+        .body("message", notNullValue())
+        .body("status", equalTo(400));
+  }
+}
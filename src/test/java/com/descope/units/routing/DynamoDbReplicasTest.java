@@ -0,0 +1,71 @@
+package com.descope.units.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+
+import com.descope.units.exception.CapacityExceededException;
+import com.descope.units.exception.DeadlineExceededException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+class DynamoDbReplicasTest {
+
+  @Test
+  @DisplayName("constructor - no replica regions - should disable routing")
+  void constructor_noReplicaRegions_shouldDisableRouting() {
+    // When
+    DynamoDbReplicas replicas = new DynamoDbReplicas("us-east-1", Map.of(), 1_000_000, 0.2);
+
+    // Then
+    assertThat(replicas.isEnabled()).isFalse();
+    assertThat(replicas.getRouter()).isNull();
+    assertThat(replicas.stats().isEnabled()).isFalse();
+  }
+
+  @Test
+  @DisplayName("constructor - one replica region - should route across home and replica")
+  void constructor_oneReplicaRegion_shouldRouteAcrossHomeAndReplica() {
+    // When
+    DynamoDbReplicas replicas =
+        new DynamoDbReplicas(
+            "us-east-1", Map.of("eu-west-1", mock(DynamoDbClient.class)), 1_000_000, 0.2);
+
+    // Then
+    assertThat(replicas.isEnabled()).isTrue();
+    assertThat(replicas.stats().getEndpoints())
+        .extracting(EndpointStats::getName, EndpointStats::isHome)
+        .containsExactly(tuple("us-east-1", true), tuple("eu-west-1", false));
+  }
+
+  @Test
+  @DisplayName("isEndpointFailure - regional and local errors - should fail over regional only")
+  void isEndpointFailure_regionalAndLocalErrors_shouldFailOverRegionalOnly() {
+    // Given
+    SdkClientException unreachable = SdkClientException.create("connection refused");
+
+    // When/Then
+    assertThat(DynamoDbReplicas.isEndpointFailure(unreachable)).isTrue();
+    assertThat(
+            DynamoDbReplicas.isEndpointFailure(
+                ResourceNotFoundException.builder().message("no table").build()))
+        .isTrue();
+    assertThat(
+            DynamoDbReplicas.isEndpointFailure(
+                new CapacityExceededException("throttled", 1, unreachable)))
+        .isTrue();
+    assertThat(DynamoDbReplicas.isEndpointFailure(new CapacityExceededException("no permit", 1)))
+        .isFalse();
+    assertThat(DynamoDbReplicas.isEndpointFailure(new DeadlineExceededException(unreachable)))
+        .isFalse();
+    assertThat(DynamoDbReplicas.isEndpointFailure(new IllegalArgumentException("bad cursor")))
+        .isFalse();
+  }
+}
@@ -0,0 +1,142 @@
+package com.descope.units.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LatencyRouterTest {
+
+  private static final long PROBE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private AtomicLong clock;
+  private List<String> calls;
+  private LatencyRouter router;
+
+  @BeforeEach
+  void setUp() {
+    clock = new AtomicLong();
+    calls = new ArrayList<>();
+    router =
+        new LatencyRouter(
+            "home",
+            List.of("replica"),
+            0.5,
+            PROBE_INTERVAL_NANOS,
+            e -> e instanceof IllegalStateException,
+            clock::get);
+  }
+
+  @Test
+  @DisplayName("read - replica faster than home - should route reads to the replica")
+  void read_replicaFasterThanHome_shouldRouteReadsToReplica() {
+    // Given
+    Function<String, String> standIns = standIns(Map.of("home", 80L, "replica", 10L));
+    router.read(standIns);
+    router.read(standIns);
+    calls.clear();
+
+    // When
+    for (int i = 0; i < 5; i++) {
+      router.read(standIns);
+    }
+
+    // Then
+    assertThat(calls).containsOnly("replica");
+    assertThat(router.stats().getEndpoints())
+        .extracting(EndpointStats::getName, EndpointStats::getLatencyMicros)
+        .containsExactly(tuple("home", 80_000L), tuple("replica", 10_000L));
+  }
+
+  @Test
+  @DisplayName("read - best endpoint failing - should fail over and then avoid it")
+  void read_bestEndpointFailing_shouldFailOverAndThenAvoidIt() {
+    // Given
+    Function<String, String> standIns =
+        endpoint -> {
+          calls.add(endpoint);
+          clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+          if (endpoint.equals("home")) {
+            throw new IllegalStateException("home is down");
+          }
+          return endpoint;
+        };
+
+    // When
+    String first = router.read(standIns);
+    calls.clear();
+    String second = router.read(standIns);
+
+    // Then
+    assertThat(first).isEqualTo("replica");
+    assertThat(second).isEqualTo("replica");
+    assertThat(calls).containsExactly("replica");
+    assertThat(router.stats().getFailovers()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("read - error not eligible for failover - should rethrow without trying others")
+  void read_errorNotEligibleForFailover_shouldRethrowWithoutTryingOthers() {
+    // When/Then
+    assertThatThrownBy(
+            () ->
+                router.read(
+                    endpoint -> {
+                      calls.add(endpoint);
+                      throw new IllegalArgumentException("bad request");
+                    }))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(calls).containsExactly("home");
+    assertThat(router.stats().getEndpoints().get(0).getFailures()).isZero();
+  }
+
+  @Test
+  @DisplayName("read - every endpoint failing - should throw the last error")
+  void read_everyEndpointFailing_shouldThrowLastError() {
+    // When/Then
+    assertThatThrownBy(
+            () ->
+                router.read(
+                    endpoint -> {
+                      throw new IllegalStateException(endpoint + " is down");
+                    }))
+        .hasMessage("replica is down");
+  }
+
+  @Test
+  @DisplayName("read - probe interval elapsed - should send one read to the slower endpoint")
+  void read_probeIntervalElapsed_shouldSendOneReadToSlowerEndpoint() {
+    // Given
+    Function<String, String> standIns = standIns(Map.of("home", 80L, "replica", 10L));
+    router.read(standIns);
+    router.read(standIns);
+    clock.addAndGet(PROBE_INTERVAL_NANOS);
+    calls.clear();
+
+    // When
+    router.read(standIns);
+    router.read(standIns);
+
+    // Then
+    assertThat(calls).containsExactly("home", "replica");
+    assertThat(router.stats().getProbes()).isEqualTo(1);
+  }
+
+  private Function<String, String> standIns(Map<String, Long> latencyMillis) {
+    return endpoint -> {
+      calls.add(endpoint);
+      clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis.get(endpoint)));
+      return endpoint;
+    };
+  }
+}
@@ -0,0 +1,174 @@
+package com.descope.units.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.descope.units.model.Unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class NameSearchIndexTest {
+
+  private NameSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new NameSearchIndex();
+  }
+
+  @Test
+  @DisplayName("search - prefix query - should rank exact match first then shorter names")
+  void search_prefixQuery_shouldRankExactMatchFirstThenShorterNames() {
+    // Given
+    index.upsert(new Unit("1", "Warehouse North"));
+    index.upsert(new Unit("2", "Ware"));
+    index.upsert(new Unit("3", "Warehouse"));
+    index.upsert(new Unit("4", "Office"));
+
+    // When
+    List<String> result = names(index.search("ware", 10));
+
+    // Then
+    assertThat(result).containsExactly("Ware", "Warehouse", "Warehouse North");
+  }
+
+  @Test
+  @DisplayName("search - substring query - should rank word-start matches before infix matches")
+  void search_substringQuery_shouldRankWordStartMatchesBeforeInfixMatches() {
+    // Given
+    index.upsert(new Unit("1", "Distribution Hub"));
+    index.upsert(new Unit("2", "Rehub Depot"));
+    index.upsert(new Unit("3", "Hub Central"));
+
+    // When
+    List<String> result = names(index.search("HUB", 10));
+
+    // Then
+    assertThat(result).containsExactly("Hub Central", "Distribution Hub", "Rehub Depot");
+  }
+
+  @Test
+  @DisplayName("search - prefix match also containing the query later - should return it once")
+  void search_prefixMatchAlsoContainingQueryLater_shouldReturnItOnce() {
+    // Given
+    index.upsert(new Unit("1", "abcabc"));
+    index.upsert(new Unit("2", "xabc"));
+
+    // When
+    List<String> result = names(index.search("abc", 10));
+
+    // Then
+    assertThat(result).containsExactly("abcabc", "xabc");
+  }
+
+  @Test
+  @DisplayName("search - limit smaller than matches - should return best matches only")
+  void search_limitSmallerThanMatches_shouldReturnBestMatchesOnly() {
+    // Given
+    for (int i = 0; i < 50; i++) {
+      index.upsert(new Unit("id-" + i, "Unit " + i));
+    }
+
+    // When
+    List<String> result = names(index.search("unit", 3));
+
+    // Then
+    assertThat(result).containsExactly("Unit 0", "Unit 1", "Unit 2");
+  }
+
+  @Test
+  @DisplayName("search - short query - should return prefix matches only")
+  void search_shortQuery_shouldReturnPrefixMatchesOnly() {
+    // Given
+    index.upsert(new Unit("1", "Alpha"));
+    index.upsert(new Unit("2", "Beta Alpha"));
+
+    // When
+    List<String> result = names(index.search("al", 10));
+
+    // Then
+    assertThat(result).containsExactly("Alpha");
+  }
+
+  @Test
+  @DisplayName("upsert - renamed unit - should only match new name")
+  void upsert_renamedUnit_shouldOnlyMatchNewName() {
+    // Given
+    index.upsert(new Unit("1", "Old Name"));
+
+    // When
+    index.upsert(new Unit("1", "New Name"));
+
+    // Then
+    assertThat(index.search("old", 10)).isEmpty();
+    assertThat(names(index.search("name", 10))).containsExactly("New Name");
+    assertThat(index.stats().getUnits()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("remove - indexed unit - should release trie nodes and postings")
+  void remove_indexedUnit_shouldReleaseTrieNodesAndPostings() {
+    // Given
+    index.upsert(new Unit("1", "Storage Room"));
+    index.upsert(new Unit("2", "Store Front"));
+
+    // When
+    index.remove("1");
+    index.remove("2");
+
+    // Then
+    NameSearchIndexStats stats = index.stats();
+    assertThat(stats.getUnits()).isZero();
+    assertThat(stats.getTrieNodes()).isEqualTo(1);
+    assertThat(stats.getNgramTerms()).isZero();
+    assertThat(stats.getNgramPostings()).isZero();
+  }
+
+  @Test
+  @DisplayName("loadScanned - unit written during load - should keep live write")
+  void loadScanned_unitWrittenDuringLoad_shouldKeepLiveWrite() {
+    // Given
+    index.beginLoad();
+    index.upsert(new Unit("1", "Renamed"));
+    index.remove("2");
+
+    // When
+    index.loadScanned(new Unit("1", "Stale"));
+    index.loadScanned(new Unit("2", "Deleted"));
+    index.loadScanned(new Unit("3", "Untouched"));
+    index.completeLoad(true);
+
+    // Then
+    assertThat(index.search("stale", 10)).isEmpty();
+    assertThat(index.search("deleted", 10)).isEmpty();
+    assertThat(names(index.search("r", 10))).containsExactly("Renamed");
+    assertThat(names(index.search("untouched", 10))).containsExactly("Untouched");
+    assertThat(index.stats().isReady()).isTrue();
+  }
+
+  @Test
+  @DisplayName("stats - populated index - should report memory footprint")
+  void stats_populatedIndex_shouldReportMemoryFootprint() {
+    // Given
+    long emptyBytes = index.stats().getEstimatedBytes();
+    for (int i = 0; i < 100; i++) {
+      index.upsert(new Unit("id-" + i, "Building " + i));
+    }
+
+    // When
+    NameSearchIndexStats stats = index.stats();
+
+    // Then
+    assertThat(stats.getUnits()).isEqualTo(100);
+    assertThat(stats.getNgramPostings()).isPositive();
+    assertThat(stats.getEstimatedBytes()).isGreaterThan(emptyBytes);
+  }
+
+  private static List<String> names(List<Unit> units) {
+    return units.stream().map(Unit::getName).collect(Collectors.toList());
+  }
+}
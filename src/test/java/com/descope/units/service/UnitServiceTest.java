@@ -3,14 +3,25 @@ package com.descope.units.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Optional;
 
+import com.descope.units.cache.ResponseCache;
+import com.descope.units.changes.ChangeFeed;
+import com.descope.units.changes.ChangeType;
 import com.descope.units.exception.UnitNotFoundException;
+import com.descope.units.existence.UnitExistenceFilter;
+import com.descope.units.hotkeys.HotKeyTracker;
 import com.descope.units.model.Unit;
+import com.descope.units.model.UnitPage;
 import com.descope.units.repository.UnitRepository;
+import com.descope.units.search.NameSearchIndex;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,6 +36,16 @@ class UnitServiceTest {
 
   @Mock private UnitRepository unitRepository;
 
+  @Mock private NameSearchIndex nameSearchIndex;
+
+  @Mock private UnitExistenceFilter existenceFilter;
+
+  @Mock private ResponseCache responseCache;
+
+  @Mock private HotKeyTracker hotKeyTracker;
+
+  @Mock private ChangeFeed changeFeed;
+
   @InjectMocks private UnitService unitService;
 
   private static final String TEST_ID = "01933b5e-7f00-7000-8000-000000000000";
@@ -49,6 +70,8 @@ class UnitServiceTest {
     assertThat(result.getId()).isNotNull().isNotEmpty();
     assertThat(result.getName()).isEqualTo(TEST_NAME);
     verify(unitRepository).save(any(Unit.class));
+    verify(nameSearchIndex).upsert(result);
+    verify(changeFeed).publish(ChangeType.CREATED, result.getId(), TEST_NAME);
   }
 
   @Test
@@ -84,6 +107,7 @@ class UnitServiceTest {
     assertThat(result.getId()).isEqualTo(TEST_ID);
     assertThat(result.getName()).isEqualTo(TEST_NAME);
     verify(unitRepository).findById(TEST_ID);
+    verify(hotKeyTracker).recordRead(TEST_ID);
   }
 
   @Test
@@ -99,6 +123,67 @@ class UnitServiceTest {
     verify(unitRepository).findById(TEST_ID);
   }
 
+  @Test
+  @DisplayName("findUnitsByName - valid name - should return page from repository")
+  void findUnitsByName_validName_shouldReturnPageFromRepository() {
+    // Given
+    UnitPage expectedPage = new UnitPage(List.of(new Unit(TEST_ID, TEST_NAME)), TEST_ID);
+    when(unitRepository.findByName(TEST_NAME, 10, null)).thenReturn(expectedPage);
+
+    // When
+    UnitPage result = unitService.findUnitsByName(TEST_NAME, 10, null);
+
+    // Then
+    assertThat(result).isEqualTo(expectedPage);
+    assertThat(result.hasMore()).isTrue();
+    verify(unitRepository).findByName(TEST_NAME, 10, null);
+  }
+
+  @Test
+  @DisplayName("findUnitsByName - blank name - should throw IllegalArgumentException")
+  void findUnitsByName_blankName_shouldThrowException() {
+    // When/Then
+    assertThatThrownBy(() -> unitService.findUnitsByName(" ", 10, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("name cannot be null or empty");
+    verify(unitRepository, never()).findByName(anyString(), anyInt(), any());
+  }
+
+  @Test
+  @DisplayName("findUnitsByName - limit out of range - should throw IllegalArgumentException")
+  void findUnitsByName_limitOutOfRange_shouldThrowException() {
+    // When/Then
+    assertThatThrownBy(
+            () -> unitService.findUnitsByName(TEST_NAME, UnitService.MAX_PAGE_SIZE + 1, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Page size must be between");
+    verify(unitRepository, never()).findByName(anyString(), anyInt(), any());
+  }
+
+  @Test
+  @DisplayName("searchUnits - valid query - should return matches from search index")
+  void searchUnits_validQuery_shouldReturnMatchesFromSearchIndex() {
+    // Given
+    List<Unit> expected = List.of(new Unit(TEST_ID, TEST_NAME));
+    when(nameSearchIndex.search("test", 10)).thenReturn(expected);
+
+    // When
+    List<Unit> result = unitService.searchUnits("test", 10);
+
+    // Then
+    assertThat(result).isEqualTo(expected);
+    verify(nameSearchIndex).search("test", 10);
+  }
+
+  @Test
+  @DisplayName("searchUnits - empty query - should throw IllegalArgumentException")
+  void searchUnits_emptyQuery_shouldThrowException() {
+    // When/Then
+    assertThatThrownBy(() -> unitService.searchUnits("", 10))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("query cannot be null or empty");
+  }
+
   @Test
   @DisplayName("updateUnit - existing unit with valid name - should update unit")
   void updateUnit_existingUnitValidName_shouldUpdateUnit() {
@@ -117,6 +202,10 @@ class UnitServiceTest {
     assertThat(result.getName()).isEqualTo(updatedName);
     verify(unitRepository).existsById(TEST_ID);
     verify(unitRepository).update(any(Unit.class));
+    verify(responseCache).invalidate(TEST_ID);
+    verify(hotKeyTracker).recordWrite(TEST_ID);
+    verify(nameSearchIndex).upsert(result);
+    verify(changeFeed).publish(ChangeType.UPDATED, TEST_ID, updatedName);
   }
 
   @Test
@@ -156,6 +245,8 @@ class UnitServiceTest {
     // Then
     verify(unitRepository).existsById(TEST_ID);
     verify(unitRepository).deleteById(TEST_ID);
+    verify(nameSearchIndex).remove(TEST_ID);
+    verify(changeFeed).publish(ChangeType.DELETED, TEST_ID, null);
   }
 
   @Test
@@ -169,5 +260,46 @@ class UnitServiceTest {
         .isInstanceOf(UnitNotFoundException.class)
         .hasMessageContaining(TEST_ID);
     verify(unitRepository).existsById(TEST_ID);
+    verify(changeFeed, never()).publish(any(), anyString(), any());
+  }
+
+  @Test
+  @DisplayName("getUnitById - id absent from existence filter - should throw without reading")
+  void getUnitById_idAbsentFromExistenceFilter_shouldThrowWithoutReading() {
+    // Given
+    when(existenceFilter.definitelyAbsent(TEST_ID)).thenReturn(true);
+
+    // When/Then
+    assertThatThrownBy(() -> unitService.getUnitById(TEST_ID))
+        .isInstanceOf(UnitNotFoundException.class);
+    verify(unitRepository, never()).findById(anyString());
+  }
+
+  @Test
+  @DisplayName("deleteUnit - existing unit - should remove it from the existence filter")
+  void deleteUnit_existingUnit_shouldRemoveItFromExistenceFilter() {
+    // Given
+    when(unitRepository.existsById(TEST_ID)).thenReturn(true);
+
+    // When
+    unitService.deleteUnit(TEST_ID);
+
+    // Then
+    verify(existenceFilter).remove(TEST_ID);
+    verify(responseCache).invalidate(TEST_ID);
+  }
+
+  @Test
+  @DisplayName("createUnit - id obtained beforehand - should invalidate the cached response")
+  void createUnit_idObtainedBeforehand_shouldInvalidateCachedResponse() {
+    // Given
+    when(unitRepository.save(any(Unit.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    // When
+    unitService.createUnit(TEST_ID, TEST_NAME);
+
+    // Then
+    verify(responseCache).invalidate(TEST_ID);
+    verify(existenceFilter).add(TEST_ID);
   }
 }
@@ -0,0 +1,83 @@
+package com.descope.units.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.descope.units.model.Unit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UnitSnapshotReaderTest {
+
+  @TempDir Path directory;
+
+  @Test
+  @DisplayName("forEach - snapshot spanning several blocks - should read back every unit in order")
+  void forEach_snapshotSpanningSeveralBlocks_shouldReadBackEveryUnitInOrder() throws IOException {
+    // Given
+    List<Unit> units = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      units.add(new Unit("unit-" + i, "Name é " + i));
+    }
+    Path file = write(1_234, units);
+
+    // When
+    UnitSnapshotReader reader = UnitSnapshotReader.open(file);
+    List<Unit> read = new ArrayList<>();
+    reader.forEach(read::add);
+
+    // Then
+    assertThat(Files.size(file)).isLessThan(UnitSnapshotWriter.BLOCK_SIZE);
+    assertThat(reader.takenAtMillis()).isEqualTo(1_234);
+    assertThat(reader.unitCount()).isEqualTo(20_000);
+    assertThat(read).isEqualTo(units);
+  }
+
+  @Test
+  @DisplayName("open - corrupt block - should reject the snapshot")
+  void open_corruptBlock_shouldRejectSnapshot() throws IOException {
+    // Given
+    Path file = write(1, List.of(new Unit("a", "Alpha"), new Unit("b", "Beta")));
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0x7f}), Files.size(file) - 14);
+    }
+
+    // When/Then
+    assertThatThrownBy(() -> UnitSnapshotReader.open(file))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("corrupt");
+  }
+
+  @Test
+  @DisplayName("open - truncated file - should reject the snapshot")
+  void open_truncatedFile_shouldRejectSnapshot() throws IOException {
+    // Given
+    Path file = write(1, List.of(new Unit("a", "Alpha")));
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(Files.size(file) - 4);
+    }
+
+    // When/Then
+    assertThatThrownBy(() -> UnitSnapshotReader.open(file)).isInstanceOf(IOException.class);
+  }
+
+  private Path write(long takenAtMillis, List<Unit> units) throws IOException {
+    Path file = directory.resolve("units-" + takenAtMillis + ".snapshot");
+    try (UnitSnapshotWriter writer = UnitSnapshotWriter.create(file, takenAtMillis)) {
+      units.forEach(writer::add);
+      writer.finish();
+    }
+    return file;
+  }
+}
@@ -0,0 +1,138 @@
+package com.descope.units.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.descope.units.model.Unit;
+import com.descope.units.repository.UnitRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UnitSnapshotsTest {
+
+  private static final long MAX_AGE = TimeUnit.HOURS.toMillis(2);
+
+  @TempDir Path directory;
+
+  @Mock private UnitRepository unitRepository;
+
+  private long now;
+  private UnitSnapshots snapshots;
+
+  @BeforeEach
+  void setUp() {
+    now = 1_000_000;
+    snapshots =
+        new UnitSnapshots(
+            unitRepository, directory, TimeUnit.MINUTES.toMillis(30), MAX_AGE, 2, 4, () -> now);
+  }
+
+  @Test
+  @DisplayName("restore - recent snapshot - should hand out its units and time without a scan")
+  void restore_recentSnapshot_shouldHandOutItsUnitsAndTimeWithoutScan() {
+    // Given
+    scanReturns(new Unit("a", "Alpha"), new Unit("b", "Beta"));
+    snapshots.write();
+    now += TimeUnit.MINUTES.toMillis(10);
+
+    // When
+    AtomicLong takenAt = new AtomicLong();
+    List<Unit> restored = new ArrayList<>();
+    boolean result = snapshots.restore(takenAt::set, restored::add);
+
+    // Then
+    assertThat(result).isTrue();
+    assertThat(takenAt.get()).isEqualTo(1_000_000);
+    assertThat(restored).containsExactlyInAnyOrder(new Unit("a", "Alpha"), new Unit("b", "Beta"));
+    assertThat(snapshots.stats().getRestoredUnits()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("restore - snapshot older than max age - should ask the caller to scan")
+  void restore_snapshotOlderThanMaxAge_shouldAskCallerToScan() {
+    // Given
+    scanReturns(new Unit("a", "Alpha"));
+    snapshots.write();
+    now += MAX_AGE + 1;
+
+    // When
+    List<Unit> restored = new ArrayList<>();
+    boolean result = snapshots.restore(takenAt -> {}, restored::add);
+
+    // Then
+    assertThat(result).isFalse();
+    assertThat(restored).isEmpty();
+  }
+
+  @Test
+  @DisplayName("restore - newest snapshot corrupt - should fall back to the previous one")
+  void restore_newestSnapshotCorrupt_shouldFallBackToPreviousOne() throws IOException {
+    // Given
+    scanReturns(new Unit("a", "Alpha"));
+    snapshots.write();
+    now += 1_000;
+    Files.write(directory.resolve("units-" + now + ".snapshot"), new byte[] {1, 2, 3});
+
+    // When
+    AtomicLong takenAt = new AtomicLong();
+    boolean result = snapshots.restore(takenAt::set, unit -> {});
+
+    // Then
+    assertThat(result).isTrue();
+    assertThat(takenAt.get()).isEqualTo(1_000_000);
+    assertThat(snapshots.stats().getRestoreFailures()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("write - more snapshots than retained - should delete the oldest")
+  void write_moreSnapshotsThanRetained_shouldDeleteOldest() throws IOException {
+    // Given
+    scanReturns(new Unit("a", "Alpha"));
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      snapshots.write();
+      now += 1_000;
+    }
+
+    // Then
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.map(file -> file.getFileName().toString()))
+          .containsExactlyInAnyOrder("units-1001000.snapshot", "units-1002000.snapshot");
+    }
+    assertThat(snapshots.stats().getLastWrittenUnits()).isEqualTo(1);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void scanReturns(Unit... units) {
+    doAnswer(
+            invocation -> {
+              Consumer<Unit> consumer = invocation.getArgument(1);
+              for (Unit unit : units) {
+                consumer.accept(unit);
+              }
+              return null;
+            })
+        .when(unitRepository)
+        .scanAll(anyInt(), any(Consumer.class));
+  }
+}
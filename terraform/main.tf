@@ -66,10 +66,12 @@ module "security_groups" {
 module "dynamodb" {
   source = "./modules/dynamodb"
 
-  table_name     = var.dynamodb_table_name
-  billing_mode   = var.dynamodb_billing_mode
-  read_capacity  = var.dynamodb_read_capacity
-  write_capacity = var.dynamodb_write_capacity
+  table_name            = var.dynamodb_table_name
+  binary_table_name     = var.dynamodb_binary_table_name
+  migrations_table_name = var.dynamodb_migrations_table_name
+  billing_mode          = var.dynamodb_billing_mode
+  read_capacity         = var.dynamodb_read_capacity
+  write_capacity        = var.dynamodb_write_capacity
 
   tags = local.common_tags
 }
@@ -90,9 +92,11 @@ module "dynamodb" {
 module "iam" {
   source = "./modules/iam"
 
-  name_prefix          = local.name_prefix
-  dynamodb_table_arn   = module.dynamodb.table_arn
-  dynamodb_kms_key_arn = module.dynamodb.kms_key_arn
+  name_prefix                   = local.name_prefix
+  dynamodb_table_arn            = module.dynamodb.table_arn
+  dynamodb_binary_table_arn     = module.dynamodb.binary_table_arn
+  dynamodb_migrations_table_arn = module.dynamodb.migrations_table_arn
+  dynamodb_kms_key_arn          = module.dynamodb.kms_key_arn
 
   tags = local.common_tags
 }
@@ -124,6 +128,10 @@ module "lambda" {
   lambda_security_group_id              = module.security_groups.lambda_security_group_id
   aws_region                            = var.aws_region
   dynamodb_table_name                   = var.dynamodb_table_name
+  dynamodb_binary_table_name            = var.dynamodb_binary_table_name
+  dynamodb_migrations_table_name        = var.dynamodb_migrations_table_name
+  dynamodb_id_encoding                  = var.dynamodb_id_encoding
+  direct_alb_handler                    = var.lambda_direct_alb_handler
   memory_size                           = var.lambda_memory_size
   timeout                               = var.lambda_timeout
   log_retention_days                    = var.log_retention_days
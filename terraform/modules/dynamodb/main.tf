@@ -1,5 +1,10 @@
 # DynamoDB Module - Data Store
 
+locals {
+  # Fixed by the application's table schema (UnitDao.NAME_INDEX), so it is not a variable.
+  name_index_name = "name-index"
+}
+
 # DynamoDB Table for Units
 resource "aws_dynamodb_table" "units" {
   name             = var.table_name
@@ -17,6 +22,22 @@ resource "aws_dynamodb_table" "units" {
     type = "S"
   }
 
+  attribute {
+    name = "name"
+    type = "S"
+  }
+
+  # Exact-name lookups query this index instead of scanning the table.
+  # KEYS_ONLY projects id and name, which is the whole unit.
+  global_secondary_index {
+    name            = local.name_index_name
+    hash_key        = "name"
+    projection_type = "KEYS_ONLY"
+
+    read_capacity  = var.billing_mode == "PROVISIONED" ? var.read_capacity : null
+    write_capacity = var.billing_mode == "PROVISIONED" ? var.write_capacity : null
+  }
+
   # Point-in-time recovery for data protection
   point_in_time_recovery {
     enabled = true
@@ -47,6 +68,88 @@ resource "aws_dynamodb_table" "units" {
   # }
 }
 
+# Units table keyed by binary ids, created while migrating away from string ids.
+# A key attribute's type cannot change in place, so this is a second table.
+resource "aws_dynamodb_table" "units_binary" {
+  count = var.binary_table_name == "" ? 0 : 1
+
+  name             = var.binary_table_name
+  billing_mode     = var.billing_mode
+  hash_key         = "id"
+  stream_enabled   = true
+  stream_view_type = "NEW_AND_OLD_IMAGES"
+
+  read_capacity  = var.billing_mode == "PROVISIONED" ? var.read_capacity : null
+  write_capacity = var.billing_mode == "PROVISIONED" ? var.write_capacity : null
+
+  attribute {
+    name = "id"
+    type = "B"
+  }
+
+  attribute {
+    name = "name"
+    type = "S"
+  }
+
+  global_secondary_index {
+    name            = local.name_index_name
+    hash_key        = "name"
+    projection_type = "KEYS_ONLY"
+
+    read_capacity  = var.billing_mode == "PROVISIONED" ? var.read_capacity : null
+    write_capacity = var.billing_mode == "PROVISIONED" ? var.write_capacity : null
+  }
+
+  point_in_time_recovery {
+    enabled = true
+  }
+
+  server_side_encryption {
+    enabled     = true
+    kms_key_arn = aws_kms_key.dynamodb.arn
+  }
+
+  tags = merge(
+    var.tags,
+    {
+      Name = var.binary_table_name
+    }
+  )
+}
+
+# Per-segment checkpoints of table migrations, so an interrupted migration resumes
+resource "aws_dynamodb_table" "migrations" {
+  count = var.migrations_table_name == "" ? 0 : 1
+
+  name         = var.migrations_table_name
+  billing_mode = "PAY_PER_REQUEST"
+  hash_key     = "job"
+  range_key    = "segment"
+
+  attribute {
+    name = "job"
+    type = "S"
+  }
+
+  attribute {
+    name = "segment"
+    type = "N"
+  }
+
+  server_side_encryption {
+    enabled     = true
+    kms_key_arn = aws_kms_key.dynamodb.arn
+  }
+
+  tags = merge(
+    var.tags,
+    {
+      Name = var.migrations_table_name
+    }
+  )
+}
+
 # KMS Key for DynamoDB encryption
 resource "aws_kms_key" "dynamodb" {
   description             = "KMS key for DynamoDB table encryption"
@@ -15,6 +15,21 @@ output "table_id" {
   value       = aws_dynamodb_table.units.id
 }
 
+output "binary_table_arn" {
+  description = "ARN of the units table keyed by binary ids, or empty if it is not created"
+  value       = length(aws_dynamodb_table.units_binary) > 0 ? aws_dynamodb_table.units_binary[0].arn : ""
+}
+
+output "migrations_table_arn" {
+  description = "ARN of the table migration checkpoint table, or empty if it is not created"
+  value       = length(aws_dynamodb_table.migrations) > 0 ? aws_dynamodb_table.migrations[0].arn : ""
+}
+
+output "name_index_name" {
+  description = "Name of the global secondary index on the unit name"
+  value       = local.name_index_name
+}
+
 output "table_stream_arn" {
   description = "ARN of the DynamoDB table stream"
   value       = aws_dynamodb_table.units.stream_arn
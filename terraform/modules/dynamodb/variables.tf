@@ -23,6 +23,18 @@ variable "write_capacity" {
   default     = 5
 }
 
+variable "binary_table_name" {
+  description = "Name of the units table keyed by 16-byte binary ids; empty to not create it"
+  type        = string
+  default     = ""
+}
+
+variable "migrations_table_name" {
+  description = "Name of the table holding table migration checkpoints; empty to not create it"
+  type        = string
+  default     = ""
+}
+
 variable "tags" {
   description = "Tags to apply to resources"
   type        = map(string)
@@ -142,12 +142,17 @@ resource "aws_iam_role_policy" "lambda_dynamodb_access" {
           "dynamodb:Scan",
           "dynamodb:BatchGetItem",
           "dynamodb:BatchWriteItem",
-          "dynamodb:ConditionCheckItem"
-        ]
-        Resource = [
-          var.dynamodb_table_arn,
-          "${var.dynamodb_table_arn}/index/*"
+          "dynamodb:ConditionCheckItem",
+          "dynamodb:DescribeTable"
         ]
+        Resource = concat(
+          [var.dynamodb_table_arn, "${var.dynamodb_table_arn}/index/*"],
+          var.dynamodb_binary_table_arn == "" ? [] : [
+            var.dynamodb_binary_table_arn,
+            "${var.dynamodb_binary_table_arn}/index/*"
+          ],
+          var.dynamodb_migrations_table_arn == "" ? [] : [var.dynamodb_migrations_table_arn]
+        )
       },
       {
         Effect = "Allow"
@@ -183,10 +188,31 @@ resource "aws_iam_role_policy" "dynamodb_access" {
           "dynamodb:BatchWriteItem",
           "dynamodb:ConditionCheckItem"
         ]
-        Resource = [
-          var.dynamodb_table_arn,
-          "${var.dynamodb_table_arn}/index/*"
+        Resource = concat(
+          [var.dynamodb_table_arn, "${var.dynamodb_table_arn}/index/*"],
+          var.dynamodb_binary_table_arn == "" ? [] : [
+            var.dynamodb_binary_table_arn,
+            "${var.dynamodb_binary_table_arn}/index/*"
+          ],
+          var.dynamodb_migrations_table_arn == "" ? [] : [var.dynamodb_migrations_table_arn]
+        )
+      },
+      {
+        # Change feed: follow other tasks' writes through the table streams
+        Effect = "Allow"
+        Action = [
+          "dynamodb:DescribeTable",
+          "dynamodb:DescribeStream",
+          "dynamodb:GetShardIterator",
+          "dynamodb:GetRecords"
         ]
+        Resource = concat(
+          [var.dynamodb_table_arn, "${var.dynamodb_table_arn}/stream/*"],
+          var.dynamodb_binary_table_arn == "" ? [] : [
+            var.dynamodb_binary_table_arn,
+            "${var.dynamodb_binary_table_arn}/stream/*"
+          ]
+        )
       }
     ]
   })
@@ -10,6 +10,18 @@ variable "dynamodb_table_arn" {
   type        = string
 }
 
+variable "dynamodb_binary_table_arn" {
+  description = "ARN of the DynamoDB table keyed by binary ids, or empty if there is none"
+  type        = string
+  default     = ""
+}
+
+variable "dynamodb_migrations_table_arn" {
+  description = "ARN of the table migration checkpoint table, or empty if there is none"
+  type        = string
+  default     = ""
+}
+
 variable "dynamodb_kms_key_arn" {
   description = "ARN of the KMS key used for DynamoDB encryption"
   type        = string
@@ -25,7 +25,8 @@ resource "aws_lambda_function" "app" {
 
   # Runtime configuration
   runtime = "java17"
-  handler = "io.quarkus.amazon.lambda.runtime.QuarkusStreamHandler::handleRequest"
+  # The direct handler answers ALB unit requests itself and passes the rest to Quarkus
+  handler = var.direct_alb_handler ? "com.descope.units.lambda.AlbUnitHandler::handleRequest" : "io.quarkus.amazon.lambda.runtime.QuarkusStreamHandler::handleRequest"
 
   # Resource configuration
   memory_size = var.memory_size
@@ -40,8 +41,14 @@ resource "aws_lambda_function" "app" {
   # Environment variables
   environment {
     variables = {
-      DYNAMODB_TABLE_UNITS = var.dynamodb_table_name
-      QUARKUS_LOG_LEVEL    = "INFO"
+      DYNAMODB_TABLE_UNITS        = var.dynamodb_table_name
+      DYNAMODB_TABLE_UNITS_BINARY = var.dynamodb_binary_table_name
+      DYNAMODB_TABLE_MIGRATIONS   = var.dynamodb_migrations_table_name
+      DYNAMODB_ID_ENCODING        = var.dynamodb_id_encoding
+      QUARKUS_LOG_LEVEL           = "INFO"
+      UNITS_JFR_ENABLED           = "false"
+      UNITS_ASYNC_ENABLED         = "false"
+      UNITS_REPLICA_ENABLED       = "false"
     }
   }
 
@@ -35,6 +35,30 @@ variable "dynamodb_table_name" {
   type        = string
 }
 
+variable "dynamodb_binary_table_name" {
+  description = "Name of the DynamoDB table keyed by binary ids, or empty if there is none"
+  type        = string
+  default     = ""
+}
+
+variable "dynamodb_migrations_table_name" {
+  description = "Name of the table migration checkpoint table, or empty if there is none"
+  type        = string
+  default     = ""
+}
+
+variable "dynamodb_id_encoding" {
+  description = "How unit ids are stored as keys: string, migrating or binary"
+  type        = string
+  default     = "string"
+}
+
+variable "direct_alb_handler" {
+  description = "Serve ALB unit requests with the direct handler instead of the JAX-RS stack"
+  type        = bool
+  default     = false
+}
+
 variable "memory_size" {
   description = "Amount of memory in MB for Lambda function"
   type        = number
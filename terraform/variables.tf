@@ -51,6 +51,29 @@ variable "dynamodb_table_name" {
   default     = "units-table"
 }
 
+variable "dynamodb_binary_table_name" {
+  description = "Name of the DynamoDB table keyed by binary ids; empty to not create it"
+  type        = string
+  default     = ""
+}
+
+variable "dynamodb_migrations_table_name" {
+  description = "Name of the table holding table migration checkpoints; empty to not create it"
+  type        = string
+  default     = ""
+}
+
+variable "dynamodb_id_encoding" {
+  description = "How unit ids are stored as keys: string, migrating or binary"
+  type        = string
+  default     = "string"
+
+  validation {
+    condition     = contains(["string", "migrating", "binary"], var.dynamodb_id_encoding)
+    error_message = "Id encoding must be string, migrating or binary."
+  }
+}
+
 variable "dynamodb_billing_mode" {
   description = "DynamoDB billing mode (PROVISIONED or PAY_PER_REQUEST)"
   type        = string
@@ -125,6 +148,12 @@ variable "lambda_zip_file" {
   }
 }
 
+variable "lambda_direct_alb_handler" {
+  description = "Serve ALB unit requests with the direct Lambda handler instead of the JAX-RS stack"
+  type        = bool
+  default     = false
+}
+
 variable "lambda_memory_size" {
   description = "Amount of memory in MB for Lambda function"
   type        = number